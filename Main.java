@@ -1,14 +1,45 @@
+import core.BatchRunner;
+import core.ParameterSweep;
 import core.scheduling.*;
+import java.util.Arrays;
 import java.util.Scanner;
+import persistence.JournalReplayer;
 import ui.ConsoleInterface;
 
 public class Main {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws InterruptedException {
+        // Modo sin interacción: java Main --batch <carga.txt> <algoritmo> [opciones]
+        if (args.length > 0 && args[0].equals("--batch")) {
+            BatchRunner.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        // Continuar desde un checkpoint: java Main --resume <checkpoint> <algoritmo> [opciones]
+        if (args.length > 0 && args[0].equals("--resume")) {
+            BatchRunner.resumeMain(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        // Estado reconstruido desde una bitácora: java Main --replay <bitácora> <tick>
+        if (args.length > 0 && args[0].equals("--replay")) {
+            JournalReplayer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        // Barrido de parámetros: java Main --sweep <carga.txt> rr:1,2,4,8 mlq:2,3/4/6 [opciones]
+        if (args.length > 0 && args[0].equals("--sweep")) {
+            ParameterSweep.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
         Scanner sc = new Scanner(System.in);
         System.out.println("=== SIMULADOR DE SISTEMA OPERATIVO ===");
         System.out.println("Seleccione algoritmo de planificación:");
         System.out.println("1. Round Robin");
         System.out.println("2. Cola Multinivel");
+        System.out.println("3. Cola Multinivel con Retroalimentación (MLFQ)");
+        System.out.println("4. Completamente Justo (CFS)");
+        System.out.println("5. Tiempo Restante Más Corto (SRTF)");
+        System.out.println("6. Trabajo Más Corto Primero (SJF)");
+        System.out.println("7. Lotería");
+        System.out.println("8. Stride");
         System.out.print("Opción: ");
         int opt = sc.nextInt();
 
@@ -25,6 +56,27 @@ public class Main {
                 scheduler = new MultilevelQueueScheduler();
                 System.out.println("Cola Multinivel seleccionada");
                 break;
+            case 3:
+                scheduler = new MultilevelFeedbackQueueScheduler();
+                System.out.println("MLFQ seleccionada: " + scheduler.getName());
+                break;
+            case 4:
+                scheduler = new CompletelyFairScheduler();
+                System.out.println("CFS seleccionado: " + scheduler.getName());
+                break;
+            case 5:
+            case 6:
+                scheduler = new ShortestJobFirstScheduler(opt == 5);
+                System.out.println(scheduler.getName() + " seleccionado");
+                break;
+            case 7:
+                scheduler = new LotteryScheduler();
+                System.out.println(scheduler.getName() + " seleccionada");
+                break;
+            case 8:
+                scheduler = new StrideScheduler();
+                System.out.println(scheduler.getName() + " seleccionado");
+                break;
             default:
                 throw new IllegalArgumentException("Algoritmo no válido");
         }
@@ -0,0 +1,864 @@
+package core;
+
+import core.scheduling.*;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+import memory.MemoryManager;
+import memory.PageTableFactory;
+import memory.ReplacementPolicyFactory;
+import memory.SwapDevice;
+import memory.Tlb;
+import memory.WorkingSetMonitor;
+import models.*;
+import persistence.Checkpoint;
+import persistence.EventJournal;
+
+/**
+ * Ejecuta una carga de trabajo completa sin interacción: crea los procesos,
+ * programa sus llegadas y avanza la simulación hasta que no quede trabajo.
+ */
+public class BatchRunner {
+    private final Scheduler scheduler;
+    private final Workload workload;
+    private final ProcessManager processManager;
+    private final ResourceManager resourceManager;
+    private final SimulationEngine engine;
+    private long maxTicks = Long.MAX_VALUE;
+    private long checkpointAt = -1;
+    private Path checkpointFile;
+    private Path journalFile;
+    private long journalRecords = 0;
+    private CompactProcessStore store = null;
+
+    public BatchRunner(Scheduler scheduler, Workload workload) {
+        this(() -> scheduler, 1, workload);
+    }
+
+    /**
+     * Máquina de varios núcleos; la fábrica crea un planificador por núcleo
+     */
+    public BatchRunner(Supplier<Scheduler> schedulerFactory, int cores, Workload workload) {
+        this(schedulerFactory, cores, workload, new ResourceManager());
+    }
+
+    /**
+     * Igual, con la memoria física que traiga 'resourceManager'
+     */
+    public BatchRunner(Supplier<Scheduler> schedulerFactory, int cores, Workload workload,
+                       ResourceManager resourceManager) {
+        this(workload, new SimulationEngine(schedulerFactory, cores, new ProcessManager(), resourceManager));
+    }
+
+    private BatchRunner(Workload workload, SimulationEngine engine) {
+        this.workload = workload;
+        this.engine = engine;
+        this.processManager = engine.getProcessManager();
+        this.resourceManager = engine.getResourceManager();
+        this.scheduler = engine.getScheduler();
+    }
+
+    /**
+     * Continúa una simulación guardada con Checkpoint; la carga de trabajo ya
+     * está dentro del checkpoint
+     */
+    public static BatchRunner resume(Path checkpoint, Supplier<Scheduler> schedulerFactory) throws IOException {
+        BatchRunner runner = new BatchRunner(null, Checkpoint.restore(checkpoint, schedulerFactory));
+        if (!runner.engine.isSchedulerStateRestored()) {
+            // Se cambió de política: los procesos vivos toman el quantum/nivel de la nueva
+            for (PCB process : runner.processManager.getActiveProcesses()) {
+                if (process.schedulingData != null) {
+                    runner.configureScheduling(process.schedulingData, process.priority);
+                }
+            }
+        }
+        return runner;
+    }
+
+    /**
+     * Variante para cargas enormes: lee el archivo línea por línea y guarda los
+     * procesos en un CompactProcessStore, así que solo los procesos vivos
+     * ocupan un PCB. No admite checkpoints.
+     */
+    public static BatchRunner compact(Path workloadFile, Supplier<Scheduler> schedulerFactory, int cores)
+            throws IOException {
+        return compact(workloadFile, schedulerFactory, cores, new ResourceManager());
+    }
+
+    public static BatchRunner compact(Path workloadFile, Supplier<Scheduler> schedulerFactory, int cores,
+                                      ResourceManager resourceManager) throws IOException {
+        return compact(workloadFile, schedulerFactory, cores, resourceManager, null);
+    }
+
+    /**
+     * Igual, con una TLB por núcleo creada por 'tlbFactory' (null = sin TLB)
+     */
+    public static BatchRunner compact(Path workloadFile, Supplier<Scheduler> schedulerFactory, int cores,
+                                      ResourceManager resourceManager, Supplier<Tlb> tlbFactory) throws IOException {
+        BatchRunner runner = new BatchRunner(schedulerFactory, cores, null, resourceManager);
+        if (tlbFactory != null) {
+            runner.setTlbs(tlbFactory);
+        }
+        CompactProcessStore store = new CompactProcessStore();
+        SchedulingData data = new SchedulingData();
+        Workload.forEach(workloadFile, entry -> {
+            // Los hijos de un fork no tienen lugar en el almacén compacto
+            if (entry.getForks() > 0 || entry.getLibrary() != null) {
+                throw new IllegalArgumentException("fork= y shared= no están disponibles en modo compacto");
+            }
+            if (!runner.canEverRun(entry)) {
+                runner.reject(entry);
+                return;
+            }
+            data.quantum = null;
+            data.queueLevel = null;
+            data.tickets = null;
+            runner.configureScheduling(data, entry.getPriority());
+            store.add(entry.getArrival(), entry.getPriority(), entry.getMemory(), entry.getBurst(),
+                      data.quantum, data.queueLevel);
+            for (int i = 0; i < entry.getIOBurstCount(); i++) {
+                store.addIOBurst(entry.getIODevice(i), entry.getIODuration(i));
+            }
+            if (entry.isRealTime()) {
+                store.setRealTime(entry.getPeriod(), entry.getDeadline(), entry.getJobs());
+            }
+            if (entry.getTickets() > 0) {
+                store.setTickets(entry.getTickets());
+            }
+            if (entry.getLock() != null) {
+                store.setLock(entry.getLock());
+            }
+            if (entry.getTrace() != null) {
+                store.setTrace(entry.getTrace());
+            }
+        });
+        runner.store = store;
+        runner.processManager.setStore(store);
+        return runner;
+    }
+
+    /**
+     * Guarda un checkpoint cuando el reloj llegue al tick indicado
+     */
+    public void setCheckpoint(long atTick, Path file) {
+        if (store != null) {
+            throw new IllegalStateException("Los checkpoints no están disponibles en modo compacto");
+        }
+        this.checkpointAt = atTick;
+        this.checkpointFile = file;
+    }
+
+    /**
+     * Registra cada transición de estado en una bitácora binaria (ver JournalReplayer)
+     */
+    public void setJournal(Path file) {
+        this.journalFile = file;
+    }
+
+    public long getJournalRecords() {
+        return journalRecords;
+    }
+
+    /**
+     * Límite de seguridad de ticks para cargas que nunca terminan
+     */
+    public void setMaxTicks(long maxTicks) {
+        this.maxTicks = maxTicks;
+    }
+
+    /**
+     * Simula una TLB por núcleo; debe llamarse antes de run()
+     */
+    public void setTlbs(Supplier<Tlb> tlbFactory) {
+        engine.setTlbs(tlbFactory);
+    }
+
+    /**
+     * Suspende procesos cuando hay hiperpaginación (ver SimulationEngine.setLoadControl)
+     */
+    public void setLoadControl(boolean loadControl) {
+        engine.setLoadControl(loadControl);
+    }
+
+    /**
+     * Activa el modo por eventos, que salta los ticks sin cambios
+     */
+    public void setEventDriven(boolean eventDriven) {
+        engine.setEventDriven(eventDriven);
+    }
+
+    public SimulationEngine getEngine() {
+        return engine;
+    }
+
+    public Result run() {
+        long start = System.nanoTime();
+
+        EventJournal journal = null;
+        if (journalFile != null) {
+            try {
+                journal = EventJournal.create(journalFile, engine.getCoreCount());
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo crear la bitácora " + journalFile, e);
+            }
+            engine.setJournal(journal);
+        }
+
+        if (workload != null) {
+            for (Workload.Entry entry : workload.getEntries()) {
+                if (!canEverRun(entry)) {
+                    reject(entry);
+                    continue;
+                }
+                PCB process = processManager.createProcess(entry.getPriority(), entry.getMemory());
+                prepareProcess(process, entry);
+                engine.scheduleArrival(process, entry.getArrival());
+            }
+        }
+        if (store != null) {
+            engine.scheduleArrivals(store);
+        }
+
+        boolean checkpointPending = checkpointFile != null;
+        try {
+            while (engine.hasPendingWork() && engine.getCurrentTime() < maxTicks) {
+                if (checkpointPending && engine.getCurrentTime() >= checkpointAt) {
+                    saveCheckpoint();
+                    checkpointPending = false;
+                }
+                engine.advance(checkpointPending ? Math.min(maxTicks, checkpointAt) : maxTicks);
+            }
+            if (checkpointPending) {
+                saveCheckpoint(); // la simulación terminó antes del tick pedido
+            }
+        } finally {
+            if (journal != null) {
+                engine.setJournal(null);
+                journalRecords = journal.getRecordCount();
+                try {
+                    journal.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException("No se pudo cerrar la bitácora " + journalFile, e);
+                }
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+        Result result;
+        if (store != null) {
+            result = Result.fromStore(scheduler.getName(), store, engine.getRejectedArrivals(),
+                    engine.getCurrentTime(), engine.getCores(), elapsed);
+        } else {
+            result = Result.fromProcesses(scheduler.getName(), processManager.getAllProcesses(), engine.getRejectedArrivals(),
+                    engine.getCurrentTime(), engine.getCores(), elapsed);
+        }
+        result.recordRealTime(engine);
+        result.recordPaging(resourceManager.getMemoryManager());
+        result.recordBuddy(resourceManager.getMemoryManager());
+        result.recordWorkingSets(engine);
+        result.recordTlb(engine);
+        return result;
+    }
+
+    private void saveCheckpoint() {
+        try {
+            Checkpoint.save(engine, checkpointFile);
+            Logger.log("Checkpoint guardado en " + checkpointFile + " (tick " + engine.getCurrentTime() + ")");
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo guardar el checkpoint " + checkpointFile, e);
+        }
+    }
+
+    private void reject(Workload.Entry entry) {
+        engine.countRejectedArrival();
+        Logger.log("Proceso rechazado: requiere " + entry.getMemory() + "MB, usa un dispositivo inexistente," +
+                   " su traza referencia páginas fuera de su memoria o comparte memoria sin paginación por demanda");
+    }
+
+    private boolean canEverRun(Workload.Entry entry) {
+        MemoryManager memory = resourceManager.getMemoryManager();
+        // Si se sigue la traza (paginación por demanda o TLB) debe caber en la memoria del proceso
+        if (memory.tracksReferences() && entry.getTrace() != null &&
+                entry.getTrace().getMaxPage() >= memory.pagesFor(entry.getMemory())) {
+            return false;
+        }
+        // Fork y bibliotecas necesitan paginación por demanda y una tabla que comparta marcos
+        if (entry.getForks() > 0 || entry.getLibrary() != null) {
+            if (!memory.isDemandPaging() || !memory.getPageTable().supportsSharedFrames()) {
+                return false;
+            }
+            int pages = memory.pagesFor(entry.getMemory());
+            if (entry.getLibraryPages() > pages ||
+                    (entry.getForkTrace() != null && entry.getForkTrace().getMaxPage() >= pages)) {
+                return false;
+            }
+        }
+        // La memoria virtual puede exceder la física
+        if (!memory.isDemandPaging() && entry.getMemory() > resourceManager.getTotalMemory()) {
+            return false;
+        }
+        // Con el asignador buddy el proceso necesita un bloque contiguo y sus objetos del núcleo
+        if (memory.getBuddy() != null && !memory.fitsContiguous(entry.getMemory())) {
+            return false;
+        }
+        for (int i = 0; i < entry.getIOBurstCount(); i++) {
+            if (!resourceManager.hasIODevice(entry.getIODevice(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Misma configuración que hace la consola al crear un proceso
+    private void prepareProcess(PCB process, Workload.Entry entry) {
+        process.schedulingData = new SchedulingData();
+        process.schedulingData.burstTime = entry.getBurst();
+        process.schedulingData.remainingTime = entry.getBurst();
+        configureScheduling(process.schedulingData, process.priority);
+        entry.applyOptions(process);
+        entry.addIOBursts(process);
+    }
+
+    // Datos propios de la política (quantum, nivel de cola, etc.)
+    private void configureScheduling(SchedulingData data, int priority) {
+        scheduler.configure(data, priority);
+    }
+
+    /**
+     * Resumen de una ejecución por lotes
+     */
+    public static class Result {
+        private final String schedulerName;
+        private final int completed;
+        private final int unfinished;
+        private final int rejected;
+        private final int ticks;
+        private final long elapsedNanos;
+        private final double avgTurnaround;
+        private final double avgWait;
+        private final double throughput;
+        private final double fairness;
+        private final List<CoreStats> coreStats = new ArrayList<>();
+        private PolicyStatistics policyStats = null;
+        // Secciones de las funciones opcionales (null = desactivada)
+        private RealTimeSummary realTime = null;
+        private PagingSummary paging = null;
+        private SwapSummary swap = null;
+        private SharingSummary sharing = null;
+        private WorkingSetSummary workingSets = null;
+        private BuddySummary buddy = null;
+        private PageTableSummary pageTables = null;
+        private TlbSummary tlb = null;
+
+        private Result(String schedulerName, int processCount, int completed, long turnaroundSum,
+                       long waitSum, double slowdownSum, double slowdownSquares, int rejected, int ticks,
+                       List<CpuCore> cores, long elapsedNanos) {
+            this.schedulerName = schedulerName;
+            this.rejected = rejected;
+            this.ticks = ticks;
+            this.elapsedNanos = elapsedNanos;
+            for (CpuCore core : cores) {
+                coreStats.add(new CoreStats(core.getId(), core.getUtilization(ticks),
+                        core.getDispatches(), core.getMigrations(), core.getSteals()));
+                PolicyStatistics stats = core.getScheduler().getStatistics();
+                if (stats != null) {
+                    if (policyStats == null) {
+                        policyStats = stats;
+                    } else {
+                        policyStats.merge(stats);
+                    }
+                }
+            }
+            this.completed = completed;
+            this.unfinished = processCount - completed;
+            this.avgTurnaround = completed > 0 ? (double) turnaroundSum / completed : 0;
+            this.avgWait = completed > 0 ? (double) waitSum / completed : 0;
+            this.throughput = ticks > 0 ? completed * 1000.0 / ticks : 0;
+            // Índice de Jain sobre la ralentización (retorno / trabajo): 1 = todos igual de demorados
+            this.fairness = slowdownSquares > 0 ? slowdownSum * slowdownSum / (completed * slowdownSquares) : 1;
+        }
+
+        private void recordRealTime(SimulationEngine engine) {
+            int overdueJobs = engine.countOverdueJobs();
+            if (engine.getRealTimeJobs() > 0 || engine.getRealTimeRejected() > 0 || overdueJobs > 0) {
+                realTime = new RealTimeSummary(engine, overdueJobs);
+            }
+        }
+
+        private void recordPaging(MemoryManager memory) {
+            // Las tablas solo interesan si se eligieron o si los procesos referencian páginas
+            if (memory.isPageTableConfigured() || memory.tracksReferences()) {
+                pageTables = new PageTableSummary(memory.getPageTable());
+            }
+            if (!memory.isDemandPaging()) {
+                return;
+            }
+            paging = new PagingSummary(memory);
+            if (memory.getSwap() != null) {
+                swap = new SwapSummary(memory.getSwap());
+            }
+            if (memory.getSharing() != null) {
+                sharing = new SharingSummary(memory.getSharing());
+            }
+        }
+
+        private void recordBuddy(MemoryManager memory) {
+            if (memory.getBuddy() != null) {
+                buddy = new BuddySummary(memory);
+            }
+        }
+
+        private void recordWorkingSets(SimulationEngine engine) {
+            if (engine.getResourceManager().getMemoryManager().getWorkingSets() != null) {
+                workingSets = new WorkingSetSummary(engine);
+            }
+        }
+
+        private void recordTlb(SimulationEngine engine) {
+            Tlb.Statistics stats = engine.getTlbStatistics();
+            if (stats != null) {
+                tlb = new TlbSummary(engine, stats);
+            }
+        }
+
+        // Retorno sobre tiempo de CPU y E/S del proceso (1 = nunca esperó)
+        private static double slowdown(int turnaround, int work) {
+            return (double) turnaround / Math.max(1, work);
+        }
+
+        static Result fromProcesses(String schedulerName, List<PCB> processes, int rejected, int ticks,
+                                    List<CpuCore> cores, long elapsedNanos) {
+            int completed = 0;
+            long turnaroundSum = 0;
+            long waitSum = 0;
+            double slowdownSum = 0;
+            double slowdownSquares = 0;
+            for (PCB p : processes) {
+                if (p.state != ProcessState.TERMINATED || p.finishTick < 0) {
+                    continue;
+                }
+                completed++;
+                int turnaround = p.finishTick - p.arrivalTick;
+                int ioTime = 0;
+                for (PCB.IOBurst io : p.ioBursts) {
+                    ioTime += io.getDuration();
+                }
+                int burst = p.schedulingData != null && p.schedulingData.burstTime != null
+                        ? p.schedulingData.burstTime : 0;
+                // Una tarea periódica ejecuta su ráfaga una vez por trabajo
+                if (p.schedulingData != null && p.schedulingData.jobsDone > 1) {
+                    burst *= p.schedulingData.jobsDone;
+                }
+                turnaroundSum += turnaround;
+                waitSum += Math.max(0, turnaround - burst - ioTime);
+                double slowdown = slowdown(turnaround, burst + ioTime);
+                slowdownSum += slowdown;
+                slowdownSquares += slowdown * slowdown;
+            }
+            return new Result(schedulerName, processes.size(), completed, turnaroundSum, waitSum,
+                    slowdownSum, slowdownSquares, rejected, ticks, cores, elapsedNanos);
+        }
+
+        // Mismo cálculo leyendo los arreglos del almacén, sin materializar PCBs
+        static Result fromStore(String schedulerName, CompactProcessStore store, int rejected, int ticks,
+                                List<CpuCore> cores, long elapsedNanos) {
+            int completed = 0;
+            long turnaroundSum = 0;
+            long waitSum = 0;
+            double slowdownSum = 0;
+            double slowdownSquares = 0;
+            for (int pid = 1; pid <= store.size(); pid++) {
+                if (store.getState(pid) != ProcessState.TERMINATED || store.getFinishTick(pid) < 0) {
+                    continue;
+                }
+                completed++;
+                int turnaround = store.getFinishTick(pid) - store.getArrival(pid);
+                int work = store.getBurst(pid) * store.getJobs(pid) + store.getTotalIOTime(pid);
+                turnaroundSum += turnaround;
+                waitSum += Math.max(0, turnaround - work);
+                double slowdown = slowdown(turnaround, work);
+                slowdownSum += slowdown;
+                slowdownSquares += slowdown * slowdown;
+            }
+            return new Result(schedulerName, store.size(), completed, turnaroundSum, waitSum,
+                    slowdownSum, slowdownSquares, rejected, ticks, cores, elapsedNanos);
+        }
+
+        public String getSchedulerName() { return schedulerName; }
+        public int getCompleted() { return completed; }
+        public int getUnfinished() { return unfinished; }
+        public int getRejected() { return rejected; }
+        public int getTicks() { return ticks; }
+        public long getElapsedNanos() { return elapsedNanos; }
+        public double getAvgTurnaround() { return avgTurnaround; }
+        public double getAvgWait() { return avgWait; }
+        public double getThroughput() { return throughput; }
+        public double getFairness() { return fairness; }
+        public List<CoreStats> getCoreStats() { return coreStats; }
+
+        /**
+         * Secciones de las funciones opcionales; cada una es null si la función no estuvo activa
+         */
+        public RealTimeSummary getRealTime() { return realTime; }
+        public PagingSummary getPaging() { return paging; }
+        public SwapSummary getSwap() { return swap; }
+        public SharingSummary getSharing() { return sharing; }
+        public WorkingSetSummary getWorkingSets() { return workingSets; }
+        public BuddySummary getBuddy() { return buddy; }
+        public PageTableSummary getPageTables() { return pageTables; }
+        public TlbSummary getTlb() { return tlb; }
+
+        /**
+         * Métricas propias de la política (de todos los núcleos), o null si no lleva
+         */
+        public PolicyStatistics getPolicyStats() { return policyStats; }
+
+        public int getTotalMigrations() {
+            int total = 0;
+            for (CoreStats stats : coreStats) {
+                total += stats.migrations;
+            }
+            return total;
+        }
+
+        private static void appendSection(StringBuilder sb, SummarySection section) {
+            if (section != null) {
+                sb.append("\n\n");
+                section.appendTo(sb);
+            }
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("=== RESULTADOS (").append(schedulerName).append(") ===\n");
+            sb.append("Ticks simulados:       ").append(ticks).append('\n');
+            sb.append("Procesos completados:  ").append(completed).append('\n');
+            sb.append("Procesos sin terminar: ").append(unfinished).append('\n');
+            sb.append("Procesos rechazados:   ").append(rejected).append('\n');
+            sb.append(String.format("Retorno promedio:      %.2f%n", avgTurnaround));
+            sb.append(String.format("Espera promedio:       %.2f%n", avgWait));
+            sb.append(String.format("Rendimiento:           %.2f procesos cada 1000 ticks%n", throughput));
+            sb.append(String.format("Equidad (Jain):        %.4f%n", fairness));
+            sb.append(String.format("Tiempo real:           %.1f ms", elapsedNanos / 1_000_000.0));
+            if (coreStats.size() > 1) {
+                sb.append("\n\n").append(String.format("%-6s %-12s %-10s %-11s %s%n",
+                        "CPU", "Utilización", "Despachos", "Migraciones", "Robos"));
+                for (CoreStats stats : coreStats) {
+                    sb.append(String.format("%-6d %10.1f%% %-10d %-11d %d%n", stats.core,
+                            stats.utilization * 100, stats.dispatches, stats.migrations, stats.steals));
+                }
+                sb.append("Migraciones totales: ").append(getTotalMigrations());
+            }
+            if (policyStats != null) {
+                sb.append("\n\n");
+                policyStats.appendTo(sb);
+            }
+            appendSection(sb, realTime);
+            appendSection(sb, paging);
+            appendSection(sb, swap);
+            appendSection(sb, sharing);
+            appendSection(sb, workingSets);
+            appendSection(sb, buddy);
+            appendSection(sb, pageTables);
+            appendSection(sb, tlb);
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Estadísticas de un núcleo al final de la ejecución
+     */
+    public static class CoreStats {
+        public final int core;
+        public final double utilization;
+        public final int dispatches;
+        public final int migrations;
+        public final int steals;
+
+        CoreStats(int core, double utilization, int dispatches, int migrations, int steals) {
+            this.core = core;
+            this.utilization = utilization;
+            this.dispatches = dispatches;
+            this.migrations = migrations;
+            this.steals = steals;
+        }
+    }
+
+    static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        return bytes < 1024 * 1024 ? String.format("%.1f KB", bytes / 1024.0)
+                                   : String.format("%.1f MB", bytes / (1024.0 * 1024));
+    }
+
+    /**
+     * Punto de entrada sin interacción:
+     * <pre>
+     * java Main --batch &lt;carga.txt&gt; &lt;rr[:quantum] | mlq | mlfq | cfs | sjf | srtf | edf | rm | lottery | stride&gt; [--cores N] [--verbose | --log-level NIVEL] [--event-driven]
+     *                   [--max-ticks N] [--save-at N &lt;checkpoint&gt;] [--journal &lt;archivo&gt;] [--compact]
+     *                   [--memory N[MB|GB]] [--page-size KB] [--paging fifo|lru|clock|opt] [--fault-time TICKS]
+     *                   [--tlb entradas[/vías][/lru|fifo|random][/flush|asid]] [--page-table radix[:bits]|inverted]
+     *                   [--working-set ventana[/alto%[/bajo%]]] [--load-control] [--swap MB[/ticks]] [--allocator paging|buddy] [--trace-spill N]
+     * </pre>
+     */
+    public static void main(String[] args) {
+        run(args, false);
+    }
+
+    /**
+     * Continúa desde un checkpoint:
+     * <pre>
+     * java Main --resume &lt;checkpoint&gt; &lt;algoritmo&gt; [opciones]
+     * </pre>
+     */
+    public static void resumeMain(String[] args) {
+        run(args, true);
+    }
+
+    // "512", "512MB" o "8GB" -> megabytes
+    private static int parseMemoryMB(String value) {
+        String upper = value.toUpperCase();
+        try {
+            if (upper.endsWith("GB")) {
+                return Math.toIntExact(Long.parseLong(upper.substring(0, upper.length() - 2)) * 1024);
+            }
+            if (upper.endsWith("MB")) {
+                upper = upper.substring(0, upper.length() - 2);
+            }
+            return Integer.parseInt(upper);
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException("Tamaño de memoria no válido: " + value + " (use N, NMB o NGB)");
+        }
+    }
+
+    private static String usage(boolean resume) {
+        return "Uso: " + (resume ? "--resume <checkpoint>" : "--batch <carga.txt>") +
+               " <rr[:quantum] | mlq | mlfq | cfs | sjf | srtf | edf | rm | lottery | stride> [--cores N] [--verbose | --log-level NIVEL] [--event-driven]" +
+               " [--max-ticks N] [--save-at N <checkpoint>] [--journal <archivo>] [--compact]" +
+               " [--memory N[MB|GB]] [--page-size KB] [--paging fifo|lru|clock|opt] [--fault-time TICKS]" +
+               " [--tlb entradas[/vías][/lru|fifo|random][/flush|asid]] [--page-table radix[:bits]|inverted]" +
+               " [--working-set ventana[/alto%[/bajo%]]] [--load-control] [--swap MB[/ticks]] [--allocator paging|buddy] [--trace-spill N]";
+    }
+
+    // Valor de la opción en args[i - 1]
+    static String optionValue(String[] args, int i) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException("Falta el valor de " + args[i - 1]);
+        }
+        return args[i];
+    }
+
+    static long longOption(String[] args, int i) {
+        String value = optionValue(args, i);
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(args[i - 1] + " necesita un número: " + value);
+        }
+    }
+
+    static int intOption(String[] args, int i) {
+        long value = longOption(args, i);
+        if (value != (int) value) {
+            throw new IllegalArgumentException(args[i - 1] + " fuera de rango: " + value);
+        }
+        return (int) value;
+    }
+
+    private static Logger.Level parseLevel(String value) {
+        try {
+            return Logger.Level.valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Nivel de log no válido: " + value + " (use " +
+                                               Arrays.toString(Logger.Level.values()) + ")");
+        }
+    }
+
+    private static void run(String[] args, boolean resume) {
+        if (args.length < 2) {
+            System.err.println(usage(resume));
+            System.exit(2);
+        }
+
+        Logger.Level logLevel = Logger.Level.OFF;
+        boolean eventDriven = false;
+        int cores = 1;
+        long maxTicks = Long.MAX_VALUE;
+        long saveAt = -1;
+        Path saveFile = null;
+        Path journalFile = null;
+        boolean compact = false;
+        int memoryMB = MemoryManager.DEFAULT_FRAME_COUNT * MemoryManager.DEFAULT_PAGE_SIZE / 1024;
+        int pageSizeKB = MemoryManager.DEFAULT_PAGE_SIZE;
+        boolean memoryConfigured = false;
+        String paging = null;
+        int faultTime = MemoryManager.DEFAULT_FAULT_SERVICE_TICKS;
+        String tlb = null;
+        String pageTable = null;
+        String workingSet = null;
+        boolean loadControl = false;
+        String swap = null;
+        boolean buddy = false;
+        Supplier<Scheduler> factory;
+        Supplier<Tlb> tlbFactory = null;
+        MemoryManager memory;
+        try {
+            for (int i = 2; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--verbose" -> logLevel = Logger.Level.DEBUG;
+                    case "--log-level" -> logLevel = parseLevel(optionValue(args, ++i));
+                    case "--event-driven" -> eventDriven = true;
+                    case "--cores" -> cores = intOption(args, ++i);
+                    case "--max-ticks" -> maxTicks = longOption(args, ++i);
+                    case "--save-at" -> {
+                        saveAt = longOption(args, ++i);
+                        saveFile = Path.of(optionValue(args, ++i));
+                    }
+                    case "--journal" -> journalFile = Path.of(optionValue(args, ++i));
+                    case "--compact" -> compact = true;
+                    case "--memory" -> {
+                        memoryMB = parseMemoryMB(optionValue(args, ++i));
+                        memoryConfigured = true;
+                    }
+                    case "--page-size" -> {
+                        pageSizeKB = intOption(args, ++i);
+                        memoryConfigured = true;
+                    }
+                    case "--paging" -> {
+                        paging = optionValue(args, ++i);
+                        memoryConfigured = true;
+                    }
+                    case "--fault-time" -> {
+                        faultTime = intOption(args, ++i);
+                        memoryConfigured = true;
+                    }
+                    case "--tlb" -> {
+                        tlb = optionValue(args, ++i);
+                        memoryConfigured = true;
+                    }
+                    case "--page-table" -> {
+                        pageTable = optionValue(args, ++i);
+                        memoryConfigured = true;
+                    }
+                    case "--working-set" -> {
+                        workingSet = optionValue(args, ++i);
+                        memoryConfigured = true;
+                    }
+                    case "--load-control" -> {
+                        loadControl = true;
+                        memoryConfigured = true;
+                    }
+                    case "--swap" -> {
+                        swap = optionValue(args, ++i);
+                        memoryConfigured = true;
+                    }
+                    case "--trace-spill" -> PageAccessTrace.setDefaultSpillThreshold(longOption(args, ++i));
+                    case "--allocator" -> {
+                        buddy = switch (optionValue(args, ++i).toLowerCase()) {
+                            case "buddy" -> true;
+                            case "paging" -> false;
+                            default -> throw new IllegalArgumentException("Asignador no válido: " + args[i] + " (use paging o buddy)");
+                        };
+                        memoryConfigured = true;
+                    }
+                    default -> throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+                }
+            }
+
+            if (compact && (resume || saveFile != null)) {
+                System.err.println("--compact no admite checkpoints (--save-at ni --resume)");
+                System.exit(2);
+            }
+            if (resume && memoryConfigured) {
+                System.err.println("--resume usa la memoria guardada en el checkpoint (--memory, --page-size, --paging, --fault-time, --tlb, --page-table, --working-set, --load-control, --swap y --allocator no aplican)");
+                System.exit(2);
+            }
+            if ((workingSet != null || loadControl || swap != null) && paging == null) {
+                System.err.println("--working-set, --load-control y --swap requieren paginación por demanda (--paging)");
+                System.exit(2);
+            }
+            if (buddy && paging != null) {
+                System.err.println("--allocator buddy asigna bloques contiguos y no se combina con --paging");
+                System.exit(2);
+            }
+
+            Logger.setLevel(logLevel);
+            String spec = args[1];
+            SchedulerFactory.fromSpec(spec); // validar antes de crear los núcleos
+            factory = () -> SchedulerFactory.fromSpec(spec);
+            String tlbSpec = tlb;
+            if (tlbSpec != null) {
+                Tlb.fromSpec(tlbSpec); // validar antes de crear los núcleos
+                tlbFactory = () -> Tlb.fromSpec(tlbSpec);
+            }
+
+            memory = resume ? null : new MemoryManager(memoryMB, pageSizeKB);
+            if (paging != null && memory != null) {
+                memory.setDemandPaging(ReplacementPolicyFactory.fromName(paging), faultTime);
+            }
+            if (pageTable != null && memory != null) {
+                memory.setPageTable(PageTableFactory.fromSpec(pageTable, memory.getFrameCount()));
+            }
+            if (swap != null && memory != null) {
+                memory.setSwap(SwapDevice.fromSpec(swap, pageSizeKB));
+            }
+            if (buddy && memory != null) {
+                memory.setBuddyAllocator();
+            }
+            if ((workingSet != null || loadControl) && memory != null) {
+                memory.setWorkingSets(workingSet != null ? WorkingSetMonitor.fromSpec(workingSet)
+                        : new WorkingSetMonitor(WorkingSetMonitor.DEFAULT_WINDOW, WorkingSetMonitor.DEFAULT_HIGH_FAULT_RATE,
+                                                WorkingSetMonitor.DEFAULT_LOW_FAULT_RATE));
+            }
+        } catch (IllegalArgumentException e) { // también NumberFormatException
+            System.err.println(e.getMessage());
+            System.err.println(usage(resume));
+            System.exit(2);
+            return;
+        }
+
+        BatchRunner runner;
+        try {
+            if (resume) {
+                runner = BatchRunner.resume(Path.of(args[0]), factory);
+            } else if (compact) {
+                runner = BatchRunner.compact(Path.of(args[0]), factory, cores, new ResourceManager(memory), tlbFactory);
+            } else {
+                runner = new BatchRunner(factory, cores, Workload.load(Path.of(args[0])), new ResourceManager(memory));
+                if (tlbFactory != null) {
+                    runner.setTlbs(tlbFactory);
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("No se pudo leer " + args[0] + ": " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        runner.setMaxTicks(maxTicks);
+        if (loadControl) {
+            runner.setLoadControl(true);
+        }
+        if (eventDriven) {
+            runner.setEventDriven(true);
+        }
+        if (saveFile != null) {
+            runner.setCheckpoint(saveAt, saveFile);
+        }
+        if (journalFile != null) {
+            runner.setJournal(journalFile);
+        }
+        BatchRunner.Result result = runner.run();
+        Logger.flush();
+        System.out.println(result);
+        if (journalFile != null) {
+            System.out.println("Bitácora: " + runner.getJournalRecords() + " eventos en " + journalFile);
+        }
+    }
+}
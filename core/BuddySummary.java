@@ -0,0 +1,95 @@
+package core;
+
+import memory.BuddyAllocator;
+import memory.MemoryManager;
+import memory.SlabCache;
+
+/**
+ * Asignador buddy y sus cachés slab (estas ya formateadas) en el resumen por lotes
+ */
+public class BuddySummary implements SummarySection {
+    private final int frames;
+    private final int maxBlock;
+    private final int blocks;
+    private final long usedFrames;
+    private final long allocations;
+    private final long releases;
+    private final int freeFrames;
+    private final int largestFree;
+    private final double externalFragmentation;
+    private final double averageExternalFragmentation;
+    private final double peakExternalFragmentation;
+    private final long wastedFrames;
+    private final long peakWastedFrames;
+    private final long fragmentationDelays;
+    private final double allocationSteps;
+    private final int maxAllocationSteps;
+    private final double releaseSteps;
+    private final int maxReleaseSteps;
+    private final long splits;
+    private final long merges;
+    private final String slabStats;
+
+    BuddySummary(MemoryManager memory) {
+        BuddyAllocator buddy = memory.getBuddy();
+        this.frames = buddy.getFrameCount();
+        this.maxBlock = buddy.getMaxBlockFrames();
+        this.blocks = buddy.getAllocatedBlocks();
+        this.usedFrames = buddy.getUsedFrames();
+        this.allocations = buddy.getAllocations();
+        this.releases = buddy.getReleases();
+        this.freeFrames = buddy.getFreeFrames();
+        this.largestFree = buddy.getLargestFreeBlock();
+        this.externalFragmentation = buddy.getExternalFragmentation();
+        this.averageExternalFragmentation = buddy.getAverageExternalFragmentation();
+        this.peakExternalFragmentation = buddy.getPeakExternalFragmentation();
+        this.wastedFrames = buddy.getWastedFrames();
+        this.peakWastedFrames = buddy.getPeakWastedFrames();
+        this.fragmentationDelays = memory.getFragmentationDelays();
+        this.allocationSteps = buddy.getAverageAllocationSteps();
+        this.maxAllocationSteps = buddy.getMaxAllocationSteps();
+        this.releaseSteps = buddy.getAverageReleaseSteps();
+        this.maxReleaseSteps = buddy.getMaxReleaseSteps();
+        this.splits = buddy.getSplits();
+        this.merges = buddy.getMerges();
+        StringBuilder sb = new StringBuilder("Cachés slab:\n");
+        sb.append(String.format("%-15s %-8s %-9s %-14s %-11s %-12s %s%n", "Caché", "Objeto", "Por slab",
+                "Objetos (máx)", "Slabs (máx)", "Desperdicio", "Pasos"));
+        for (SlabCache cache : memory.getSlabCaches()) {
+            long slabBytes = cache.getSlabBytes();
+            sb.append(String.format("%-15s %-8s %-9d %-14s %-11s %-12s %.2f (máx %d)%n", cache.getName(),
+                    BatchRunner.formatBytes(cache.getObjectBytes()), cache.getObjectsPerSlab(),
+                    cache.getObjects() + " (" + cache.getPeakObjects() + ")",
+                    cache.getSlabCount() + " (" + cache.getPeakSlabs() + ")",
+                    slabBytes > 0 ? String.format("%.1f%%", cache.getWastedBytes() * 100.0 / slabBytes) : "-",
+                    cache.getAverageAllocationSteps(), cache.getMaxAllocationSteps()));
+        }
+        this.slabStats = sb.toString().stripTrailing();
+    }
+
+    public double getAverageExternalFragmentation() { return averageExternalFragmentation; }
+    public long getFragmentationDelays() { return fragmentationDelays; }
+
+    @Override
+    public void appendTo(StringBuilder sb) {
+        sb.append("Asignador buddy (").append(frames).append(" marcos, bloque máximo de ")
+          .append(maxBlock).append("):\n");
+        sb.append("Bloques asignados:     ").append(blocks).append(" al final (").append(usedFrames)
+          .append(" marcos), ").append(allocations).append(" asignaciones, ")
+          .append(releases).append(" liberaciones\n");
+        sb.append(String.format("Fragmentación externa: %.1f%% al final, %.1f%% promedio, %.1f%% como máximo" +
+                " (bloque libre mayor: %d de %d marcos libres)%n", externalFragmentation * 100,
+                averageExternalFragmentation * 100, peakExternalFragmentation * 100, largestFree, freeFrames));
+        sb.append("Fragmentación interna: ").append(wastedFrames).append(" marcos de relleno al final");
+        if (usedFrames > 0) {
+            sb.append(String.format(" (%.1f%% de los asignados)", wastedFrames * 100.0 / usedFrames));
+        }
+        sb.append(", ").append(peakWastedFrames).append(" como máximo\n");
+        sb.append("Procesos demorados:    ").append(fragmentationDelays)
+          .append(" (había marcos libres pero ningún bloque del tamaño)\n");
+        sb.append(String.format("Latencia:              asignar %.2f pasos promedio (máx %d), liberar %.2f (máx %d);" +
+                " %d divisiones, %d uniones%n", allocationSteps, maxAllocationSteps, releaseSteps,
+                maxReleaseSteps, splits, merges));
+        sb.append(slabStats);
+    }
+}
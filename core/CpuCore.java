@@ -0,0 +1,88 @@
+package core;
+
+import core.scheduling.ReadyQueue;
+import core.scheduling.Scheduler;
+import memory.Tlb;
+import models.PCB;
+
+/**
+ * Núcleo de CPU simulado: un proceso en ejecución y su propia cola de listos,
+ * administrada por una instancia independiente del planificador.
+ */
+public class CpuCore {
+    private final int id;
+    private final Scheduler scheduler;
+
+    // Estado que administra el SimulationEngine
+    PCB runningProcess = null;
+    final ReadyQueue readyProcesses = new ReadyQueue();
+    Tlb tlb = null; // TLB del núcleo (null = sin simular)
+
+    // Estadísticas
+    long busyTicks = 0;
+    int dispatches = 0;
+    int migrations = 0;
+    int steals = 0;
+
+    public CpuCore(int id, Scheduler scheduler) {
+        this.id = id;
+        this.scheduler = scheduler;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    public PCB getRunningProcess() {
+        return runningProcess;
+    }
+
+    public Tlb getTlb() {
+        return tlb;
+    }
+    
+    public int getReadyCount() {
+        return readyProcesses.size();
+    }
+
+    // Carga del núcleo: procesos en cola más el que está ejecutando
+    int load() {
+        return readyProcesses.size() + (runningProcess != null ? 1 : 0);
+    }
+
+    public long getBusyTicks() {
+        return busyTicks;
+    }
+
+    public double getUtilization(int elapsedTicks) {
+        return elapsedTicks > 0 ? (double) busyTicks / elapsedTicks : 0;
+    }
+
+    public int getDispatches() {
+        return dispatches;
+    }
+
+    /**
+     * Despachos de procesos que se ejecutaron por última vez en otro núcleo
+     */
+    public int getMigrations() {
+        return migrations;
+    }
+
+    /**
+     * Procesos que este núcleo tomó de la cola de otro núcleo estando ocioso
+     */
+    public int getSteals() {
+        return steals;
+    }
+
+    @Override
+    public String toString() {
+        return "CPU" + id + ": " + (runningProcess != null ? "P" + runningProcess.pid : "ociosa") +
+               " | listos=" + readyProcesses.size();
+    }
+}
@@ -1,9 +1,174 @@
 package core;
 
-import java.time.LocalDateTime;
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 
+/**
+ * Bitácora con niveles. Los mensajes se marcan con el tick simulado y se
+ * encolan en un búfer circular acotado sin bloqueos; un hilo en segundo plano
+ * los escribe en la consola por bloques. Si el búfer se llena, quien registra
+ * espera a que se libere espacio en lugar de perder mensajes.
+ *
+ * Los mensajes costosos se pasan como Supplier para que solo se construyan
+ * si el nivel está habilitado.
+ */
 public class Logger {
+    public enum Level { DEBUG, INFO, WARN, ERROR, OFF }
+
+    private static final int CAPACITY = 1 << 14; // potencia de dos
+    private static final int MASK = CAPACITY - 1;
+
+    // Nivel mínimo que se registra; DEBUG conserva la salida completa de siempre
+    private static volatile Level level = Level.DEBUG;
+    // Reloj simulado del motor que corre en cada hilo (vacío fuera de una simulación);
+    // por hilo para que los barridos en paralelo no se pisen el tick
+    private static final ThreadLocal<LongSupplier> clock = new ThreadLocal<>();
+
+    // Búfer circular de varios productores y un consumidor: cada casilla
+    // lleva un número de secuencia que indica si está libre o publicada
+    private static final AtomicLongArray sequences = new AtomicLongArray(CAPACITY);
+    private static final String[] messages = new String[CAPACITY];
+    private static final long[] ticks = new long[CAPACITY];
+    private static final Level[] levels = new Level[CAPACITY];
+    private static final AtomicLong tail = new AtomicLong();
+    private static long head = 0; // solo lo usa el hilo escritor
+    private static volatile long written = 0;
+
+    private static final PrintStream out = System.out;
+    private static final Thread writer;
+
+    static {
+        for (int i = 0; i < CAPACITY; i++) {
+            sequences.set(i, i);
+        }
+        writer = new Thread(Logger::drainLoop, "logger");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(Logger::flush, "logger-flush"));
+    }
+
     public static void log(String msg) {
-        System.out.println("[" + LocalDateTime.now() + "] " + msg);
+        log(Level.INFO, msg);
+    }
+
+    public static void log(Level msgLevel, String msg) {
+        if (isEnabled(msgLevel)) {
+            enqueue(msgLevel, msg);
+        }
+    }
+
+    public static void log(Level msgLevel, Supplier<String> msg) {
+        if (isEnabled(msgLevel)) {
+            enqueue(msgLevel, msg.get());
+        }
+    }
+
+    public static boolean isEnabled(Level msgLevel) {
+        return msgLevel.compareTo(level) >= 0 && msgLevel != Level.OFF;
+    }
+
+    public static void setLevel(Level value) {
+        level = value;
+    }
+
+    public static Level getLevel() {
+        return level;
+    }
+
+    // Permite silenciar la bitácora en ejecuciones por lotes
+    public static void setEnabled(boolean value) {
+        level = value ? Level.DEBUG : Level.OFF;
+    }
+
+    public static boolean isEnabled() {
+        return level != Level.OFF;
+    }
+
+    /**
+     * Fuente del tick simulado con el que se marcan los mensajes del hilo actual
+     */
+    public static void bindClock(LongSupplier simulationClock) {
+        clock.set(simulationClock);
+    }
+
+    /**
+     * Espera a que todo lo registrado hasta ahora esté escrito en la consola
+     */
+    public static void flush() {
+        long target = tail.get();
+        while (written < target) {
+            LockSupport.unpark(writer);
+            Thread.yield();
+        }
+    }
+
+    private static void enqueue(Level msgLevel, String msg) {
+        LongSupplier source = clock.get();
+        long tick = source != null ? source.getAsLong() : -1;
+
+        long pos;
+        while (true) {
+            pos = tail.get();
+            long available = sequences.get((int) pos & MASK) - pos;
+            if (available == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    break;
+                }
+            } else if (available < 0) {
+                // Búfer lleno: despertar al escritor y esperar
+                LockSupport.unpark(writer);
+                Thread.yield();
+            }
+        }
+
+        int slot = (int) pos & MASK;
+        messages[slot] = msg;
+        ticks[slot] = tick;
+        levels[slot] = msgLevel;
+        sequences.lazySet(slot, pos + 1); // publicar la casilla
+    }
+
+    private static void drainLoop() {
+        StringBuilder batch = new StringBuilder(64 * 1024);
+        while (true) {
+            int count = 0;
+            while (count < CAPACITY) {
+                int slot = (int) head & MASK;
+                if (sequences.get(slot) != head + 1) {
+                    break;
+                }
+                format(batch, levels[slot], ticks[slot], messages[slot]);
+                messages[slot] = null;
+                sequences.lazySet(slot, head + CAPACITY); // liberar la casilla
+                head++;
+                count++;
+            }
+
+            if (count > 0) {
+                out.print(batch);
+                out.flush();
+                batch.setLength(0);
+                written = head;
+            } else {
+                LockSupport.parkNanos(1_000_000L);
+            }
+        }
+    }
+
+    private static void format(StringBuilder sb, Level msgLevel, long tick, String msg) {
+        sb.append('[');
+        if (tick >= 0) {
+            sb.append("t=").append(tick);
+        } else {
+            sb.append("t=-");
+        }
+        if (msgLevel != Level.INFO) {
+            sb.append(' ').append(msgLevel);
+        }
+        sb.append("] ").append(msg).append('\n');
     }
-}
\ No newline at end of file
+}
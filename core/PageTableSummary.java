@@ -0,0 +1,37 @@
+package core;
+
+import memory.PageTable;
+
+/**
+ * Memoria y recorridos de las tablas de páginas en el resumen por lotes
+ */
+public class PageTableSummary implements SummarySection {
+    private final String description;
+    private final long bytes;
+    private final long peakBytes;
+    private final long walks;
+    private final double walkAccesses;
+
+    PageTableSummary(PageTable table) {
+        this.description = table.getDescription();
+        this.bytes = table.getBytes();
+        this.peakBytes = table.getPeakBytes();
+        this.walks = table.getWalks();
+        this.walkAccesses = table.getAverageWalkAccesses();
+    }
+
+    /**
+     * Mayor memoria que ocuparon las tablas de páginas, en bytes
+     */
+    public long getPeakBytes() { return peakBytes; }
+
+    @Override
+    public void appendTo(StringBuilder sb) {
+        sb.append("Tablas de páginas (").append(description).append("):\n");
+        sb.append(String.format("Memoria ocupada:       %s al final, %s como máximo",
+                BatchRunner.formatBytes(bytes), BatchRunner.formatBytes(peakBytes)));
+        if (walks > 0) {
+            sb.append(String.format("%nRecorridos:            %d (%.2f accesos promedio)", walks, walkAccesses));
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package core;
+
+import memory.MemoryManager;
+
+/**
+ * Paginación por demanda en el resumen por lotes
+ */
+public class PagingSummary implements SummarySection {
+    private final String policy;
+    private final long pageReferences;
+    private final long pageFaults;
+    private final long evictions;
+    private final long dirtyEvictions;
+    private final long faultServiceTotal;
+
+    PagingSummary(MemoryManager memory) {
+        this.policy = memory.getReplacementPolicy().getName();
+        this.pageReferences = memory.getPageReferences();
+        this.pageFaults = memory.getPageFaults();
+        this.evictions = memory.getEvictions();
+        this.dirtyEvictions = memory.getDirtyEvictions();
+        this.faultServiceTotal = memory.getFaultServiceTotal();
+    }
+
+    public long getPageReferences() { return pageReferences; }
+    public long getPageFaults() { return pageFaults; }
+    public long getEvictions() { return evictions; }
+
+    /**
+     * Fallos por referencia a memoria
+     */
+    public double getPageFaultRate() {
+        return pageReferences > 0 ? (double) pageFaults / pageReferences : 0;
+    }
+
+    @Override
+    public void appendTo(StringBuilder sb) {
+        sb.append("Paginación por demanda (").append(policy).append("):\n");
+        sb.append("Referencias:           ").append(pageReferences).append('\n');
+        sb.append("Fallos de página:      ").append(pageFaults);
+        sb.append(String.format(" (%.2f%%)%n", getPageFaultRate() * 100));
+        sb.append("Reemplazos:            ").append(evictions).append(" (")
+          .append(dirtyEvictions).append(" escritas al disco)\n");
+        sb.append("Bloqueo por fallos:    ").append(faultServiceTotal).append(" ticks");
+    }
+}
@@ -0,0 +1,243 @@
+package core;
+
+import core.scheduling.SchedulerFactory;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import memory.Tlb;
+
+/**
+ * Ejecuta la misma carga de trabajo con una rejilla de configuraciones de
+ * planificador. Cada combinación corre en su propio conjunto aislado de
+ * SimulationEngine/ProcessManager/ResourceManager dentro de un ForkJoinPool,
+ * y al final se arma una tabla comparativa.
+ */
+public class ParameterSweep {
+    private static final String USAGE =
+            "Uso: --sweep <carga.txt> <familia>... [--cores N] [--threads N] [--event-driven] [--max-ticks N] [--tlb SPEC]";
+
+    private final Workload workload;
+    private final List<String> configurations = new ArrayList<>();
+    private int cores = 1;
+    private boolean eventDriven = false;
+    private long maxTicks = Long.MAX_VALUE;
+    private String tlbSpec = null;
+
+    public ParameterSweep(Workload workload) {
+        this.workload = workload;
+    }
+
+    /**
+     * Agrega una familia de configuraciones. Cada parámetro puede llevar
+     * varios valores separados por comas y se genera el producto cartesiano:
+     * "rr:2,4,8" produce rr:2, rr:4 y rr:8; "mlq:2,3/4/6" produce mlq:2/4/6 y mlq:3/4/6.
+     */
+    public void addConfigurations(String family) {
+        for (String spec : expand(family)) {
+            SchedulerFactory.fromSpec(spec); // validar antes de ejecutar
+            configurations.add(spec);
+        }
+    }
+
+    public List<String> getConfigurations() {
+        return new ArrayList<>(configurations);
+    }
+
+    public void setCores(int cores) {
+        if (cores < 1) {
+            throw new IllegalArgumentException("Se requiere al menos un núcleo: " + cores);
+        }
+        this.cores = cores;
+    }
+
+    public void setEventDriven(boolean eventDriven) {
+        this.eventDriven = eventDriven;
+    }
+
+    public void setMaxTicks(long maxTicks) {
+        this.maxTicks = maxTicks;
+    }
+
+    /**
+     * Simula la misma TLB en todas las configuraciones (null = sin TLB)
+     */
+    public void setTlb(String tlbSpec) {
+        if (tlbSpec != null) {
+            Tlb.fromSpec(tlbSpec); // validar antes de ejecutar
+        }
+        this.tlbSpec = tlbSpec;
+    }
+
+    static List<String> expand(String family) {
+        String[] parts = family.trim().split(":", 2);
+        List<String> specs = new ArrayList<>();
+        if (parts.length == 1) {
+            specs.add(parts[0]);
+            return specs;
+        }
+
+        String[] slots = parts[1].split("/");
+        List<String> partial = new ArrayList<>();
+        partial.add("");
+        for (int i = 0; i < slots.length; i++) {
+            List<String> next = new ArrayList<>();
+            for (String prefix : partial) {
+                for (String value : slots[i].split(",")) {
+                    next.add(i == 0 ? value.trim() : prefix + "/" + value.trim());
+                }
+            }
+            partial = next;
+        }
+        for (String params : partial) {
+            specs.add(parts[0] + ":" + params);
+        }
+        return specs;
+    }
+
+    /**
+     * Ejecuta todas las configuraciones usando hasta 'parallelism' hilos
+     */
+    public List<Row> run(int parallelism) throws InterruptedException {
+        List<Callable<BatchRunner.Result>> tasks = new ArrayList<>();
+        for (String spec : configurations) {
+            tasks.add(() -> {
+                BatchRunner runner = new BatchRunner(() -> SchedulerFactory.fromSpec(spec), cores, workload);
+                runner.setEventDriven(eventDriven);
+                runner.setMaxTicks(maxTicks);
+                if (tlbSpec != null) {
+                    runner.setTlbs(() -> Tlb.fromSpec(tlbSpec));
+                }
+                return runner.run();
+            });
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+        try {
+            List<Future<BatchRunner.Result>> futures = pool.invokeAll(tasks);
+            List<Row> rows = new ArrayList<>();
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    rows.add(new Row(configurations.get(i), futures.get(i).get()));
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Falló la configuración " + configurations.get(i), e.getCause());
+                }
+            }
+            return rows;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    public static String formatTable(List<Row> rows) {
+        Row best = null;
+        for (Row row : rows) {
+            if (best == null || row.result.getAvgWait() < best.result.getAvgWait()) {
+                best = row;
+            }
+        }
+
+        // Con TLB se agregan su tasa de aciertos y el tiempo efectivo de acceso
+        boolean tlb = !rows.isEmpty() && rows.get(0).result.getTlb() != null;
+        int width = tlb ? 142 : 120;
+        StringBuilder sb = new StringBuilder();
+        sb.append(" ").append("-".repeat(width)).append('\n');
+        sb.append(String.format("| %-16s | %9s | %11s | %9s | %12s | %11s | %9s | %6s | %9s |",
+                "Configuración", "Ticks", "Completados", "Sin term.", "Retorno prom", "Espera prom",
+                "Rend./1k", "Jain", "Tiempo ms"));
+        sb.append(tlb ? String.format(" %7s | %10s |%n", "TLB %", "Acceso ns") : System.lineSeparator());
+        sb.append(" ").append("-".repeat(width)).append('\n');
+        for (Row row : rows) {
+            BatchRunner.Result r = row.result;
+            sb.append(String.format("| %-16s | %9d | %11d | %9d | %12.2f | %11.2f | %9.2f | %6.4f | %9.1f |",
+                    row.spec, r.getTicks(), r.getCompleted(), r.getUnfinished(),
+                    r.getAvgTurnaround(), r.getAvgWait(), r.getThroughput(), r.getFairness(),
+                    r.getElapsedNanos() / 1_000_000.0));
+            if (tlb) {
+                sb.append(String.format(" %7.2f | %10.2f |", r.getTlb().getHitRate() * 100, r.getTlb().getEffectiveAccessTime()));
+            }
+            sb.append(row == best ? " <- menor espera" : "").append(System.lineSeparator());
+        }
+        sb.append(" ").append("-".repeat(width));
+        return sb.toString();
+    }
+
+    /**
+     * Resultado de una configuración del barrido
+     */
+    public static class Row {
+        private final String spec;
+        private final BatchRunner.Result result;
+
+        Row(String spec, BatchRunner.Result result) {
+            this.spec = spec;
+            this.result = result;
+        }
+
+        public String getSpec() { return spec; }
+        public BatchRunner.Result getResult() { return result; }
+    }
+
+    /**
+     * Punto de entrada:
+     * <pre>
+     * java Main --sweep &lt;carga.txt&gt; &lt;familia&gt;... [--cores N] [--threads N] [--event-driven] [--max-ticks N] [--tlb SPEC]
+     * </pre>
+     * Ejemplo: java Main --sweep carga.txt rr:1,2,4,8 mlq:2,3/4/6,8
+     */
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 2) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        Workload workload;
+        try {
+            workload = Workload.load(Path.of(args[0]));
+        } catch (IOException e) {
+            System.err.println("No se pudo leer la carga de trabajo: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        ParameterSweep sweep = new ParameterSweep(workload);
+        int threads = Runtime.getRuntime().availableProcessors();
+        try {
+            for (int i = 1; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--cores" -> sweep.setCores(BatchRunner.intOption(args, ++i));
+                    case "--threads" -> threads = BatchRunner.intOption(args, ++i);
+                    case "--event-driven" -> sweep.setEventDriven(true);
+                    case "--max-ticks" -> sweep.setMaxTicks(BatchRunner.longOption(args, ++i));
+                    case "--tlb" -> sweep.setTlb(BatchRunner.optionValue(args, ++i));
+                    default -> {
+                        if (args[i].startsWith("--")) {
+                            throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+                        }
+                        sweep.addConfigurations(args[i]);
+                    }
+                }
+            }
+            if (threads < 1) {
+                throw new IllegalArgumentException("Se requiere al menos un hilo: " + threads);
+            }
+            if (sweep.getConfigurations().isEmpty()) {
+                throw new IllegalArgumentException("Falta al menos una familia de configuraciones");
+            }
+        } catch (IllegalArgumentException e) { // también NumberFormatException
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        Logger.setEnabled(false);
+        System.out.println("Ejecutando " + sweep.getConfigurations().size() + " configuraciones con " +
+                           threads + " hilos...");
+        System.out.println(formatTable(sweep.run(threads)));
+    }
+}
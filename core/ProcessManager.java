@@ -2,15 +2,102 @@ package core;
 import java.util.*;
 import models.*;
 
+/**
+ * Tabla de procesos indexada por PID. Los procesos activos forman una lista
+ * doblemente enlazada sobre arreglos de int (en orden de alta), así que las
+ * búsquedas, altas y bajas son O(1) y consultar los activos no crea listas
+ * nuevas. Los procesos terminados pasan solos al historial.
+ */
 public class ProcessManager {
-    private List<PCB> processList = new ArrayList<>();
+    private static final int NONE = 0;    // fin de la lista (los PID empiezan en 1)
+    private static final int UNLINKED = -1;
+
+    private PCB[] table = new PCB[1024];
+    private int[] activeNext = newLinks(1024);
+    private int[] activePrev = newLinks(1024);
+    private int activeHead = NONE;
+    private int activeTail = NONE;
+    private int activeCount = 0;
+    private int activeModifications = 0; // para que los iteradores de la vista fallen si la lista cambia
+
+    // Procesos terminados en orden de terminación
+    private PCB[] history = new PCB[256];
+    private int historyCount = 0;
+
+    private final List<PCB> activeView = new ActiveView();
+
+    // Contador propio de cada simulación para poder ejecutar varias en paralelo
+    private int nextPid = 1;
+
+    // Modo compacto: los procesos pendientes y terminados viven en el almacén
+    // y la tabla solo guarda los PCB de los procesos vivos
+    private CompactProcessStore store = null;
+    private int archivedCount = 0;
+
+    /**
+     * Activa el modo compacto. Los procesos del almacén se registran con
+     * registerProcess() al llegar y se archivan en él al terminar.
+     */
+    public void setStore(CompactProcessStore store) {
+        this.store = store;
+        this.nextPid = Math.max(nextPid, store.size() + 1);
+    }
+
+    public CompactProcessStore getStore() {
+        return store;
+    }
 
     public PCB createProcess(int priority, int memory) {
-        PCB process = new PCB(priority, memory);
-        processList.add(process);
+        PCB process = new PCB(nextPid++, priority, memory);
+        add(process);
         return process;
     }
 
+    /**
+     * Crea el hijo de un fork: misma prioridad, memoria y biblioteca que el
+     * padre, le falta el mismo trabajo de CPU y sigue la cadena de
+     * referencias del padre desde donde va (o, si el padre tiene una cadena
+     * para sus hijos, esa desde el principio). No hereda el semáforo, la E/S
+     * pendiente ni los plazos. Los datos propios de la política y la memoria
+     * los configura quien lo admite.
+     */
+    public PCB forkProcess(PCB parent) {
+        PCB child = createProcess(parent.priority, parent.requiredMemory);
+        child.schedulingData = new SchedulingData();
+        if (parent.schedulingData != null) {
+            child.schedulingData.burstTime = parent.schedulingData.remainingTime;
+            child.schedulingData.remainingTime = parent.schedulingData.remainingTime;
+            child.schedulingData.tickets = parent.schedulingData.tickets;
+        }
+        if (parent.forkReferences != null) {
+            child.pageReferences = parent.forkReferences;
+        } else {
+            child.pageReferences = parent.pageReferences;
+            child.referenceBase = parent.nextReferenceIndex();
+        }
+        child.sharedLibrary = parent.sharedLibrary;
+        child.sharedPages = parent.sharedPages;
+        return child;
+    }
+
+    /**
+     * Da de alta un PCB creado fuera del ProcessManager (materializado del almacén)
+     */
+    public void registerProcess(PCB process) {
+        nextPid = Math.max(nextPid, process.pid + 1);
+        add(process);
+    }
+
+    private void add(PCB process) {
+        ensureCapacity(process.pid);
+        table[process.pid] = process;
+        if (process.state == ProcessState.TERMINATED) {
+            appendHistory(process);
+        } else {
+            linkActive(process.pid);
+        }
+    }
+
     public void suspendProcess(int pid) {
         PCB process = getProcess(pid);
         if (process != null) {
@@ -33,30 +120,247 @@ public class ProcessManager {
         PCB process = getProcess(pid);
         if (process != null) {
             process.state = ProcessState.TERMINATED;
-            Logger.log("Proceso " + pid + " terminado | Razón: " + reason);
+            processTerminated(process);
+            Logger.log(Logger.Level.INFO, () -> "Proceso " + pid + " terminado | Razón: " + reason);
         }
     }
 
+    /**
+     * Mueve un proceso que terminó de la lista de activos al historial
+     */
+    public void processTerminated(PCB process) {
+        int pid = process.pid;
+        if (pid <= 0 || pid >= table.length || activePrev[pid] == UNLINKED) {
+            return; // ya estaba en el historial
+        }
+        unlinkActive(pid);
+        if (store != null && store.contains(pid)) {
+            store.archive(process);
+            table[pid] = null;
+            archivedCount++;
+        } else {
+            appendHistory(process);
+        }
+    }
+
+    /**
+     * Procesos no terminados en orden de PID. Es una vista de solo lectura
+     * de la tabla (no se copia) que refleja los cambios posteriores; si un
+     * proceso se agrega o termina mientras se la recorre, el iterador lanza
+     * ConcurrentModificationException (copiarla antes si hace falta).
+     */
     public List<PCB> getActiveProcesses() {
-        return processList.stream()
-            .filter(p -> p.state != ProcessState.TERMINATED)
-            .toList();
+        return activeView;
+    }
+
+    public int getActiveCount() {
+        return activeCount;
     }
 
     public boolean isProcessActive(int pid) {
-        return processList.stream()
-            .anyMatch(p -> p.pid == pid && p.state != ProcessState.TERMINATED);
+        PCB process = getProcess(pid);
+        return process != null && process.state != ProcessState.TERMINATED;
     }
 
+    /**
+     * En modo compacto, los procesos que no están vivos se devuelven como una
+     * copia materializada del almacén
+     */
     public PCB getProcess(int pid) {
-        return processList.stream()
-            .filter(p -> p.pid == pid)
-            .findFirst()
-            .orElse(null);
+        PCB process = pid > 0 && pid < table.length ? table[pid] : null;
+        if (process == null && store != null && store.contains(pid)) {
+            return store.materialize(pid);
+        }
+        return process;
+    }
+
+    /**
+     * Procesos terminados en el orden en que terminaron
+     */
+    public List<PCB> getHistory() {
+        if (store != null) {
+            List<PCB> terminated = new ArrayList<>(Arrays.asList(history).subList(0, historyCount));
+            for (int pid = 1; pid <= store.size(); pid++) {
+                if (store.getState(pid) == ProcessState.TERMINATED) {
+                    terminated.add(store.materialize(pid));
+                }
+            }
+            terminated.sort(Comparator.comparingInt(p -> p.finishTick));
+            return terminated;
+        }
+        return new ArrayList<>(Arrays.asList(history).subList(0, historyCount));
+    }
+
+    public int getHistoryCount() {
+        return historyCount + archivedCount;
+    }
+
+    public List<PCB> getAllProcesses() {
+        List<PCB> all = new ArrayList<>(activeCount + historyCount);
+        for (int pid = 1; pid < nextPid; pid++) {
+            PCB process = pid < table.length ? table[pid] : null;
+            if (process != null) {
+                all.add(process);
+            } else if (store != null && store.contains(pid)) {
+                all.add(store.materialize(pid));
+            }
+        }
+        return all;
     }
-    
+
+    public int getNextPid() {
+        return nextPid;
+    }
+
+    /**
+     * Reemplaza la tabla de procesos (al restaurar un checkpoint)
+     */
+    public void restoreProcesses(List<PCB> processes, int nextPid) {
+        table = new PCB[Math.max(1024, nextPid)];
+        activeNext = newLinks(table.length);
+        activePrev = newLinks(table.length);
+        activeHead = activeTail = NONE;
+        activeCount = 0;
+        activeModifications++;
+        history = new PCB[256];
+        historyCount = 0;
+
+        List<PCB> ordered = new ArrayList<>(processes);
+        ordered.sort(Comparator.comparingInt(p -> p.pid));
+        List<PCB> terminated = new ArrayList<>();
+        for (PCB process : ordered) {
+            if (process.state == ProcessState.TERMINATED) {
+                ensureCapacity(process.pid);
+                table[process.pid] = process;
+                terminated.add(process);
+            } else {
+                add(process);
+            }
+        }
+        // El historial se reconstruye en orden de terminación
+        terminated.sort(Comparator.comparingInt(p -> p.finishTick));
+        for (PCB process : terminated) {
+            appendHistory(process);
+        }
+        this.nextPid = nextPid;
+    }
+
+    /**
+     * Descarta el historial de procesos terminados para liberar memoria
+     */
     public void cleanupTerminatedProcesses() {
-        // Solo para gestión manual de memoria, si fuera necesario
-        processList.removeIf(p -> p.state == ProcessState.TERMINATED);
+        archivedCount = 0; // los terminados del almacén no ocupan objetos
+        for (int i = 0; i < historyCount; i++) {
+            table[history[i].pid] = null;
+            history[i] = null;
+        }
+        historyCount = 0;
+    }
+
+    private void ensureCapacity(int pid) {
+        if (pid < table.length) {
+            return;
+        }
+        int capacity = table.length;
+        while (capacity <= pid) {
+            capacity *= 2;
+        }
+        int oldLength = table.length;
+        table = Arrays.copyOf(table, capacity);
+        activeNext = Arrays.copyOf(activeNext, capacity);
+        activePrev = Arrays.copyOf(activePrev, capacity);
+        Arrays.fill(activeNext, oldLength, capacity, UNLINKED);
+        Arrays.fill(activePrev, oldLength, capacity, UNLINKED);
+    }
+
+    private static int[] newLinks(int length) {
+        int[] links = new int[length];
+        Arrays.fill(links, UNLINKED);
+        return links;
+    }
+
+    // Siempre al final: coincide con el orden de PID salvo en modo compacto,
+    // donde los procesos se registran en orden de llegada
+    private void linkActive(int pid) {
+        int prev = activeTail;
+        activePrev[pid] = prev;
+        activeNext[pid] = NONE;
+        if (prev == NONE) {
+            activeHead = pid;
+        } else {
+            activeNext[prev] = pid;
+        }
+        activeTail = pid;
+        activeCount++;
+        activeModifications++;
+    }
+
+    private void unlinkActive(int pid) {
+        int prev = activePrev[pid];
+        int next = activeNext[pid];
+        if (prev == NONE) {
+            activeHead = next;
+        } else {
+            activeNext[prev] = next;
+        }
+        if (next == NONE) {
+            activeTail = prev;
+        } else {
+            activePrev[next] = prev;
+        }
+        activePrev[pid] = UNLINKED;
+        activeNext[pid] = UNLINKED;
+        activeCount--;
+        activeModifications++;
+    }
+
+    private void appendHistory(PCB process) {
+        if (historyCount == history.length) {
+            history = Arrays.copyOf(history, history.length * 2);
+        }
+        history[historyCount++] = process;
+    }
+
+    // Vista de solo lectura sobre la lista enlazada de activos
+    private class ActiveView extends AbstractSequentialList<PCB> {
+        @Override
+        public int size() {
+            return activeCount;
+        }
+
+        @Override
+        public ListIterator<PCB> listIterator(int index) {
+            List<PCB> snapshot = new ArrayList<>(activeCount);
+            for (int pid = activeHead; pid != NONE; pid = activeNext[pid]) {
+                snapshot.add(table[pid]);
+            }
+            return Collections.unmodifiableList(snapshot).listIterator(index);
+        }
+
+        @Override
+        public Iterator<PCB> iterator() {
+            return new Iterator<>() {
+                private int pid = activeHead;
+                private final int expectedModifications = activeModifications;
+
+                @Override
+                public boolean hasNext() {
+                    return pid != NONE;
+                }
+
+                @Override
+                public PCB next() {
+                    if (activeModifications != expectedModifications) {
+                        throw new ConcurrentModificationException();
+                    }
+                    if (pid == NONE) {
+                        throw new NoSuchElementException();
+                    }
+                    PCB process = table[pid];
+                    pid = activeNext[pid];
+                    return process;
+                }
+            };
+        }
     }
 }
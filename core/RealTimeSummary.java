@@ -0,0 +1,40 @@
+package core;
+
+/**
+ * Plazos de las tareas de tiempo real en el resumen por lotes
+ */
+public class RealTimeSummary implements SummarySection {
+    private final long jobs;
+    private final long deadlineMisses;
+    private final long maxLateness;
+    private final int rejected;
+    private final int overdueJobs;
+
+    RealTimeSummary(SimulationEngine engine, int overdueJobs) {
+        this.jobs = engine.getRealTimeJobs();
+        this.deadlineMisses = engine.getDeadlineMisses();
+        this.maxLateness = engine.getMaxLateness();
+        this.rejected = engine.getRealTimeRejected();
+        this.overdueJobs = overdueJobs;
+    }
+
+    public long getJobs() { return jobs; }
+    public long getDeadlineMisses() { return deadlineMisses; }
+    public long getMaxLateness() { return maxLateness; }
+    public int getRejected() { return rejected; }
+    public int getOverdueJobs() { return overdueJobs; }
+
+    @Override
+    public void appendTo(StringBuilder sb) {
+        sb.append("Tiempo real:\n");
+        sb.append("Trabajos terminados:   ").append(jobs).append('\n');
+        sb.append("Plazos incumplidos:    ").append(deadlineMisses);
+        if (jobs > 0) {
+            sb.append(String.format(" (%.1f%%)", deadlineMisses * 100.0 / jobs));
+        }
+        sb.append('\n');
+        sb.append("Retraso máximo:        ").append(maxLateness).append(" ticks\n");
+        sb.append("Vencidos sin terminar: ").append(overdueJobs).append('\n');
+        sb.append("Tareas no admitidas:   ").append(rejected);
+    }
+}
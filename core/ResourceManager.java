@@ -1,31 +1,45 @@
 package core;
 
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.IntFunction;
 import memory.MemoryManager;
 import models.*;
+import persistence.CheckpointInput;
+import persistence.CheckpointOutput;
+import persistence.Checkpointable;
 import sync.Semaphore;
 
-public class ResourceManager {
+public class ResourceManager implements Checkpointable {
     private final MemoryManager memoryManager;
     private final Map<String, Semaphore> semaphores;
     private final Map<String, Resource> ioDevices;
+    private int nextResourceId = 1;
     
     public ResourceManager() {
-        this.memoryManager = new MemoryManager();
-        this.semaphores = new HashMap<>();
-        this.ioDevices = new HashMap<>();
+        this(new MemoryManager());
+    }
+    
+    /**
+     * Recursos con una memoria física ya configurada (tamaño y página)
+     */
+    public ResourceManager(MemoryManager memoryManager) {
+        this.memoryManager = memoryManager;
+        // Orden de inserción estable para que los checkpoints sean reproducibles
+        this.semaphores = new LinkedHashMap<>();
+        this.ioDevices = new LinkedHashMap<>();
         
         // Inicializar semáforos básicos
         semaphores.put("IO", new Semaphore("IO", 1)); // Semáforo para operaciones E/S
         semaphores.put("CPU", new Semaphore("CPU", 1)); // Semáforo para la CPU
         
         // Inicializar dispositivos E/S
-        ioDevices.put("disk", new Resource("Disco"));
-        ioDevices.put("printer", new Resource("Impresora"));
-        ioDevices.put("network", new Resource("Red"));
+        ioDevices.put("disk", newResource("Disco"));
+        ioDevices.put("printer", newResource("Impresora"));
+        ioDevices.put("network", newResource("Red"));
         
         Logger.log("ResourceManager inicializado con " + 
                   memoryManager.getTotalMemory() + "MB de memoria y " + 
@@ -39,14 +53,18 @@ public class ResourceManager {
         }
         
         // Asignar recursos
-        Resource cpuInstance = new Resource("CPU-" + process.pid);
+        Resource cpuInstance = newResource("CPU-" + process.pid);
         process.assignedResources.add(cpuInstance);
         
-        Logger.log("Recursos asignados al Proceso " + process.pid + 
+        Logger.log(Logger.Level.INFO, () -> "Recursos asignados al Proceso " + process.pid + 
                  " (Memoria: " + process.requiredMemory + "MB)");
         return true;
     }
 
+    private Resource newResource(String name) {
+        return new Resource(nextResourceId++, name);
+    }
+
     public void releaseResources(PCB process) {
         // Liberar memoria
         memoryManager.releaseMemory(process);
@@ -54,7 +72,7 @@ public class ResourceManager {
         // Liberar recursos
         process.assignedResources.clear();
         
-        Logger.log("Recursos liberados por el Proceso " + process.pid);
+        Logger.log(Logger.Level.INFO, () -> "Recursos liberados por el Proceso " + process.pid);
     }
 
     public boolean acquireSemaphore(PCB process, String semaphoreName) {
@@ -75,6 +93,19 @@ public class ResourceManager {
         }
     }
     
+    /**
+     * Libera un semáforo que el proceso retenía. Devuelve el proceso que
+     * pasa a retenerlo (sin cambiar su estado) o null si nadie esperaba.
+     */
+    public PCB releaseSemaphore(PCB holder, String semaphoreName) {
+        Semaphore semaphore = semaphores.get(semaphoreName);
+        return semaphore != null ? semaphore.release(holder) : null;
+    }
+    
+    public Semaphore getSemaphore(String name) {
+        return semaphores.get(name);
+    }
+    
     public List<Semaphore> getSemaphores() {
         return new ArrayList<>(semaphores.values());
     }
@@ -95,6 +126,26 @@ public class ResourceManager {
         return false;
     }
     
+    public boolean hasIODevice(String deviceName) {
+        return ioDevices.containsKey(deviceName);
+    }
+
+    public Resource getIODevice(String deviceName) {
+        return ioDevices.get(deviceName);
+    }
+
+    /**
+     * Nombre con el que está registrado un dispositivo, o null si el recurso no es un dispositivo
+     */
+    public String getIODeviceKey(Resource resource) {
+        for (Map.Entry<String, Resource> entry : ioDevices.entrySet()) {
+            if (entry.getValue() == resource) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+    
     public void releaseIODevice(PCB process, String deviceName) {
         Resource device = ioDevices.get(deviceName);
         if (device != null) {
@@ -114,6 +165,74 @@ public class ResourceManager {
     public MemoryManager getMemoryManager() {
         return memoryManager;
     }
+
+    @Override
+    public void writeState(CheckpointOutput out) throws IOException {
+        out.writeInt(nextResourceId);
+
+        // Disponibilidad de dispositivos (los dueños quedan en los recursos de cada PCB)
+        out.writeInt(ioDevices.size());
+        for (Map.Entry<String, Resource> entry : ioDevices.entrySet()) {
+            out.writeString(entry.getKey());
+            out.writeBoolean(entry.getValue().isAvailable());
+        }
+
+        out.writeInt(semaphores.size());
+        for (Semaphore semaphore : semaphores.values()) {
+            out.writeString(semaphore.getName());
+            out.writeInt(semaphore.getValue());
+            List<PCB> waiting = semaphore.getWaitingProcesses();
+            out.writeInt(waiting.size());
+            for (PCB process : waiting) {
+                out.writeInt(process.pid);
+            }
+            List<PCB> holders = semaphore.getHolders();
+            out.writeInt(holders.size());
+            for (PCB process : holders) {
+                out.writeInt(process.pid);
+            }
+        }
+
+        memoryManager.writeState(out);
+    }
+
+    @Override
+    public void readState(CheckpointInput in, IntFunction<PCB> processes) throws IOException {
+        nextResourceId = in.readInt();
+
+        int deviceCount = in.readInt();
+        for (int i = 0; i < deviceCount; i++) {
+            String key = in.readString();
+            boolean available = in.readBoolean();
+            Resource device = ioDevices.get(key);
+            if (device == null) {
+                throw new IOException("Dispositivo desconocido en el checkpoint: " + key);
+            }
+            device.setAvailable(available);
+        }
+
+        semaphores.clear();
+        int semaphoreCount = in.readInt();
+        for (int i = 0; i < semaphoreCount; i++) {
+            String name = in.readString();
+            int value = in.readInt();
+            int waitingCount = in.readInt();
+            List<PCB> waiting = new ArrayList<>(waitingCount);
+            for (int j = 0; j < waitingCount; j++) {
+                waiting.add(processes.apply(in.readInt()));
+            }
+            int holderCount = in.readInt();
+            List<PCB> holders = new ArrayList<>(holderCount);
+            for (int j = 0; j < holderCount; j++) {
+                holders.add(processes.apply(in.readInt()));
+            }
+            Semaphore semaphore = new Semaphore(name, value);
+            semaphore.restoreState(value, waiting, holders);
+            semaphores.put(name, semaphore);
+        }
+
+        memoryManager.readState(in, processes);
+    }
 }
 
 
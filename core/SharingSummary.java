@@ -0,0 +1,45 @@
+package core;
+
+import memory.SharedFrames;
+
+/**
+ * Fork con copia en escritura y bibliotecas compartidas en el resumen por lotes
+ */
+public class SharingSummary implements SummarySection {
+    private final long forks;
+    private final long forkedPages;
+    private final long copies;
+    private final long reuses;
+    private final long libraryMappings;
+    private final int libraryCount;
+    private final long savedFrames;
+    private final long peakSavedFrames;
+
+    SharingSummary(SharedFrames sharing) {
+        this.forks = sharing.getForks();
+        this.forkedPages = sharing.getForkedPages();
+        this.copies = sharing.getCopies();
+        this.reuses = sharing.getReuses();
+        this.libraryMappings = sharing.getLibraryMappings();
+        this.libraryCount = sharing.getLibraryCount();
+        this.savedFrames = sharing.getSharedMappings();
+        this.peakSavedFrames = sharing.getPeakSharedMappings();
+    }
+
+    public long getForks() { return forks; }
+    public long getCopies() { return copies; }
+    public long getPeakSavedFrames() { return peakSavedFrames; }
+
+    @Override
+    public void appendTo(StringBuilder sb) {
+        sb.append("Memoria compartida:\n");
+        sb.append("Forks:                 ").append(forks).append(" (")
+          .append(forkedPages).append(" páginas residentes compartidas al nacer)\n");
+        sb.append("Copias en escritura:   ").append(copies).append(" (")
+          .append(reuses).append(" escrituras sin copia: nadie más usaba el marco)\n");
+        sb.append("Bibliotecas:           ").append(libraryCount).append(" en uso al final, ")
+          .append(libraryMappings).append(" fallos resueltos sin leer del disco\n");
+        sb.append("Marcos ahorrados:      ").append(savedFrames).append(" al final, ")
+          .append(peakSavedFrames).append(" como máximo");
+    }
+}
@@ -1,148 +1,755 @@
 package core;
 
 import core.scheduling.*;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
 import java.util.*;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import memory.MemoryManager;
+import memory.Tlb;
+import memory.WorkingSetMonitor;
 import models.*;
+import persistence.CheckpointInput;
+import persistence.CheckpointOutput;
+import persistence.Checkpointable;
+import persistence.EventJournal;
+import sync.Semaphore;
 
-public class SimulationEngine {
-    private final Scheduler scheduler;
+public class SimulationEngine implements Checkpointable {
+    private final Scheduler scheduler; // planificador del núcleo 0 (todos son del mismo tipo)
     private final ProcessManager processManager;
     private final ResourceManager resourceManager;
     
-    private PCB runningProcess = null;
+    // Núcleos de CPU, cada uno con su proceso en ejecución y su cola de listos
+    private final CpuCore[] cores;
     private int currentTime = 0;
+    // Reloj que ven el planificador y la bitácora
+    private final LongSupplier simulationClock = () -> currentTime;
     private boolean paused = false;
     
     // Colas de procesos en diferentes estados
     private final List<PCB> newProcesses = new ArrayList<>();
-    private final List<PCB> readyProcesses = new ArrayList<>();
-    private final List<PCB> blockedProcesses = new ArrayList<>();
+    private final Set<PCB> blockedProcesses = new LinkedHashSet<>();
     private final List<PCB> suspendedProcesses = new ArrayList<>();
     
+    // Llegadas programadas ordenadas por tick
+    private final PriorityQueue<Event> eventQueue = new PriorityQueue<>();
+    
+    // Fin de E/S de los procesos bloqueados por tick absoluto. El tiempo
+    // restante de cada IOBurst bloqueada se actualiza solo al salir de aquí.
+    private TimerWheel<PCB> ioTimers = new TimerWheel<>(0);
+    private long eventSequence = 0;
+    private int pendingArrivals = 0;
+    
+    // Tareas periódicas que terminaron su trabajo y esperan el siguiente periodo
+    private final Set<PCB> waitingForRelease = new LinkedHashSet<>();
+    private TimerWheel<PCB> releaseTimers = new TimerWheel<>(0);
+    
+    // Tareas de tiempo real admitidas y vivas, y sus plazos cumplidos o no
+    private final Set<PCB> realTimeTasks = new LinkedHashSet<>();
+    private long realTimeJobs = 0;
+    private long deadlineMisses = 0;
+    private long maxLateness = 0;
+    private int realTimeRejected = 0;
+    
+    // Procesos de la carga descartados sin crearlos porque nunca podrían ejecutarse
+    private int rejectedArrivals = 0;
+    
+    // Procesos admitidos que esperan el semáforo de su lock=
+    private final Set<PCB> semaphoreBlocked = new LinkedHashSet<>();
+    
+    // Paginación por demanda: procesos que esperan que se lea su página, por tick de fin
+    private final Set<PCB> pageFaultBlocked = new LinkedHashSet<>();
+    private TimerWheel<PCB> pageFaultTimers = new TimerWheel<>(0);
+    
+    // Control de carga: procesos que suspendió por hiperpaginación, en orden de suspensión
+    private boolean loadControl = false;
+    private final Set<PCB> loadSuspended = new LinkedHashSet<>();
+    private long loadSuspensions = 0;
+    private long loadReadmissions = 0;
+    private long lastLoadAction = 0; // referencias a memoria hechas en la última suspensión o readmisión
+    
+    // Tasas de aciertos de TLB de los procesos que terminaron
+    private Tlb.Statistics tlbProcesses = new Tlb.Statistics();
+    
+    // Llegadas del almacén compacto: PIDs en orden de llegada y el siguiente por entregar
+    private CompactProcessStore arrivalStore = null;
+    private int[] arrivalOrder = new int[0];
+    private int arrivalCursor = 0;
+    
+    // Modo por eventos: salta los ticks en los que nada puede cambiar
+    private boolean eventDriven = false;
+    private long admissionMemoryState = -1; // estado de la memoria en el último intento de admisión
+    
+    // Falso si al restaurar un checkpoint el planificador era de otra política
+    private boolean schedulerStateRestored = true;
+    
+    // Bitácora binaria de transiciones (opcional)
+    private EventJournal journal = null;
+    
     public SimulationEngine(Scheduler scheduler, ProcessManager processManager, ResourceManager resourceManager) {
-        this.scheduler = scheduler;
+        this(new CpuCore[] { new CpuCore(0, scheduler) }, processManager, resourceManager);
+    }
+    
+    /**
+     * Máquina con varios núcleos: cada núcleo recibe su propia instancia del planificador
+     */
+    public SimulationEngine(Supplier<Scheduler> schedulerFactory, int coreCount,
+                            ProcessManager processManager, ResourceManager resourceManager) {
+        this(createCores(schedulerFactory, coreCount), processManager, resourceManager);
+    }
+    
+    private SimulationEngine(CpuCore[] cores, ProcessManager processManager, ResourceManager resourceManager) {
+        this.cores = cores;
+        this.scheduler = cores[0].getScheduler();
         this.processManager = processManager;
         this.resourceManager = resourceManager;
+        Logger.bindClock(simulationClock);
+        for (CpuCore core : cores) {
+            core.getScheduler().setClock(simulationClock);
+        }
+    }
+    
+    private static CpuCore[] createCores(Supplier<Scheduler> schedulerFactory, int coreCount) {
+        if (coreCount < 1) {
+            throw new IllegalArgumentException("Se requiere al menos un núcleo: " + coreCount);
+        }
+        CpuCore[] cores = new CpuCore[coreCount];
+        for (int i = 0; i < coreCount; i++) {
+            cores[i] = new CpuCore(i, schedulerFactory.get());
+        }
+        return cores;
     }
     
     public void addProcess(PCB process) {
         process.state = ProcessState.NEW;
         newProcesses.add(process);
-        Logger.log("Proceso " + process.pid + " creado (NEW)");
+        record(EventJournal.ARRIVE, process, 0);
+        Logger.log(Logger.Level.INFO, () -> "Proceso " + process.pid + " creado (NEW)");
+    }
+    
+    /**
+     * Registra desde ahora cada transición de estado en la bitácora indicada
+     * (null la desactiva). El motor no la cierra.
+     */
+    public void setJournal(EventJournal journal) {
+        this.journal = journal;
+    }
+    
+    private void record(int type, PCB process, int arg) {
+        if (journal != null) {
+            journal.record(type, currentTime, process.pid, arg);
+        }
+    }
+    
+    /**
+     * Programa la llegada de un proceso en un tick futuro
+     */
+    public void scheduleArrival(PCB process, int arrivalTick) {
+        process.arrivalTick = arrivalTick;
+        eventQueue.add(new Event(arrivalTick, eventSequence++, process));
+        pendingArrivals++;
+    }
+    
+    /**
+     * Programa la llegada de todos los procesos del almacén compacto. Cada
+     * PCB se materializa al llegar y se registra en el ProcessManager.
+     */
+    public void scheduleArrivals(CompactProcessStore store) {
+        arrivalStore = store;
+        arrivalOrder = store.arrivalOrder();
+        arrivalCursor = 0;
+        pendingArrivals += arrivalOrder.length;
+    }
+    
+    /**
+     * Le da a cada núcleo su propia TLB. Debe llamarse antes de que llegue
+     * cualquier proceso: desde entonces cada tick de CPU hace una referencia a memoria.
+     */
+    public void setTlbs(Supplier<Tlb> tlbFactory) {
+        for (CpuCore core : cores) {
+            core.tlb = tlbFactory.get();
+            resourceManager.getMemoryManager().registerTlb(core.tlb);
+        }
+    }
+    
+    /**
+     * Aciertos de TLB de todos los núcleos y de los procesos terminados, o
+     * null si no se simulan TLBs
+     */
+    public Tlb.Statistics getTlbStatistics() {
+        if (cores[0].tlb == null) {
+            return null;
+        }
+        Tlb.Statistics stats = tlbProcesses.copyProcesses();
+        for (CpuCore core : cores) {
+            stats.addCore(core.tlb);
+        }
+        return stats;
+    }
+    
+    /**
+     * Control de carga: si el monitor de conjuntos de trabajo de la memoria
+     * detecta hiperpaginación, suspende y descarga al proceso con el conjunto
+     * más grande; cuando la presión baja lo vuelve a admitir. Requiere
+     * MemoryManager.setWorkingSets().
+     */
+    public void setLoadControl(boolean loadControl) {
+        if (loadControl && resourceManager.getMemoryManager().getWorkingSets() == null) {
+            throw new IllegalStateException("El control de carga requiere estimar los conjuntos de trabajo");
+        }
+        this.loadControl = loadControl;
+    }
+    
+    public boolean isLoadControl() {
+        return loadControl;
+    }
+    
+    /**
+     * Procesos que el control de carga suspendió por hiperpaginación
+     */
+    public long getLoadSuspensions() {
+        return loadSuspensions;
+    }
+    
+    /**
+     * Procesos que el control de carga volvió a admitir
+     */
+    public long getLoadReadmissions() {
+        return loadReadmissions;
+    }
+    
+    public void setEventDriven(boolean eventDriven) {
+        this.eventDriven = eventDriven;
+    }
+    
+    public boolean isEventDriven() {
+        return eventDriven;
+    }
+    
+    /**
+     * Indica si readState() pudo recuperar las colas internas del planificador
+     * (misma política que la guardada)
+     */
+    public boolean isSchedulerStateRestored() {
+        return schedulerStateRestored;
+    }
+    
+    /**
+     * Avanza la simulación. En modo por ticks equivale a tick(); en modo por
+     * eventos primero adelanta el reloj hasta el tick anterior al siguiente
+     * evento (fin de ráfaga, fin de quantum, fin de E/S o llegada) y luego
+     * ejecuta ese tick normalmente, con el mismo resultado que el ciclo tick a tick.
+     */
+    public boolean advance() {
+        return advance(Long.MAX_VALUE);
+    }
+    
+    /**
+     * Igual que advance(), pero el salto nunca deja el reloj más allá de 'horizon'
+     */
+    public boolean advance(long horizon) {
+        if (paused) return false;
+        Logger.bindClock(simulationClock);
+        
+        if (eventDriven) {
+            long next = Math.min(nextEventTime(), horizon);
+            if (next != Long.MAX_VALUE) {
+                long skip = next - currentTime - 1;
+                if (skip > 0) {
+                    fastForward((int) Math.min(skip, Integer.MAX_VALUE - currentTime));
+                }
+            }
+        }
+        return tick();
     }
     
     public boolean tick() {
         if (paused) return false;
+        // El hilo que avanza este motor marca la bitácora con su reloj, aunque haya creado otros
+        Logger.bindClock(simulationClock);
         
         currentTime++;
         
+        // 0. Entregar las llegadas programadas hasta el tick actual
+        deliverArrivals();
+        
         // 1. Mover procesos de NEW a READY
         moveNewToReady();
         
-        // 2. Manejar proceso en RUNNING
-        handleRunningProcess();
+        // 1b. Liberar los trabajos de las tareas periódicas cuyo periodo empieza
+        releasePeriodicJobs();
+        
+        // 2. Manejar el proceso en RUNNING de cada núcleo
+        for (CpuCore core : cores) {
+            handleRunningProcess(core);
+        }
         
         // 3. Manejar procesos bloqueados (E/S)
         handleBlockedProcesses();
         
-        // 4. Seleccionar nuevo proceso a ejecutar si es necesario
-        if (runningProcess == null) {
-            selectNextProcess();
+        // 3b. Procesos cuya página terminó de cargarse
+        handleServedPageFaults();
+        
+        // 3c. Control de carga según los conjuntos de trabajo
+        controlLoad();
+        
+        // 4. Seleccionar nuevo proceso en los núcleos libres
+        for (CpuCore core : cores) {
+            if (core.runningProcess == null) {
+                selectNextProcess(core);
+            }
         }
         
-        Logger.log("Simulación: Tick " + currentTime);
+        Logger.log(Logger.Level.DEBUG, () -> "Simulación: Tick " + currentTime);
         return true;
     }
     
+    private void deliverArrivals() {
+        while (!eventQueue.isEmpty() && eventQueue.peek().time <= currentTime) {
+            Event event = eventQueue.poll();
+            pendingArrivals--;
+            addProcess(event.process);
+        }
+        while (arrivalCursor < arrivalOrder.length &&
+                arrivalStore.getArrival(arrivalOrder[arrivalCursor]) <= currentTime) {
+            PCB process = arrivalStore.materialize(arrivalOrder[arrivalCursor++]);
+            pendingArrivals--;
+            processManager.registerProcess(process);
+            addProcess(process);
+        }
+    }
+    
+    /**
+     * Tick absoluto del siguiente evento que puede cambiar el estado de la
+     * simulación, o Long.MAX_VALUE si no hay ninguno previsto.
+     */
+    private long nextEventTime() {
+        long now = currentTime;
+        
+        // Hay un núcleo libre y procesos listos: el siguiente tick despacha o roba trabajo
+        boolean idleCore = false;
+        int readyCount = 0;
+        for (CpuCore core : cores) {
+            idleCore |= core.runningProcess == null;
+            readyCount += core.readyProcesses.size();
+        }
+        if (idleCore && readyCount > 0) {
+            return now + 1;
+        }
+        
+        // La admisión solo puede cambiar si cambió la memoria desde el último intento
+        if (!newProcesses.isEmpty() &&
+                resourceManager.getMemoryManager().getAllocationState() != admissionMemoryState) {
+            return now + 1;
+        }
+        
+        long next = Long.MAX_VALUE;
+        for (CpuCore core : cores) {
+            if (core.runningProcess != null) {
+                long quiet = runningQuietTicks(core);
+                if (quiet != Long.MAX_VALUE) {
+                    next = Math.min(next, now + quiet + 1);
+                }
+            }
+        }
+        
+        if (!eventQueue.isEmpty()) {
+            next = Math.min(next, Math.max(now + 1, eventQueue.peek().time));
+        }
+        if (arrivalCursor < arrivalOrder.length) {
+            next = Math.min(next, Math.max(now + 1, arrivalStore.getArrival(arrivalOrder[arrivalCursor])));
+        }
+        if (!ioTimers.isEmpty()) {
+            next = Math.min(next, Math.max(now + 1, ioTimers.nextDeadline()));
+        }
+        if (!releaseTimers.isEmpty()) {
+            next = Math.min(next, Math.max(now + 1, releaseTimers.nextDeadline()));
+        }
+        if (!pageFaultTimers.isEmpty()) {
+            next = Math.min(next, Math.max(now + 1, pageFaultTimers.nextDeadline()));
+        }
+        return next;
+    }
+    
+    /**
+     * Número de ticks que el proceso en ejecución del núcleo puede avanzar sin
+     * terminar, ser expropiado ni bloquearse. Replica las reglas de handleRunningProcess().
+     */
+    private long runningQuietTicks(CpuCore core) {
+        PCB running = core.runningProcess;
+        SchedulingData data = running.schedulingData;
+        if (data == null || data.remainingTime == null) {
+            return Long.MAX_VALUE; // Sin datos de planificación nunca cambia
+        }
+        if (running.hasMoreIOBursts()) {
+            return 0; // Se bloquea para E/S al final del siguiente tick
+        }
+        if (makesPageReferences(running) && resourceManager.getMemoryManager().isDemandPaging()) {
+            return 0; // Cada tick hace una referencia a memoria que puede fallar al final del tick
+        }
+        
+        long quiet = Math.min(data.remainingTime - 1L, core.getScheduler().quietTicks(running));
+        return Math.max(0, quiet);
+    }
+    
+    /**
+     * Adelanta el reloj los ticks indicados aplicando solo los contadores de
+     * los procesos en ejecución. Solo es válido si en esos ticks no ocurre ningún evento.
+     */
+    private void fastForward(int ticks) {
+        int start = currentTime;
+        currentTime += ticks;
+        
+        for (CpuCore core : cores) {
+            PCB running = core.runningProcess;
+            if (running == null) {
+                continue;
+            }
+            core.busyTicks += ticks;
+            if (makesPageReferences(running)) {
+                // Solo con TLB: las referencias no fallan, pero cada una pasa por la TLB del núcleo
+                for (int tick = start + 1; tick <= currentTime; tick++) {
+                    resourceManager.getMemoryManager().reference(running, tick, core.tlb);
+                }
+            }
+            if (running.schedulingData == null || running.schedulingData.remainingTime == null) {
+                continue;
+            }
+            running.schedulingData.remainingTime -= ticks;
+            core.getScheduler().fastForward(running, ticks);
+        }
+        // Sin referencias en el salto, el conjunto de trabajo no cambió
+        MemoryManager memory = resourceManager.getMemoryManager();
+        if (memory.getWorkingSets() != null) {
+            memory.getWorkingSets().sample(memory.getFrameCount(), ticks);
+        }
+    }
+    
+    /**
+     * Muestra el conjunto de trabajo del tick y, con control de carga,
+     * suspende o readmite a lo sumo un proceso. Después de cada acción espera
+     * una ventana de referencias para que la tasa de fallos refleje el cambio.
+     */
+    private void controlLoad() {
+        MemoryManager memory = resourceManager.getMemoryManager();
+        WorkingSetMonitor workingSets = memory.getWorkingSets();
+        if (workingSets == null) {
+            return;
+        }
+        boolean thrashing = workingSets.sample(memory.getFrameCount(), 1);
+        if (!loadControl) {
+            return;
+        }
+        if (!loadSuspended.isEmpty() && isStalled()) {
+            // Nadie más puede avanzar: se readmite aunque no haya marcos para su conjunto
+            readmit();
+            return;
+        }
+        if (memory.getPageReferences() - lastLoadAction < workingSets.getWindow()) {
+            return;
+        }
+        if (thrashing) {
+            int pid = workingSets.selectVictim();
+            if (pid >= 0) {
+                PCB victim = processManager.getProcess(pid);
+                int workingSet = workingSets.getWorkingSetSize(pid);
+                Logger.log(Logger.Level.WARN, () -> String.format(
+                        "Hiperpaginación: demanda de %d marcos de %d y %.1f%% de fallos; se suspende el proceso %d (%d páginas en su conjunto)",
+                        workingSets.getDemand(), memory.getFrameCount(), workingSets.getSystemFaultRate() * 100,
+                        pid, workingSet));
+                suspendProcess(victim);
+                loadSuspended.add(victim);
+                loadSuspensions++;
+                lastLoadAction = memory.getPageReferences();
+            }
+        } else if (!loadSuspended.isEmpty() &&
+                workingSets.canAdmit(memory.getFrameCount(), workingSets.getWorkingSetSize(loadSuspended.iterator().next().pid))) {
+            readmit();
+        }
+    }
+    
+    // Vuelve a admitir al primer proceso que suspendió el control de carga
+    private void readmit() {
+        PCB process = loadSuspended.iterator().next();
+        Logger.log(Logger.Level.INFO, () -> "Control de carga: se readmite el proceso " + process.pid);
+        resumeProcess(process);
+        loadReadmissions++;
+        lastLoadAction = resourceManager.getMemoryManager().getPageReferences();
+    }
+    
+    // Ningún proceso ejecuta, está listo ni espera algo que vaya a terminar solo
+    private boolean isStalled() {
+        for (CpuCore core : cores) {
+            if (core.runningProcess != null || !core.readyProcesses.isEmpty()) {
+                return false;
+            }
+        }
+        return pageFaultBlocked.isEmpty() && blockedProcesses.isEmpty() && waitingForRelease.isEmpty();
+    }
+    
     private void moveNewToReady() {
         List<PCB> readyToMove = new ArrayList<>();
+        List<PCB> rejected = new ArrayList<>();
         for (PCB process : newProcesses) {
             // Asignar recursos y cambiar a estado READY
             if (resourceManager.requestResources(process)) {
-                process.state = ProcessState.READY;
+                if (!admitRealTime(process)) {
+                    resourceManager.releaseResources(process);
+                    rejected.add(process);
+                    continue;
+                }
                 readyToMove.add(process);
-                Logger.log("Proceso " + process.pid + " pasa a READY");
+                record(EventJournal.ALLOCATE, process, process.requiredMemory);
+                if (!acquireLock(process)) {
+                    continue;
+                }
+                process.state = ProcessState.READY;
+                Logger.log(Logger.Level.INFO, () -> "Proceso " + process.pid + " pasa a READY");
                 
-                // Agregar proceso al planificador
-                scheduler.addProcess(process);
-                readyProcesses.add(process);
+                // Agregar proceso al planificador del núcleo menos cargado
+                CpuCore core = leastLoadedCore();
+                enqueueReady(core, process);
+                record(EventJournal.ADMIT, process, core.getId());
             }
         }
         newProcesses.removeAll(readyToMove);
+        newProcesses.removeAll(rejected);
+        admissionMemoryState = newProcesses.isEmpty() ? -1 :
+            resourceManager.getMemoryManager().getAllocationState();
+    }
+    
+    /**
+     * Prueba de planificabilidad de la política para las tareas con plazo
+     * (las demás siempre entran). Una tarea rechazada termina sin ejecutarse.
+     */
+    private boolean admitRealTime(PCB process) {
+        SchedulingData data = process.schedulingData;
+        if (data == null || data.relativeDeadline == null) {
+            return true;
+        }
+        List<SchedulingData> tasks = new ArrayList<>(realTimeTasks.size() + 1);
+        for (PCB task : realTimeTasks) {
+            tasks.add(task.schedulingData);
+        }
+        tasks.add(data);
+        if (!scheduler.isSchedulable(tasks, cores.length)) {
+            realTimeRejected++;
+            process.state = ProcessState.TERMINATED;
+            processManager.processTerminated(process);
+            record(EventJournal.TERMINATE, process, 1);
+            Logger.log(Logger.Level.WARN, () -> "Proceso " + process.pid +
+                      " rechazado: con él las tareas de tiempo real no serían planificables (" + scheduler.getName() + ")");
+            return false;
+        }
+        realTimeTasks.add(process);
+        if (data.absoluteDeadline == null) {
+            // El primer trabajo se libera al admitirse, que es cuando empieza a competir por la
+            // CPU (una llegada en el tick 0 se entrega en el 1); las siguientes liberaciones se anclan aquí
+            data.absoluteDeadline = (long) currentTime + data.relativeDeadline;
+        }
+        return true;
+    }
+    
+    /**
+     * Un proceso con lock= retiene ese semáforo (un mutex) desde que es
+     * admitido hasta que termina; si está tomado, espera bloqueado.
+     */
+    private boolean acquireLock(PCB process) {
+        if (process.lock == null) {
+            return true;
+        }
+        Semaphore semaphore = resourceManager.getSemaphore(process.lock);
+        if (semaphore == null) {
+            semaphore = resourceManager.createSemaphore(process.lock, 1);
+        }
+        if (semaphore.wait(process)) {
+            return true;
+        }
+        process.state = ProcessState.BLOCKED;
+        semaphoreBlocked.add(process);
+        record(EventJournal.BLOCK, process, -1);
+        lendTickets(semaphore);
+        return false;
+    }
+    
+    /**
+     * Libera el semáforo del proceso que termina y despierta al siguiente, o
+     * lo saca de la cola de espera si todavía no lo había obtenido
+     */
+    private void releaseLock(PCB process) {
+        Semaphore semaphore = process.lock != null ? resourceManager.getSemaphore(process.lock) : null;
+        if (semaphore == null) {
+            return;
+        }
+        semaphoreBlocked.remove(process);
+        if (semaphore.cancelWait(process)) {
+            lendTickets(semaphore);
+            return;
+        }
+        if (!semaphore.getHolders().contains(process)) {
+            return;
+        }
+        if (process.schedulingData != null) {
+            process.schedulingData.receivedTickets = 0;
+        }
+        PCB next = semaphore.release(process);
+        if (next == null) {
+            return;
+        }
+        lendTickets(semaphore);
+        // Un proceso suspendido mientras esperaba obtiene el semáforo y sigue suspendido
+        if (semaphoreBlocked.remove(next)) {
+            next.state = ProcessState.READY;
+            CpuCore core = leastLoadedCore();
+            enqueueReady(core, next);
+            record(EventJournal.UNBLOCK, next, core.getId());
+        }
+    }
+    
+    private boolean isWaitingForLock(PCB process) {
+        Semaphore semaphore = process.lock != null ? resourceManager.getSemaphore(process.lock) : null;
+        return semaphore != null && semaphore.getWaitingProcesses().contains(process);
+    }
+    
+    /**
+     * Transferencia de boletos: quien retiene el semáforo recibe los boletos de
+     * los que lo esperan, así las políticas de reparto proporcional no lo
+     * postergan mientras otros dependen de él
+     */
+    private void lendTickets(Semaphore semaphore) {
+        List<PCB> holders = semaphore.getHolders();
+        if (holders.isEmpty() || holders.get(0).schedulingData == null) {
+            return;
+        }
+        PCB holder = holders.get(0);
+        int lent = 0;
+        for (PCB waiting : semaphore.getWaitingProcesses()) {
+            lent += CpuShareTracker.ticketsOf(waiting);
+        }
+        if (holder.schedulingData.receivedTickets == lent) {
+            return;
+        }
+        holder.schedulingData.receivedTickets = lent;
+        int received = lent;
+        Logger.log(Logger.Level.DEBUG, () -> "Proceso " + holder.pid + " recibe " + received +
+                  " boletos de los procesos que esperan el semáforo '" + semaphore.getName() + "'");
+        if (holder.state == ProcessState.READY || holder.state == ProcessState.RUNNING) {
+            homeCore(holder).getScheduler().ticketsChanged(holder);
+        }
+    }
+    
+    // Los trabajos de las tareas periódicas se liberan al empezar su periodo
+    private void releasePeriodicJobs() {
+        for (PCB process : releaseTimers.advanceTo(currentTime)) {
+            waitingForRelease.remove(process);
+            process.state = ProcessState.READY;
+            CpuCore core = homeCore(process);
+            enqueueReady(core, process);
+            record(EventJournal.UNBLOCK, process, core.getId());
+            long deadline = process.schedulingData.absoluteDeadline;
+            Logger.log(Logger.Level.INFO, () -> "Proceso " + process.pid +
+                      " libera un nuevo trabajo (plazo: tick " + deadline + ")");
+        }
+    }
+    
+    private CpuCore leastLoadedCore() {
+        CpuCore best = cores[0];
+        for (int i = 1; i < cores.length; i++) {
+            if (cores[i].load() < best.load()) {
+                best = cores[i];
+            }
+        }
+        return best;
     }
     
-    private void handleRunningProcess() {
+    // Núcleo al que vuelve un proceso (afinidad con el último núcleo asignado)
+    private CpuCore homeCore(PCB process) {
+        if (process.coreId >= 0 && process.coreId < cores.length) {
+            return cores[process.coreId];
+        }
+        return leastLoadedCore();
+    }
+    
+    private void enqueueReady(CpuCore core, PCB process) {
+        process.coreId = core.getId();
+        core.readyProcesses.add(process);
+        core.getScheduler().addProcess(process);
+    }
+    
+    private void handleRunningProcess(CpuCore core) {
+        PCB runningProcess = core.runningProcess;
         if (runningProcess != null) {
+            int pid = runningProcess.pid;
+            // Con paginación por demanda o TLB cada tick de CPU hace una referencia a memoria
+            boolean pageFault = makesPageReferences(runningProcess) &&
+                    !resourceManager.getMemoryManager().reference(runningProcess, currentTime, core.tlb);
+            core.busyTicks++;
+            Scheduler scheduler = core.getScheduler();
+            
             // Decrementar el tiempo restante
-            if (runningProcess.schedulingData != null && 
+            if (runningProcess.schedulingData != null &&
                 runningProcess.schedulingData.remainingTime != null) {
                 
                 runningProcess.schedulingData.remainingTime--;
+                if (runningProcess.forkCount > 0 && runningProcess.schedulingData.burstTime != null &&
+                        runningProcess.schedulingData.burstTime - runningProcess.schedulingData.remainingTime >= runningProcess.forkAt) {
+                    forkChildren(runningProcess);
+                }
                 
                 // Verificar si se completó
                 if (runningProcess.schedulingData.remainingTime <= 0) {
-                    Logger.log("Proceso " + runningProcess.pid + " completó su ejecución");
                     // Asegurar que remainingTime no sea negativo
                     runningProcess.schedulingData.remainingTime = 0;
-                    completeProcess(runningProcess);
-                    runningProcess = null;
+                    finishCpuBurst(core, runningProcess);
                     return; // Importante: salir para evitar más procesamiento
                 }
                 
-                // Si usa Round Robin, verificar quantum
-                if (scheduler instanceof RoundRobinScheduler &&
-                        runningProcess.schedulingData.quantum != null) {
-                    
-                    // Decrementar contador del quantum
-                    int remainingQuantum = runningProcess.schedulingData.quantum - 1;
-                    runningProcess.schedulingData.quantum = remainingQuantum;
-                    
-                    // Si se acabó el quantum pero aún tiene tiempo de CPU
-                    if (remainingQuantum <= 0) {
-                        Logger.log("Proceso " + runningProcess.pid + " agotó su quantum (Round Robin)");
-                        // Resetear quantum y poner al final de la cola
-                        RoundRobinScheduler rr = (RoundRobinScheduler) scheduler;
-                        runningProcess.schedulingData.quantum = rr.getQuantum();
-                        runningProcess.state = ProcessState.READY;
-                        
-                        readyProcesses.add(runningProcess);
-                        scheduler.addProcess(runningProcess);
-                        runningProcess = null;
-                    }
-                }
-                // Si usa Cola Multinivel, verificar quantum y preemption
-                else if (scheduler instanceof MultilevelQueueScheduler) {
-                    MultilevelQueueScheduler mlq = (MultilevelQueueScheduler) scheduler;
-                    // Actualizar tiempos para este proceso
-                    mlq.updateProcessTimes(runningProcess);
-                    
-                    // Verificar si debe ser interrumpido
-                    if (mlq.shouldPreempt(runningProcess)) {
-                        Logger.log("Proceso " + runningProcess.pid + " agotó su quantum (Cola Multinivel)");
+                // La política decide si el proceso sigue, vuelve a la cola o ya terminó
+                switch (scheduler.onTick(runningProcess)) {
+                    case PREEMPT:
+                        if (pageFault) {
+                            break; // deja la CPU de todos modos para esperar su página
+                        }
+                        Logger.log(Logger.Level.INFO, () -> "Proceso " + pid + " agotó su porción de CPU y vuelve a la cola de listos");
                         runningProcess.state = ProcessState.READY;
-                        readyProcesses.add(runningProcess);
-                        scheduler.addProcess(runningProcess);
+                        enqueueReady(core, runningProcess);
+                        record(EventJournal.PREEMPT, runningProcess, core.getId());
+                        core.runningProcess = null;
                         runningProcess = null;
-                    }
-                    // Verificar si se ha completado 
-                    else if (mlq.isProcessComplete(runningProcess)) {
-                        Logger.log("Proceso " + runningProcess.pid + " completó su ejecución");
-                        completeProcess(runningProcess);
+                        break;
+                    case COMPLETE:
+                        finishCpuBurst(core, runningProcess);
                         runningProcess = null;
-                    }
+                        break;
+                    default:
+                        break;
+                }
+                
+                if (runningProcess != null && pageFault) {
+                    pageFault(core, runningProcess);
+                    return;
                 }
                 
                 // Verificar si hay una ráfaga de E/S pendiente
                 if (runningProcess != null && runningProcess.hasMoreIOBursts()) {
                     PCB.IOBurst ioBurst = runningProcess.getCurrentIOBurst();
                     // Proceso bloqueado para E/S
-                    Logger.log("Proceso " + runningProcess.pid + " bloqueado para E/S: " + 
+                    Logger.log(Logger.Level.INFO, () -> "Proceso " + pid + " bloqueado para E/S: " +
                              ioBurst.getDeviceType() + ", duración=" + ioBurst.getDuration());
                     
                     if (resourceManager.requestIODevice(runningProcess, ioBurst.getDeviceType())) {
                         runningProcess.state = ProcessState.BLOCKED;
+                        scheduler.onBlocked(runningProcess);
                         blockedProcesses.add(runningProcess);
-                        runningProcess = null;
+                        record(EventJournal.BLOCK, runningProcess, core.getId());
+                        // La E/S se descuenta desde este mismo tick
+                        ioTimers.schedule(runningProcess, (long) currentTime + Math.max(1, ioBurst.getRemainingTime()) - 1);
+                        core.runningProcess = null;
                     }
                 }
             }
@@ -150,58 +757,281 @@ public class SimulationEngine {
     }
     
     private void handleBlockedProcesses() {
-        List<PCB> processesToUnblock = new ArrayList<>();
-        
-        for (PCB process : blockedProcesses) {
+        // Solo se visitan los procesos cuya E/S termina en este tick
+        for (PCB process : ioTimers.advanceTo(currentTime)) {
             PCB.IOBurst ioBurst = process.getCurrentIOBurst();
-            if (ioBurst != null) {
-                ioBurst.decrementTime();
-                
-                if (ioBurst.isComplete()) {
-                    // La operación de E/S ha terminado
-                    Logger.log("Proceso " + process.pid + " completó E/S: " + 
-                             ioBurst.getDeviceType());
-                    
-                    // Liberar dispositivo E/S
-                    resourceManager.releaseIODevice(process, ioBurst.getDeviceType());
-                    
-                    // Marcar operación como completada y mover a ready
-                    process.completeCurrentIOBurst();
-                    process.state = ProcessState.READY;
-                    
-                    // Agregar a la cola de listos
-                    readyProcesses.add(process);
-                    scheduler.addProcess(process);
-                    
-                    processesToUnblock.add(process);
-                }
+            ioBurst.decrementTime(ioBurst.getRemainingTime());
+            
+            // La operación de E/S ha terminado
+            Logger.log(Logger.Level.INFO, () -> "Proceso " + process.pid + " completó E/S: " +
+                     ioBurst.getDeviceType());
+            
+            // Liberar dispositivo E/S
+            resourceManager.releaseIODevice(process, ioBurst.getDeviceType());
+            
+            // Marcar operación como completada y mover a ready
+            process.completeCurrentIOBurst();
+            process.state = ProcessState.READY;
+            blockedProcesses.remove(process);
+            
+            // Agregar a la cola de listos de su núcleo
+            CpuCore core = homeCore(process);
+            enqueueReady(core, process);
+            record(EventJournal.UNBLOCK, process, core.getId());
+        }
+    }
+    
+    /**
+     * El proceso crea sus hijos con fork: cada uno comparte su memoria con
+     * copia en escritura y entra directo a la cola de listos del núcleo
+     * menos cargado
+     */
+    private void forkChildren(PCB parent) {
+        MemoryManager memory = resourceManager.getMemoryManager();
+        for (int i = 0; i < parent.forkCount; i++) {
+            PCB child = processManager.forkProcess(parent);
+            child.arrivalTick = currentTime;
+            CpuCore core = leastLoadedCore();
+            Integer tickets = child.schedulingData.tickets;
+            core.getScheduler().configure(child.schedulingData, child.priority);
+            if (tickets != null) {
+                child.schedulingData.tickets = tickets;
             }
+            record(EventJournal.ARRIVE, child, 0);
+            memory.fork(parent, child);
+            record(EventJournal.ALLOCATE, child, child.requiredMemory);
+            child.state = ProcessState.READY;
+            enqueueReady(core, child);
+            record(EventJournal.ADMIT, child, core.getId());
         }
-        
-        blockedProcesses.removeAll(processesToUnblock);
+        int children = parent.forkCount;
+        parent.forkCount = 0;
+        Logger.log(Logger.Level.INFO, () -> "Proceso " + parent.pid + " hizo fork: " + children + " hijos");
+    }
+    
+    private boolean makesPageReferences(PCB process) {
+        return process.pageReferences != null && resourceManager.getMemoryManager().tracksReferences();
+    }
+    
+    /**
+     * Fallo de página al final del tick: el proceso deja la CPU y espera
+     * bloqueado los ticks que tarda en leerse la página
+     */
+    private void pageFault(CpuCore core, PCB process) {
+        int serviceTicks = resourceManager.getMemoryManager().getLastFaultTicks();
+        process.state = ProcessState.BLOCKED;
+        core.getScheduler().onBlocked(process);
+        core.runningProcess = null;
+        pageFaultBlocked.add(process);
+        record(EventJournal.BLOCK, process, core.getId());
+        pageFaultTimers.schedule(process, (long) currentTime + serviceTicks);
+        Logger.log(Logger.Level.INFO, () -> "Proceso " + process.pid + " bloqueado por fallo de página (" +
+                 serviceTicks + " ticks)");
     }
     
-    private void selectNextProcess() {
-        PCB nextProcess = scheduler.getNextProcess();
+    private void handleServedPageFaults() {
+        for (PCB process : pageFaultTimers.advanceTo(currentTime)) {
+            pageFaultBlocked.remove(process);
+            process.state = ProcessState.READY;
+            CpuCore core = homeCore(process);
+            enqueueReady(core, process);
+            record(EventJournal.UNBLOCK, process, core.getId());
+            Logger.log(Logger.Level.DEBUG, () -> "Proceso " + process.pid + " ya tiene su página en memoria");
+        }
+    }
+    
+    // Lleva el tiempo restante de la E/S de un proceso bloqueado al tick actual
+    private void updateIORemaining(PCB process) {
+        long deadline = ioTimers.getDeadline(process);
+        PCB.IOBurst ioBurst = process.getCurrentIOBurst();
+        if (deadline >= 0 && ioBurst != null) {
+            ioBurst.decrementTime((int) (ioBurst.getRemainingTime() - (deadline - currentTime)));
+        }
+    }
+    
+    private void selectNextProcess(CpuCore core) {
+        PCB nextProcess = core.getScheduler().getNextProcess();
+        if (nextProcess == null && cores.length > 1 && stealWork(core)) {
+            nextProcess = core.getScheduler().getNextProcess();
+        }
         if (nextProcess != null) {
-            readyProcesses.remove(nextProcess);
+            core.readyProcesses.remove(nextProcess);
             nextProcess.state = ProcessState.RUNNING;
-            runningProcess = nextProcess;
-            Logger.log("Proceso " + nextProcess.pid + " pasa a RUNNING");
+            core.runningProcess = nextProcess;
+            core.dispatches++;
+            if (core.tlb != null) {
+                core.tlb.switchTo(nextProcess.pid);
+            }
+            if (nextProcess.lastCore >= 0 && nextProcess.lastCore != core.getId()) {
+                core.migrations++;
+            }
+            nextProcess.lastCore = core.getId();
+            record(EventJournal.DISPATCH, nextProcess, core.getId());
+            PCB dispatched = nextProcess;
+            Logger.log(Logger.Level.INFO, () -> "Proceso " + dispatched.pid + " pasa a RUNNING" +
+                      (cores.length > 1 ? " en CPU" + core.getId() : ""));
+        }
+    }
+    
+    /**
+     * Un núcleo ocioso toma el proceso más antiguo de la cola del núcleo con
+     * más trabajo pendiente (que no podrá atender en este tick).
+     */
+    private boolean stealWork(CpuCore thief) {
+        CpuCore victim = null;
+        for (CpuCore core : cores) {
+            if (core == thief) {
+                continue;
+            }
+            int waiting = core.readyProcesses.size() - (core.runningProcess == null ? 1 : 0);
+            if (waiting > 0 && (victim == null || core.readyProcesses.size() > victim.readyProcesses.size())) {
+                victim = core;
+            }
+        }
+        if (victim == null) {
+            return false;
+        }
+        
+        PCB stolen = victim.readyProcesses.poll();
+        victim.getScheduler().removeProcess(stolen);
+        enqueueReady(thief, stolen);
+        record(EventJournal.MIGRATE, stolen, thief.getId());
+        thief.steals++;
+        CpuCore from = victim;
+        Logger.log(Logger.Level.INFO, () -> "CPU" + thief.getId() + " roba el proceso " + stolen.pid + " de CPU" + from.getId());
+        return true;
+    }
+    
+    /**
+     * El proceso en ejecución agotó su tiempo de CPU. Una tarea periódica con
+     * trabajos pendientes espera la liberación del siguiente; cualquier otro termina.
+     */
+    private void finishCpuBurst(CpuCore core, PCB process) {
+        int pid = process.pid;
+        SchedulingData data = process.schedulingData;
+        core.runningProcess = null;
+        checkDeadline(process);
+        if (data.period == null || data.absoluteDeadline == null || data.jobsLeft == null || data.jobsLeft <= 1) {
+            Logger.log(Logger.Level.INFO, () -> "Proceso " + pid + " completó su ejecución");
+            completeProcess(process);
+            return;
+        }
+        
+        data.jobsLeft--;
+        long release = data.absoluteDeadline - data.relativeDeadline + data.period;
+        data.absoluteDeadline = release + data.relativeDeadline;
+        data.remainingTime = data.burstTime;
+        if (release <= currentTime) {
+            // El trabajo se atrasó más de un periodo: el siguiente ya está liberado
+            Logger.log(Logger.Level.INFO, () -> "Proceso " + pid + " terminó un trabajo y el siguiente ya está liberado");
+            process.state = ProcessState.READY;
+            enqueueReady(core, process);
+            record(EventJournal.PREEMPT, process, core.getId());
+        } else {
+            Logger.log(Logger.Level.INFO, () -> "Proceso " + pid + " terminó un trabajo; el siguiente se libera en el tick " + release);
+            process.state = ProcessState.BLOCKED;
+            core.getScheduler().onBlocked(process);
+            waitingForRelease.add(process);
+            releaseTimers.schedule(process, release);
+            record(EventJournal.BLOCK, process, core.getId());
+        }
+    }
+    
+    // Cuenta el trabajo que acaba de terminar y si se pasó de su plazo
+    private void checkDeadline(PCB process) {
+        Long deadline = process.schedulingData.absoluteDeadline;
+        if (deadline == null) {
+            return;
+        }
+        process.schedulingData.jobsDone++;
+        realTimeJobs++;
+        if (currentTime > deadline) {
+            long lateness = currentTime - deadline;
+            deadlineMisses++;
+            maxLateness = Math.max(maxLateness, lateness);
+            Logger.log(Logger.Level.WARN, () -> "Proceso " + process.pid + " incumplió su plazo (tick " +
+                      deadline + ") por " + lateness + " ticks");
         }
     }
     
     private void completeProcess(PCB process) {
-        scheduler.onProcessFinished(process);
+        homeCore(process).getScheduler().onProcessFinished(process);
         process.state = ProcessState.TERMINATED;
+        process.finishTick = currentTime;
+        tlbProcesses.addProcess(process);
+        processManager.processTerminated(process);
+        record(EventJournal.TERMINATE, process, 0);
         
-        // Liberar recursos
+        // Liberar recursos; la traza ya no la lee nadie y se cierra su archivo, si lo tiene
         resourceManager.releaseResources(process);
+        process.pageAccesses.clear();
+        record(EventJournal.RELEASE, process, process.requiredMemory);
+        releaseLock(process);
         
         // Eliminar de todas las listas activas (por si acaso)
         newProcesses.remove(process);
-        readyProcesses.remove(process);
         blockedProcesses.remove(process);
+        pageFaultBlocked.remove(process);
+        realTimeTasks.remove(process);
+        for (CpuCore core : cores) {
+            core.readyProcesses.remove(process);
+        }
+    }
+    
+    /**
+     * Termina un proceso por orden externa (por ejemplo, desde la consola),
+     * quitándolo de su cola o núcleo y liberando sus recursos.
+     */
+    public void terminateProcess(PCB process, String reason) {
+        detach(process);
+        newProcesses.remove(process);
+        suspendedProcesses.remove(process);
+        loadSuspended.remove(process);
+        realTimeTasks.remove(process);
+        
+        resourceManager.releaseResources(process);
+        process.pageAccesses.clear();
+        process.finishTick = currentTime;
+        processManager.terminateProcess(process.pid, reason);
+        process.state = ProcessState.TERMINATED;
+        record(EventJournal.TERMINATE, process, 1);
+        record(EventJournal.RELEASE, process, process.requiredMemory);
+        releaseLock(process);
+    }
+    
+    // Quita un proceso de la CPU, de la cola de listos o de la lista de bloqueados
+    private void detach(PCB process) {
+        for (CpuCore core : cores) {
+            if (core.runningProcess == process) {
+                core.runningProcess = null;
+                core.getScheduler().removeProcess(process);
+                return;
+            }
+        }
+        if (blockedProcesses.remove(process)) {
+            updateIORemaining(process);
+            ioTimers.cancel(process);
+            PCB.IOBurst ioBurst = process.getCurrentIOBurst();
+            if (ioBurst != null) {
+                resourceManager.releaseIODevice(process, ioBurst.getDeviceType());
+            }
+            return;
+        }
+        if (waitingForRelease.remove(process)) {
+            releaseTimers.cancel(process);
+            return;
+        }
+        if (pageFaultBlocked.remove(process)) {
+            pageFaultTimers.cancel(process); // la página ya quedó cargada
+            return;
+        }
+        if (semaphoreBlocked.remove(process)) {
+            return; // sigue en la cola del semáforo hasta que lo obtenga o lo terminen
+        }
+        CpuCore core = homeCore(process);
+        if (core.readyProcesses.remove(process)) {
+            core.getScheduler().removeProcess(process);
+        }
     }
     
     public void togglePause() {
@@ -214,15 +1044,67 @@ public class SimulationEngine {
     }
     
     public List<PCB> getReadyProcesses() {
-        return new ArrayList<>(readyProcesses);
+        List<PCB> ready = new ArrayList<>();
+        for (CpuCore core : cores) {
+            ready.addAll(core.readyProcesses);
+        }
+        return ready;
     }
     
+    /**
+     * Procesos bloqueados por E/S, por un fallo de página o esperando un
+     * semáforo, y tareas periódicas que esperan su siguiente periodo
+     */
     public List<PCB> getBlockedProcesses() {
-        return new ArrayList<>(blockedProcesses);
+        for (PCB process : blockedProcesses) {
+            updateIORemaining(process);
+        }
+        List<PCB> blocked = new ArrayList<>(blockedProcesses);
+        blocked.addAll(pageFaultBlocked);
+        blocked.addAll(waitingForRelease);
+        blocked.addAll(semaphoreBlocked);
+        return blocked;
+    }
+    
+    public List<PCB> getSuspendedProcesses() {
+        return new ArrayList<>(suspendedProcesses);
     }
     
+    /**
+     * Proceso en ejecución del núcleo 0 (en una máquina de un solo núcleo, el único)
+     */
     public PCB getRunningProcess() {
-        return runningProcess;
+        return cores[0].runningProcess;
+    }
+    
+    public List<PCB> getRunningProcesses() {
+        List<PCB> running = new ArrayList<>();
+        for (CpuCore core : cores) {
+            if (core.runningProcess != null) {
+                running.add(core.runningProcess);
+            }
+        }
+        return running;
+    }
+    
+    public List<CpuCore> getCores() {
+        return List.of(cores);
+    }
+    
+    public int getCoreCount() {
+        return cores.length;
+    }
+    
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+    
+    public ProcessManager getProcessManager() {
+        return processManager;
+    }
+    
+    public ResourceManager getResourceManager() {
+        return resourceManager;
     }
     
     public int getCurrentTime() {
@@ -233,29 +1115,336 @@ public class SimulationEngine {
         return paused;
     }
     
+    /**
+     * Trabajos con plazo que terminaron (cumpliéndolo o no)
+     */
+    public long getRealTimeJobs() {
+        return realTimeJobs;
+    }
+    
+    public long getDeadlineMisses() {
+        return deadlineMisses;
+    }
+    
+    /**
+     * Mayor retraso de un trabajo respecto de su plazo, en ticks
+     */
+    public long getMaxLateness() {
+        return maxLateness;
+    }
+    
+    /**
+     * Cuenta un proceso de la carga que se descartó sin crearlo (lo decide
+     * quien entrega la carga); el total se guarda en los checkpoints
+     */
+    public void countRejectedArrival() {
+        rejectedArrivals++;
+    }
+    
+    public int getRejectedArrivals() {
+        return rejectedArrivals;
+    }
+    
+    /**
+     * Tareas de tiempo real que no pasaron la prueba de planificabilidad
+     */
+    public int getRealTimeRejected() {
+        return realTimeRejected;
+    }
+    
+    /**
+     * Trabajos sin terminar cuyo plazo ya pasó
+     */
+    public int countOverdueJobs() {
+        int overdue = 0;
+        for (PCB task : realTimeTasks) {
+            Long deadline = task.schedulingData.absoluteDeadline;
+            if (!waitingForRelease.contains(task) && deadline != null && deadline < currentTime) {
+                overdue++;
+            }
+        }
+        return overdue;
+    }
+    
+    /**
+     * Indica si queda trabajo por simular (llegadas, procesos nuevos,
+     * listos, bloqueados o en ejecución). Los suspendidos no cuentan, salvo
+     * los que suspendió el control de carga, que volverán solos.
+     */
+    public boolean hasPendingWork() {
+        if (pendingArrivals > 0 || !newProcesses.isEmpty() || !blockedProcesses.isEmpty() ||
+                !pageFaultBlocked.isEmpty() || !waitingForRelease.isEmpty() || !loadSuspended.isEmpty()) {
+            return true;
+        }
+        for (CpuCore core : cores) {
+            if (core.runningProcess != null || !core.readyProcesses.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Suspende el proceso; con paginación por demanda además se descargan
+     * sus páginas y sus marcos quedan libres para los demás
+     */
     public void suspendProcess(PCB process) {
-        if (process == runningProcess) {
-            runningProcess = null;
-        } else {
-            readyProcesses.remove(process);
-            blockedProcesses.remove(process);
+        detach(process);
+        MemoryManager memory = resourceManager.getMemoryManager();
+        if (memory.isDemandPaging()) {
+            memory.swapOut(process, currentTime);
         }
         
         process.state = ProcessState.SUSPENDED;
         suspendedProcesses.add(process);
-        Logger.log("Proceso " + process.pid + " suspendido");
+        record(EventJournal.SUSPEND, process, 0);
+        Logger.log(Logger.Level.INFO, () -> "Proceso " + process.pid + " suspendido");
     }
     
     public void resumeProcess(PCB process) {
         if (process.state == ProcessState.SUSPENDED) {
+            loadSuspended.remove(process);
+            if (resourceManager.getMemoryManager().isDemandPaging()) {
+                resourceManager.getMemoryManager().swapIn(process); // sus páginas vuelven por demanda
+            }
+        }
+        if (process.state == ProcessState.SUSPENDED && isWaitingForLock(process)) {
+            // Todavía no obtuvo su semáforo: vuelve a esperarlo
+            process.state = ProcessState.BLOCKED;
+            suspendedProcesses.remove(process);
+            semaphoreBlocked.add(process);
+            record(EventJournal.BLOCK, process, -1);
+            Logger.log(Logger.Level.INFO, () -> "Proceso " + process.pid + " reanudado; sigue esperando el semáforo '" +
+                     process.lock + "'");
+        } else if (process.state == ProcessState.SUSPENDED) {
             process.state = ProcessState.READY;
             suspendedProcesses.remove(process);
-            readyProcesses.add(process);
-            scheduler.addProcess(process);
-            Logger.log("Proceso " + process.pid + " reanudado (READY)");
+            CpuCore core = homeCore(process);
+            enqueueReady(core, process);
+            record(EventJournal.RESUME, process, core.getId());
+            Logger.log(Logger.Level.INFO, () -> "Proceso " + process.pid + " reanudado (READY)");
         } else {
-            Logger.log("Error: No se puede reanudar el proceso " + process.pid + 
+            Logger.log(Logger.Level.WARN, () -> "Error: No se puede reanudar el proceso " + process.pid +
                      " porque no está suspendido. Estado actual: " + process.state);
         }
     }
-}
\ No newline at end of file
+    
+    @Override
+    public void writeState(CheckpointOutput out) throws IOException {
+        out.writeInt(currentTime);
+        out.writeBoolean(paused);
+        out.writeBoolean(eventDriven);
+        out.writeLong(admissionMemoryState);
+        out.writeLong(eventSequence);
+        out.writeInt(pendingArrivals);
+        
+        out.writeInt(cores.length);
+        for (CpuCore core : cores) {
+            out.writeInt(core.runningProcess != null ? core.runningProcess.pid : -1);
+            writePids(out, core.readyProcesses);
+            out.writeLong(core.busyTicks);
+            out.writeInt(core.dispatches);
+            out.writeInt(core.migrations);
+            out.writeInt(core.steals);
+            out.writeString(core.tlb != null ? core.tlb.getSpec() : null);
+            if (core.tlb != null) {
+                core.tlb.writeState(out);
+            }
+            writeSchedulerState(out, core.getScheduler());
+        }
+        
+        writePids(out, newProcesses);
+        // Los bloqueados van con el tick en que termina su E/S
+        out.writeInt(blockedProcesses.size());
+        for (PCB process : blockedProcesses) {
+            out.writeInt(process.pid);
+            out.writeLong(ioTimers.getDeadline(process));
+        }
+        writePids(out, suspendedProcesses);
+        
+        out.writeInt(eventQueue.size());
+        for (Event event : eventQueue) {
+            out.writeLong(event.time);
+            out.writeLong(event.sequence);
+            out.writeInt(event.process.pid);
+        }
+        
+        out.writeInt(waitingForRelease.size());
+        for (PCB process : waitingForRelease) {
+            out.writeInt(process.pid);
+            out.writeLong(releaseTimers.getDeadline(process));
+        }
+        writePids(out, realTimeTasks);
+        out.writeLong(realTimeJobs);
+        out.writeLong(deadlineMisses);
+        out.writeLong(maxLateness);
+        out.writeInt(realTimeRejected);
+        out.writeInt(rejectedArrivals);
+        writePids(out, semaphoreBlocked);
+        out.writeInt(pageFaultBlocked.size());
+        for (PCB process : pageFaultBlocked) {
+            out.writeInt(process.pid);
+            out.writeLong(pageFaultTimers.getDeadline(process));
+        }
+        tlbProcesses.writeState(out);
+        out.writeBoolean(loadControl);
+        writePids(out, loadSuspended);
+        out.writeLong(loadSuspensions);
+        out.writeLong(loadReadmissions);
+        out.writeLong(lastLoadAction);
+    }
+    
+    @Override
+    public void readState(CheckpointInput in, IntFunction<PCB> processes) throws IOException {
+        currentTime = in.readInt();
+        paused = in.readBoolean();
+        eventDriven = in.readBoolean();
+        admissionMemoryState = in.readLong();
+        eventSequence = in.readLong();
+        pendingArrivals = in.readInt();
+        
+        int coreCount = in.readInt();
+        if (coreCount != cores.length) {
+            throw new IOException("El checkpoint tiene " + coreCount + " núcleos y el motor " + cores.length);
+        }
+        for (CpuCore core : cores) {
+            int runningPid = in.readInt();
+            core.runningProcess = runningPid >= 0 ? processes.apply(runningPid) : null;
+            core.readyProcesses.clear();
+            readPids(in, processes, core.readyProcesses);
+            core.busyTicks = in.readLong();
+            core.dispatches = in.readInt();
+            core.migrations = in.readInt();
+            core.steals = in.readInt();
+            String tlbSpec = in.readString();
+            core.tlb = tlbSpec != null ? Tlb.fromSpec(tlbSpec) : null;
+            if (core.tlb != null) {
+                core.tlb.readState(in, processes);
+                resourceManager.getMemoryManager().registerTlb(core.tlb);
+            }
+            schedulerStateRestored &= readSchedulerState(in, processes, core);
+        }
+        
+        newProcesses.clear();
+        readPids(in, processes, newProcesses);
+        blockedProcesses.clear();
+        ioTimers = new TimerWheel<>(currentTime);
+        int blockedCount = in.readInt();
+        for (int i = 0; i < blockedCount; i++) {
+            PCB process = processes.apply(in.readInt());
+            blockedProcesses.add(process);
+            ioTimers.schedule(process, in.readLong());
+            updateIORemaining(process);
+        }
+        suspendedProcesses.clear();
+        readPids(in, processes, suspendedProcesses);
+        
+        eventQueue.clear();
+        int eventCount = in.readInt();
+        for (int i = 0; i < eventCount; i++) {
+            long time = in.readLong();
+            long sequence = in.readLong();
+            eventQueue.add(new Event(time, sequence, processes.apply(in.readInt())));
+        }
+        
+        waitingForRelease.clear();
+        releaseTimers = new TimerWheel<>(currentTime);
+        int waitingCount = in.readInt();
+        for (int i = 0; i < waitingCount; i++) {
+            PCB process = processes.apply(in.readInt());
+            waitingForRelease.add(process);
+            releaseTimers.schedule(process, in.readLong());
+        }
+        realTimeTasks.clear();
+        readPids(in, processes, realTimeTasks);
+        realTimeJobs = in.readLong();
+        deadlineMisses = in.readLong();
+        maxLateness = in.readLong();
+        realTimeRejected = in.readInt();
+        rejectedArrivals = in.readInt();
+        semaphoreBlocked.clear();
+        readPids(in, processes, semaphoreBlocked);
+        pageFaultBlocked.clear();
+        pageFaultTimers = new TimerWheel<>(currentTime);
+        int faultCount = in.readInt();
+        for (int i = 0; i < faultCount; i++) {
+            PCB process = processes.apply(in.readInt());
+            pageFaultBlocked.add(process);
+            pageFaultTimers.schedule(process, in.readLong());
+        }
+        tlbProcesses = new Tlb.Statistics();
+        tlbProcesses.readState(in);
+        loadControl = in.readBoolean();
+        loadSuspended.clear();
+        readPids(in, processes, loadSuspended);
+        loadSuspensions = in.readLong();
+        loadReadmissions = in.readLong();
+        lastLoadAction = in.readLong();
+    }
+    
+    private static void writePids(CheckpointOutput out, Collection<PCB> list) throws IOException {
+        out.writeInt(list.size());
+        for (PCB process : list) {
+            out.writeInt(process.pid);
+        }
+    }
+    
+    private static void readPids(CheckpointInput in, IntFunction<PCB> processes, Collection<PCB> target) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            target.add(processes.apply(in.readInt()));
+        }
+    }
+    
+    // El estado del planificador va con su longitud para poder saltarlo si se restaura con otra política
+    private static void writeSchedulerState(CheckpointOutput out, Scheduler scheduler) throws IOException {
+        out.writeString(scheduler.getClass().getName());
+        out.writeBoolean(scheduler instanceof Checkpointable);
+        if (scheduler instanceof Checkpointable) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (CheckpointOutput state = new CheckpointOutput(Channels.newChannel(bytes), 64 * 1024)) {
+                ((Checkpointable) scheduler).writeState(state);
+            }
+            out.writeBytes(bytes.toByteArray());
+        }
+    }
+    
+    private static boolean readSchedulerState(CheckpointInput in, IntFunction<PCB> processes, CpuCore core) throws IOException {
+        String className = in.readString();
+        byte[] state = in.readBoolean() ? in.readBytes() : null;
+        Scheduler scheduler = core.getScheduler();
+        
+        if (state != null && scheduler instanceof Checkpointable &&
+                scheduler.getClass().getName().equals(className)) {
+            try (CheckpointInput stateIn = new CheckpointInput(
+                    Channels.newChannel(new ByteArrayInputStream(state)), 64 * 1024)) {
+                ((Checkpointable) scheduler).readState(stateIn, processes);
+            }
+            return true;
+        }
+        // Otra política: se le entregan los procesos listos en el orden guardado
+        scheduler.addAll(core.readyProcesses);
+        return false;
+    }
+    
+    // Llegada programada de un proceso
+    private static class Event implements Comparable<Event> {
+        final long time;
+        final long sequence; // desempate para conservar el orden de llegada
+        final PCB process;
+        
+        Event(long time, long sequence, PCB process) {
+            this.time = time;
+            this.sequence = sequence;
+            this.process = process;
+        }
+        
+        @Override
+        public int compareTo(Event other) {
+            if (time != other.time) {
+                return Long.compare(time, other.time);
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package core;
+
+/**
+ * Sección del resumen por lotes de una función opcional (tiempo real,
+ * paginación, TLB...). El resumen solo la crea si la función estuvo activa.
+ */
+public interface SummarySection {
+    /**
+     * Agrega el bloque de la sección, sin línea en blanco antes ni salto al final
+     */
+    void appendTo(StringBuilder sb);
+}
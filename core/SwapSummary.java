@@ -0,0 +1,46 @@
+package core;
+
+import memory.SwapDevice;
+
+/**
+ * Área de intercambio en el resumen por lotes
+ */
+public class SwapSummary implements SummarySection {
+    private final String spec;
+    private final int slots;
+    private final int usedSlots;
+    private final int peakSlots;
+    private final long reads;
+    private final long writes;
+    private final long rejectedWrites;
+    private final long queueTicks;
+
+    SwapSummary(SwapDevice swap) {
+        this.spec = swap.getSpec();
+        this.slots = swap.getSlotCount();
+        this.usedSlots = swap.getUsedSlots();
+        this.peakSlots = swap.getPeakUsedSlots();
+        this.reads = swap.getReads();
+        this.writes = swap.getWrites();
+        this.rejectedWrites = swap.getRejectedWrites();
+        this.queueTicks = swap.getQueueTicks();
+    }
+
+    public long getReads() { return reads; }
+    public long getWrites() { return writes; }
+
+    @Override
+    public void appendTo(StringBuilder sb) {
+        String[] swap = spec.split("/");
+        sb.append("Intercambio (").append(swap[0]).append("MB, ").append(swap[1]).append(" ticks por página):\n");
+        sb.append("Ranuras ocupadas:      ").append(usedSlots).append(" al final, ")
+          .append(peakSlots).append(" como máximo (hay ").append(slots).append(")\n");
+        sb.append("Páginas escritas:      ").append(writes);
+        if (rejectedWrites > 0) {
+            sb.append(" (").append(rejectedWrites).append(" sin ranura libre)");
+        }
+        sb.append('\n');
+        sb.append("Páginas leídas:        ").append(reads).append(" (")
+          .append(queueTicks).append(" ticks de espera en la cola del disco)");
+    }
+}
@@ -0,0 +1,235 @@
+package core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rueda de temporizadores jerárquica indexada por tick absoluto. Tiene 4
+ * niveles de 64 casillas (el nivel L agrupa 64^L ticks por casilla) y una
+ * lista de desborde para plazos más lejanos. Al avanzar solo se tocan las
+ * casillas que vencen y las que bajan de nivel, y los tramos sin
+ * temporizadores se saltan de una vez.
+ *
+ * Los elementos que vencen en el mismo tick se entregan en el orden en que
+ * se programaron.
+ */
+public class TimerWheel<T> {
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    // Nodo de una lista doblemente enlazada por casilla, para cancelar en O(1)
+    private static class Timer<T> {
+        final T item;
+        final long deadline;
+        final long sequence;
+        int level;   // LEVELS = lista de desborde
+        int slot;
+        Timer<T> prev;
+        Timer<T> next;
+
+        Timer(T item, long deadline, long sequence) {
+            this.item = item;
+            this.deadline = deadline;
+            this.sequence = sequence;
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private final Timer<T>[][] wheel = new Timer[LEVELS + 1][SLOTS];
+    private final int[] levelCounts = new int[LEVELS + 1];
+    private final Map<T, Timer<T>> timers = new HashMap<>();
+    private long currentTime;
+    private long sequence = 0;
+
+    /**
+     * Crea una rueda cuyo último tick procesado es 'currentTime'
+     */
+    public TimerWheel(long currentTime) {
+        this.currentTime = currentTime;
+    }
+
+    /**
+     * Programa 'item' para que venza en el tick absoluto 'deadline'. Un plazo
+     * ya vencido se entrega en el próximo avance.
+     */
+    public void schedule(T item, long deadline) {
+        cancel(item);
+        Timer<T> timer = new Timer<>(item, Math.max(deadline, currentTime + 1), sequence++);
+        timers.put(item, timer);
+        insert(timer);
+    }
+
+    public boolean cancel(T item) {
+        Timer<T> timer = timers.remove(item);
+        if (timer == null) {
+            return false;
+        }
+        unlink(timer);
+        return true;
+    }
+
+    public boolean contains(T item) {
+        return timers.containsKey(item);
+    }
+
+    /**
+     * Tick absoluto en que vence 'item', o -1 si no está programado
+     */
+    public long getDeadline(T item) {
+        Timer<T> timer = timers.get(item);
+        return timer != null ? timer.deadline : -1;
+    }
+
+    public int size() {
+        return timers.size();
+    }
+
+    public boolean isEmpty() {
+        return timers.isEmpty();
+    }
+
+    public long getCurrentTime() {
+        return currentTime;
+    }
+
+    /**
+     * Avanza hasta 'time' y devuelve los elementos vencidos, ordenados por
+     * tick y, dentro del mismo tick, por orden de programación.
+     */
+    public List<T> advanceTo(long time) {
+        List<Timer<T>> expired = new ArrayList<>();
+        while (currentTime < time) {
+            if (timers.isEmpty()) {
+                currentTime = time;
+                break;
+            }
+
+            // Con los niveles bajos vacíos no vence nada hasta el siguiente
+            // límite de casilla del primer nivel ocupado
+            int lowest = 0;
+            while (levelCounts[lowest] == 0) {
+                lowest++;
+            }
+            long span = 1L << (BITS * lowest);
+            long next = lowest == 0 ? currentTime + 1 : (currentTime / span + 1) * span;
+            if (next > time) {
+                currentTime = time;
+                break;
+            }
+            currentTime = next;
+            cascade();
+
+            Timer<T> timer = wheel[0][(int) (currentTime & MASK)];
+            while (timer != null) {
+                Timer<T> following = timer.next;
+                if (timer.deadline == currentTime) {
+                    unlink(timer);
+                    timers.remove(timer.item);
+                    expired.add(timer);
+                }
+                timer = following;
+            }
+        }
+
+        expired.sort((a, b) -> a.deadline != b.deadline ?
+                Long.compare(a.deadline, b.deadline) : Long.compare(a.sequence, b.sequence));
+        List<T> items = new ArrayList<>(expired.size());
+        for (Timer<T> timer : expired) {
+            items.add(timer.item);
+        }
+        return items;
+    }
+
+    /**
+     * Tick del próximo vencimiento, o Long.MAX_VALUE si no hay temporizadores
+     */
+    public long nextDeadline() {
+        if (timers.isEmpty()) {
+            return Long.MAX_VALUE;
+        }
+        int lowest = 0;
+        while (levelCounts[lowest] == 0) {
+            lowest++;
+        }
+        if (lowest == LEVELS) {
+            return minDeadline(wheel[LEVELS][0]);
+        }
+        // En un nivel, las casillas posteriores a la actual vencen en orden
+        int start = (int) ((currentTime >>> (BITS * lowest)) & MASK);
+        for (int i = 0; i < SLOTS; i++) {
+            Timer<T> head = wheel[lowest][(start + i) & MASK];
+            if (head != null) {
+                return minDeadline(head);
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    private long minDeadline(Timer<T> head) {
+        long min = Long.MAX_VALUE;
+        for (Timer<T> timer = head; timer != null; timer = timer.next) {
+            min = Math.min(min, timer.deadline);
+        }
+        return min;
+    }
+
+    // Al cruzar el límite de una casilla de nivel superior, sus temporizadores
+    // se reparten en los niveles inferiores (de arriba hacia abajo)
+    private void cascade() {
+        if ((currentTime & ((1L << (BITS * LEVELS)) - 1)) == 0) {
+            redistribute(LEVELS, 0);
+        }
+        for (int level = LEVELS - 1; level >= 1; level--) {
+            if ((currentTime & ((1L << (BITS * level)) - 1)) == 0) {
+                redistribute(level, (int) ((currentTime >>> (BITS * level)) & MASK));
+            }
+        }
+    }
+
+    private void redistribute(int level, int slot) {
+        Timer<T> timer = wheel[level][slot];
+        wheel[level][slot] = null;
+        while (timer != null) {
+            Timer<T> following = timer.next;
+            levelCounts[level]--;
+            insert(timer);
+            timer = following;
+        }
+    }
+
+    private void insert(Timer<T> timer) {
+        int level = 0;
+        while (level < LEVELS &&
+                (timer.deadline >>> (BITS * (level + 1))) != (currentTime >>> (BITS * (level + 1)))) {
+            level++;
+        }
+        int slot = level == LEVELS ? 0 : (int) ((timer.deadline >>> (BITS * level)) & MASK);
+        timer.level = level;
+        timer.slot = slot;
+        timer.prev = null;
+        timer.next = wheel[level][slot];
+        if (timer.next != null) {
+            timer.next.prev = timer;
+        }
+        wheel[level][slot] = timer;
+        levelCounts[level]++;
+    }
+
+    private void unlink(Timer<T> timer) {
+        if (timer.prev != null) {
+            timer.prev.next = timer.next;
+        } else {
+            wheel[timer.level][timer.slot] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.prev = timer.prev;
+        }
+        timer.prev = null;
+        timer.next = null;
+        levelCounts[timer.level]--;
+    }
+}
@@ -0,0 +1,51 @@
+package core;
+
+import java.util.ArrayList;
+import java.util.List;
+import memory.Tlb;
+
+/**
+ * TLB de los núcleos en el resumen por lotes: totales y aciertos de cada núcleo
+ */
+public class TlbSummary implements SummarySection {
+    private final String spec;
+    private final Tlb.Statistics stats;
+    private final double walkAccesses;
+    private final List<long[]> cores = new ArrayList<>(); // aciertos y fallos por núcleo
+
+    TlbSummary(SimulationEngine engine, Tlb.Statistics stats) {
+        this.stats = stats;
+        for (CpuCore core : engine.getCores()) {
+            cores.add(new long[] { core.getTlb().getHits(), core.getTlb().getMisses() });
+        }
+        this.spec = engine.getCores().get(0).getTlb().getSpec();
+        this.walkAccesses = engine.getResourceManager().getMemoryManager().getPageTableWalkAccesses();
+    }
+
+    /**
+     * Porcentaje de referencias resueltas por la TLB
+     */
+    public double getHitRate() {
+        return stats.getHitRate();
+    }
+
+    /**
+     * Tiempo efectivo de acceso a memoria en ns
+     */
+    public double getEffectiveAccessTime() {
+        return stats.getEffectiveAccessTime(walkAccesses);
+    }
+
+    @Override
+    public void appendTo(StringBuilder sb) {
+        sb.append("TLB (").append(spec).append("):\n").append(stats.format(walkAccesses));
+        if (cores.size() > 1) {
+            for (int core = 0; core < cores.size(); core++) {
+                long hits = cores.get(core)[0];
+                long lookups = hits + cores.get(core)[1];
+                sb.append(String.format("%nCPU%-3d %d aciertos de %d (%.2f%%)", core, hits, lookups,
+                        lookups > 0 ? hits * 100.0 / lookups : 0));
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package core;
+
+import memory.MemoryManager;
+import memory.WorkingSetMonitor;
+
+/**
+ * Conjuntos de trabajo y, si estuvo activo, el control de carga en el resumen por lotes
+ */
+public class WorkingSetSummary implements SummarySection {
+    private final int window;
+    private final double highFaultRate;
+    private final int frameCount;
+    private final double averageDemand;
+    private final long peakDemand;
+    private final long thrashingTicks;
+    private final boolean loadControl;
+    private final long loadSuspensions;
+    private final long loadReadmissions;
+    private final long swappedOutPages;
+    private final long swapWrites;
+
+    WorkingSetSummary(SimulationEngine engine) {
+        MemoryManager memory = engine.getResourceManager().getMemoryManager();
+        WorkingSetMonitor workingSets = memory.getWorkingSets();
+        this.window = workingSets.getWindow();
+        this.highFaultRate = workingSets.getHighFaultRate();
+        this.frameCount = memory.getFrameCount();
+        this.averageDemand = workingSets.getAverageDemand();
+        this.peakDemand = workingSets.getPeakDemand();
+        this.thrashingTicks = workingSets.getThrashingTicks();
+        this.loadControl = engine.isLoadControl();
+        this.loadSuspensions = engine.getLoadSuspensions();
+        this.loadReadmissions = engine.getLoadReadmissions();
+        this.swappedOutPages = memory.getSwappedOutPages();
+        this.swapWrites = memory.getSwapWrites();
+    }
+
+    /**
+     * Ticks en los que la demanda de marcos superó la memoria con muchos fallos
+     */
+    public long getThrashingTicks() { return thrashingTicks; }
+    public long getLoadSuspensions() { return loadSuspensions; }
+
+    @Override
+    public void appendTo(StringBuilder sb) {
+        sb.append("Conjunto de trabajo (ventana de ").append(window).append(" referencias):\n");
+        sb.append(String.format("Demanda de marcos:     %.1f promedio, %d como máximo (hay %d)%n",
+                averageDemand, peakDemand, frameCount));
+        sb.append("Hiperpaginación:       ").append(thrashingTicks)
+          .append(String.format(" ticks (demanda mayor que la memoria y más de %.0f%% de fallos en el conjunto de trabajo)", highFaultRate * 100));
+        if (loadControl) {
+            sb.append("\nControl de carga:      ").append(loadSuspensions).append(" suspensiones, ")
+              .append(loadReadmissions).append(" readmisiones\n");
+            sb.append("Páginas descargadas:   ").append(swappedOutPages).append(" (")
+              .append(swapWrites).append(" escritas al disco)");
+        }
+    }
+}
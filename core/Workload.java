@@ -0,0 +1,430 @@
+package core;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import models.PCB;
+import models.PageReferenceString;
+import models.SchedulingData;
+
+/**
+ * Carga de trabajo para ejecuciones por lotes.
+ *
+ * Formato del archivo (una línea por proceso, '#' inicia un comentario):
+ * <pre>
+ * # llegada  memoria(MB)  burst  prioridad(0-9)  [dispositivo:duración ...]  [clave=valor ...]
+ * 0          1            5      5               disk:3 network:2
+ * 0          1            2      5               period=10 deadline=8 jobs=20
+ * 0          1            8      5               tickets=300 lock=bd
+ * 0          8            40     5               trace=refs.txt
+ * 0          8            40     5               trace=init.txt fork=4@10:worker.txt shared=libc:16
+ * </pre>
+ *
+ * Las claves opcionales describen tareas de tiempo real (EDF y RM): period es
+ * cada cuántos ticks se libera un trabajo de 'burst' ticks, deadline el plazo
+ * relativo de cada trabajo (por omisión, el periodo) y jobs cuántos trabajos
+ * se liberan (por omisión 1; más de uno requiere periodo). tickets fija los
+ * boletos de la lotería y stride (por omisión salen de la prioridad) y
+ * lock=nombre hace que el proceso retenga ese semáforo mientras vive.
+ * trace=archivo da la cadena de referencias a páginas que usa la paginación
+ * por demanda (ver PageReferenceString); la ruta es relativa al archivo de la
+ * carga y varios procesos con la misma traza la comparten.
+ *
+ * fork=N@T[:archivo] hace que el proceso cree N hijos con fork después de
+ * T ticks de CPU (T menor que el burst); los hijos comparten su memoria con
+ * copia en escritura, ejecutan lo que le falta al padre y siguen su traza o
+ * la del archivo. shared=nombre:páginas pone la biblioteca 'nombre' en las
+ * primeras páginas del proceso; los procesos con la misma biblioteca
+ * comparten sus marcos. Las dos requieren paginación por demanda.
+ */
+public class Workload {
+    private final List<Entry> entries;
+
+    public Workload(List<Entry> entries) {
+        this.entries = Collections.unmodifiableList(new ArrayList<>(entries));
+    }
+
+    public static Workload load(Path path) throws IOException {
+        return parse(Files.readAllLines(path, StandardCharsets.UTF_8), baseDirectory(path));
+    }
+
+    public static Workload parse(List<String> lines) {
+        return parse(lines, Path.of(""));
+    }
+
+    private static Workload parse(List<String> lines, Path baseDirectory) {
+        List<Entry> entries = new ArrayList<>();
+        Traces traces = new Traces(baseDirectory);
+        int lineNumber = 0;
+        for (String raw : lines) {
+            Entry entry = parseLine(raw, ++lineNumber, traces);
+            if (entry != null) {
+                entries.add(entry);
+            }
+        }
+        return new Workload(entries);
+    }
+
+    /**
+     * Lee el archivo línea por línea sin guardar las entradas, para cargas
+     * demasiado grandes para tenerlas todas en memoria
+     */
+    public static void forEach(Path path, Consumer<Entry> action) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            Traces traces = new Traces(baseDirectory(path));
+            int lineNumber = 0;
+            String raw;
+            while ((raw = reader.readLine()) != null) {
+                Entry entry = parseLine(raw, ++lineNumber, traces);
+                if (entry != null) {
+                    action.accept(entry);
+                }
+            }
+        }
+    }
+
+    private static Path baseDirectory(Path workloadFile) {
+        Path parent = workloadFile.toAbsolutePath().getParent();
+        return parent != null ? parent : Path.of("");
+    }
+
+    // Trazas ya leídas en esta carga, por ruta
+    private static class Traces {
+        private final Path baseDirectory;
+        private final Map<Path, PageReferenceString> loaded = new HashMap<>();
+
+        Traces(Path baseDirectory) {
+            this.baseDirectory = baseDirectory;
+        }
+
+        PageReferenceString get(String file) {
+            Path path = baseDirectory.resolve(file).normalize();
+            PageReferenceString trace = loaded.get(path);
+            if (trace == null) {
+                try {
+                    trace = PageReferenceString.load(path);
+                } catch (IOException e) {
+                    throw new IllegalArgumentException("no se pudo leer la traza " + path + ": " + e.getMessage(), e);
+                }
+                loaded.put(path, trace);
+            }
+            return trace;
+        }
+    }
+
+    // null si la línea está vacía o es solo un comentario
+    private static Entry parseLine(String raw, int lineNumber, Traces traces) {
+        int comment = raw.indexOf('#');
+        String line = (comment >= 0 ? raw.substring(0, comment) : raw).trim();
+        if (line.isEmpty()) {
+            return null;
+        }
+        try {
+            return parseEntry(line.split("\\s+"), traces);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Línea " + lineNumber + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static Entry parseEntry(String[] tokens, Traces traces) {
+        if (tokens.length < 4) {
+            throw new IllegalArgumentException("se esperaban al menos 4 campos (llegada memoria burst prioridad)");
+        }
+        int arrival = parseNonNegative(tokens[0], "llegada");
+        int memory = parseNonNegative(tokens[1], "memoria");
+        int burst = parseNonNegative(tokens[2], "burst");
+        int priority = parseNonNegative(tokens[3], "prioridad");
+        if (burst == 0) {
+            throw new IllegalArgumentException("el burst debe ser mayor que 0");
+        }
+
+        int period = 0;
+        int deadline = 0;
+        int jobs = 1;
+        int tickets = 0;
+        String lock = null;
+        PageReferenceString trace = null;
+        int forks = 0;
+        int forkAt = 0;
+        PageReferenceString forkTrace = null;
+        String library = null;
+        int libraryPages = 0;
+        List<String> ioTokens = new ArrayList<>();
+        for (int i = 4; i < tokens.length; i++) {
+            String token = tokens[i];
+            int equals = token.indexOf('=');
+            if (equals < 0) {
+                ioTokens.add(token);
+                continue;
+            }
+            String key = token.substring(0, equals);
+            String value = token.substring(equals + 1);
+            switch (key) {
+                case "period":
+                    period = parsePositive(value, "periodo");
+                    break;
+                case "deadline":
+                    deadline = parsePositive(value, "plazo");
+                    break;
+                case "jobs":
+                    jobs = parsePositive(value, "trabajos");
+                    break;
+                case "tickets":
+                    tickets = parsePositive(value, "boletos");
+                    break;
+                case "lock":
+                    if (value.isEmpty()) {
+                        throw new IllegalArgumentException("lock= necesita el nombre de un semáforo");
+                    }
+                    lock = value;
+                    break;
+                case "trace":
+                    if (value.isEmpty()) {
+                        throw new IllegalArgumentException("trace= necesita un archivo");
+                    }
+                    trace = traces.get(value);
+                    break;
+                case "fork": {
+                    int at = value.indexOf('@');
+                    if (at <= 0) {
+                        throw new IllegalArgumentException("fork= necesita hijos@ticks, por ejemplo fork=4@10");
+                    }
+                    int colon = value.indexOf(':', at);
+                    forks = parsePositive(value.substring(0, at), "hijos del fork");
+                    forkAt = parseNonNegative(value.substring(at + 1, colon >= 0 ? colon : value.length()), "tick del fork");
+                    if (colon >= 0) {
+                        if (colon == value.length() - 1) {
+                            throw new IllegalArgumentException("fork= necesita un archivo después de ':'");
+                        }
+                        forkTrace = traces.get(value.substring(colon + 1));
+                    }
+                    break;
+                }
+                case "shared": {
+                    int colon = value.lastIndexOf(':');
+                    if (colon <= 0) {
+                        throw new IllegalArgumentException("shared= necesita nombre:páginas, por ejemplo shared=libc:16");
+                    }
+                    library = value.substring(0, colon);
+                    libraryPages = parsePositive(value.substring(colon + 1), "páginas de la biblioteca");
+                    break;
+                }
+                default:
+                    throw new IllegalArgumentException("clave desconocida '" + key +
+                            "' (use period, deadline, jobs, tickets, lock, trace, fork o shared)");
+            }
+        }
+        if (jobs > 1 && period == 0) {
+            throw new IllegalArgumentException("una tarea con varios trabajos necesita period=");
+        }
+        if (deadline == 0) {
+            deadline = period;
+        }
+        if (forks > 0 && forkAt >= burst) {
+            throw new IllegalArgumentException("el fork debe ocurrir antes de terminar el burst (" + forkAt + " >= " + burst + ")");
+        }
+
+        int ioCount = ioTokens.size();
+        String[] ioDevices = new String[ioCount];
+        int[] ioDurations = new int[ioCount];
+        for (int i = 0; i < ioCount; i++) {
+            String token = ioTokens.get(i);
+            int colon = token.indexOf(':');
+            if (colon <= 0 || colon == token.length() - 1) {
+                throw new IllegalArgumentException("ráfaga de E/S inválida '" + token + "' (use dispositivo:duración)");
+            }
+            ioDevices[i] = token.substring(0, colon);
+            ioDurations[i] = parseNonNegative(token.substring(colon + 1), "duración de E/S");
+        }
+        Entry entry = new Entry(arrival, memory, burst, priority, ioDevices, ioDurations, period, deadline, jobs);
+        if (tickets > 0 || lock != null) {
+            entry = entry.withSharing(tickets, lock);
+        }
+        if (forks > 0 || library != null) {
+            entry = entry.withMemorySharing(forks, forkAt, forkTrace, library, libraryPages);
+        }
+        return trace != null ? entry.withTrace(trace) : entry;
+    }
+
+    private static int parsePositive(String token, String field) {
+        int value = parseNonNegative(token, field);
+        if (value == 0) {
+            throw new IllegalArgumentException(field + " debe ser mayor que 0");
+        }
+        return value;
+    }
+
+    private static int parseNonNegative(String token, String field) {
+        int value;
+        try {
+            value = Integer.parseInt(token);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("valor no numérico para " + field + ": '" + token + "'");
+        }
+        if (value < 0) {
+            throw new IllegalArgumentException(field + " no puede ser negativo: " + value);
+        }
+        return value;
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Descripción inmutable de un proceso de la carga de trabajo. Las ráfagas
+     * de E/S se crean de nuevo en cada proceso porque guardan estado.
+     */
+    public static class Entry {
+        private final int arrival;
+        private final int memory;
+        private final int burst;
+        private final int priority;
+        private final String[] ioDevices;
+        private final int[] ioDurations;
+        // Tiempo real: 0 = sin periodo / sin plazo
+        private final int period;
+        private final int deadline;
+        private final int jobs;
+        // Reparto proporcional: 0 = boletos según la prioridad; null = sin semáforo
+        private int tickets = 0;
+        private String lock = null;
+        // Paginación por demanda: null = cadena sintética
+        private PageReferenceString trace = null;
+        // Fork (0 = ninguno; forkTrace null = los hijos siguen la traza del padre) y biblioteca compartida
+        private int forks = 0;
+        private int forkAt = 0;
+        private PageReferenceString forkTrace = null;
+        private String library = null;
+        private int libraryPages = 0;
+
+        public Entry(int arrival, int memory, int burst, int priority, String[] ioDevices, int[] ioDurations) {
+            this(arrival, memory, burst, priority, ioDevices, ioDurations, 0, 0, 1);
+        }
+
+        public Entry(int arrival, int memory, int burst, int priority, String[] ioDevices, int[] ioDurations,
+                     int period, int deadline, int jobs) {
+            this.arrival = arrival;
+            this.memory = memory;
+            this.burst = burst;
+            this.priority = priority;
+            this.ioDevices = ioDevices;
+            this.ioDurations = ioDurations;
+            this.period = period;
+            this.deadline = deadline;
+            this.jobs = jobs;
+        }
+
+        public int getArrival() { return arrival; }
+        public int getMemory() { return memory; }
+        public int getBurst() { return burst; }
+        public int getPriority() { return priority; }
+        public int getIOBurstCount() { return ioDevices.length; }
+        public String getIODevice(int index) { return ioDevices[index]; }
+        public int getIODuration(int index) { return ioDurations[index]; }
+        public int getPeriod() { return period; }
+        public int getDeadline() { return deadline; }
+        public int getJobs() { return jobs; }
+        public int getTickets() { return tickets; }
+        public String getLock() { return lock; }
+        public PageReferenceString getTrace() { return trace; }
+        public int getForks() { return forks; }
+        public int getForkAt() { return forkAt; }
+        public PageReferenceString getForkTrace() { return forkTrace; }
+        public String getLibrary() { return library; }
+        public int getLibraryPages() { return libraryPages; }
+
+        /**
+         * Misma entrada con boletos propios y/o un semáforo que retiene mientras vive
+         */
+        public Entry withSharing(int tickets, String lock) {
+            Entry copy = new Entry(arrival, memory, burst, priority, ioDevices, ioDurations, period, deadline, jobs);
+            copy.tickets = tickets;
+            copy.lock = lock;
+            copy.trace = trace;
+            copy.forks = forks;
+            copy.forkAt = forkAt;
+            copy.forkTrace = forkTrace;
+            copy.library = library;
+            copy.libraryPages = libraryPages;
+            return copy;
+        }
+
+        /**
+         * Misma entrada con fork y/o biblioteca compartida
+         */
+        public Entry withMemorySharing(int forks, int forkAt, PageReferenceString forkTrace,
+                                       String library, int libraryPages) {
+            Entry copy = withSharing(tickets, lock);
+            copy.forks = forks;
+            copy.forkAt = forkAt;
+            copy.forkTrace = forkTrace;
+            copy.library = library;
+            copy.libraryPages = libraryPages;
+            return copy;
+        }
+
+        /**
+         * Misma entrada con la cadena de referencias a páginas indicada
+         */
+        public Entry withTrace(PageReferenceString trace) {
+            Entry copy = withSharing(tickets, lock);
+            copy.trace = trace;
+            return copy;
+        }
+
+        public boolean isRealTime() {
+            return deadline > 0;
+        }
+
+        public int getTotalIOTime() {
+            int total = 0;
+            for (int duration : ioDurations) {
+                total += duration;
+            }
+            return total;
+        }
+
+        /**
+         * Copia las claves opcionales de la línea al proceso: periodo, plazo y
+         * trabajos de una tarea de tiempo real, boletos, semáforo, traza, fork
+         * y biblioteca
+         */
+        public void applyOptions(PCB process) {
+            SchedulingData data = process.schedulingData;
+            if (isRealTime()) {
+                data.period = period > 0 ? period : null;
+                data.relativeDeadline = deadline;
+                data.jobsLeft = jobs;
+            }
+            if (tickets > 0) {
+                data.tickets = tickets;
+            }
+            process.lock = lock;
+            process.pageReferences = trace;
+            process.forkCount = forks;
+            process.forkAt = forkAt;
+            process.forkReferences = forkTrace;
+            process.sharedLibrary = library;
+            process.sharedPages = libraryPages;
+        }
+
+        public void addIOBursts(PCB process) {
+            for (int i = 0; i < ioDevices.length; i++) {
+                process.addIOBurst(new PCB.IOBurst(ioDevices[i], ioDurations[i]));
+            }
+        }
+    }
+}
@@ -0,0 +1,400 @@
+package core.scheduling;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.function.IntFunction;
+import models.PCB;
+import models.ProcessState;
+import models.SchedulingData;
+import persistence.CheckpointInput;
+import persistence.CheckpointOutput;
+import persistence.Checkpointable;
+
+/**
+ * Planificador completamente justo al estilo CFS de Linux. Cada proceso
+ * acumula un tiempo virtual de ejecución (vruntime) que avanza más despacio
+ * cuanto mayor es su peso, y siempre se despacha el de menor vruntime.
+ *
+ * - El peso sale de PCB.priority (0-9, 5 equivale a nice 0) con la tabla de
+ *   pesos de Linux: cada punto de prioridad da ~25% más de CPU.
+ * - La porción de CPU es la parte proporcional a su peso de la latencia
+ *   objetivo, nunca menor que la granularidad mínima. Con muchos procesos el
+ *   periodo se estira a procesos * granularidad mínima.
+ * - Los procesos listos viven en un árbol rojo-negro (TreeSet) ordenado por
+ *   vruntime, así que elegir, agregar y quitar cuestan O(log n).
+ * - Un proceso nuevo entra con el vruntime mínimo de la cola; uno que vuelve
+ *   de E/S recupera a lo sumo media latencia de ventaja.
+ * - Si no hay nadie más esperando, el proceso sigue sin ser expropiado.
+ */
+public class CompletelyFairScheduler implements Scheduler, Checkpointable {
+    public static final int DEFAULT_TARGET_LATENCY = 24;
+    public static final int DEFAULT_MIN_GRANULARITY = 3;
+
+    // sched_prio_to_weight de Linux, de nice -20 a nice 19
+    private static final int[] NICE_TO_WEIGHT = {
+        88761, 71755, 56483, 46273, 36291,
+        29154, 23254, 18705, 14949, 11916,
+         9548,  7620,  6100,  4904,  3906,
+         3121,  2501,  1991,  1586,  1277,
+         1024,   820,   655,   526,   423,
+          335,   272,   215,   172,   137,
+          110,    87,    70,    56,    45,
+           36,    29,    23,    18,    15,
+    };
+    private static final int NICE_0_WEIGHT = 1024;
+    // vruntime en punto fijo: un tick de un proceso con nice 0 vale 1 << 10
+    private static final int VRUNTIME_SHIFT = 10;
+
+    private static final Comparator<Entity> BY_VRUNTIME =
+            Comparator.<Entity>comparingLong(e -> e.vruntime).thenComparingLong(e -> e.sequence);
+
+    private final int targetLatency;
+    private final int minGranularity;
+
+    // Procesos listos ordenados por vruntime (y por orden de llegada si empatan)
+    private TreeSet<Entity> timeline = new TreeSet<>(BY_VRUNTIME);
+    // Procesos que administra este planificador (en cola, en ejecución o bloqueados)
+    private Map<PCB, Entity> entities = new HashMap<>();
+    private Entity current = null;
+    private long queuedWeight = 0;
+    private long minVruntime = 0;      // nunca retrocede
+    private long sequence = 0;
+
+    private long dispatches = 0;
+    private long sliceTicks = 0;       // suma de las porciones asignadas
+    private long maxSpread = 0;        // mayor diferencia de vruntime entre listos
+
+    private static class Entity {
+        final PCB process;
+        final int weight;
+        final long vruntimeStep;   // avance del vruntime por tick
+        long vruntime;
+        long sequence;
+        int slice;                 // ticks de la porción actual
+        int ran;                   // ticks usados de la porción actual
+        boolean queued;
+        boolean sleeping;          // bloqueado para E/S
+
+        Entity(PCB process) {
+            this.process = process;
+            this.weight = weightForPriority(process.priority);
+            this.vruntimeStep = ((long) NICE_0_WEIGHT << VRUNTIME_SHIFT) / weight;
+        }
+    }
+
+    public CompletelyFairScheduler() {
+        this(DEFAULT_TARGET_LATENCY, DEFAULT_MIN_GRANULARITY);
+    }
+
+    public CompletelyFairScheduler(int targetLatency, int minGranularity) {
+        if (targetLatency <= 0 || minGranularity <= 0) {
+            throw new IllegalArgumentException("La latencia objetivo y la granularidad mínima deben ser mayores que 0");
+        }
+        if (minGranularity > targetLatency) {
+            throw new IllegalArgumentException("La granularidad mínima no puede superar la latencia objetivo");
+        }
+        this.targetLatency = targetLatency;
+        this.minGranularity = minGranularity;
+    }
+
+    /**
+     * Peso de un proceso según su prioridad (0-9): la 5 equivale a nice 0 y
+     * cada punto mueve dos valores de nice
+     */
+    public static int weightForPriority(int priority) {
+        int nice = Math.max(-20, Math.min(19, 10 - 2 * priority));
+        return NICE_TO_WEIGHT[nice + 20];
+    }
+
+    public int getTargetLatency() {
+        return targetLatency;
+    }
+
+    public int getMinGranularity() {
+        return minGranularity;
+    }
+
+    @Override
+    public void addProcess(PCB process) {
+        Entity entity = entities.get(process);
+        if (entity == null) {
+            entity = new Entity(process);
+            entity.vruntime = minVruntime;
+            entities.put(process, entity);
+        } else if (entity.queued) {
+            return;
+        } else if (entity.sleeping) {
+            // Vuelve de E/S: no puede acumular más de media latencia de ventaja
+            long credit = ((long) targetLatency << VRUNTIME_SHIFT) / 2;
+            entity.vruntime = Math.max(entity.vruntime, minVruntime - credit);
+            entity.sleeping = false;
+        }
+        if (entity == current) {
+            current = null;
+        }
+        entity.sequence = sequence++;
+        entity.queued = true;
+        timeline.add(entity);
+        queuedWeight += entity.weight;
+        process.state = ProcessState.READY;
+    }
+
+    @Override
+    public PCB getNextProcess() {
+        Entity next = timeline.pollFirst();
+        if (next == null) {
+            return null;
+        }
+        next.queued = false;
+        queuedWeight -= next.weight;
+        if (!timeline.isEmpty()) {
+            maxSpread = Math.max(maxSpread, timeline.last().vruntime - next.vruntime);
+        }
+
+        next.slice = computeSlice(next);
+        next.ran = 0;
+        current = next;
+        updateMinVruntime();
+        dispatches++;
+        sliceTicks += next.slice;
+
+        next.process.state = ProcessState.RUNNING;
+        return next.process;
+    }
+
+    // Parte proporcional al peso del periodo de planificación
+    private int computeSlice(Entity entity) {
+        long runnable = timeline.size() + 1L;
+        long period = runnable * minGranularity > targetLatency ? runnable * minGranularity : targetLatency;
+        long slice = period * entity.weight / (queuedWeight + entity.weight);
+        return (int) Math.max(minGranularity, Math.min(slice, Integer.MAX_VALUE));
+    }
+
+    private void updateMinVruntime() {
+        long candidate = Long.MAX_VALUE;
+        if (current != null) {
+            candidate = current.vruntime;
+        }
+        if (!timeline.isEmpty()) {
+            candidate = Math.min(candidate, timeline.first().vruntime);
+        }
+        if (candidate != Long.MAX_VALUE) {
+            minVruntime = Math.max(minVruntime, candidate);
+        }
+    }
+
+    @Override
+    public TickOutcome onTick(PCB running) {
+        Entity entity = entities.get(running);
+        if (entity == null) {
+            return TickOutcome.CONTINUE;
+        }
+        entity.vruntime += entity.vruntimeStep;
+        entity.ran++;
+        updateMinVruntime();
+        if (!timeline.isEmpty() && entity.ran >= entity.slice) {
+            return TickOutcome.PREEMPT;
+        }
+        return TickOutcome.CONTINUE;
+    }
+
+    @Override
+    public long quietTicks(PCB running) {
+        Entity entity = entities.get(running);
+        if (entity == null || timeline.isEmpty()) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, entity.slice - entity.ran - 1L);
+    }
+
+    @Override
+    public void fastForward(PCB running, int ticks) {
+        Entity entity = entities.get(running);
+        if (entity == null) {
+            return;
+        }
+        entity.vruntime += entity.vruntimeStep * ticks;
+        entity.ran += ticks;
+        updateMinVruntime();
+    }
+
+    @Override
+    public void onBlocked(PCB process) {
+        Entity entity = entities.get(process);
+        if (entity != null) {
+            entity.sleeping = true;
+            if (entity == current) {
+                current = null;
+            }
+        }
+    }
+
+    @Override
+    public void removeProcess(PCB process) {
+        Entity entity = entities.remove(process);
+        if (entity == null) {
+            return;
+        }
+        if (entity.queued) {
+            timeline.remove(entity);
+            queuedWeight -= entity.weight;
+            entity.queued = false;
+        }
+        if (entity == current) {
+            current = null;
+        }
+    }
+
+    @Override
+    public PCB peek() {
+        return timeline.isEmpty() ? null : timeline.first().process;
+    }
+
+    @Override
+    public int drainTo(Collection<? super PCB> target, int maxProcesses) {
+        int moved = 0;
+        while (moved < maxProcesses && !timeline.isEmpty()) {
+            Entity entity = timeline.pollFirst();
+            queuedWeight -= entity.weight;
+            entities.remove(entity.process);
+            target.add(entity.process);
+            moved++;
+        }
+        return moved;
+    }
+
+    @Override
+    public int size() {
+        return timeline.size();
+    }
+
+    @Override
+    public void onProcessFinished(PCB process) {
+        removeProcess(process);
+        process.state = ProcessState.TERMINATED;
+    }
+
+    @Override
+    public void configure(SchedulingData data, int priority) {
+        // La porción se calcula en cada despacho; no usa quantum ni niveles
+        data.quantum = null;
+        data.queueLevel = null;
+    }
+
+    /**
+     * vruntime mínimo de la cola, en ticks de un proceso con nice 0
+     */
+    public long getMinVruntime() {
+        return minVruntime >> VRUNTIME_SHIFT;
+    }
+
+    @Override
+    public Statistics getStatistics() {
+        return new Statistics(dispatches, sliceTicks, maxSpread >> VRUNTIME_SHIFT);
+    }
+
+    @Override
+    public String getName() {
+        return "CFS (latencia=" + targetLatency + ", granularidad=" + minGranularity + ")";
+    }
+
+    @Override
+    public boolean usesPriority() {
+        return true;
+    }
+
+    @Override
+    public void writeState(CheckpointOutput out) throws IOException {
+        out.writeLong(minVruntime);
+        out.writeLong(sequence);
+        out.writeInt(current != null ? current.process.pid : -1);
+
+        List<Entity> all = new ArrayList<>(entities.values());
+        all.sort(Comparator.comparingInt(e -> e.process.pid));
+        out.writeInt(all.size());
+        for (Entity entity : all) {
+            out.writeInt(entity.process.pid);
+            out.writeLong(entity.vruntime);
+            out.writeLong(entity.sequence);
+            out.writeInt(entity.slice);
+            out.writeInt(entity.ran);
+            out.writeBoolean(entity.queued);
+            out.writeBoolean(entity.sleeping);
+        }
+
+        out.writeLong(dispatches);
+        out.writeLong(sliceTicks);
+        out.writeLong(maxSpread);
+    }
+
+    @Override
+    public void readState(CheckpointInput in, IntFunction<PCB> processes) throws IOException {
+        // La latencia y la granularidad guardadas no se imponen: se conservan las de esta instancia
+        minVruntime = in.readLong();
+        sequence = in.readLong();
+        int currentPid = in.readInt();
+
+        timeline = new TreeSet<>(BY_VRUNTIME);
+        entities = new HashMap<>();
+        queuedWeight = 0;
+        current = null;
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            Entity entity = new Entity(processes.apply(in.readInt()));
+            entity.vruntime = in.readLong();
+            entity.sequence = in.readLong();
+            entity.slice = in.readInt();
+            entity.ran = in.readInt();
+            entity.queued = in.readBoolean();
+            entity.sleeping = in.readBoolean();
+            entities.put(entity.process, entity);
+            if (entity.queued) {
+                timeline.add(entity);
+                queuedWeight += entity.weight;
+            }
+            if (entity.process.pid == currentPid) {
+                current = entity;
+            }
+        }
+
+        dispatches = in.readLong();
+        sliceTicks = in.readLong();
+        maxSpread = in.readLong();
+    }
+
+    /**
+     * Métricas de reparto de la CPU, acumulables entre núcleos
+     */
+    public static class Statistics implements PolicyStatistics {
+        private long dispatches;
+        private long sliceTicks;
+        private long maxSpread;
+
+        Statistics(long dispatches, long sliceTicks, long maxSpread) {
+            this.dispatches = dispatches;
+            this.sliceTicks = sliceTicks;
+            this.maxSpread = maxSpread;
+        }
+
+        public void merge(Statistics other) {
+            dispatches += other.dispatches;
+            sliceTicks += other.sliceTicks;
+            maxSpread = Math.max(maxSpread, other.maxSpread);
+        }
+
+        @Override
+        public void merge(PolicyStatistics other) {
+            merge((Statistics) other);
+        }
+
+        public long getDispatches() { return dispatches; }
+        public double getAvgSlice() { return dispatches > 0 ? (double) sliceTicks / dispatches : 0; }
+        public long getMaxSpread() { return maxSpread; }
+
+        @Override
+        public String toString() {
+            return String.format("Despachos: %d, porción promedio: %.2f ticks, dispersión máxima de vruntime: %d ticks",
+                    dispatches, getAvgSlice(), maxSpread);
+        }
+    }
+}
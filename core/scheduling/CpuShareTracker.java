@@ -0,0 +1,272 @@
+package core.scheduling;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.function.IntFunction;
+import models.PCB;
+import models.SchedulingData;
+import persistence.CheckpointInput;
+import persistence.CheckpointOutput;
+
+/**
+ * Compara la CPU que pidió cada proceso (según sus boletos) con la que
+ * obtuvo, para los planificadores de reparto proporcional de un núcleo.
+ *
+ * Mientras hay procesos ejecutables, cada tick le corresponde a cada uno
+ * boletos / total de boletos ejecutables. Para no recorrerlos en cada tick
+ * se lleva un reloj de reparto que avanza SCALE / total por tick: lo pedido
+ * por un proceso es boletos · (reloj al salir − reloj al entrar).
+ */
+public class CpuShareTracker {
+    public static final int DEFAULT_TICKETS_PER_PRIORITY = 100;
+    private static final long SCALE = 1L << 32;
+
+    private long clock = 0;
+    private long totalTickets = 0;
+    private Map<PCB, Entry> entries = new HashMap<>();
+    // Procesos que ya salieron, agrupados por sus boletos propios
+    private final Statistics finished = new Statistics();
+
+    private static class Entry {
+        int tickets;      // boletos con los que compite ahora (propios + prestados)
+        long joined;      // reloj de reparto al último cambio de boletos
+        double requested; // CPU pedida, en ticks · SCALE
+        long used;        // ticks de CPU obtenidos
+    }
+
+    /**
+     * Boletos por omisión según la prioridad (0-9): 100 por nivel
+     */
+    public static int ticketsFor(int priority) {
+        return (Math.max(0, priority) + 1) * DEFAULT_TICKETS_PER_PRIORITY;
+    }
+
+    /**
+     * Boletos con los que compite el proceso: los propios más los prestados
+     */
+    public static int ticketsOf(PCB process) {
+        SchedulingData data = process.schedulingData;
+        if (data == null) {
+            return DEFAULT_TICKETS_PER_PRIORITY;
+        }
+        int own = data.tickets != null ? data.tickets : ticketsFor(process.priority);
+        return Math.max(1, own + data.receivedTickets);
+    }
+
+    private static int ownTickets(PCB process) {
+        SchedulingData data = process.schedulingData;
+        return data != null && data.tickets != null ? data.tickets : ticketsFor(process.priority);
+    }
+
+    /**
+     * El proceso pasa a competir por la CPU (no hace nada si ya competía)
+     */
+    public void join(PCB process) {
+        if (entries.containsKey(process)) {
+            return;
+        }
+        Entry entry = new Entry();
+        entry.tickets = ticketsOf(process);
+        entry.joined = clock;
+        entries.put(process, entry);
+        totalTickets += entry.tickets;
+    }
+
+    /**
+     * Deja de competir (se bloqueó, terminó o salió del núcleo)
+     */
+    public void leave(PCB process) {
+        Entry entry = entries.remove(process);
+        if (entry == null) {
+            return;
+        }
+        settle(entry);
+        totalTickets -= entry.tickets;
+        finished.add(ownTickets(process), entry.requested, entry.used);
+    }
+
+    /**
+     * Vuelve a leer los boletos del proceso después de una transferencia
+     */
+    public void retarget(PCB process) {
+        Entry entry = entries.get(process);
+        if (entry == null) {
+            return;
+        }
+        settle(entry);
+        totalTickets += ticketsOf(process) - entry.tickets;
+        entry.tickets = ticketsOf(process);
+    }
+
+    public boolean contains(PCB process) {
+        return entries.containsKey(process);
+    }
+
+    // Boletos con los que el proceso compite según el último join() o retarget()
+    int ticketsInUse(PCB process) {
+        Entry entry = entries.get(process);
+        return entry != null ? entry.tickets : ticketsOf(process);
+    }
+
+    /**
+     * El proceso usó la CPU durante 'ticks' ticks
+     */
+    public void ran(PCB process, int ticks) {
+        if (totalTickets > 0) {
+            clock += ticks * (SCALE / totalTickets);
+        }
+        Entry entry = entries.get(process);
+        if (entry != null) {
+            entry.used += ticks;
+        }
+    }
+
+    private void settle(Entry entry) {
+        entry.requested += (double) entry.tickets * (clock - entry.joined);
+        entry.joined = clock;
+    }
+
+    /**
+     * Reparto pedido y obtenido de los procesos que ya salieron y de los que siguen compitiendo
+     */
+    public Statistics getStatistics() {
+        Statistics stats = new Statistics();
+        stats.merge(finished);
+        for (Map.Entry<PCB, Entry> live : entries.entrySet()) {
+            Entry entry = live.getValue();
+            stats.add(ownTickets(live.getKey()), entry.requested + (double) entry.tickets * (clock - entry.joined), entry.used);
+        }
+        return stats;
+    }
+
+    void writeState(CheckpointOutput out) throws IOException {
+        out.writeLong(clock);
+        out.writeLong(totalTickets);
+        List<PCB> live = new ArrayList<>(entries.keySet());
+        live.sort(Comparator.comparingInt(p -> p.pid));
+        out.writeInt(live.size());
+        for (PCB process : live) {
+            Entry entry = entries.get(process);
+            out.writeInt(process.pid);
+            out.writeInt(entry.tickets);
+            out.writeLong(entry.joined);
+            out.writeLong(Double.doubleToLongBits(entry.requested));
+            out.writeLong(entry.used);
+        }
+        finished.writeState(out);
+    }
+
+    void readState(CheckpointInput in, IntFunction<PCB> processes) throws IOException {
+        clock = in.readLong();
+        totalTickets = in.readLong();
+        entries = new HashMap<>();
+        int live = in.readInt();
+        for (int i = 0; i < live; i++) {
+            PCB process = processes.apply(in.readInt());
+            Entry entry = new Entry();
+            entry.tickets = in.readInt();
+            entry.joined = in.readLong();
+            entry.requested = Double.longBitsToDouble(in.readLong());
+            entry.used = in.readLong();
+            entries.put(process, entry);
+        }
+        finished.readState(in);
+    }
+
+    /**
+     * CPU pedida y obtenida por grupo de boletos. Solo cuenta el tiempo en que
+     * el proceso competía: las esperas por E/S no son parte de su reparto.
+     */
+    public static class Statistics implements PolicyStatistics {
+        private final TreeMap<Integer, Group> groups = new TreeMap<>();
+        private long processes = 0;
+        private double absoluteError = 0; // suma de |usado − pedido| por proceso, en ticks · SCALE
+
+        private static class Group {
+            long processes;
+            double requested;
+            long used;
+        }
+
+        void add(int tickets, double requested, long used) {
+            Group group = groups.computeIfAbsent(tickets, t -> new Group());
+            group.processes++;
+            group.requested += requested;
+            group.used += used;
+            processes++;
+            absoluteError += Math.abs((double) used * SCALE - requested);
+        }
+
+        public void merge(Statistics other) {
+            for (Map.Entry<Integer, Group> entry : other.groups.entrySet()) {
+                Group group = groups.computeIfAbsent(entry.getKey(), t -> new Group());
+                group.processes += entry.getValue().processes;
+                group.requested += entry.getValue().requested;
+                group.used += entry.getValue().used;
+            }
+            processes += other.processes;
+            absoluteError += other.absoluteError;
+        }
+
+        @Override
+        public void merge(PolicyStatistics other) {
+            merge((Statistics) other);
+        }
+
+        /**
+         * Diferencia promedio, en ticks, entre la CPU obtenida y la pedida por cada proceso
+         */
+        public double getMeanAbsoluteError() {
+            return processes > 0 ? absoluteError / SCALE / processes : 0;
+        }
+
+        private long totalUsed() {
+            long total = 0;
+            for (Group group : groups.values()) {
+                total += group.used;
+            }
+            return total;
+        }
+
+        void writeState(CheckpointOutput out) throws IOException {
+            out.writeInt(groups.size());
+            for (Map.Entry<Integer, Group> entry : groups.entrySet()) {
+                out.writeInt(entry.getKey());
+                out.writeLong(entry.getValue().processes);
+                out.writeLong(Double.doubleToLongBits(entry.getValue().requested));
+                out.writeLong(entry.getValue().used);
+            }
+            out.writeLong(processes);
+            out.writeLong(Double.doubleToLongBits(absoluteError));
+        }
+
+        void readState(CheckpointInput in) throws IOException {
+            groups.clear();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                Group group = new Group();
+                groups.put(in.readInt(), group);
+                group.processes = in.readLong();
+                group.requested = Double.longBitsToDouble(in.readLong());
+                group.used = in.readLong();
+            }
+            processes = in.readLong();
+            absoluteError = Double.longBitsToDouble(in.readLong());
+        }
+
+        @Override
+        public String toString() {
+            long total = totalUsed();
+            StringBuilder sb = new StringBuilder("Reparto de CPU por boletos:\n");
+            sb.append(String.format("%-8s %-9s %-8s %-9s%n", "Boletos", "Procesos", "Pedido", "Obtenido"));
+            for (Map.Entry<Integer, Group> entry : groups.entrySet()) {
+                Group group = entry.getValue();
+                double requested = total > 0 ? group.requested / SCALE / total * 100 : 0;
+                double obtained = total > 0 ? (double) group.used / total * 100 : 0;
+                sb.append(String.format("%-8d %-9d %6.2f%% %7.2f%%%n", entry.getKey(), group.processes, requested, obtained));
+            }
+            sb.append(String.format("Desvío promedio por proceso: %.2f ticks", getMeanAbsoluteError()));
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package core.scheduling;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import models.PCB;
+
+/**
+ * Montículo binario de mínimos de procesos con llave numérica. Cada proceso
+ * recuerda su posición en el arreglo, así que además de agregar y sacar el
+ * mínimo se puede quitar cualquier proceso o cambiar su llave en O(log n).
+ *
+ * Si dos llaves empatan sale primero el que se agregó antes.
+ */
+public class IndexedProcessHeap {
+    private PCB[] processes = new PCB[16];
+    private long[] keys = new long[16];
+    private long[] sequences = new long[16];
+    private final Map<PCB, Integer> positions = new HashMap<>();
+    private int size = 0;
+    private long nextSequence = 0;
+
+    /**
+     * Agrega un proceso; si ya estaba solo cambia su llave
+     */
+    public void add(PCB process, long key) {
+        Integer position = positions.get(process);
+        if (position != null) {
+            changeKey(process, key);
+            return;
+        }
+        insert(process, key, nextSequence++);
+    }
+
+    public PCB peek() {
+        return size > 0 ? processes[0] : null;
+    }
+
+    /**
+     * Llave del mínimo, o Long.MAX_VALUE si está vacío
+     */
+    public long peekKey() {
+        return size > 0 ? keys[0] : Long.MAX_VALUE;
+    }
+
+    public PCB poll() {
+        if (size == 0) {
+            return null;
+        }
+        PCB min = processes[0];
+        removeAt(0);
+        return min;
+    }
+
+    public boolean remove(PCB process) {
+        Integer position = positions.get(process);
+        if (position == null) {
+            return false;
+        }
+        removeAt(position);
+        return true;
+    }
+
+    /**
+     * Cambia la llave de un proceso que ya está en el montículo (sube o baja según el caso)
+     */
+    public boolean changeKey(PCB process, long key) {
+        Integer position = positions.get(process);
+        if (position == null) {
+            return false;
+        }
+        long old = keys[position];
+        keys[position] = key;
+        if (key < old) {
+            siftUp(position);
+        } else if (key > old) {
+            siftDown(position);
+        }
+        return true;
+    }
+
+    public boolean contains(PCB process) {
+        return positions.containsKey(process);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Acceso por posición del arreglo (orden del montículo), para guardar checkpoints
+    PCB processAt(int position) { return processes[position]; }
+    long sequenceAt(int position) { return sequences[position]; }
+    long getNextSequence() { return nextSequence; }
+    void setNextSequence(long sequence) { nextSequence = sequence; }
+
+    /**
+     * Reconstruye una entrada guardada conservando su orden de llegada
+     */
+    void restore(PCB process, long key, long sequence) {
+        insert(process, key, sequence);
+        nextSequence = Math.max(nextSequence, sequence + 1);
+    }
+
+    private void insert(PCB process, long key, long sequence) {
+        if (size == processes.length) {
+            processes = Arrays.copyOf(processes, size * 2);
+            keys = Arrays.copyOf(keys, size * 2);
+            sequences = Arrays.copyOf(sequences, size * 2);
+        }
+        processes[size] = process;
+        keys[size] = key;
+        sequences[size] = sequence;
+        positions.put(process, size);
+        siftUp(size++);
+    }
+
+    private void removeAt(int position) {
+        positions.remove(processes[position]);
+        int last = --size;
+        if (position != last) {
+            move(last, position);
+            siftDown(position);
+            siftUp(position);
+        }
+        processes[last] = null;
+    }
+
+    private boolean less(int a, int b) {
+        return keys[a] < keys[b] || (keys[a] == keys[b] && sequences[a] < sequences[b]);
+    }
+
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (!less(position, parent)) {
+                break;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && less(child + 1, child)) {
+                child++;
+            }
+            if (!less(child, position)) {
+                break;
+            }
+            swap(position, child);
+            position = child;
+        }
+    }
+
+    private void swap(int a, int b) {
+        PCB process = processes[a];
+        long key = keys[a];
+        long sequence = sequences[a];
+        move(b, a);
+        processes[b] = process;
+        keys[b] = key;
+        sequences[b] = sequence;
+        positions.put(process, b);
+    }
+
+    private void move(int from, int to) {
+        processes[to] = processes[from];
+        keys[to] = keys[from];
+        sequences[to] = sequences[from];
+        positions.put(processes[to], to);
+    }
+}
@@ -0,0 +1,303 @@
+package core.scheduling;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.function.IntFunction;
+import core.Logger;
+import models.PCB;
+import models.ProcessState;
+import models.SchedulingData;
+import persistence.CheckpointInput;
+import persistence.CheckpointOutput;
+import persistence.Checkpointable;
+
+/**
+ * Planificación por lotería: en cada despacho se sortea un boleto entre los
+ * de los procesos listos y gana su dueño, así que a la larga cada proceso
+ * recibe CPU en proporción a sus boletos (ver CpuShareTracker).
+ *
+ * Los boletos de los procesos listos están en un árbol de Fenwick indexado
+ * por casilla: agregar, quitar o cambiar los boletos de un proceso y
+ * encontrar al ganador de un sorteo cuestan O(log n). El generador es
+ * propio (xorshift) para que la ejecución sea reproducible con la misma
+ * semilla y su estado se pueda guardar en un checkpoint.
+ */
+public class LotteryScheduler implements Scheduler, Checkpointable {
+    public static final int DEFAULT_QUANTUM = 4;
+    public static final long DEFAULT_SEED = 42;
+
+    private final int quantum;
+    private long random;
+
+    // Árbol de Fenwick sobre las casillas (índices desde 1)
+    private long[] tree = new long[17];
+    private PCB[] slots = new PCB[17];
+    private int[] slotTickets = new int[17];
+    private int usedSlots = 0;
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private final Map<PCB, Integer> slotOf = new HashMap<>();
+    private long totalTickets = 0;
+
+    private final CpuShareTracker shares = new CpuShareTracker();
+    private long draws = 0;
+
+    public LotteryScheduler() {
+        this(DEFAULT_QUANTUM, DEFAULT_SEED);
+    }
+
+    public LotteryScheduler(int quantum, long seed) {
+        if (quantum <= 0) {
+            throw new IllegalArgumentException("El quantum debe ser mayor que 0: " + quantum);
+        }
+        this.quantum = quantum;
+        this.random = seed != 0 ? seed : DEFAULT_SEED;
+    }
+
+    public int getQuantum() {
+        return quantum;
+    }
+
+    @Override
+    public void addProcess(PCB process) {
+        if (!slotOf.containsKey(process)) {
+            int slot = freeSlots.isEmpty() ? ++usedSlots : freeSlots.pop();
+            ensureCapacity(slot);
+            slots[slot] = process;
+            slotOf.put(process, slot);
+            setTickets(slot, CpuShareTracker.ticketsOf(process));
+        }
+        shares.join(process);
+        process.state = ProcessState.READY;
+    }
+
+    @Override
+    public PCB getNextProcess() {
+        if (totalTickets == 0) {
+            return null;
+        }
+        int slot = winner(nextRandom(random));
+        random = nextRandom(random);
+        draws++;
+        PCB next = slots[slot];
+        Logger.log(Logger.Level.DEBUG, () -> "Lotería: gana el proceso " + next.pid + " con " +
+                  slotTickets[slot] + " de " + totalTickets + " boletos");
+        release(slot);
+        next.state = ProcessState.RUNNING;
+        return next;
+    }
+
+    @Override
+    public PCB peek() {
+        // Mismo sorteo que haría getNextProcess(), sin avanzar el generador
+        return totalTickets == 0 ? null : slots[winner(nextRandom(random))];
+    }
+
+    @Override
+    public TickOutcome onTick(PCB running) {
+        shares.ran(running, 1);
+        SchedulingData data = running.schedulingData;
+        if (data.quantum == null) {
+            return TickOutcome.CONTINUE;
+        }
+        data.quantum--;
+        if (data.quantum <= 0) {
+            data.quantum = quantum;
+            return TickOutcome.PREEMPT;
+        }
+        return TickOutcome.CONTINUE;
+    }
+
+    @Override
+    public long quietTicks(PCB running) {
+        Integer remainingQuantum = running.schedulingData.quantum;
+        return remainingQuantum != null ? remainingQuantum - 1L : Long.MAX_VALUE;
+    }
+
+    @Override
+    public void fastForward(PCB running, int ticks) {
+        shares.ran(running, ticks);
+        if (running.schedulingData.quantum != null) {
+            running.schedulingData.quantum -= ticks;
+        }
+    }
+
+    @Override
+    public void onBlocked(PCB process) {
+        shares.leave(process);
+    }
+
+    @Override
+    public void ticketsChanged(PCB process) {
+        Integer slot = slotOf.get(process);
+        if (slot != null) {
+            setTickets(slot, CpuShareTracker.ticketsOf(process));
+        }
+        shares.retarget(process);
+    }
+
+    @Override
+    public void removeProcess(PCB process) {
+        Integer slot = slotOf.get(process);
+        if (slot != null) {
+            release(slot);
+        }
+        shares.leave(process);
+    }
+
+    @Override
+    public int drainTo(Collection<? super PCB> target, int maxProcesses) {
+        int moved = 0;
+        while (moved < maxProcesses && totalTickets > 0) {
+            PCB process = getNextProcess();
+            process.state = ProcessState.READY;
+            shares.leave(process);
+            target.add(process);
+            moved++;
+        }
+        return moved;
+    }
+
+    @Override
+    public int size() {
+        return slotOf.size();
+    }
+
+    @Override
+    public void onProcessFinished(PCB process) {
+        removeProcess(process);
+        process.state = ProcessState.TERMINATED;
+    }
+
+    @Override
+    public void configure(SchedulingData data, int priority) {
+        data.quantum = quantum;
+        data.queueLevel = null;
+        if (data.tickets == null) {
+            data.tickets = CpuShareTracker.ticketsFor(priority);
+        }
+    }
+
+    /**
+     * CPU pedida y obtenida por grupo de boletos en este núcleo
+     */
+    @Override
+    public CpuShareTracker.Statistics getStatistics() {
+        return shares.getStatistics();
+    }
+
+    public long getDraws() {
+        return draws;
+    }
+
+    @Override
+    public String getName() {
+        return "Lotería (Quantum=" + quantum + ")";
+    }
+
+    @Override
+    public boolean usesPriority() {
+        return true;
+    }
+
+    // Primera casilla cuya suma acumulada de boletos supera el número sorteado
+    private int winner(long randomValue) {
+        long target = Long.remainderUnsigned(randomValue, totalTickets);
+        int position = 0;
+        for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1) {
+            int next = position + step;
+            if (next < tree.length && tree[next] <= target) {
+                position = next;
+                target -= tree[next];
+            }
+        }
+        return position + 1;
+    }
+
+    private static long nextRandom(long state) {
+        state ^= state << 13;
+        state ^= state >>> 7;
+        state ^= state << 17;
+        return state;
+    }
+
+    private void setTickets(int slot, int tickets) {
+        int delta = tickets - slotTickets[slot];
+        slotTickets[slot] = tickets;
+        totalTickets += delta;
+        for (int i = slot; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    private void release(int slot) {
+        setTickets(slot, 0);
+        slotOf.remove(slots[slot]);
+        slots[slot] = null;
+        freeSlots.push(slot);
+    }
+
+    private void ensureCapacity(int slot) {
+        if (slot < tree.length) {
+            return;
+        }
+        int capacity = tree.length;
+        while (capacity <= slot) {
+            capacity = capacity * 2 - 1;
+        }
+        slots = Arrays.copyOf(slots, capacity);
+        slotTickets = Arrays.copyOf(slotTickets, capacity);
+        // Reconstruir el árbol en O(n) con las sumas parciales
+        tree = new long[capacity];
+        for (int i = 1; i < capacity; i++) {
+            tree[i] += slotTickets[i];
+            int parent = i + (i & -i);
+            if (parent < capacity) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    @Override
+    public void writeState(CheckpointOutput out) throws IOException {
+        out.writeLong(random);
+        out.writeLong(draws);
+        out.writeInt(usedSlots);
+        for (int slot = 1; slot <= usedSlots; slot++) {
+            out.writeInt(slots[slot] != null ? slots[slot].pid : -1);
+        }
+        out.writeInt(freeSlots.size());
+        for (int slot : freeSlots) {
+            out.writeInt(slot);
+        }
+        shares.writeState(out);
+    }
+
+    @Override
+    public void readState(CheckpointInput in, IntFunction<PCB> processes) throws IOException {
+        // El quantum guardado no se impone: se conserva el de esta instancia
+        random = in.readLong();
+        draws = in.readLong();
+        tree = new long[17];
+        slots = new PCB[17];
+        slotTickets = new int[17];
+        slotOf.clear();
+        totalTickets = 0;
+        usedSlots = in.readInt();
+        ensureCapacity(usedSlots);
+        for (int slot = 1; slot <= usedSlots; slot++) {
+            int pid = in.readInt();
+            if (pid >= 0) {
+                PCB process = processes.apply(pid);
+                slots[slot] = process;
+                slotOf.put(process, slot);
+                setTickets(slot, CpuShareTracker.ticketsOf(process));
+            }
+        }
+        freeSlots.clear();
+        int free = in.readInt();
+        for (int i = 0; i < free; i++) {
+            freeSlots.addLast(in.readInt());
+        }
+        shares.readState(in, processes);
+    }
+}
@@ -0,0 +1,641 @@
+package core.scheduling;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
+import core.Logger;
+import models.PCB;
+import models.ProcessState;
+import models.SchedulingData;
+import persistence.CheckpointInput;
+import persistence.CheckpointOutput;
+import persistence.Checkpointable;
+
+/**
+ * Cola multinivel con retroalimentación. Los niveles se numeran como en
+ * MultilevelQueueScheduler: el más alto (levels - 1) es el de mayor prioridad
+ * y quantum más corto, y el 0 el de menor prioridad.
+ *
+ * - Los procesos nuevos entran al nivel más alto.
+ * - Al agotar el quantum el proceso baja un nivel.
+ * - Al bloquearse para E/S sube un nivel.
+ * - Cada 'boostPeriod' ticks todos los procesos vuelven al nivel más alto.
+ * - Un proceso que espera 'agingThreshold' ticks en una cola sube un nivel.
+ *
+ * Las subidas por impulso y envejecimiento se aplican cuando el planificador
+ * vuelve a ser consultado, en el orden en que habrían ocurrido, así que el
+ * resultado no depende de si el motor avanza tick a tick o por eventos.
+ * Además mide por nivel la espera en la cola de listos de cada despacho.
+ */
+public class MultilevelFeedbackQueueScheduler implements Scheduler, Checkpointable {
+    public static final int[] DEFAULT_QUANTA = { 2, 4, 8 };
+    public static final int DEFAULT_BOOST_PERIOD = 200;
+    public static final int DEFAULT_AGING_THRESHOLD = 100;
+
+    // quanta[level]: el índice 0 es el nivel de menor prioridad
+    private final int[] quanta;
+    private final int boostPeriod;      // 0 = sin impulso periódico
+    private final int agingThreshold;   // 0 = sin envejecimiento
+
+    private ReadyQueue[] queues;
+    // Procesos que administra este planificador (en cola, en ejecución o bloqueados)
+    private Map<PCB, Entry> entries = new HashMap<>();
+    private WaitHistogram[] waitTimes;
+    private long lastBoost = 0;         // último impulso ya aplicado a las colas
+
+    // Reloj simulado; sin motor se queda en 0 y no hay impulsos ni envejecimiento
+    private LongSupplier clock = () -> 0;
+
+    private static class Entry {
+        long enqueuedAt;   // inicio de la espera actual (para las métricas)
+        long agingFrom;    // inicio de la espera en el nivel actual
+        long levelSince;   // último cambio de nivel (para aplicar impulsos pendientes)
+    }
+
+    public MultilevelFeedbackQueueScheduler() {
+        this(DEFAULT_QUANTA, DEFAULT_BOOST_PERIOD, DEFAULT_AGING_THRESHOLD);
+    }
+
+    /**
+     * 'quantaTopFirst' tiene el quantum de cada nivel empezando por el de
+     * mayor prioridad, como en "mlq:alta/media/baja"
+     */
+    public MultilevelFeedbackQueueScheduler(int[] quantaTopFirst, int boostPeriod, int agingThreshold) {
+        if (quantaTopFirst.length == 0 || quantaTopFirst.length > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Número de niveles inválido: " + quantaTopFirst.length);
+        }
+        if (boostPeriod < 0 || agingThreshold < 0) {
+            throw new IllegalArgumentException("El periodo de impulso y el umbral de envejecimiento no pueden ser negativos");
+        }
+        quanta = new int[quantaTopFirst.length];
+        for (int i = 0; i < quanta.length; i++) {
+            if (quantaTopFirst[i] <= 0) {
+                throw new IllegalArgumentException("Los quantum deben ser mayores que 0");
+            }
+            quanta[quanta.length - 1 - i] = quantaTopFirst[i];
+        }
+        this.boostPeriod = boostPeriod;
+        this.agingThreshold = agingThreshold;
+        queues = new ReadyQueue[quanta.length];
+        waitTimes = new WaitHistogram[quanta.length];
+        for (int level = 0; level < quanta.length; level++) {
+            queues[level] = new ReadyQueue();
+            waitTimes[level] = new WaitHistogram();
+        }
+    }
+
+    /**
+     * Fuente del tick simulado (la fija el SimulationEngine)
+     */
+    @Override
+    public void setClock(LongSupplier simulationClock) {
+        this.clock = simulationClock;
+    }
+
+    public int getLevelCount() {
+        return quanta.length;
+    }
+
+    public int getTopLevel() {
+        return quanta.length - 1;
+    }
+
+    public int getQuantumForLevel(int level) {
+        return quanta[clampLevel(level)];
+    }
+
+    public int getBoostPeriod() {
+        return boostPeriod;
+    }
+
+    public int getAgingThreshold() {
+        return agingThreshold;
+    }
+
+    @Override
+    public void addProcess(PCB process) {
+        long now = clock.getAsLong();
+        catchUp(now);
+
+        if (process.schedulingData == null) {
+            process.schedulingData = new SchedulingData();
+        }
+        Entry entry = entries.get(process);
+        if (entry == null) {
+            entry = new Entry();
+            entry.levelSince = now;
+            entries.put(process, entry);
+            if (process.schedulingData.queueLevel == null) {
+                setLevel(process, getTopLevel());
+            }
+        }
+        applyPendingBoost(process, entry);
+        int level = clampLevel(process.schedulingData.queueLevel);
+        if (level != process.schedulingData.queueLevel) {
+            setLevel(process, level);
+        }
+
+        entry.enqueuedAt = now;
+        entry.agingFrom = now;
+        process.state = ProcessState.READY;
+        queues[level].add(process);
+    }
+
+    @Override
+    public PCB getNextProcess() {
+        long now = clock.getAsLong();
+        catchUp(now);
+        for (int level = getTopLevel(); level >= 0; level--) {
+            PCB process = queues[level].poll();
+            if (process != null) {
+                Entry entry = entries.get(process);
+                waitTimes[level].record(now - entry.enqueuedAt);
+                process.state = ProcessState.RUNNING;
+                return process;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void configure(SchedulingData data, int priority) {
+        // Todos entran al nivel más alto; el nivel cambia con el comportamiento del proceso
+        data.queueLevel = getTopLevel();
+        data.quantum = getQuantumForLevel(data.queueLevel);
+    }
+
+    @Override
+    public TickOutcome onTick(PCB running) {
+        SchedulingData data = running.schedulingData;
+        if (data.quantum == null) {
+            return TickOutcome.CONTINUE;
+        }
+        data.quantum--;
+        if (data.quantum <= 0) {
+            onQuantumExpired(running);
+            Logger.log(Logger.Level.DEBUG, () -> "MLFQ: el proceso " + running.pid +
+                      " agotó su quantum y baja al nivel " + data.queueLevel);
+            return TickOutcome.PREEMPT;
+        }
+        return TickOutcome.CONTINUE;
+    }
+
+    @Override
+    public long quietTicks(PCB running) {
+        Integer remainingQuantum = running.schedulingData.quantum;
+        return remainingQuantum != null ? remainingQuantum - 1L : Long.MAX_VALUE;
+    }
+
+    @Override
+    public void fastForward(PCB running, int ticks) {
+        if (running.schedulingData.quantum != null) {
+            running.schedulingData.quantum -= ticks;
+        }
+    }
+
+    /**
+     * El proceso en ejecución agotó su quantum: baja un nivel y recibe el
+     * quantum del nuevo nivel. El motor lo vuelve a encolar después.
+     */
+    public void onQuantumExpired(PCB process) {
+        changeLevel(process, -1);
+    }
+
+    /**
+     * El proceso dejó la CPU para hacer E/S: sube un nivel
+     */
+    @Override
+    public void onBlocked(PCB process) {
+        changeLevel(process, +1);
+    }
+
+    private void changeLevel(PCB process, int delta) {
+        long now = clock.getAsLong();
+        catchUp(now);
+        Entry entry = entries.get(process);
+        if (entry != null) {
+            applyPendingBoost(process, entry);
+        }
+        int current = process.schedulingData.queueLevel != null ? process.schedulingData.queueLevel : getTopLevel();
+        setLevel(process, clampLevel(current + delta));
+        if (entry != null) {
+            entry.levelSince = now;
+        }
+    }
+
+    @Override
+    public void removeProcess(PCB process) {
+        Entry entry = entries.remove(process);
+        if (entry != null) {
+            for (ReadyQueue queue : queues) {
+                if (queue.remove(process)) {
+                    break;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onProcessFinished(PCB process) {
+        process.state = ProcessState.TERMINATED;
+        removeProcess(process);
+    }
+
+    @Override
+    public PCB peek() {
+        catchUp(clock.getAsLong());
+        for (int level = getTopLevel(); level >= 0; level--) {
+            if (!queues[level].isEmpty()) {
+                return queues[level].peek();
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int drainTo(Collection<? super PCB> target, int maxProcesses) {
+        catchUp(clock.getAsLong());
+        int moved = 0;
+        for (int level = getTopLevel(); level >= 0 && moved < maxProcesses; level--) {
+            while (moved < maxProcesses && !queues[level].isEmpty()) {
+                PCB process = queues[level].poll();
+                entries.remove(process);
+                target.add(process);
+                moved++;
+            }
+        }
+        return moved;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (ReadyQueue queue : queues) {
+            size += queue.size();
+        }
+        return size;
+    }
+
+    /**
+     * Procesos en la cola de un nivel
+     */
+    public int getQueueSize(int level) {
+        return queues[clampLevel(level)].size();
+    }
+
+    /**
+     * Mayor espera sin ser despachado: la mayor registrada o la del proceso
+     * que lleva más tiempo en cola, si es mayor
+     */
+    public long getMaxStarvationAge() {
+        long now = clock.getAsLong();
+        long max = 0;
+        for (WaitHistogram histogram : waitTimes) {
+            max = Math.max(max, histogram.getMax());
+        }
+        for (ReadyQueue queue : queues) {
+            for (PCB process : queue) {
+                max = Math.max(max, now - entries.get(process).enqueuedAt);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Copia de las métricas de espera de este planificador; las de varios
+     * núcleos se combinan con Statistics.merge()
+     */
+    @Override
+    public Statistics getStatistics() {
+        WaitHistogram[] copies = new WaitHistogram[waitTimes.length];
+        for (int level = 0; level < copies.length; level++) {
+            copies[level] = waitTimes[level].copy();
+        }
+        return new Statistics(copies, getMaxStarvationAge());
+    }
+
+    @Override
+    public String getName() {
+        StringBuilder sb = new StringBuilder("MLFQ (").append(quanta.length).append(" niveles; Quantum=");
+        for (int level = getTopLevel(); level >= 0; level--) {
+            sb.append(quanta[level]).append(level > 0 ? "/" : "");
+        }
+        sb.append("; Impulso=").append(boostPeriod > 0 ? boostPeriod : "no");
+        sb.append("; Envejecimiento=").append(agingThreshold > 0 ? agingThreshold : "no").append(')');
+        return sb.toString();
+    }
+
+    // Aplica, en orden cronológico, los envejecimientos e impulsos vencidos hasta 'now'
+    private void catchUp(long now) {
+        while (true) {
+            long boostAt = boostPeriod > 0 ? lastBoost + boostPeriod : Long.MAX_VALUE;
+
+            // En los niveles que envejecen la cabeza es la que más espera
+            long agingAt = Long.MAX_VALUE;
+            int agingLevel = -1;
+            if (agingThreshold > 0) {
+                for (int level = 0; level < getTopLevel(); level++) {
+                    PCB head = queues[level].peek();
+                    if (head != null) {
+                        long due = entries.get(head).agingFrom + agingThreshold;
+                        if (due < agingAt) {
+                            agingAt = due;
+                            agingLevel = level;
+                        }
+                    }
+                }
+            }
+
+            if (agingAt <= now && agingAt <= boostAt) {
+                PCB process = queues[agingLevel].poll();
+                Entry entry = entries.get(process);
+                int level = agingLevel + 1;
+                setLevel(process, level);
+                entry.agingFrom = agingAt;
+                entry.levelSince = agingAt;
+                queues[level].add(process);
+                Logger.log(Logger.Level.DEBUG, () -> "MLFQ: el proceso " + process.pid +
+                          " envejeció y sube al nivel " + level);
+            } else if (boostAt <= now) {
+                boost(boostAt, now);
+            } else {
+                return;
+            }
+        }
+    }
+
+    // Impulso periódico: todos los procesos en cola pasan al nivel más alto.
+    // Los impulsos siguientes hasta 'now' ya no mueven nada de las colas, así
+    // que se registran de una vez.
+    private void boost(long at, long now) {
+        lastBoost = at + (now - at) / boostPeriod * boostPeriod;
+        int top = getTopLevel();
+        int moved = 0;
+        for (int level = top - 1; level >= 0; level--) {
+            PCB process;
+            while ((process = queues[level].poll()) != null) {
+                Entry entry = entries.get(process);
+                setLevel(process, top);
+                entry.agingFrom = at;
+                entry.levelSince = at;
+                queues[top].add(process);
+                moved++;
+            }
+        }
+        int boosted = moved;
+        Logger.log(Logger.Level.DEBUG, () -> "MLFQ: impulso de prioridad en el tick " + at +
+                  " (" + boosted + " procesos suben al nivel " + top + ")");
+    }
+
+    // Un proceso fuera de las colas (en CPU o en E/S) durante un impulso lo recibe al volver
+    private void applyPendingBoost(PCB process, Entry entry) {
+        if (boostPeriod > 0 && entry.levelSince < lastBoost) {
+            setLevel(process, getTopLevel());
+            entry.levelSince = lastBoost;
+        }
+    }
+
+    private void setLevel(PCB process, int level) {
+        process.schedulingData.queueLevel = level;
+        process.schedulingData.quantum = quanta[level];
+    }
+
+    private int clampLevel(Integer level) {
+        if (level == null) {
+            return getTopLevel();
+        }
+        return Math.max(0, Math.min(getTopLevel(), level));
+    }
+
+    @Override
+    public void writeState(CheckpointOutput out) throws IOException {
+        out.writeLong(lastBoost);
+        out.writeInt(queues.length);
+        for (ReadyQueue queue : queues) {
+            out.writeInt(queue.size());
+            for (PCB process : queue) {
+                out.writeInt(process.pid);
+                writeEntry(out, entries.get(process));
+            }
+        }
+        // Procesos en ejecución o bloqueados
+        List<PCB> outside = new ArrayList<>();
+        for (PCB process : entries.keySet()) {
+            if (process.state != ProcessState.READY) {
+                outside.add(process);
+            }
+        }
+        outside.sort(Comparator.comparingInt(p -> p.pid));
+        out.writeInt(outside.size());
+        for (PCB process : outside) {
+            out.writeInt(process.pid);
+            writeEntry(out, entries.get(process));
+        }
+        for (WaitHistogram histogram : waitTimes) {
+            histogram.write(out);
+        }
+    }
+
+    @Override
+    public void readState(CheckpointInput in, IntFunction<PCB> processes) throws IOException {
+        // Los quantum y parámetros guardados no se imponen: se conservan los de esta instancia
+        lastBoost = in.readLong();
+        entries = new HashMap<>();
+        for (int level = 0; level < quanta.length; level++) {
+            queues[level] = new ReadyQueue();
+        }
+        int savedLevels = in.readInt();
+        for (int level = 0; level < savedLevels; level++) {
+            int queued = in.readInt();
+            for (int i = 0; i < queued; i++) {
+                PCB process = processes.apply(in.readInt());
+                entries.put(process, readEntry(in));
+                queues[clampLevel(level)].add(process);
+            }
+        }
+        int outside = in.readInt();
+        for (int i = 0; i < outside; i++) {
+            PCB process = processes.apply(in.readInt());
+            entries.put(process, readEntry(in));
+        }
+        for (int level = 0; level < savedLevels; level++) {
+            WaitHistogram histogram = WaitHistogram.read(in);
+            if (level < waitTimes.length) {
+                waitTimes[level] = histogram;
+            }
+        }
+    }
+
+    private static void writeEntry(CheckpointOutput out, Entry entry) throws IOException {
+        out.writeLong(entry.enqueuedAt);
+        out.writeLong(entry.agingFrom);
+        out.writeLong(entry.levelSince);
+    }
+
+    private static Entry readEntry(CheckpointInput in) throws IOException {
+        Entry entry = new Entry();
+        entry.enqueuedAt = in.readLong();
+        entry.agingFrom = in.readLong();
+        entry.levelSince = in.readLong();
+        return entry;
+    }
+
+    /**
+     * Esperas en cola de listos por nivel (percentiles) y la mayor inanición observada
+     */
+    public static class Statistics implements PolicyStatistics {
+        private final WaitHistogram[] waitTimes;
+        private long maxStarvationAge;
+
+        Statistics(WaitHistogram[] waitTimes, long maxStarvationAge) {
+            this.waitTimes = waitTimes;
+            this.maxStarvationAge = maxStarvationAge;
+        }
+
+        /**
+         * Acumula las métricas de otro núcleo con el mismo número de niveles
+         */
+        public void merge(Statistics other) {
+            for (int level = 0; level < Math.min(waitTimes.length, other.waitTimes.length); level++) {
+                waitTimes[level].merge(other.waitTimes[level]);
+            }
+            maxStarvationAge = Math.max(maxStarvationAge, other.maxStarvationAge);
+        }
+
+        @Override
+        public void merge(PolicyStatistics other) {
+            merge((Statistics) other);
+        }
+
+        @Override
+        public void appendTo(StringBuilder sb) {
+            sb.append("Espera en cola de listos por nivel (ticks):\n").append(this);
+        }
+
+        public int getLevelCount() { return waitTimes.length; }
+        public long getDispatches(int level) { return waitTimes[level].getCount(); }
+        public long getWaitPercentile(int level, double percentile) { return waitTimes[level].percentile(percentile); }
+        public long getMaxWait(int level) { return waitTimes[level].getMax(); }
+        public long getMaxStarvationAge() { return maxStarvationAge; }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("%-6s %-10s %-8s %-8s %-8s %s%n", "Nivel", "Despachos", "p50", "p90", "p99", "Máx"));
+            for (int level = waitTimes.length - 1; level >= 0; level--) {
+                WaitHistogram histogram = waitTimes[level];
+                sb.append(String.format("%-6d %-10d %-8d %-8d %-8d %d%n", level, histogram.getCount(),
+                        histogram.percentile(50), histogram.percentile(90), histogram.percentile(99), histogram.getMax()));
+            }
+            sb.append("Inanición máxima: ").append(maxStarvationAge).append(" ticks");
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Histograma log-lineal de esperas: exacto hasta 63 ticks y con error
+     * relativo menor al 4% por encima, con memoria fija
+     */
+    static class WaitHistogram {
+        private static final int SUB_BITS = 5;
+        private static final int SUB_BUCKETS = 1 << SUB_BITS;            // 32
+        private static final int LINEAR = 2 * SUB_BUCKETS;               // 0..63 exactos
+        private static final int BUCKETS = LINEAR + (63 - SUB_BITS - 1) * SUB_BUCKETS;
+
+        private final long[] counts = new long[BUCKETS];
+        private long count = 0;
+        private long max = 0;
+
+        void record(long value) {
+            long v = Math.max(0, value);
+            counts[index(v)]++;
+            count++;
+            max = Math.max(max, v);
+        }
+
+        long getCount() { return count; }
+        long getMax() { return max; }
+
+        /**
+         * Menor valor v tal que al menos 'percentile'% de las esperas son <= v
+         * (redondeado al límite inferior de su casilla)
+         */
+        long percentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long target = Math.max(1, (long) Math.ceil(count * percentile / 100.0));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= target) {
+                    return Math.min(max, lowerBound(i));
+                }
+            }
+            return max;
+        }
+
+        void merge(WaitHistogram other) {
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] += other.counts[i];
+            }
+            count += other.count;
+            max = Math.max(max, other.max);
+        }
+
+        WaitHistogram copy() {
+            WaitHistogram copy = new WaitHistogram();
+            copy.merge(this);
+            return copy;
+        }
+
+        private static int index(long v) {
+            if (v < LINEAR) {
+                return (int) v;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(v);          // >= 6
+            int sub = (int) (v >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+            return LINEAR + (exponent - SUB_BITS - 1) * SUB_BUCKETS + sub;
+        }
+
+        private static long lowerBound(int index) {
+            if (index < LINEAR) {
+                return index;
+            }
+            int exponent = (index - LINEAR) / SUB_BUCKETS + SUB_BITS + 1;
+            int sub = (index - LINEAR) % SUB_BUCKETS;
+            return (1L << exponent) | ((long) sub << (exponent - SUB_BITS));
+        }
+
+        void write(CheckpointOutput out) throws IOException {
+            out.writeLong(count);
+            out.writeLong(max);
+            int used = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                if (counts[i] != 0) {
+                    used++;
+                }
+            }
+            out.writeInt(used);
+            for (int i = 0; i < BUCKETS; i++) {
+                if (counts[i] != 0) {
+                    out.writeInt(i);
+                    out.writeLong(counts[i]);
+                }
+            }
+        }
+
+        static WaitHistogram read(CheckpointInput in) throws IOException {
+            WaitHistogram histogram = new WaitHistogram();
+            histogram.count = in.readLong();
+            histogram.max = in.readLong();
+            int used = in.readInt();
+            for (int i = 0; i < used; i++) {
+                int index = in.readInt();
+                histogram.counts[index] = in.readLong();
+            }
+            return histogram;
+        }
+    }
+}
@@ -1,15 +1,20 @@
 package core.scheduling;
 
+import java.io.IOException;
 import java.util.*;
+import java.util.function.IntFunction;
 import models.PCB;
 import models.ProcessState;
 import models.SchedulingData;
+import persistence.CheckpointInput;
+import persistence.CheckpointOutput;
+import persistence.Checkpointable;
 
-public class MultilevelQueueScheduler implements Scheduler {
-    // Colas para los tres niveles fijos de prioridad
-    private List<PCB> altaPrioridad = new ArrayList<>();    // Nivel 2
-    private List<PCB> mediaPrioridad = new ArrayList<>();   // Nivel 1
-    private List<PCB> bajaPrioridad = new ArrayList<>();    // Nivel 0
+public class MultilevelQueueScheduler implements Scheduler, Checkpointable {
+    // Colas para los tres niveles fijos de prioridad (baja en O(1))
+    private ReadyQueue altaPrioridad = new ReadyQueue();    // Nivel 2
+    private ReadyQueue mediaPrioridad = new ReadyQueue();   // Nivel 1
+    private ReadyQueue bajaPrioridad = new ReadyQueue();    // Nivel 0
 
     // Mapa para almacenar los datos de programación de cada proceso
     private Map<Integer, SchedulingData> schedulingDataMap = new HashMap<>();
@@ -18,9 +23,55 @@ public class MultilevelQueueScheduler implements Scheduler {
     private long tiempoActual = 0;
     
     // Quantum para cada nivel de prioridad
-    private final int quantumAlta = 2;
-    private final int quantumMedia = 4;
-    private final int quantumBaja = 6;
+    private final int quantumAlta;
+    private final int quantumMedia;
+    private final int quantumBaja;
+
+    /**
+     * Constructor por defecto (quantum 2/4/6 para los niveles alta/media/baja)
+     */
+    public MultilevelQueueScheduler() {
+        this(2, 4, 6);
+    }
+
+    /**
+     * Constructor con quantum personalizado para cada nivel
+     */
+    public MultilevelQueueScheduler(int quantumAlta, int quantumMedia, int quantumBaja) {
+        if (quantumAlta <= 0 || quantumMedia <= 0 || quantumBaja <= 0) {
+            throw new IllegalArgumentException("Los quantum deben ser mayores que 0");
+        }
+        this.quantumAlta = quantumAlta;
+        this.quantumMedia = quantumMedia;
+        this.quantumBaja = quantumBaja;
+    }
+
+    /**
+     * Quantum asignado a un nivel de cola (2=Alta, 1=Media, 0=Baja)
+     */
+    public int getQuantumForLevel(int queueLevel) {
+        switch (queueLevel) {
+            case 2:
+                return quantumAlta;
+            case 1:
+                return quantumMedia;
+            case 0:
+            default:
+                return quantumBaja;
+        }
+    }
+
+    /**
+     * Nivel de cola que corresponde a una prioridad de proceso (0-9)
+     */
+    public static int levelForPriority(int priority) {
+        if (priority >= 7) {
+            return 2;
+        } else if (priority >= 4) {
+            return 1;
+        }
+        return 0;
+    }
 
     @Override
     public void addProcess(PCB process) {
@@ -76,11 +127,11 @@ public class MultilevelQueueScheduler implements Scheduler {
         PCB nextProcess = null;
 
         if (!altaPrioridad.isEmpty()) {
-            nextProcess = altaPrioridad.remove(0);
+            nextProcess = altaPrioridad.poll();
         } else if (!mediaPrioridad.isEmpty()) {
-            nextProcess = mediaPrioridad.remove(0);
+            nextProcess = mediaPrioridad.poll();
         } else if (!bajaPrioridad.isEmpty()) {
-            nextProcess = bajaPrioridad.remove(0);
+            nextProcess = bajaPrioridad.poll();
         }
 
         if (nextProcess != null) {
@@ -104,18 +155,137 @@ public class MultilevelQueueScheduler implements Scheduler {
         schedulingDataMap.remove(process.pid);
     }
 
+    @Override
+    public PCB peek() {
+        if (!altaPrioridad.isEmpty()) {
+            return altaPrioridad.peek();
+        } else if (!mediaPrioridad.isEmpty()) {
+            return mediaPrioridad.peek();
+        }
+        return bajaPrioridad.peek();
+    }
+
+    @Override
+    public int drainTo(Collection<? super PCB> target, int maxProcesses) {
+        int moved = 0;
+        for (ReadyQueue queue : List.of(altaPrioridad, mediaPrioridad, bajaPrioridad)) {
+            while (moved < maxProcesses && !queue.isEmpty()) {
+                PCB process = queue.poll();
+                schedulingDataMap.remove(process.pid);
+                target.add(process);
+                moved++;
+            }
+        }
+        return moved;
+    }
+
+    @Override
+    public int size() {
+        return altaPrioridad.size() + mediaPrioridad.size() + bajaPrioridad.size();
+    }
+
+    @Override
+    public void configure(SchedulingData data, int priority) {
+        data.queueLevel = levelForPriority(priority);
+        data.quantum = getQuantumForLevel(data.queueLevel);
+    }
+
+    @Override
+    public TickOutcome onTick(PCB running) {
+        updateProcessTimes(running);
+        if (shouldPreempt(running)) {
+            return TickOutcome.PREEMPT;
+        }
+        return isProcessComplete(running) ? TickOutcome.COMPLETE : TickOutcome.CONTINUE;
+    }
+
+    @Override
+    public long quietTicks(PCB running) {
+        // Cada tick descuenta dos unidades de tiempo restante (motor + updateProcessTimes)
+        SchedulingData data = running.schedulingData;
+        if (data.remainingTime < 3) {
+            return 0;
+        }
+        long quiet = (data.remainingTime - 3) / 2 + 1;
+        if (data.quantum != null) {
+            quiet = Math.max(0, Math.min(quiet, data.quantum - 1L));
+        }
+        return quiet;
+    }
+
+    @Override
+    public void fastForward(PCB running, int ticks) {
+        SchedulingData data = running.schedulingData;
+        data.remainingTime -= ticks;
+        if (data.quantum != null) {
+            data.quantum -= ticks;
+        }
+    }
+
     @Override
     public void onProcessFinished(PCB process) {
-        // Marcar el proceso como terminado
+        // Marcar el proceso como terminado y descartar sus datos de planificación
         process.state = ProcessState.TERMINATED;
+        schedulingDataMap.remove(process.pid);
     }
 
     @Override
     public String getName() {
-        return "Multilevel Queue Scheduler (3 niveles: 0=Baja, 1=Media, 2=Alta)";
+        return "Multilevel Queue Scheduler (3 niveles: 0=Baja, 1=Media, 2=Alta; Quantum=" +
+               quantumAlta + "/" + quantumMedia + "/" + quantumBaja + ")";
+    }
+
+    @Override
+    public boolean usesPriority() {
+        return true;
+    }
+    
+    @Override
+    public void writeState(CheckpointOutput out) throws IOException {
+        out.writeLong(tiempoActual);
+        writeQueue(out, altaPrioridad);
+        writeQueue(out, mediaPrioridad);
+        writeQueue(out, bajaPrioridad);
+
+        out.writeInt(schedulingDataMap.size());
+        for (Map.Entry<Integer, SchedulingData> entry : schedulingDataMap.entrySet()) {
+            out.writeInt(entry.getKey());
+            out.writeSchedulingData(entry.getValue());
+        }
+    }
+
+    @Override
+    public void readState(CheckpointInput in, IntFunction<PCB> processes) throws IOException {
+        tiempoActual = in.readLong();
+        altaPrioridad = readQueue(in, processes);
+        mediaPrioridad = readQueue(in, processes);
+        bajaPrioridad = readQueue(in, processes);
+
+        schedulingDataMap = new HashMap<>();
+        int entries = in.readInt();
+        for (int i = 0; i < entries; i++) {
+            int pid = in.readInt();
+            schedulingDataMap.put(pid, in.readSchedulingData());
+        }
+    }
+
+    private static void writeQueue(CheckpointOutput out, ReadyQueue queue) throws IOException {
+        out.writeInt(queue.size());
+        for (PCB process : queue) {
+            out.writeInt(process.pid);
+        }
+    }
+
+    private static ReadyQueue readQueue(CheckpointInput in, IntFunction<PCB> processes) throws IOException {
+        int size = in.readInt();
+        ReadyQueue queue = new ReadyQueue();
+        for (int i = 0; i < size; i++) {
+            queue.add(processes.apply(in.readInt()));
+        }
+        return queue;
     }
     
-    // Este método será llamado por el SimulationEngine en cada tick para actualizar tiempos
+    // Lo llama onTick() en cada tick del proceso en ejecución
     public void updateProcessTimes(PCB runningProcess) {
         if (runningProcess != null && runningProcess.schedulingData != null) {
             SchedulingData data = runningProcess.schedulingData;
@@ -0,0 +1,19 @@
+package core.scheduling;
+
+/**
+ * Métricas propias de una política de planificación, acumulables entre los
+ * núcleos que la usan
+ */
+public interface PolicyStatistics {
+    /**
+     * Acumula las métricas de otro núcleo con la misma política
+     */
+    void merge(PolicyStatistics other);
+
+    /**
+     * Agrega las métricas al resumen de una ejecución por lotes
+     */
+    default void appendTo(StringBuilder sb) {
+        sb.append(this);
+    }
+}
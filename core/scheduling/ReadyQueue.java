@@ -0,0 +1,163 @@
+package core.scheduling;
+
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import models.PCB;
+
+/**
+ * Cola FIFO de procesos listos con baja por identidad en O(1): cada proceso
+ * tiene un nodo de una lista doblemente enlazada y el PCB sirve de llave para
+ * encontrarlo, así que suspender o terminar un proceso no recorre la cola.
+ *
+ * Un proceso aparece a lo sumo una vez; agregarlo de nuevo no hace nada.
+ */
+public class ReadyQueue extends AbstractQueue<PCB> {
+    private static class Node {
+        final PCB process;
+        Node prev;
+        Node next;
+
+        Node(PCB process) {
+            this.process = process;
+        }
+    }
+
+    private final Map<PCB, Node> nodes = new HashMap<>();
+    private Node head;
+    private Node tail;
+    private int modCount = 0;
+
+    @Override
+    public boolean offer(PCB process) {
+        if (nodes.containsKey(process)) {
+            return false;
+        }
+        Node node = new Node(process);
+        nodes.put(process, node);
+        node.prev = tail;
+        if (tail == null) {
+            head = node;
+        } else {
+            tail.next = node;
+        }
+        tail = node;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public PCB poll() {
+        if (head == null) {
+            return null;
+        }
+        PCB process = head.process;
+        unlink(nodes.remove(process));
+        return process;
+    }
+
+    @Override
+    public PCB peek() {
+        return head != null ? head.process : null;
+    }
+
+    @Override
+    public boolean remove(Object process) {
+        Node node = nodes.remove(process);
+        if (node == null) {
+            return false;
+        }
+        unlink(node);
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object process) {
+        return nodes.containsKey(process);
+    }
+
+    @Override
+    public int size() {
+        return nodes.size();
+    }
+
+    @Override
+    public void clear() {
+        nodes.clear();
+        head = tail = null;
+        modCount++;
+    }
+
+    /**
+     * Saca hasta 'maxProcesses' procesos del frente y los agrega a 'target'
+     * en orden. Devuelve cuántos movió.
+     */
+    public int drainTo(Collection<? super PCB> target, int maxProcesses) {
+        int moved = 0;
+        while (moved < maxProcesses && head != null) {
+            target.add(poll());
+            moved++;
+        }
+        return moved;
+    }
+
+    @Override
+    public Iterator<PCB> iterator() {
+        return new Iterator<>() {
+            private Node next = head;
+            private Node last = null;
+            private int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public PCB next() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                last = next;
+                next = next.next;
+                return last.process;
+            }
+
+            @Override
+            public void remove() {
+                if (last == null) {
+                    throw new IllegalStateException();
+                }
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                nodes.remove(last.process);
+                unlink(last);
+                last = null;
+                expectedModCount = modCount;
+            }
+        };
+    }
+
+    private void unlink(Node node) {
+        if (node.prev == null) {
+            head = node.next;
+        } else {
+            node.prev.next = node.next;
+        }
+        if (node.next == null) {
+            tail = node.prev;
+        } else {
+            node.next.prev = node.prev;
+        }
+        node.prev = node.next = null;
+        modCount++;
+    }
+}
@@ -0,0 +1,171 @@
+package core.scheduling;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.function.IntFunction;
+import core.Logger;
+import models.PCB;
+import models.ProcessState;
+import models.SchedulingData;
+import persistence.CheckpointInput;
+import persistence.CheckpointOutput;
+import persistence.Checkpointable;
+
+/**
+ * Planificación de tiempo real expropiativa para tareas con plazo y,
+ * opcionalmente, periódicas (ver SchedulingData.period y relativeDeadline).
+ *
+ * - EDF: se ejecuta el trabajo con el plazo absoluto más próximo.
+ * - Rate Monotonic: prioridad fija, mayor cuanto más corto el periodo (una
+ *   tarea sin periodo usa su plazo relativo).
+ *
+ * Los procesos sin plazo se atienden en segundo plano, en orden de llegada,
+ * cuando no hay trabajos de tiempo real listos. El motor consulta
+ * isSchedulable() antes de admitir una tarea de tiempo real.
+ */
+public class RealTimeScheduler implements Scheduler, Checkpointable {
+
+    public enum Policy {
+        EARLIEST_DEADLINE_FIRST,
+        RATE_MONOTONIC
+    }
+
+    private final Policy policy;
+    private IndexedProcessHeap heap = new IndexedProcessHeap();
+
+    public RealTimeScheduler(Policy policy) {
+        this.policy = policy;
+    }
+
+    public static RealTimeScheduler earliestDeadlineFirst() {
+        return new RealTimeScheduler(Policy.EARLIEST_DEADLINE_FIRST);
+    }
+
+    public static RealTimeScheduler rateMonotonic() {
+        return new RealTimeScheduler(Policy.RATE_MONOTONIC);
+    }
+
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    // Menor llave = más urgente; los procesos sin plazo van al final
+    private long key(PCB process) {
+        SchedulingData data = process.schedulingData;
+        if (data == null) {
+            return Long.MAX_VALUE;
+        }
+        if (policy == Policy.EARLIEST_DEADLINE_FIRST) {
+            return data.absoluteDeadline != null ? data.absoluteDeadline : Long.MAX_VALUE;
+        }
+        if (data.period != null) {
+            return data.period;
+        }
+        return data.relativeDeadline != null ? data.relativeDeadline : Long.MAX_VALUE;
+    }
+
+    @Override
+    public void addProcess(PCB process) {
+        heap.add(process, key(process));
+        process.state = ProcessState.READY;
+    }
+
+    @Override
+    public PCB getNextProcess() {
+        PCB next = heap.poll();
+        if (next != null) {
+            next.state = ProcessState.RUNNING;
+        }
+        return next;
+    }
+
+    @Override
+    public TickOutcome onTick(PCB running) {
+        if (heap.peekKey() < key(running)) {
+            Logger.log(Logger.Level.DEBUG, () -> getName() + ": el proceso " + heap.peek().pid +
+                      " es más urgente que el proceso " + running.pid);
+            return TickOutcome.PREEMPT;
+        }
+        return TickOutcome.CONTINUE;
+    }
+
+    @Override
+    public long quietTicks(PCB running) {
+        // Las llaves solo cambian con eventos (llegadas, liberaciones, fin de trabajo)
+        return heap.peekKey() < key(running) ? 0 : Long.MAX_VALUE;
+    }
+
+    @Override
+    public boolean isSchedulable(List<SchedulingData> realTimeTasks, int cores) {
+        if (policy == Policy.EARLIEST_DEADLINE_FIRST) {
+            return Schedulability.earliestDeadlineFirst(realTimeTasks, cores);
+        }
+        return Schedulability.rateMonotonic(realTimeTasks, cores);
+    }
+
+    @Override
+    public void removeProcess(PCB process) {
+        heap.remove(process);
+    }
+
+    @Override
+    public PCB peek() {
+        return heap.peek();
+    }
+
+    @Override
+    public int drainTo(Collection<? super PCB> target, int maxProcesses) {
+        int moved = 0;
+        while (moved < maxProcesses && !heap.isEmpty()) {
+            target.add(heap.poll());
+            moved++;
+        }
+        return moved;
+    }
+
+    @Override
+    public int size() {
+        return heap.size();
+    }
+
+    @Override
+    public void onProcessFinished(PCB process) {
+        heap.remove(process);
+        process.state = ProcessState.TERMINATED;
+    }
+
+    @Override
+    public void configure(SchedulingData data, int priority) {
+        // La urgencia sale del plazo o del periodo; no hay quantum ni niveles
+        data.quantum = null;
+        data.queueLevel = null;
+    }
+
+    @Override
+    public String getName() {
+        return policy == Policy.EARLIEST_DEADLINE_FIRST ? "EDF (plazo más próximo primero)"
+                : "Rate Monotonic (prioridad fija por periodo)";
+    }
+
+    @Override
+    public void writeState(CheckpointOutput out) throws IOException {
+        out.writeLong(heap.getNextSequence());
+        out.writeInt(heap.size());
+        for (int i = 0; i < heap.size(); i++) {
+            out.writeInt(heap.processAt(i).pid);
+            out.writeLong(heap.sequenceAt(i));
+        }
+    }
+
+    @Override
+    public void readState(CheckpointInput in, IntFunction<PCB> processes) throws IOException {
+        heap = new IndexedProcessHeap();
+        long nextSequence = in.readLong();
+        int queued = in.readInt();
+        for (int i = 0; i < queued; i++) {
+            PCB process = processes.apply(in.readInt());
+            heap.restore(process, key(process), in.readLong());
+        }
+        heap.setNextSequence(nextSequence);
+    }
+}
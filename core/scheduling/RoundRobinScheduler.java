@@ -1,13 +1,18 @@
 package core.scheduling;
 
+import java.io.IOException;
 import java.util.*;
+import java.util.function.IntFunction;
 import models.PCB;
 import models.ProcessState;
 import models.SchedulingData;
+import persistence.CheckpointInput;
+import persistence.CheckpointOutput;
+import persistence.Checkpointable;
 
-public class RoundRobinScheduler implements Scheduler {
-    // Cola de procesos listos
-    private Queue<PCB> readyQueue = new LinkedList<>();
+public class RoundRobinScheduler implements Scheduler, Checkpointable {
+    // Cola de procesos listos (baja en O(1))
+    private ReadyQueue readyQueue = new ReadyQueue();
 
     // Mapeo para mantener los datos de planificación de cada proceso
     private Map<Integer, SchedulingData> schedulingDataMap = new HashMap<>();
@@ -21,8 +26,9 @@ public class RoundRobinScheduler implements Scheduler {
     // Proceso actualmente en ejecución
     private PCB runningProcess = null;
 
-    // Lista de procesos completados (para estadísticas)
-    private List<ProcesoRR> completedProcesses = new ArrayList<>();
+    // Procesos completados (para estadísticas). Solo se cuentan: guardar
+    // cada PCB terminado impedía liberarlos en ejecuciones muy largas.
+    private long completedProcesses = 0;
 
     /**
      * Constructor con quantum personalizado
@@ -65,8 +71,10 @@ public class RoundRobinScheduler implements Scheduler {
 
     @Override
     public PCB getNextProcess() {
-        // Si hay un proceso en ejecución, verificar si ha consumido su quantum
-        if (runningProcess != null) {
+        // Si hay un proceso en ejecución, verificar si ha consumido su quantum.
+        // Solo se reencola si nadie más cambió su estado (el motor ya lo
+        // reencola, bloquea o termina por su cuenta).
+        if (runningProcess != null && runningProcess.state == ProcessState.RUNNING) {
             SchedulingData data = schedulingDataMap.get(runningProcess.pid);
 
             // Si aún tiene tiempo de CPU restante, volver a la cola de listos
@@ -77,9 +85,8 @@ public class RoundRobinScheduler implements Scheduler {
                 // El proceso ha terminado
                 onProcessFinished(runningProcess);
             }
-
-            runningProcess = null;
         }
+        runningProcess = null;
 
         // Obtener el siguiente proceso
         if (!readyQueue.isEmpty()) {
@@ -93,47 +100,142 @@ public class RoundRobinScheduler implements Scheduler {
 
     @Override
     public void removeProcess(PCB process) {
-        // Implementar la eliminación de un proceso
+        // Un proceso que agotó su quantum puede seguir como runningProcess y
+        // a la vez estar en la cola, así que se quita de ambos lados
         if (process == runningProcess) {
             runningProcess = null;
-        } else {
-            // Crear una nueva cola sin el proceso eliminado
-            Queue<PCB> newQueue = new LinkedList<>();
-            for (PCB p : readyQueue) {
-                if (p.pid != process.pid) {
-                    newQueue.add(p);
-                }
-            }
-            readyQueue = newQueue;
         }
+        readyQueue.remove(process);
 
         // Eliminar los datos de planificación asociados
         schedulingDataMap.remove(process.pid);
     }
 
+    @Override
+    public PCB peek() {
+        return readyQueue.peek();
+    }
+
+    @Override
+    public int drainTo(Collection<? super PCB> target, int maxProcesses) {
+        int moved = 0;
+        while (moved < maxProcesses && !readyQueue.isEmpty()) {
+            PCB process = readyQueue.poll();
+            schedulingDataMap.remove(process.pid);
+            target.add(process);
+            moved++;
+        }
+        return moved;
+    }
+
+    @Override
+    public int size() {
+        return readyQueue.size();
+    }
+
+    @Override
+    public void configure(SchedulingData data, int priority) {
+        data.quantum = quantum;
+    }
+
+    /**
+     * Descuenta una unidad del quantum; al agotarlo lo restaura y pide
+     * devolver el proceso al final de la cola
+     */
+    @Override
+    public TickOutcome onTick(PCB running) {
+        SchedulingData data = running.schedulingData;
+        if (data.quantum == null) {
+            return TickOutcome.CONTINUE;
+        }
+        data.quantum--;
+        if (data.quantum <= 0) {
+            data.quantum = quantum;
+            return TickOutcome.PREEMPT;
+        }
+        return TickOutcome.CONTINUE;
+    }
+
+    @Override
+    public long quietTicks(PCB running) {
+        Integer remainingQuantum = running.schedulingData.quantum;
+        return remainingQuantum != null ? remainingQuantum - 1L : Long.MAX_VALUE;
+    }
+
+    @Override
+    public void fastForward(PCB running, int ticks) {
+        if (running.schedulingData.quantum != null) {
+            running.schedulingData.quantum -= ticks;
+        }
+    }
+
     @Override
     public void onProcessFinished(PCB process) {
         // Marcar el proceso como terminado
         process.state = ProcessState.TERMINATED;
+        if (process == runningProcess) {
+            runningProcess = null;
+        }
 
-        // Actualizar estadísticas
-        SchedulingData data = schedulingDataMap.get(process.pid);
-        if (data != null) {
-            ProcesoRR procesoRR = new ProcesoRR(
-                    process,
-                    data.arrivalTime != null ? data.arrivalTime.intValue() : 0,
-                    data.burstTime != null ? data.burstTime : 0
-            );
-            procesoRR.tiempoFin = (int) currentTime;
-            completedProcesses.add(procesoRR);
+        // Actualizar estadísticas y descartar sus datos de planificación
+        if (schedulingDataMap.remove(process.pid) != null) {
+            completedProcesses++;
         }
     }
 
+    public long getCompletedProcesses() {
+        return completedProcesses;
+    }
+
     @Override
     public String getName() {
         return "Round Robin (Quantum=" + quantum + ")";
     }
 
+    @Override
+    public void writeState(CheckpointOutput out) throws IOException {
+        out.writeInt(quantum);
+        out.writeLong(currentTime);
+        out.writeInt(runningProcess != null ? runningProcess.pid : -1);
+
+        out.writeInt(readyQueue.size());
+        for (PCB process : readyQueue) {
+            out.writeInt(process.pid);
+        }
+
+        out.writeInt(schedulingDataMap.size());
+        for (Map.Entry<Integer, SchedulingData> entry : schedulingDataMap.entrySet()) {
+            out.writeInt(entry.getKey());
+            out.writeSchedulingData(entry.getValue());
+        }
+
+        out.writeLong(completedProcesses);
+    }
+
+    @Override
+    public void readState(CheckpointInput in, IntFunction<PCB> processes) throws IOException {
+        // El quantum guardado no se impone: se conserva el de esta instancia
+        in.readInt();
+        currentTime = in.readLong();
+        int runningPid = in.readInt();
+        runningProcess = runningPid >= 0 ? processes.apply(runningPid) : null;
+
+        readyQueue = new ReadyQueue();
+        int queued = in.readInt();
+        for (int i = 0; i < queued; i++) {
+            readyQueue.add(processes.apply(in.readInt()));
+        }
+
+        schedulingDataMap = new HashMap<>();
+        int entries = in.readInt();
+        for (int i = 0; i < entries; i++) {
+            int pid = in.readInt();
+            schedulingDataMap.put(pid, in.readSchedulingData());
+        }
+
+        completedProcesses = in.readLong();
+    }
+
     /**
      * Método para la simulación manual con datos ingresados por el usuario
      */
@@ -0,0 +1,132 @@
+package core.scheduling;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import models.SchedulingData;
+
+/**
+ * Pruebas de planificabilidad para admitir tareas de tiempo real. Cada
+ * tarea aporta su tiempo de CPU por trabajo (burstTime), su periodo y su
+ * plazo relativo; una tarea de un solo trabajo sin periodo se trata como
+ * esporádica con periodo igual a su plazo, lo que es conservador.
+ *
+ * Con un núcleo las pruebas son las clásicas de Liu y Layland y el análisis
+ * de tiempo de respuesta. Con varios núcleos se usan cotas suficientes para
+ * planificación global: Goossens-Funk-Baruah para EDF y RM-US
+ * (Andersson-Baruah-Jonsson) para prioridades fijas.
+ */
+public final class Schedulability {
+
+    private Schedulability() {
+    }
+
+    /**
+     * Utilización total: suma de burst / periodo
+     */
+    public static double utilization(List<SchedulingData> tasks) {
+        double total = 0;
+        for (SchedulingData task : tasks) {
+            total += (double) cost(task) / period(task);
+        }
+        return total;
+    }
+
+    /**
+     * EDF: la densidad (burst / min(plazo, periodo)) total no puede pasar de
+     * 1 en un núcleo, que es exacto cuando el plazo es igual al periodo
+     */
+    public static boolean earliestDeadlineFirst(List<SchedulingData> tasks, int cores) {
+        double total = 0;
+        double max = 0;
+        for (SchedulingData task : tasks) {
+            double density = (double) cost(task) / Math.min(deadline(task), period(task));
+            total += density;
+            max = Math.max(max, density);
+        }
+        if (max > 1) {
+            return false;
+        }
+        return total <= cores - (cores - 1) * max + 1e-9;
+    }
+
+    /**
+     * Prioridad fija por periodo. Con un núcleo primero prueba la cota de Liu y
+     * Layland, n(2^(1/n) - 1), y si no alcanza hace el análisis exacto del
+     * tiempo de respuesta de cada tarea.
+     */
+    public static boolean rateMonotonic(List<SchedulingData> tasks, int cores) {
+        if (tasks.isEmpty()) {
+            return true;
+        }
+        if (cores > 1) {
+            double bound = (double) cores / (3 * cores - 2);
+            for (SchedulingData task : tasks) {
+                if ((double) cost(task) / period(task) > bound) {
+                    return false;
+                }
+            }
+            return utilization(tasks) <= cores * bound + 1e-9;
+        }
+
+        int n = tasks.size();
+        boolean implicitDeadlines = true;
+        for (SchedulingData task : tasks) {
+            implicitDeadlines &= deadline(task) >= period(task);
+        }
+        if (implicitDeadlines && utilization(tasks) <= n * (Math.pow(2, 1.0 / n) - 1)) {
+            return true;
+        }
+        return responseTimeAnalysis(tasks);
+    }
+
+    /**
+     * Análisis de tiempo de respuesta con el orden de prioridades del
+     * planificador: R = C + suma sobre las más prioritarias de techo(R / T) * C.
+     * Es planificable si cada R cabe en su plazo.
+     */
+    public static boolean responseTimeAnalysis(List<SchedulingData> tasks) {
+        List<SchedulingData> byPriority = new ArrayList<>(tasks);
+        byPriority.sort(Comparator.comparingLong(Schedulability::period));
+        for (int i = 0; i < byPriority.size(); i++) {
+            SchedulingData task = byPriority.get(i);
+            long deadline = Math.min(deadline(task), period(task));
+            long response = cost(task);
+            long previous = -1;
+            while (response != previous && response <= deadline) {
+                previous = response;
+                response = cost(task);
+                for (int j = 0; j < i; j++) {
+                    SchedulingData higher = byPriority.get(j);
+                    response += ceilDiv(previous, period(higher)) * cost(higher);
+                }
+            }
+            if (response > deadline) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long ceilDiv(long a, long b) {
+        return (a + b - 1) / b;
+    }
+
+    private static long cost(SchedulingData task) {
+        return task.burstTime != null ? task.burstTime : 0;
+    }
+
+    private static long period(SchedulingData task) {
+        if (task.period != null) {
+            return task.period;
+        }
+        return task.relativeDeadline != null ? task.relativeDeadline : Long.MAX_VALUE;
+    }
+
+    private static long deadline(SchedulingData task) {
+        if (task.relativeDeadline != null) {
+            return task.relativeDeadline;
+        }
+        return task.period != null ? task.period : Long.MAX_VALUE;
+    }
+}
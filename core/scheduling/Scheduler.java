@@ -1,13 +1,113 @@
 package core.scheduling;
 
 import models.PCB;
+import models.SchedulingData;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.LongSupplier;
 
 public interface Scheduler {
     void addProcess(PCB process);
     PCB getNextProcess(); // retorna el proceso que debe ejecutarse
-    void removeProcess(PCB process);
+    void removeProcess(PCB process); // O(1): no recorre las colas
     void onProcessFinished(PCB process);
     String getName();
-}
\ No newline at end of file
+
+    /**
+     * Agrega varios procesos en el orden de la colección
+     */
+    default void addAll(Collection<PCB> processes) {
+        for (PCB process : processes) {
+            addProcess(process);
+        }
+    }
+
+    /**
+     * Proceso que devolvería getNextProcess(), sin sacarlo de la cola
+     */
+    PCB peek();
+
+    /**
+     * Saca hasta 'maxProcesses' procesos en el orden en que se despacharían y
+     * los agrega a 'target'; quedan en READY y fuera de este planificador,
+     * como con removeProcess(). Devuelve cuántos movió.
+     */
+    int drainTo(Collection<? super PCB> target, int maxProcesses);
+
+    /**
+     * Procesos listos en las colas (sin contar el que está en ejecución)
+     */
+    int size();
+
+    /**
+     * Completa los datos propios de la política (quantum, nivel, etc.) de un
+     * proceso nuevo con la prioridad indicada
+     */
+    default void configure(SchedulingData data, int priority) {
+    }
+
+    /**
+     * Lo llama el motor al final de cada tick en que 'running' usó la CPU y
+     * aún le queda tiempo. Por defecto el proceso sigue hasta terminar.
+     */
+    default TickOutcome onTick(PCB running) {
+        return TickOutcome.CONTINUE;
+    }
+
+    /**
+     * Ticks seguidos que onTick() devolverá CONTINUE para 'running' (sin
+     * contar el fin de su ráfaga, que controla el motor). Lo usa el modo por eventos.
+     */
+    default long quietTicks(PCB running) {
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Aplica de una vez el efecto de 'ticks' llamadas a onTick() que
+     * devolverían CONTINUE (el motor ya descontó el tiempo restante)
+     */
+    default void fastForward(PCB running, int ticks) {
+    }
+
+    /**
+     * El proceso en ejecución se bloqueó para hacer E/S
+     */
+    default void onBlocked(PCB process) {
+    }
+
+    /**
+     * Cambiaron los boletos que el proceso recibe prestados (ver
+     * SchedulingData.receivedTickets). Solo importa a las políticas de reparto proporcional.
+     */
+    default void ticketsChanged(PCB process) {
+    }
+
+    /**
+     * Prueba de admisión de tareas de tiempo real: 'realTimeTasks' son las
+     * tareas ya admitidas más la candidata. Por defecto admite todo.
+     */
+    default boolean isSchedulable(List<SchedulingData> realTimeTasks, int cores) {
+        return true;
+    }
+
+    /**
+     * Fuente del tick simulado, para las políticas que miden tiempos
+     */
+    default void setClock(LongSupplier simulationClock) {
+    }
+
+    /**
+     * Si la política tiene en cuenta la prioridad de los procesos
+     */
+    default boolean usesPriority() {
+        return false;
+    }
+
+    /**
+     * Copia de las métricas propias de la política, o null si no lleva
+     */
+    default PolicyStatistics getStatistics() {
+        return null;
+    }
+}
@@ -0,0 +1,164 @@
+package core.scheduling;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Construye planificadores a partir de una especificación textual,
+ * por ejemplo "rr", "rr:8", "mlq" o "mlq:2/4/6" (quantum alta/media/baja).
+ * La MLFQ acepta cualquier número de niveles y, al final, el periodo de
+ * impulso y el umbral de envejecimiento: "mlfq:2/4/8/16/b200/a100" (b0 o a0
+ * los desactivan). El CFS acepta la latencia objetivo y la granularidad
+ * mínima en ticks: "cfs" o "cfs:24/3". "sjf" (no expropiativo) y "srtf"
+ * usan el tiempo de CPU declarado; con parámetros lo estiman por promedio
+ * exponencial: "srtf:est", "srtf:a0.5/t5" (α y predicción inicial).
+ * "edf" y "rm" son las políticas de tiempo real (sin parámetros).
+ * "lottery" y "stride" reparten la CPU según los boletos de cada proceso;
+ * aceptan el quantum y, la lotería, la semilla: "lottery:4/s7", "stride:2".
+ */
+public class SchedulerFactory {
+
+    public static Scheduler fromSpec(String spec) {
+        String[] parts = spec.trim().toLowerCase().split(":", 2);
+        String name = parts[0];
+        String params = parts.length > 1 ? parts[1] : null;
+
+        switch (name) {
+            case "rr":
+            case "roundrobin":
+                if (params == null) {
+                    return new RoundRobinScheduler();
+                }
+                int quantum = parsePositive(params, "quantum");
+                return new RoundRobinScheduler(quantum);
+            case "mlq":
+            case "multinivel":
+                if (params == null) {
+                    return new MultilevelQueueScheduler();
+                }
+                String[] quanta = params.split("/");
+                if (quanta.length != 3) {
+                    throw new IllegalArgumentException("Use mlq:alta/media/baja, por ejemplo mlq:2/4/6");
+                }
+                return new MultilevelQueueScheduler(parsePositive(quanta[0], "quantum alto"),
+                        parsePositive(quanta[1], "quantum medio"), parsePositive(quanta[2], "quantum bajo"));
+            case "mlfq":
+                if (params == null) {
+                    return new MultilevelFeedbackQueueScheduler();
+                }
+                return parseMlfq(params);
+            case "cfs":
+                if (params == null) {
+                    return new CompletelyFairScheduler();
+                }
+                String[] values = params.split("/");
+                if (values.length != 2) {
+                    throw new IllegalArgumentException("Use cfs:latencia/granularidad, por ejemplo cfs:24/3");
+                }
+                return new CompletelyFairScheduler(parsePositive(values[0], "latencia objetivo"),
+                        parsePositive(values[1], "granularidad mínima"));
+            case "sjf":
+            case "srtf":
+                if (params == null) {
+                    return new ShortestJobFirstScheduler(name.equals("srtf"));
+                }
+                return parseShortestJob(name.equals("srtf"), params);
+            case "edf":
+            case "rm":
+                if (params != null) {
+                    throw new IllegalArgumentException("Use " + name + " sin parámetros");
+                }
+                return name.equals("edf") ? RealTimeScheduler.earliestDeadlineFirst() : RealTimeScheduler.rateMonotonic();
+            case "lottery":
+            case "loteria":
+                return params == null ? new LotteryScheduler() : parseLottery(params);
+            case "stride":
+                if (params == null) {
+                    return new StrideScheduler();
+                }
+                return new StrideScheduler(parsePositive(params, "quantum"));
+            default:
+                throw new IllegalArgumentException("Algoritmo no válido: " + spec);
+        }
+    }
+
+    private static Scheduler parseMlfq(String params) {
+        int boost = MultilevelFeedbackQueueScheduler.DEFAULT_BOOST_PERIOD;
+        int aging = MultilevelFeedbackQueueScheduler.DEFAULT_AGING_THRESHOLD;
+        List<Integer> quanta = new ArrayList<>();
+        for (String token : params.split("/")) {
+            token = token.trim();
+            if (token.startsWith("b")) {
+                boost = parseNonNegative(token.substring(1), "periodo de impulso");
+            } else if (token.startsWith("a")) {
+                aging = parseNonNegative(token.substring(1), "umbral de envejecimiento");
+            } else {
+                quanta.add(parsePositive(token, "quantum del nivel " + (quanta.size() + 1)));
+            }
+        }
+        int[] values = quanta.isEmpty() ? MultilevelFeedbackQueueScheduler.DEFAULT_QUANTA.clone() : new int[quanta.size()];
+        for (int i = 0; i < quanta.size(); i++) {
+            values[i] = quanta.get(i);
+        }
+        return new MultilevelFeedbackQueueScheduler(values, boost, aging);
+    }
+
+    private static Scheduler parseShortestJob(boolean preemptive, String params) {
+        double alpha = ShortestJobFirstScheduler.DEFAULT_ALPHA;
+        int initial = ShortestJobFirstScheduler.DEFAULT_INITIAL_PREDICTION;
+        for (String token : params.split("/")) {
+            token = token.trim();
+            if (token.startsWith("a")) {
+                try {
+                    alpha = Double.parseDouble(token.substring(1));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Valor no numérico para α: '" + token + "'");
+                }
+            } else if (token.startsWith("t")) {
+                initial = parsePositive(token.substring(1), "predicción inicial");
+            } else if (!token.equals("est")) {
+                throw new IllegalArgumentException("Use " + (preemptive ? "srtf" : "sjf") +
+                        ":est o " + (preemptive ? "srtf" : "sjf") + ":a0.5/t5");
+            }
+        }
+        return new ShortestJobFirstScheduler(preemptive, true, alpha, initial);
+    }
+
+    private static Scheduler parseLottery(String params) {
+        int quantum = LotteryScheduler.DEFAULT_QUANTUM;
+        long seed = LotteryScheduler.DEFAULT_SEED;
+        for (String token : params.split("/")) {
+            token = token.trim();
+            if (token.startsWith("s")) {
+                seed = parsePositive(token.substring(1), "semilla");
+            } else {
+                quantum = parsePositive(token, "quantum");
+            }
+        }
+        return new LotteryScheduler(quantum, seed);
+    }
+
+    private static int parseNonNegative(String token, String field) {
+        try {
+            int value = Integer.parseInt(token.trim());
+            if (value < 0) {
+                throw new IllegalArgumentException("El " + field + " no puede ser negativo: " + value);
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor no numérico para " + field + ": '" + token + "'");
+        }
+    }
+
+    private static int parsePositive(String token, String field) {
+        try {
+            int value = Integer.parseInt(token.trim());
+            if (value <= 0) {
+                throw new IllegalArgumentException("El " + field + " debe ser mayor que 0: " + value);
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor no numérico para " + field + ": '" + token + "'");
+        }
+    }
+}
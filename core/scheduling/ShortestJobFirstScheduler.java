@@ -0,0 +1,263 @@
+package core.scheduling;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.function.IntFunction;
+import core.Logger;
+import models.PCB;
+import models.ProcessState;
+import models.SchedulingData;
+import persistence.CheckpointInput;
+import persistence.CheckpointOutput;
+import persistence.Checkpointable;
+
+/**
+ * Trabajo más corto primero. En su versión expropiativa (SRTF) el proceso en
+ * ejecución vuelve a la cola en cuanto hay uno listo con menos tiempo
+ * restante; en la no expropiativa (SJF) solo se elige al despachar.
+ *
+ * Los procesos listos están en un IndexedProcessHeap con llave = tiempo
+ * restante, así que despachar, quitar y la comprobación de expropiación
+ * (comparar con el mínimo) cuestan a lo sumo O(log n).
+ *
+ * Con estimación activada el planificador no mira burstTime: predice la
+ * siguiente ráfaga de CPU con el promedio exponencial
+ * τ(n+1) = α·t(n) + (1 - α)·τ(n), donde t(n) es lo que duró la última ráfaga
+ * (hasta bloquearse para E/S), y usa como llave lo que falta de la ráfaga predicha.
+ */
+public class ShortestJobFirstScheduler implements Scheduler, Checkpointable {
+    public static final double DEFAULT_ALPHA = 0.5;
+    public static final int DEFAULT_INITIAL_PREDICTION = 5;
+
+    private final boolean preemptive;
+    private final boolean estimate;
+    private final double alpha;
+    private final int initialPrediction;
+
+    private IndexedProcessHeap heap = new IndexedProcessHeap();
+    // Predicción de ráfaga de los procesos que administra este planificador
+    private Map<PCB, Entry> entries = new HashMap<>();
+
+    // Error absoluto de las predicciones, para evaluar el estimador
+    private long predictedBursts = 0;
+    private double predictionErrorSum = 0;
+
+    private static class Entry {
+        double prediction;   // τ de la ráfaga actual
+        int ranInBurst;      // ticks de CPU usados en la ráfaga actual
+    }
+
+    /**
+     * Versión que conoce el tiempo de CPU de cada proceso (burstTime)
+     */
+    public ShortestJobFirstScheduler(boolean preemptive) {
+        this(preemptive, false, DEFAULT_ALPHA, DEFAULT_INITIAL_PREDICTION);
+    }
+
+    public ShortestJobFirstScheduler(boolean preemptive, boolean estimate, double alpha, int initialPrediction) {
+        if (!(alpha > 0 && alpha <= 1)) {
+            throw new IllegalArgumentException("El factor de suavizado debe estar en (0, 1]: " + alpha);
+        }
+        if (initialPrediction <= 0) {
+            throw new IllegalArgumentException("La predicción inicial debe ser mayor que 0: " + initialPrediction);
+        }
+        this.preemptive = preemptive;
+        this.estimate = estimate;
+        this.alpha = alpha;
+        this.initialPrediction = initialPrediction;
+    }
+
+    public boolean isPreemptive() {
+        return preemptive;
+    }
+
+    public boolean isEstimating() {
+        return estimate;
+    }
+
+    // Tiempo restante según la política: el real o lo que falta de la ráfaga predicha
+    private long key(PCB process, Entry entry) {
+        SchedulingData data = process.schedulingData;
+        if (!estimate && data != null && data.remainingTime != null) {
+            return data.remainingTime;
+        }
+        return Math.max(0, Math.round(entry.prediction) - entry.ranInBurst);
+    }
+
+    private Entry entry(PCB process) {
+        Entry entry = entries.get(process);
+        if (entry == null) {
+            entry = new Entry();
+            entry.prediction = initialPrediction;
+            entries.put(process, entry);
+        }
+        return entry;
+    }
+
+    @Override
+    public void addProcess(PCB process) {
+        heap.add(process, key(process, entry(process)));
+        process.state = ProcessState.READY;
+    }
+
+    @Override
+    public PCB getNextProcess() {
+        PCB next = heap.poll();
+        if (next != null) {
+            next.state = ProcessState.RUNNING;
+        }
+        return next;
+    }
+
+    @Override
+    public TickOutcome onTick(PCB running) {
+        Entry entry = entry(running);
+        entry.ranInBurst++;
+        if (preemptive && heap.peekKey() < key(running, entry)) {
+            Logger.log(Logger.Level.DEBUG, () -> "SRTF: el proceso " + heap.peek().pid +
+                      " tiene menos tiempo restante que el proceso " + running.pid);
+            return TickOutcome.PREEMPT;
+        }
+        return TickOutcome.CONTINUE;
+    }
+
+    @Override
+    public long quietTicks(PCB running) {
+        if (!preemptive) {
+            return Long.MAX_VALUE;
+        }
+        // La llave del proceso en ejecución solo baja, así que si no lo
+        // expropian en el próximo tick ya no lo harán hasta el siguiente evento
+        long nextKey = key(running, entry(running)) - 1;
+        return heap.peekKey() < nextKey ? 0 : Long.MAX_VALUE;
+    }
+
+    @Override
+    public void fastForward(PCB running, int ticks) {
+        entry(running).ranInBurst += ticks;
+    }
+
+    @Override
+    public void onBlocked(PCB process) {
+        endBurst(process);
+    }
+
+    // Terminó una ráfaga de CPU: actualizar la predicción con su duración real
+    private void endBurst(PCB process) {
+        Entry entry = entries.get(process);
+        if (entry == null) {
+            return;
+        }
+        predictedBursts++;
+        predictionErrorSum += Math.abs(entry.prediction - entry.ranInBurst);
+        entry.prediction = alpha * entry.ranInBurst + (1 - alpha) * entry.prediction;
+        entry.ranInBurst = 0;
+    }
+
+    @Override
+    public void removeProcess(PCB process) {
+        heap.remove(process);
+        entries.remove(process);
+    }
+
+    @Override
+    public PCB peek() {
+        return heap.peek();
+    }
+
+    @Override
+    public int drainTo(Collection<? super PCB> target, int maxProcesses) {
+        int moved = 0;
+        while (moved < maxProcesses && !heap.isEmpty()) {
+            PCB process = heap.poll();
+            entries.remove(process);
+            target.add(process);
+            moved++;
+        }
+        return moved;
+    }
+
+    @Override
+    public int size() {
+        return heap.size();
+    }
+
+    @Override
+    public void onProcessFinished(PCB process) {
+        endBurst(process);
+        removeProcess(process);
+        process.state = ProcessState.TERMINATED;
+    }
+
+    @Override
+    public void configure(SchedulingData data, int priority) {
+        // Solo usa el tiempo restante; no hay quantum ni niveles
+        data.quantum = null;
+        data.queueLevel = null;
+    }
+
+    /**
+     * Error absoluto promedio (en ticks) de las ráfagas predichas hasta ahora
+     */
+    public double getMeanPredictionError() {
+        return predictedBursts > 0 ? predictionErrorSum / predictedBursts : 0;
+    }
+
+    @Override
+    public String getName() {
+        String name = preemptive ? "SRTF (expropiativo)" : "SJF (no expropiativo)";
+        if (estimate) {
+            name += String.format(Locale.ROOT, " con estimación α=%.2f, τ0=%d", alpha, initialPrediction);
+        }
+        return name;
+    }
+
+    @Override
+    public void writeState(CheckpointOutput out) throws IOException {
+        List<PCB> managed = new ArrayList<>(entries.keySet());
+        managed.sort(Comparator.comparingInt(p -> p.pid));
+        out.writeInt(managed.size());
+        for (PCB process : managed) {
+            Entry entry = entries.get(process);
+            out.writeInt(process.pid);
+            out.writeLong(Double.doubleToLongBits(entry.prediction));
+            out.writeInt(entry.ranInBurst);
+        }
+
+        out.writeLong(heap.getNextSequence());
+        out.writeInt(heap.size());
+        for (int i = 0; i < heap.size(); i++) {
+            out.writeInt(heap.processAt(i).pid);
+            out.writeLong(heap.sequenceAt(i));
+        }
+
+        out.writeLong(predictedBursts);
+        out.writeLong(Double.doubleToLongBits(predictionErrorSum));
+    }
+
+    @Override
+    public void readState(CheckpointInput in, IntFunction<PCB> processes) throws IOException {
+        // El modo y los parámetros guardados no se imponen: se conservan los de esta instancia
+        entries = new HashMap<>();
+        int managed = in.readInt();
+        for (int i = 0; i < managed; i++) {
+            Entry entry = new Entry();
+            PCB process = processes.apply(in.readInt());
+            entry.prediction = Double.longBitsToDouble(in.readLong());
+            entry.ranInBurst = in.readInt();
+            entries.put(process, entry);
+        }
+
+        heap = new IndexedProcessHeap();
+        long nextSequence = in.readLong();
+        int queued = in.readInt();
+        for (int i = 0; i < queued; i++) {
+            PCB process = processes.apply(in.readInt());
+            heap.restore(process, key(process, entry(process)), in.readLong());
+        }
+        heap.setNextSequence(nextSequence);
+
+        predictedBursts = in.readLong();
+        predictionErrorSum = Double.longBitsToDouble(in.readLong());
+    }
+}
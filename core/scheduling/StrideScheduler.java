@@ -0,0 +1,242 @@
+package core.scheduling;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.function.IntFunction;
+import core.Logger;
+import models.PCB;
+import models.ProcessState;
+import models.SchedulingData;
+import persistence.CheckpointInput;
+import persistence.CheckpointOutput;
+import persistence.Checkpointable;
+
+/**
+ * Planificación por stride: la versión determinista de la lotería. Cada
+ * proceso tiene un paso (stride) inversamente proporcional a sus boletos y
+ * un recorrido (pass) que avanza un paso por tick de CPU usado; se despacha
+ * el de menor recorrido. El error respecto del reparto pedido queda acotado
+ * en vez de crecer con la raíz del número de sorteos.
+ *
+ * Los procesos listos están en un IndexedProcessHeap con llave = recorrido.
+ * Un proceso que vuelve de un bloqueo no puede traer un recorrido menor que
+ * el mínimo actual: no acumula crédito por el tiempo que no compitió.
+ */
+public class StrideScheduler implements Scheduler, Checkpointable {
+    public static final int DEFAULT_QUANTUM = 4;
+    // Paso de un proceso con un solo boleto
+    private static final long STRIDE1 = 1L << 20;
+
+    private final int quantum;
+    private IndexedProcessHeap heap = new IndexedProcessHeap();
+    private Map<PCB, Long> passes = new HashMap<>();
+    // Recorrido mínimo visto al despachar; nunca retrocede
+    private long globalPass = 0;
+
+    private final CpuShareTracker shares = new CpuShareTracker();
+
+    public StrideScheduler() {
+        this(DEFAULT_QUANTUM);
+    }
+
+    public StrideScheduler(int quantum) {
+        if (quantum <= 0) {
+            throw new IllegalArgumentException("El quantum debe ser mayor que 0: " + quantum);
+        }
+        this.quantum = quantum;
+    }
+
+    public int getQuantum() {
+        return quantum;
+    }
+
+    private static long stride(PCB process) {
+        return STRIDE1 / CpuShareTracker.ticketsOf(process);
+    }
+
+    @Override
+    public void addProcess(PCB process) {
+        Long pass = passes.get(process);
+        long start = pass != null ? Math.max(pass, globalPass) : globalPass;
+        passes.put(process, start);
+        heap.add(process, start);
+        shares.join(process);
+        process.state = ProcessState.READY;
+    }
+
+    @Override
+    public PCB getNextProcess() {
+        PCB next = heap.poll();
+        if (next != null) {
+            globalPass = Math.max(globalPass, passes.get(next));
+            next.state = ProcessState.RUNNING;
+        }
+        return next;
+    }
+
+    @Override
+    public TickOutcome onTick(PCB running) {
+        advance(running, 1);
+        SchedulingData data = running.schedulingData;
+        if (data.quantum == null) {
+            return TickOutcome.CONTINUE;
+        }
+        data.quantum--;
+        if (data.quantum <= 0) {
+            data.quantum = quantum;
+            return TickOutcome.PREEMPT;
+        }
+        return TickOutcome.CONTINUE;
+    }
+
+    @Override
+    public long quietTicks(PCB running) {
+        Integer remainingQuantum = running.schedulingData.quantum;
+        return remainingQuantum != null ? remainingQuantum - 1L : Long.MAX_VALUE;
+    }
+
+    @Override
+    public void fastForward(PCB running, int ticks) {
+        advance(running, ticks);
+        if (running.schedulingData.quantum != null) {
+            running.schedulingData.quantum -= ticks;
+        }
+    }
+
+    private void advance(PCB running, int ticks) {
+        shares.ran(running, ticks);
+        Long pass = passes.get(running);
+        if (pass != null) {
+            passes.put(running, pass + ticks * stride(running));
+        }
+    }
+
+    @Override
+    public void onBlocked(PCB process) {
+        shares.leave(process);
+    }
+
+    /**
+     * Con los boletos cambia el paso; a un proceso en cola se le escala lo que
+     * le falta por recorrer para que el cambio valga desde ya
+     */
+    @Override
+    public void ticketsChanged(PCB process) {
+        Long pass = passes.get(process);
+        if (pass != null && heap.contains(process)) {
+            long oldStride = STRIDE1 / shares.ticketsInUse(process);
+            long remaining = Math.max(0, pass - globalPass);
+            long scaled = globalPass + remaining * stride(process) / Math.max(1, oldStride);
+            passes.put(process, scaled);
+            heap.changeKey(process, scaled);
+            Logger.log(Logger.Level.DEBUG, () -> "Stride: el proceso " + process.pid + " ahora tiene " +
+                      CpuShareTracker.ticketsOf(process) + " boletos");
+        }
+        shares.retarget(process);
+    }
+
+    @Override
+    public void removeProcess(PCB process) {
+        heap.remove(process);
+        passes.remove(process);
+        shares.leave(process);
+    }
+
+    @Override
+    public PCB peek() {
+        return heap.peek();
+    }
+
+    @Override
+    public int drainTo(Collection<? super PCB> target, int maxProcesses) {
+        int moved = 0;
+        while (moved < maxProcesses && !heap.isEmpty()) {
+            PCB process = heap.poll();
+            passes.remove(process);
+            shares.leave(process);
+            target.add(process);
+            moved++;
+        }
+        return moved;
+    }
+
+    @Override
+    public int size() {
+        return heap.size();
+    }
+
+    @Override
+    public void onProcessFinished(PCB process) {
+        removeProcess(process);
+        process.state = ProcessState.TERMINATED;
+    }
+
+    @Override
+    public void configure(SchedulingData data, int priority) {
+        data.quantum = quantum;
+        data.queueLevel = null;
+        if (data.tickets == null) {
+            data.tickets = CpuShareTracker.ticketsFor(priority);
+        }
+    }
+
+    /**
+     * CPU pedida y obtenida por grupo de boletos en este núcleo
+     */
+    @Override
+    public CpuShareTracker.Statistics getStatistics() {
+        return shares.getStatistics();
+    }
+
+    @Override
+    public String getName() {
+        return "Stride (Quantum=" + quantum + ")";
+    }
+
+    @Override
+    public boolean usesPriority() {
+        return true;
+    }
+
+    @Override
+    public void writeState(CheckpointOutput out) throws IOException {
+        out.writeLong(globalPass);
+        List<PCB> managed = new ArrayList<>(passes.keySet());
+        managed.sort(Comparator.comparingInt(p -> p.pid));
+        out.writeInt(managed.size());
+        for (PCB process : managed) {
+            out.writeInt(process.pid);
+            out.writeLong(passes.get(process));
+        }
+
+        out.writeLong(heap.getNextSequence());
+        out.writeInt(heap.size());
+        for (int i = 0; i < heap.size(); i++) {
+            out.writeInt(heap.processAt(i).pid);
+            out.writeLong(heap.sequenceAt(i));
+        }
+        shares.writeState(out);
+    }
+
+    @Override
+    public void readState(CheckpointInput in, IntFunction<PCB> processes) throws IOException {
+        // El quantum guardado no se impone: se conserva el de esta instancia
+        globalPass = in.readLong();
+        passes = new HashMap<>();
+        int managed = in.readInt();
+        for (int i = 0; i < managed; i++) {
+            PCB process = processes.apply(in.readInt());
+            passes.put(process, in.readLong());
+        }
+
+        heap = new IndexedProcessHeap();
+        long nextSequence = in.readLong();
+        int queued = in.readInt();
+        for (int i = 0; i < queued; i++) {
+            PCB process = processes.apply(in.readInt());
+            heap.restore(process, passes.get(process), in.readLong());
+        }
+        heap.setNextSequence(nextSequence);
+        shares.readState(in, processes);
+    }
+}
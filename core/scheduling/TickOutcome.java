@@ -0,0 +1,10 @@
+package core.scheduling;
+
+/**
+ * Decisión del planificador sobre el proceso en ejecución al final de un tick
+ */
+public enum TickOutcome {
+    CONTINUE,   // sigue en la CPU
+    PREEMPT,    // vuelve a la cola de listos (por ejemplo, agotó su quantum)
+    COMPLETE    // terminó su ejecución
+}
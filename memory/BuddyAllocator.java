@@ -0,0 +1,295 @@
+package memory;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import persistence.CheckpointInput;
+import persistence.CheckpointOutput;
+
+/**
+ * Asignador buddy binario sobre los marcos físicos: la memoria se reparte en
+ * bloques contiguos de 2^orden marcos alineados a su tamaño. Un pedido de n
+ * marcos recibe un bloque del orden que lo cubre; si no hay libres de ese
+ * orden se parte uno mayor en mitades (buddies) hasta llegar. Al liberar un
+ * bloque se une con su buddy mientras este también esté libre.
+ *
+ * Los marcos que sobran dentro de un bloque son fragmentación interna. La
+ * externa es la parte de la memoria libre que no está en el bloque libre más
+ * grande: cuanto más alta, más pedidos grandes fallan aunque haya marcos
+ * libres. Se mide después de cada asignación y liberación.
+ *
+ * Las listas de libres están ordenadas por dirección y siempre se usa el
+ * bloque libre más bajo. La latencia se cuenta en pasos: órdenes revisados
+ * y divisiones al asignar, uniones al liberar.
+ */
+public class BuddyAllocator {
+    private final int frameCount;
+    private final int maxOrder;
+    private final TreeSet<Integer>[] freeLists; // orden -> inicio de los bloques libres
+    private final Map<Integer, Integer> allocated = new HashMap<>(); // inicio -> marcos pedidos
+    private int freeFrames;
+
+    private long allocations = 0;
+    private long releases = 0;
+    private long splits = 0;
+    private long merges = 0;
+    private long allocationSteps = 0;
+    private long releaseSteps = 0;
+    private int maxAllocationSteps = 0;
+    private int maxReleaseSteps = 0;
+    private long usedFrames = 0;      // marcos de los bloques asignados
+    private long requestedFrames = 0; // marcos que de verdad se pidieron
+    private long peakWaste = 0;
+
+    // Fragmentación externa medida en cada operación
+    private double fragmentationSum = 0;
+    private long fragmentationSamples = 0;
+    private double peakFragmentation = 0;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public BuddyAllocator(int frameCount) {
+        if (frameCount <= 0) {
+            throw new IllegalArgumentException("El asignador buddy necesita al menos un marco: " + frameCount);
+        }
+        this.frameCount = frameCount;
+        this.maxOrder = 31 - Integer.numberOfLeadingZeros(frameCount);
+        this.freeLists = new TreeSet[maxOrder + 1];
+        for (int order = 0; order <= maxOrder; order++) {
+            freeLists[order] = new TreeSet<>();
+        }
+        // Toda la memoria libre en los bloques más grandes que permite la alineación
+        int start = 0;
+        while (start < frameCount) {
+            int order = 31 - Integer.numberOfLeadingZeros(frameCount - start);
+            if (start != 0) {
+                order = Math.min(order, Integer.numberOfTrailingZeros(start));
+            }
+            freeLists[order].add(start);
+            start += 1 << order;
+        }
+        freeFrames = frameCount;
+    }
+
+    /**
+     * Orden del bloque que cubre 'frames' marcos
+     */
+    public static int orderFor(int frames) {
+        return frames <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(frames - 1);
+    }
+
+    /**
+     * Asigna un bloque para 'frames' marcos y devuelve su primer marco, o -1
+     * si no hay ningún bloque libre del tamaño
+     */
+    public int allocate(int frames) {
+        int order = orderFor(frames);
+        if (order > maxOrder) {
+            return -1;
+        }
+        int steps = 1;
+        int found = order;
+        while (found <= maxOrder && freeLists[found].isEmpty()) {
+            found++;
+            steps++;
+        }
+        if (found > maxOrder) {
+            return -1;
+        }
+        int start = freeLists[found].pollFirst();
+        // Partir hasta el orden pedido; la mitad alta queda libre
+        while (found > order) {
+            found--;
+            freeLists[found].add(start + (1 << found));
+            splits++;
+            steps++;
+        }
+        allocated.put(start, frames);
+        freeFrames -= 1 << order;
+        usedFrames += 1 << order;
+        requestedFrames += frames;
+        peakWaste = Math.max(peakWaste, usedFrames - requestedFrames);
+        allocations++;
+        allocationSteps += steps;
+        maxAllocationSteps = Math.max(maxAllocationSteps, steps);
+        sampleFragmentation();
+        return start;
+    }
+
+    /**
+     * Libera el bloque que empieza en 'start' uniéndolo con sus buddies libres
+     */
+    public void release(int start) {
+        Integer frames = allocated.remove(start);
+        if (frames == null) {
+            throw new IllegalStateException("El marco " + start + " no es el inicio de un bloque asignado");
+        }
+        int order = orderFor(frames);
+        freeFrames += 1 << order;
+        usedFrames -= 1 << order;
+        requestedFrames -= frames;
+        int steps = 1;
+        while (order < maxOrder) {
+            int buddy = start ^ (1 << order);
+            if (buddy + (1 << order) > frameCount || !freeLists[order].remove(buddy)) {
+                break;
+            }
+            start = Math.min(start, buddy);
+            order++;
+            merges++;
+            steps++;
+        }
+        freeLists[order].add(start);
+        releases++;
+        releaseSteps += steps;
+        maxReleaseSteps = Math.max(maxReleaseSteps, steps);
+        sampleFragmentation();
+    }
+
+    private void sampleFragmentation() {
+        double fragmentation = getExternalFragmentation();
+        fragmentationSum += fragmentation;
+        fragmentationSamples++;
+        peakFragmentation = Math.max(peakFragmentation, fragmentation);
+    }
+
+    /**
+     * Marcos del bloque libre más grande (0 si no hay libres)
+     */
+    public int getLargestFreeBlock() {
+        for (int order = maxOrder; order >= 0; order--) {
+            if (!freeLists[order].isEmpty()) {
+                return 1 << order;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Fracción de la memoria libre que queda fuera del bloque libre más grande
+     */
+    public double getExternalFragmentation() {
+        return freeFrames > 0 ? 1 - (double) getLargestFreeBlock() / freeFrames : 0;
+    }
+
+    public double getAverageExternalFragmentation() {
+        return fragmentationSamples > 0 ? fragmentationSum / fragmentationSamples : 0;
+    }
+
+    public double getPeakExternalFragmentation() { return peakFragmentation; }
+
+    /**
+     * Si alguna vez podría haber un bloque para 'frames' marcos (con la memoria vacía)
+     */
+    public boolean canEverAllocate(int frames) {
+        return orderFor(frames) <= maxOrder;
+    }
+
+    public int getFrameCount() { return frameCount; }
+
+    /**
+     * Marcos del bloque más grande posible (el primero, desde el marco 0)
+     */
+    public int getMaxBlockFrames() { return 1 << maxOrder; }
+
+    public int getFreeFrames() { return freeFrames; }
+    public int getAllocatedBlocks() { return allocated.size(); }
+    public long getUsedFrames() { return usedFrames; }
+
+    /**
+     * Marcos asignados que sobran dentro de sus bloques (fragmentación interna)
+     */
+    public long getWastedFrames() { return usedFrames - requestedFrames; }
+    public long getPeakWastedFrames() { return peakWaste; }
+    public long getAllocations() { return allocations; }
+    public long getReleases() { return releases; }
+    public long getSplits() { return splits; }
+    public long getMerges() { return merges; }
+
+    /**
+     * Asignaciones y liberaciones hechas: cambia cada vez que puede cambiar el resultado de allocate()
+     */
+    public long getOperations() { return allocations + releases; }
+
+    public double getAverageAllocationSteps() {
+        return allocations > 0 ? (double) allocationSteps / allocations : 0;
+    }
+
+    public int getMaxAllocationSteps() { return maxAllocationSteps; }
+
+    public double getAverageReleaseSteps() {
+        return releases > 0 ? (double) releaseSteps / releases : 0;
+    }
+
+    public int getMaxReleaseSteps() { return maxReleaseSteps; }
+
+    public void writeState(CheckpointOutput out) throws IOException {
+        out.writeLong(allocations);
+        out.writeLong(releases);
+        out.writeLong(splits);
+        out.writeLong(merges);
+        out.writeLong(allocationSteps);
+        out.writeLong(releaseSteps);
+        out.writeInt(maxAllocationSteps);
+        out.writeInt(maxReleaseSteps);
+        out.writeLong(peakWaste);
+        out.writeLong(Double.doubleToLongBits(fragmentationSum));
+        out.writeLong(fragmentationSamples);
+        out.writeLong(Double.doubleToLongBits(peakFragmentation));
+        for (TreeSet<Integer> list : freeLists) {
+            out.writeInt(list.size());
+            for (int start : list) {
+                out.writeInt(start);
+            }
+        }
+        out.writeInt(allocated.size());
+        for (Map.Entry<Integer, Integer> entry : new TreeMap<>(allocated).entrySet()) {
+            out.writeInt(entry.getKey());
+            out.writeInt(entry.getValue());
+        }
+    }
+
+    public void readState(CheckpointInput in) throws IOException {
+        allocations = in.readLong();
+        releases = in.readLong();
+        splits = in.readLong();
+        merges = in.readLong();
+        allocationSteps = in.readLong();
+        releaseSteps = in.readLong();
+        maxAllocationSteps = in.readInt();
+        maxReleaseSteps = in.readInt();
+        peakWaste = in.readLong();
+        fragmentationSum = Double.longBitsToDouble(in.readLong());
+        fragmentationSamples = in.readLong();
+        peakFragmentation = Double.longBitsToDouble(in.readLong());
+        allocated.clear();
+        freeFrames = 0;
+        for (int order = 0; order <= maxOrder; order++) {
+            freeLists[order].clear();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                int start = in.readInt();
+                if (start < 0 || start + (1 << order) > frameCount) {
+                    throw new IOException("Bloque libre fuera de la memoria: " + start + " de orden " + order);
+                }
+                freeLists[order].add(start);
+                freeFrames += 1 << order;
+            }
+        }
+        usedFrames = 0;
+        requestedFrames = 0;
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            int start = in.readInt();
+            int frames = in.readInt();
+            allocated.put(start, frames);
+            usedFrames += 1 << orderFor(frames);
+            requestedFrames += frames;
+        }
+        if (freeFrames + usedFrames != frameCount) {
+            throw new IOException("Los bloques del asignador buddy no cubren la memoria: " + freeFrames + " libres y " +
+                                  usedFrames + " asignados de " + frameCount);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package memory;
+
+import java.io.IOException;
+import java.util.function.IntFunction;
+import models.PCB;
+import persistence.CheckpointInput;
+import persistence.CheckpointOutput;
+
+/**
+ * Reloj (segunda oportunidad): una manecilla recorre los marcos en orden;
+ * una página con el bit de referencia encendido lo pierde y se salva esta
+ * vuelta, y sale la primera que lo tenga apagado. El MemoryManager enciende
+ * el bit en cada acceso, como lo haría el hardware.
+ */
+public class ClockReplacement implements ReplacementPolicy {
+    private Page[] frames = new Page[0]; // marco -> página residente
+    private int hand = 0;
+
+    @Override
+    public void reset(int frameCount) {
+        frames = new Page[frameCount];
+        hand = 0;
+    }
+
+    @Override
+    public void pageLoaded(Page page, PCB process, long index) {
+        frames[page.getFrameNumber()] = page;
+    }
+
+    @Override
+    public void pageAccessed(Page page, PCB process, long index) {
+        // Basta con el bit de referencia que ya encendió el MemoryManager
+    }
+
+    @Override
+    public void pageRemoved(Page page) {
+        frames[page.getFrameNumber()] = null;
+    }
+
+    @Override
+    public Page selectVictim() {
+        // Con todos los marcos ocupados, a lo sumo dos vueltas
+        while (true) {
+            Page page = frames[hand];
+            int frame = hand;
+            hand = (hand + 1) % frames.length;
+            if (page == null) {
+                continue;
+            }
+            if (page.isReferenced()) {
+                page.setReferenced(false);
+                continue;
+            }
+            frames[frame] = null;
+            return page;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "Reloj";
+    }
+
+    @Override
+    public void writeState(CheckpointOutput out) throws IOException {
+        out.writeInt(hand);
+        // Solo las páginas residentes; cada una vuelve al marco que ya tiene asignado
+        int resident = 0;
+        for (Page page : frames) {
+            if (page != null) {
+                resident++;
+            }
+        }
+        out.writeInt(resident);
+        for (Page page : frames) {
+            if (page != null) {
+                out.writeInt(page.getProcessId());
+                out.writeInt(page.getPageNumber());
+            }
+        }
+    }
+
+    @Override
+    public void readState(CheckpointInput in, PageLookup pages, IntFunction<PCB> processes) throws IOException {
+        hand = in.readInt();
+        int resident = in.readInt();
+        for (int i = 0; i < resident; i++) {
+            Page page = pages.find(in.readInt(), in.readInt());
+            frames[page.getFrameNumber()] = page;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package memory;
+
+import core.Logger;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import persistence.CheckpointInput;
+import persistence.CheckpointOutput;
+
+/**
+ * Memoria repartida por un BuddyAllocator (ver MemoryManager.setBuddyAllocator):
+ * cada proceso recibe un bloque contiguo de 2^k marcos, y su PCB y los nodos
+ * de su tabla de páginas se toman de cachés slab que también piden sus
+ * marcos al buddy. Lleva cuántos procesos esperaron por fragmentación externa.
+ */
+class ContiguousMemory {
+    private final int frameCount;
+    private final PageTable pageTable;
+    private final BuddyAllocator buddy;
+    private final SlabCache pcbCache;
+    private final SlabCache nodeCache; // null si la tabla de páginas no tiene nodos por proceso
+    private final Map<Integer, Allocation> allocations = new HashMap<>();
+    private final Set<Integer> delayedProcesses = new HashSet<>(); // esperan por fragmentación
+    private long fragmentationDelays = 0;
+
+    // Bloque y objetos del núcleo de un proceso (block -1 = sin páginas)
+    private static class Allocation {
+        final int block;
+        final long[] objects; // el PCB y después los nodos de la tabla
+
+        Allocation(int block, long[] objects) {
+            this.block = block;
+            this.objects = objects;
+        }
+    }
+
+    /**
+     * Las cachés dependen de la tabla de páginas, que ya no puede cambiar
+     */
+    ContiguousMemory(int frameCount, int pageSizeKB, PageTable pageTable) {
+        this.frameCount = frameCount;
+        this.pageTable = pageTable;
+        this.buddy = new BuddyAllocator(frameCount);
+        this.pcbCache = new SlabCache("PCB", MemoryManager.PCB_BYTES, pageSizeKB, buddy);
+        this.nodeCache = pageTable.getNodeBytes() > 0
+                ? new SlabCache("Nodos de tabla", pageTable.getNodeBytes(), pageSizeKB, buddy) : null;
+    }
+
+    /**
+     * Toma primero el bloque de las páginas y después el PCB y los nodos de la
+     * tabla; si algo no entra, deshace lo tomado y devuelve false
+     */
+    boolean allocate(int pid, int pages) {
+        int block = -1;
+        if (pages > 0) {
+            block = buddy.allocate(pages);
+            if (block < 0) {
+                int blockFrames = 1 << BuddyAllocator.orderFor(pages);
+                int freeFrameCount = buddy.getFreeFrames();
+                if (freeFrameCount >= blockFrames && delayedProcesses.add(pid)) {
+                    fragmentationDelays++;
+                }
+                Logger.log(Logger.Level.DEBUG, () -> "No hay un bloque libre de " + blockFrames + " marcos para el proceso " +
+                          pid + " (hay " + freeFrameCount + " marcos libres, el bloque mayor es de " +
+                          buddy.getLargestFreeBlock() + ")");
+                return false;
+            }
+        }
+        long[] objects = new long[1 + (nodeCache != null ? pageTable.nodesFor(pages) : 0)];
+        for (int i = 0; i < objects.length; i++) {
+            objects[i] = (i == 0 ? pcbCache : nodeCache).allocate();
+            if (objects[i] < 0) {
+                // Sin lugar para un slab nuevo: se deshace lo que se tomó
+                for (int j = i - 1; j >= 0; j--) {
+                    (j == 0 ? pcbCache : nodeCache).release(objects[j]);
+                }
+                if (block >= 0) {
+                    buddy.release(block);
+                }
+                Logger.log(Logger.Level.DEBUG, () -> "No hay marcos para los objetos del núcleo del proceso " + pid);
+                return false;
+            }
+        }
+        delayedProcesses.remove(pid);
+        allocations.put(pid, new Allocation(block, objects));
+        return true;
+    }
+
+    /**
+     * Primer marco del bloque del proceso, o -1 si no tiene páginas
+     */
+    int blockOf(int pid) {
+        return allocations.get(pid).block;
+    }
+
+    void release(int pid) {
+        Allocation allocation = allocations.remove(pid);
+        if (allocation == null) {
+            return;
+        }
+        if (allocation.block >= 0) {
+            buddy.release(allocation.block);
+        }
+        for (int i = allocation.objects.length - 1; i >= 0; i--) {
+            (i == 0 ? pcbCache : nodeCache).release(allocation.objects[i]);
+        }
+    }
+
+    /**
+     * Si un proceso de 'pages' páginas podría recibir su bloque y sus objetos
+     * del núcleo alguna vez, con la memoria vacía
+     */
+    boolean fits(int pages) {
+        if (!buddy.canEverAllocate(pages)) {
+            return false;
+        }
+        long kernelFrames = pcbCache.getSlabFrames();
+        if (nodeCache != null) {
+            int slabs = (pageTable.nodesFor(pages) + nodeCache.getObjectsPerSlab() - 1) / nodeCache.getObjectsPerSlab();
+            kernelFrames += (long) slabs * nodeCache.getSlabFrames();
+        }
+        return (pages > 0 ? 1L << BuddyAllocator.orderFor(pages) : 0) + kernelFrames <= frameCount;
+    }
+
+    BuddyAllocator getBuddy() {
+        return buddy;
+    }
+
+    SlabCache getPcbCache() {
+        return pcbCache;
+    }
+
+    /**
+     * Caché de los nodos de tabla, o null si la tabla de páginas no tiene nodos por proceso
+     */
+    SlabCache getNodeCache() {
+        return nodeCache;
+    }
+
+    long getFragmentationDelays() {
+        return fragmentationDelays;
+    }
+
+    void writeState(CheckpointOutput out) throws IOException {
+        buddy.writeState(out);
+        pcbCache.writeState(out);
+        if (nodeCache != null) {
+            nodeCache.writeState(out);
+        }
+        out.writeLong(fragmentationDelays);
+        out.writeInt(delayedProcesses.size());
+        for (int pid : new TreeSet<>(delayedProcesses)) {
+            out.writeInt(pid);
+        }
+        out.writeInt(allocations.size());
+        for (Map.Entry<Integer, Allocation> entry : new TreeMap<>(allocations).entrySet()) {
+            out.writeInt(entry.getKey());
+            out.writeInt(entry.getValue().block);
+            out.writeInt(entry.getValue().objects.length);
+            for (long object : entry.getValue().objects) {
+                out.writeLong(object);
+            }
+        }
+    }
+
+    void readState(CheckpointInput in) throws IOException {
+        buddy.readState(in);
+        pcbCache.readState(in);
+        if (nodeCache != null) {
+            nodeCache.readState(in);
+        }
+        fragmentationDelays = in.readLong();
+        int delayed = in.readInt();
+        for (int i = 0; i < delayed; i++) {
+            delayedProcesses.add(in.readInt());
+        }
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            int pid = in.readInt();
+            int block = in.readInt();
+            long[] objects = new long[in.readInt()];
+            for (int j = 0; j < objects.length; j++) {
+                objects[j] = in.readLong();
+            }
+            allocations.put(pid, new Allocation(block, objects));
+        }
+    }
+}
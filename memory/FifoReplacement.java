@@ -0,0 +1,69 @@
+package memory;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.function.IntFunction;
+import models.PCB;
+import persistence.CheckpointInput;
+import persistence.CheckpointOutput;
+
+/**
+ * FIFO: sale la página que lleva más tiempo en memoria, sin importar cuánto
+ * se use. Las páginas residentes van en orden de llegada en un
+ * LinkedHashSet, así que cargar, quitar y elegir víctima cuestan O(1).
+ */
+public class FifoReplacement implements ReplacementPolicy {
+    protected final LinkedHashSet<Page> resident = new LinkedHashSet<>();
+
+    @Override
+    public void reset(int frameCount) {
+        resident.clear();
+    }
+
+    @Override
+    public void pageLoaded(Page page, PCB process, long index) {
+        resident.add(page);
+    }
+
+    @Override
+    public void pageAccessed(Page page, PCB process, long index) {
+        // El orden de FIFO no cambia con los aciertos
+    }
+
+    @Override
+    public void pageRemoved(Page page) {
+        resident.remove(page);
+    }
+
+    @Override
+    public Page selectVictim() {
+        Iterator<Page> oldest = resident.iterator();
+        Page victim = oldest.next();
+        oldest.remove();
+        return victim;
+    }
+
+    @Override
+    public String getName() {
+        return "FIFO";
+    }
+
+    @Override
+    public void writeState(CheckpointOutput out) throws IOException {
+        out.writeInt(resident.size());
+        for (Page page : resident) {
+            out.writeInt(page.getProcessId());
+            out.writeInt(page.getPageNumber());
+        }
+    }
+
+    @Override
+    public void readState(CheckpointInput in, PageLookup pages, IntFunction<PCB> processes) throws IOException {
+        resident.clear();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            resident.add(pages.find(in.readInt(), in.readInt()));
+        }
+    }
+}
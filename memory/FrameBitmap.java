@@ -0,0 +1,104 @@
+package memory;
+
+import java.util.Arrays;
+
+/**
+ * Mapa de bits de marcos libres (bit en 1 = libre) con un segundo nivel que
+ * indica qué palabras tienen algún marco libre, así que buscar el primer
+ * marco libre recorre a lo sumo marcos / 4096 palabras del resumen aunque
+ * la memoria tenga millones de marcos. Lleva la cuenta de libres.
+ */
+public class FrameBitmap {
+    private final int size;
+    private final long[] words;
+    private final long[] summary; // bit i = la palabra i tiene algún marco libre
+    private int freeCount;
+
+    /**
+     * Todos los marcos empiezan libres
+     */
+    public FrameBitmap(int size) {
+        this.size = size;
+        this.words = new long[(size + 63) >>> 6];
+        this.summary = new long[(words.length + 63) >>> 6];
+        Arrays.fill(words, -1L);
+        if ((size & 63) != 0) {
+            words[words.length - 1] = (1L << size) - 1;
+        }
+        Arrays.fill(summary, -1L);
+        if ((words.length & 63) != 0) {
+            summary[summary.length - 1] = (1L << words.length) - 1;
+        }
+        this.freeCount = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getFreeCount() {
+        return freeCount;
+    }
+
+    public boolean isFree(int frame) {
+        return (words[frame >>> 6] & (1L << frame)) != 0;
+    }
+
+    /**
+     * Marca el marco como ocupado (no hace nada si ya lo estaba)
+     */
+    public void allocate(int frame) {
+        int w = frame >>> 6;
+        long bit = 1L << frame;
+        if ((words[w] & bit) == 0) {
+            return;
+        }
+        words[w] &= ~bit;
+        freeCount--;
+        if (words[w] == 0) {
+            summary[w >>> 6] &= ~(1L << w);
+        }
+    }
+
+    /**
+     * Marca el marco como libre (no hace nada si ya lo estaba)
+     */
+    public void release(int frame) {
+        int w = frame >>> 6;
+        long bit = 1L << frame;
+        if ((words[w] & bit) != 0) {
+            return;
+        }
+        words[w] |= bit;
+        freeCount++;
+        summary[w >>> 6] |= 1L << w;
+    }
+
+    /**
+     * Primer marco libre en 'from' o después, o -1 si no hay
+     */
+    public int nextFree(int from) {
+        if (from >= size) {
+            return -1;
+        }
+        int w = from >>> 6;
+        long word = words[w] & (-1L << from);
+        if (word != 0) {
+            return (w << 6) + Long.numberOfTrailingZeros(word);
+        }
+        // Buscar la siguiente palabra con libres en el resumen
+        int s = (w + 1) >>> 6;
+        if (s >= summary.length) {
+            return -1;
+        }
+        long bits = summary[s] & (-1L << (w + 1));
+        while (bits == 0) {
+            if (++s >= summary.length) {
+                return -1;
+            }
+            bits = summary[s];
+        }
+        int next = (s << 6) + Long.numberOfTrailingZeros(bits);
+        return (next << 6) + Long.numberOfTrailingZeros(words[next]);
+    }
+}
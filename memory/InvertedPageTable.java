@@ -0,0 +1,263 @@
+package memory;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntConsumer;
+import persistence.CheckpointInput;
+import persistence.CheckpointOutput;
+
+/**
+ * Tabla de páginas invertida: una sola tabla global con una entrada por
+ * marco físico (PID, página y bits), así que ocupa lo mismo sin importar
+ * cuántos procesos haya ni qué tan grandes sean sus espacios virtuales.
+ * Para traducir (PID, página) se usa una tabla de anclas hash con cadenas
+ * por balde; un recorrido cuesta leer el ancla más cada entrada de la cadena
+ * hasta encontrar la página. Las páginas no residentes no ocupan nada.
+ */
+public class InvertedPageTable implements PageTable {
+    private static final int EMPTY = -1;
+
+    // Por marco
+    private final int[] owners; // PID, o EMPTY si el marco está libre
+    private final int[] pages;
+    private final byte[] flags;
+    private final int[] next;   // siguiente marco del mismo balde
+    private final int[] anchors; // balde -> primer marco de su cadena
+    private final int mask;
+
+    private final Map<Integer, Integer> pageCounts = new HashMap<>();
+    private long walks = 0;
+    private long walkAccesses = 0;
+
+    public InvertedPageTable(int frameCount) {
+        int buckets = Math.min(1 << 30, Integer.highestOneBit(Math.max(1, frameCount - 1)) << 1);
+        this.owners = new int[frameCount];
+        this.pages = new int[frameCount];
+        this.flags = new byte[frameCount];
+        this.next = new int[frameCount];
+        this.anchors = new int[buckets];
+        this.mask = buckets - 1;
+        Arrays.fill(owners, EMPTY);
+        Arrays.fill(anchors, EMPTY);
+    }
+
+    private int bucket(int pid, int page) {
+        int hash = pid * 0x9E3779B1 ^ page * 0x85EBCA77;
+        return (hash ^ (hash >>> 15)) & mask;
+    }
+
+    @Override
+    public void addProcess(int pid, int pages) {
+        pageCounts.put(pid, pages);
+    }
+
+    @Override
+    public int getPageCount(int pid) {
+        return pageCounts.getOrDefault(pid, -1);
+    }
+
+    @Override
+    public int getProcessCount() {
+        return pageCounts.size();
+    }
+
+    @Override
+    public void removeProcess(int pid, IntConsumer residentFrame) {
+        Integer count = pageCounts.remove(pid);
+        if (count == null) {
+            return;
+        }
+        if (count < owners.length) {
+            // Menos páginas que marcos: se busca cada una por hash
+            for (int page = 0; page < count; page++) {
+                int frame = frameOf(pid, page);
+                if (frame >= 0) {
+                    residentFrame.accept(frame);
+                    unlink(frame);
+                }
+            }
+        } else {
+            for (int frame = 0; frame < owners.length; frame++) {
+                if (owners[frame] == pid) {
+                    residentFrame.accept(frame);
+                    unlink(frame);
+                }
+            }
+        }
+    }
+
+    @Override
+    public int walk(int pid, int page) {
+        walks++;
+        walkAccesses++; // el ancla
+        for (int frame = anchors[bucket(pid, page)]; frame != EMPTY; frame = next[frame]) {
+            walkAccesses++;
+            if (owners[frame] == pid && pages[frame] == page) {
+                return frame;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int frameOf(int pid, int page) {
+        for (int frame = anchors[bucket(pid, page)]; frame != EMPTY; frame = next[frame]) {
+            if (owners[frame] == pid && pages[frame] == page) {
+                return frame;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void map(int pid, int page, int frame) {
+        if (owners[frame] != EMPTY) {
+            unlink(frame);
+        }
+        int bucket = bucket(pid, page);
+        owners[frame] = pid;
+        pages[frame] = page;
+        flags[frame] = 0;
+        next[frame] = anchors[bucket];
+        anchors[bucket] = frame;
+    }
+
+    @Override
+    public void unmap(int pid, int page) {
+        int frame = frameOf(pid, page);
+        if (frame >= 0) {
+            unlink(frame);
+        }
+    }
+
+    // Saca el marco de la cadena de su balde y lo deja libre
+    private void unlink(int frame) {
+        int bucket = bucket(owners[frame], pages[frame]);
+        if (anchors[bucket] == frame) {
+            anchors[bucket] = next[frame];
+        } else {
+            int previous = anchors[bucket];
+            while (next[previous] != frame) {
+                previous = next[previous];
+            }
+            next[previous] = next[frame];
+        }
+        owners[frame] = EMPTY;
+        next[frame] = EMPTY;
+    }
+
+    /**
+     * No: cada marco tiene una sola entrada, con un solo PID y página
+     */
+    @Override
+    public boolean supportsSharedFrames() {
+        return false;
+    }
+
+    /**
+     * La tabla es una sola para toda la memoria: los procesos no agregan nodos
+     */
+    @Override
+    public int nodesFor(int pages) {
+        return 0;
+    }
+
+    @Override
+    public int getNodeBytes() {
+        return 0;
+    }
+
+    @Override
+    public boolean hasFlag(int pid, int page, int flag) {
+        int frame = frameOf(pid, page);
+        return frame >= 0 && (flags[frame] & flag) != 0;
+    }
+
+    @Override
+    public void setFlag(int pid, int page, int flag, boolean value) {
+        int frame = frameOf(pid, page);
+        if (frame >= 0) {
+            flags[frame] = (byte) (value ? flags[frame] | flag : flags[frame] & ~flag);
+        }
+    }
+
+    @Override
+    public long getBytes() {
+        // PID, página y siguiente por marco, un byte de bits y las anclas
+        return (long) owners.length * (3 * ENTRY_BYTES + 1) + (long) anchors.length * ENTRY_BYTES;
+    }
+
+    @Override
+    public long getPeakBytes() {
+        return getBytes();
+    }
+
+    @Override
+    public long getWalks() {
+        return walks;
+    }
+
+    @Override
+    public double getAverageWalkAccesses() {
+        return walks > 0 ? (double) walkAccesses / walks : 0;
+    }
+
+    @Override
+    public String getSpec() {
+        return "inverted";
+    }
+
+    @Override
+    public String getDescription() {
+        return "invertida, " + anchors.length + " baldes";
+    }
+
+    @Override
+    public void writeState(CheckpointOutput out) throws IOException {
+        out.writeLong(walks);
+        out.writeLong(walkAccesses);
+        out.writeInt(pageCounts.size());
+        for (Map.Entry<Integer, Integer> entry : new TreeMap<>(pageCounts).entrySet()) {
+            out.writeInt(entry.getKey());
+            out.writeInt(entry.getValue());
+        }
+        // Las cadenas se guardan tal cual para que el costo de los recorridos no cambie
+        out.writeInt(owners.length);
+        for (int frame = 0; frame < owners.length; frame++) {
+            out.writeInt(owners[frame]);
+            out.writeInt(pages[frame]);
+            out.writeByte(flags[frame]);
+            out.writeInt(next[frame]);
+        }
+        for (int anchor : anchors) {
+            out.writeInt(anchor);
+        }
+    }
+
+    @Override
+    public void readState(CheckpointInput in) throws IOException {
+        walks = in.readLong();
+        walkAccesses = in.readLong();
+        pageCounts.clear();
+        int processes = in.readInt();
+        for (int i = 0; i < processes; i++) {
+            pageCounts.put(in.readInt(), in.readInt());
+        }
+        int frames = in.readInt();
+        if (frames != owners.length) {
+            throw new IOException("La tabla invertida guardada tiene " + frames + " marcos y la memoria " + owners.length);
+        }
+        for (int frame = 0; frame < frames; frame++) {
+            owners[frame] = in.readInt();
+            pages[frame] = in.readInt();
+            flags[frame] = (byte) in.readByte();
+            next[frame] = in.readInt();
+        }
+        for (int i = 0; i < anchors.length; i++) {
+            anchors[i] = in.readInt();
+        }
+    }
+}
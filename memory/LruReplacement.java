@@ -0,0 +1,21 @@
+package memory;
+
+import models.PCB;
+
+/**
+ * LRU: sale la página usada hace más tiempo. Es la cola de FIFO con cada
+ * acierto moviendo la página al final, también en O(1).
+ */
+public class LruReplacement extends FifoReplacement {
+
+    @Override
+    public void pageAccessed(Page page, PCB process, long index) {
+        resident.remove(page);
+        resident.add(page);
+    }
+
+    @Override
+    public String getName() {
+        return "LRU";
+    }
+}
@@ -1,100 +1,720 @@
 package memory;
 
 import core.Logger;
+import java.io.IOException;
 import java.util.*;
+import java.util.function.IntFunction;
 import models.PCB;
+import models.PageReferenceString;
+import persistence.CheckpointInput;
+import persistence.CheckpointOutput;
+import persistence.Checkpointable;
 
-public class MemoryManager {
-    public static final int PAGE_SIZE = 256; // Tamaño de página en KB (256KB)
-    public static final int FRAME_COUNT = 16; // Número de marcos en memoria física (16 marcos)
+/**
+ * Memoria física paginada. Los marcos libres están en un FrameBitmap con la
+ * cuenta de libres al día y cada página recuerda su marco, así que asignar y
+ * liberar cuestan O(páginas) y las consultas de uso son O(1) aunque la
+ * máquina tenga millones de marcos.
+ *
+ * Las traducciones están en una PageTable (radix por proceso por omisión, o
+ * invertida con setPageTable); solo las páginas residentes tienen objeto Page.
+ *
+ * Por omisión un proceso se admite solo si caben todas sus páginas. Con
+ * paginación por demanda (setDemandPaging) se admite sin cargar ninguna: cada
+ * página entra a un marco en su primer fallo y, si no hay marcos libres, la
+ * ReplacementPolicy elige cuál sale.
+ *
+ * Si hay TLBs registradas (registerTlb), cada referencia consulta primero la
+ * TLB del núcleo y solo en un fallo de TLB se recorre la tabla de páginas.
+ * Cuando una página deja su marco se borra su traducción de todas las TLBs.
+ *
+ * Con un WorkingSetMonitor (setWorkingSets) cada referencia actualiza el
+ * conjunto de trabajo de su proceso; swapOut() descarga un proceso entero
+ * cuando el motor lo suspende.
+ *
+ * Con un SwapDevice (setSwap) las páginas modificadas que salen de memoria,
+ * por reemplazo o al suspender su proceso, se escriben en el área de
+ * intercambio, y el fallo que las trae de vuelta espera al disco de
+ * intercambio en lugar de tardar 'faultServiceTicks'.
+ *
+ * fork() y las bibliotecas compartidas (PCB.sharedLibrary) hacen que varios
+ * procesos usen el mismo marco (ver SharedFrames); la primera escritura de
+ * uno de ellos le da una copia privada. Requieren paginación por demanda y
+ * una tabla de páginas que admita marcos compartidos.
+ *
+ * Con setBuddyAllocator la memoria la reparte un BuddyAllocator en lugar del
+ * mapa de bits: cada proceso recibe un bloque contiguo de 2^k marcos, y su
+ * PCB y los nodos de su tabla de páginas se toman de cachés slab (SlabCache)
+ * que también piden sus marcos al buddy. Así se ven la fragmentación interna
+ * y externa que la paginación esconde. No se combina con la paginación por
+ * demanda.
+ */
+public class MemoryManager implements Checkpointable {
+    public static final int DEFAULT_PAGE_SIZE = 256; // Tamaño de página en KB (256KB)
+    public static final int DEFAULT_FRAME_COUNT = 16; // Número de marcos en memoria física (16 marcos)
+    public static final int DEFAULT_FAULT_SERVICE_TICKS = 8; // Ticks para traer una página del disco
+    public static final int PCB_BYTES = 3072; // Tamaño simulado de un PCB en su caché slab
+    // Longitud de las cadenas sintéticas de los procesos sin traza
+    private static final int SYNTHETIC_REFERENCES = 4096;
     
-    private final Frame[] frames;
-    private final Map<Integer, List<Page>> processPages; // PID -> Lista de páginas
+    private int pageSize;
+    private int frameCount;
+    private Page[] frames;        // marco -> página que lo ocupa (null si está libre)
+    private FrameBitmap freeFrames;
+    private PageTable pageTable = new RadixPageTable();
+    private boolean pageTableConfigured = false;
+    
+    // Paginación por demanda (null = todas las páginas se cargan al admitir el proceso)
+    private ReplacementPolicy replacementPolicy = null;
+    private int faultServiceTicks = DEFAULT_FAULT_SERVICE_TICKS;
+    private long pageReferences = 0;
+    private long pageFaults = 0;
+    private long evictions = 0;
+    private long dirtyEvictions = 0;
+    private long faultServiceTotal = 0; // ticks de bloqueo sumados de todos los fallos
+    private int lastFaultTicks = 0;
+    
+    // Escrituras al disco de las páginas que salen, con o sin área de intercambio
+    private final Swapper swapper = new Swapper();
+    
+    // Marcos compartidos (null hasta el primer fork o biblioteca compartida)
+    private PageSharing sharing = null;
+    
+    // Conjuntos de trabajo (null = no se estiman)
+    private WorkingSetMonitor workingSets = null;
+    
+    // TLBs de los núcleos, para invalidar traducciones de páginas que salen
+    private final List<Tlb> tlbs = new ArrayList<>();
+    
+    // Asignador buddy con sus cachés slab (null = marcos sueltos del mapa de bits)
+    private ContiguousMemory contiguous = null;
     
     public MemoryManager() {
-        frames = new Frame[FRAME_COUNT];
-        for (int i = 0; i < FRAME_COUNT; i++) {
-            frames[i] = new Frame(i);
+        this(DEFAULT_FRAME_COUNT * DEFAULT_PAGE_SIZE / 1024, DEFAULT_PAGE_SIZE);
+    }
+    
+    /**
+     * Máquina con 'totalMemoryMB' de memoria física en páginas de 'pageSizeKB'
+     */
+    public MemoryManager(int totalMemoryMB, int pageSizeKB) {
+        if (totalMemoryMB <= 0 || pageSizeKB <= 0) {
+            throw new IllegalArgumentException("La memoria y el tamaño de página deben ser mayores que 0");
+        }
+        long frameTotal = (long) totalMemoryMB * 1024 / pageSizeKB;
+        if (frameTotal <= 0 || frameTotal > Integer.MAX_VALUE - 64) {
+            throw new IllegalArgumentException("Configuración de memoria inválida: " + totalMemoryMB +
+                                               "MB en páginas de " + pageSizeKB + "KB");
+        }
+        configure((int) frameTotal, pageSizeKB);
+        Logger.log("Sistema de memoria inicializado: " + frameCount + " marcos de " + pageSize + "KB (Total: " + getTotalMemory() + "MB)");
+    }
+    
+    private void configure(int frameTotal, int pageSizeKB) {
+        this.frameCount = frameTotal;
+        this.pageSize = pageSizeKB;
+        this.frames = new Page[frameTotal];
+        this.freeFrames = new FrameBitmap(frameTotal);
+        if (replacementPolicy != null) {
+            replacementPolicy.reset(frameTotal);
         }
-        processPages = new HashMap<>();
-        Logger.log("Sistema de memoria inicializado: " + FRAME_COUNT + " marcos de " + PAGE_SIZE + "KB (Total: " + getTotalMemory() + "MB)");
+    }
+    
+    /**
+     * Activa la paginación por demanda con la política indicada; cada fallo
+     * bloquea al proceso 'faultServiceTicks' ticks. Debe llamarse antes de
+     * asignar memoria a cualquier proceso.
+     */
+    public void setDemandPaging(ReplacementPolicy policy, int faultServiceTicks) {
+        if (pageTable.getProcessCount() > 0) {
+            throw new IllegalStateException("La paginación por demanda se configura antes de admitir procesos");
+        }
+        if (contiguous != null) {
+            throw new IllegalStateException("La paginación por demanda no se combina con el asignador buddy");
+        }
+        if (faultServiceTicks <= 0) {
+            throw new IllegalArgumentException("El tiempo de servicio de un fallo debe ser mayor que 0: " + faultServiceTicks);
+        }
+        this.replacementPolicy = policy;
+        this.faultServiceTicks = faultServiceTicks;
+        policy.reset(frameCount);
+        Logger.log("Paginación por demanda activada (" + policy.getName() + ", " + faultServiceTicks + " ticks por fallo)");
+    }
+    
+    public boolean isDemandPaging() {
+        return replacementPolicy != null;
+    }
+    
+    public ReplacementPolicy getReplacementPolicy() {
+        return replacementPolicy;
+    }
+    
+    public int getFaultServiceTicks() {
+        return faultServiceTicks;
+    }
+    
+    /**
+     * Ticks que tarda en leerse la página del último fallo de reference()
+     */
+    public int getLastFaultTicks() {
+        return lastFaultTicks;
+    }
+    
+    /**
+     * Ticks de bloqueo de todos los fallos de página
+     */
+    public long getFaultServiceTotal() {
+        return faultServiceTotal;
+    }
+    
+    /**
+     * Usa un área de intercambio para las páginas modificadas. Requiere
+     * paginación por demanda y debe llamarse antes de admitir procesos.
+     */
+    public void setSwap(SwapDevice swap) {
+        if (replacementPolicy == null) {
+            throw new IllegalStateException("El intercambio requiere paginación por demanda");
+        }
+        if (pageTable.getProcessCount() > 0) {
+            throw new IllegalStateException("El intercambio se configura antes de admitir procesos");
+        }
+        swapper.setDevice(swap);
+        Logger.log("Intercambio: " + swap.getSlotCount() + " ranuras de " + pageSize + "KB, " +
+                   swap.getTicksPerPage() + " ticks por página");
+    }
+    
+    /**
+     * Área de intercambio, o null si no hay
+     */
+    public SwapDevice getSwap() {
+        return swapper.getDevice();
+    }
+    
+    /**
+     * Cambia la estructura de las tablas de páginas; debe llamarse antes de
+     * asignar memoria a cualquier proceso
+     */
+    public void setPageTable(PageTable pageTable) {
+        if (this.pageTable.getProcessCount() > 0) {
+            throw new IllegalStateException("La tabla de páginas se configura antes de admitir procesos");
+        }
+        if (contiguous != null) {
+            throw new IllegalStateException("La tabla de páginas se configura antes del asignador buddy");
+        }
+        this.pageTable = pageTable;
+        pageTableConfigured = true;
+        Logger.log("Tabla de páginas: " + pageTable.getDescription());
+    }
+    
+    public PageTable getPageTable() {
+        return pageTable;
+    }
+    
+    /**
+     * Si la tabla de páginas se eligió con setPageTable (y no es la radix por omisión)
+     */
+    public boolean isPageTableConfigured() {
+        return pageTableConfigured;
+    }
+    
+    /**
+     * Reparte la memoria con un asignador buddy y toma el PCB y los nodos de
+     * la tabla de páginas de cachés slab. Debe llamarse después de
+     * setPageTable y antes de admitir procesos; no admite paginación por demanda.
+     */
+    public void setBuddyAllocator() {
+        if (replacementPolicy != null) {
+            throw new IllegalStateException("El asignador buddy no se combina con la paginación por demanda");
+        }
+        if (pageTable.getProcessCount() > 0) {
+            throw new IllegalStateException("El asignador buddy se configura antes de admitir procesos");
+        }
+        contiguous = new ContiguousMemory(frameCount, pageSize, pageTable);
+        SlabCache pcbCache = contiguous.getPcbCache();
+        Logger.log("Asignador buddy: " + frameCount + " marcos, bloque máximo de " + contiguous.getBuddy().getMaxBlockFrames() +
+                   "; slabs de " + pcbCache.getSlabFrames() + " marcos para " + pcbCache.getObjectsPerSlab() + " PCBs");
+    }
+    
+    /**
+     * Asignador buddy, o null si la memoria se reparte en marcos sueltos
+     */
+    public BuddyAllocator getBuddy() {
+        return contiguous != null ? contiguous.getBuddy() : null;
+    }
+    
+    /**
+     * Cachés slab del núcleo (vacía si no hay asignador buddy)
+     */
+    public List<SlabCache> getSlabCaches() {
+        List<SlabCache> caches = new ArrayList<>(2);
+        if (contiguous != null) {
+            caches.add(contiguous.getPcbCache());
+            if (contiguous.getNodeCache() != null) {
+                caches.add(contiguous.getNodeCache());
+            }
+        }
+        return caches;
+    }
+    
+    /**
+     * Procesos que tuvieron que esperar aunque había marcos libres suficientes,
+     * porque ningún bloque libre era del tamaño (fragmentación externa)
+     */
+    public long getFragmentationDelays() {
+        return contiguous != null ? contiguous.getFragmentationDelays() : 0;
+    }
+    
+    /**
+     * Si un proceso de 'memoryMB' podría recibir su bloque y sus objetos del
+     * núcleo alguna vez, con la memoria vacía
+     */
+    public boolean fitsContiguous(int memoryMB) {
+        return contiguous.fits(pagesFor(memoryMB));
+    }
+    
+    /**
+     * Marcos compartidos por fork y bibliotecas, o null si no hubo ninguno
+     */
+    public SharedFrames getSharing() {
+        return sharing != null ? sharing.getFrames() : null;
+    }
+    
+    private PageSharing sharing() {
+        if (sharing == null) {
+            sharing = new PageSharing(this);
+        }
+        return sharing;
+    }
+    
+    /**
+     * Estima el conjunto de trabajo y la frecuencia de fallos de cada proceso.
+     * Requiere paginación por demanda y debe llamarse antes de admitir procesos.
+     */
+    public void setWorkingSets(WorkingSetMonitor workingSets) {
+        if (replacementPolicy == null) {
+            throw new IllegalStateException("El conjunto de trabajo requiere paginación por demanda");
+        }
+        if (pageTable.getProcessCount() > 0) {
+            throw new IllegalStateException("El conjunto de trabajo se configura antes de admitir procesos");
+        }
+        this.workingSets = workingSets;
+        Logger.log("Conjunto de trabajo: ventana de " + workingSets.getWindow() + " referencias");
+    }
+    
+    /**
+     * Monitor de conjuntos de trabajo, o null si no se estiman
+     */
+    public WorkingSetMonitor getWorkingSets() {
+        return workingSets;
+    }
+    
+    /**
+     * Registra la TLB de un núcleo. Debe llamarse antes de asignar memoria a
+     * cualquier proceso, para que todos tengan cadena de referencias.
+     */
+    public void registerTlb(Tlb tlb) {
+        tlbs.add(tlb);
+    }
+    
+    /**
+     * Si los procesos hacen una referencia a memoria por tick de CPU
+     * (paginación por demanda o TLBs)
+     */
+    public boolean tracksReferences() {
+        return replacementPolicy != null || !tlbs.isEmpty();
+    }
+    
+    /**
+     * Accesos a memoria promedio para recorrer la tabla de páginas en un fallo de TLB
+     */
+    public double getPageTableWalkAccesses() {
+        return pageTable.getAverageWalkAccesses();
+    }
+    
+    /**
+     * Páginas que necesita un proceso de 'memoryMB' megabytes
+     */
+    public int pagesFor(int memoryMB) {
+        long memoryInKB = (long) memoryMB * 1024; // Convertir MB a KB
+        return (int) ((memoryInKB + pageSize - 1) / pageSize);
     }
     
     public boolean allocateMemory(PCB process) {
-        int memoryInKB = process.requiredMemory * 1024; // Convertir MB a KB
-        int requiredPages = (int) Math.ceil((double) memoryInKB / PAGE_SIZE);
+        int requiredPages = pagesFor(process.requiredMemory);
+        if (replacementPolicy != null) {
+            allocateVirtual(process, requiredPages);
+            return true;
+        }
+        if (contiguous != null) {
+            return allocateContiguous(process, requiredPages);
+        }
         
         // Verificar si hay suficientes marcos libres
-        int freeFrames = countFreeFrames();
-        if (freeFrames < requiredPages) {
-            Logger.log("No hay suficientes marcos libres para proceso " + process.pid + 
-                      " (requiere " + requiredPages + " páginas, hay " + freeFrames + " marcos libres)");
+        int freeFrameCount = freeFrames.getFreeCount();
+        if (freeFrameCount < requiredPages) {
+            Logger.log(Logger.Level.DEBUG, () -> "No hay suficientes marcos libres para proceso " + process.pid + 
+                      " (requiere " + requiredPages + " páginas, hay " + freeFrameCount + " marcos libres)");
             return false;
         }
         
-        // Crear y asignar páginas
-        List<Page> pages = new ArrayList<>();
-        int assignedPages = 0;
-        
-        for (int i = 0; i < FRAME_COUNT && assignedPages < requiredPages; i++) {
-            if (frames[i].isFree()) {
-                Page page = new Page(assignedPages, process.pid);
-                pages.add(page);
-                frames[i].assignPage(page);
-                assignedPages++;
-            }
+        // Crear y asignar páginas en los marcos libres de menor número
+        pageTable.addProcess(process.pid, requiredPages);
+        int frame = 0;
+        for (int assignedPages = 0; assignedPages < requiredPages; assignedPages++) {
+            frame = freeFrames.nextFree(frame);
+            place(new Page(assignedPages, process.pid, pageTable), frame);
         }
         
-        processPages.put(process.pid, pages);
-        Logger.log("Memoria asignada al proceso " + process.pid + ": " + 
+        if (!tlbs.isEmpty()) {
+            assignReferences(process, requiredPages);
+        }
+        Logger.log(Logger.Level.INFO, () -> "Memoria asignada al proceso " + process.pid + ": " + 
                   requiredPages + " páginas en " + requiredPages + " marcos");
         
         return true;
     }
     
-    public void releaseMemory(PCB process) {
-        List<Page> pages = processPages.get(process.pid);
-        if (pages != null) {
-            for (Page page : pages) {
-                // Buscar el marco que contiene esta página
-                for (Frame frame : frames) {
-                    if (frame.getPage() != null && 
-                        frame.getPage().getProcessId() == process.pid &&
-                        frame.getPage().getPageNumber() == page.getPageNumber()) {
-                        frame.release();
-                        break;
-                    }
-                }
+    // Asignador buddy: primero el bloque de las páginas, después el PCB y los nodos de la tabla
+    private boolean allocateContiguous(PCB process, int requiredPages) {
+        if (!contiguous.allocate(process.pid, requiredPages)) {
+            return false;
+        }
+        int block = contiguous.blockOf(process.pid);
+        pageTable.addProcess(process.pid, requiredPages);
+        for (int page = 0; page < requiredPages; page++) {
+            place(new Page(page, process.pid, pageTable), block + page);
+        }
+        if (!tlbs.isEmpty()) {
+            assignReferences(process, requiredPages);
+        }
+        Logger.log(Logger.Level.INFO, () -> "Memoria asignada al proceso " + process.pid + ": " + requiredPages +
+                  " páginas en el bloque de " + (requiredPages > 0 ? 1 << BuddyAllocator.orderFor(requiredPages) : 0) +
+                  " marcos que empieza en " + block);
+        return true;
+    }
+    
+    // Paginación por demanda: solo la tabla de páginas; ninguna está en memoria todavía
+    private void allocateVirtual(PCB process, int requiredPages) {
+        pageTable.addProcess(process.pid, requiredPages);
+        assignReferences(process, requiredPages);
+        if (workingSets != null) {
+            workingSets.addProcess(process.pid, requiredPages);
+        }
+        if (process.sharedLibrary != null) {
+            sharing().attach(process.pid, process.sharedLibrary, Math.min(process.sharedPages, requiredPages));
+        }
+        Logger.log(Logger.Level.INFO, () -> "Memoria virtual asignada al proceso " + process.pid + ": " +
+                  requiredPages + " páginas (se cargan por demanda)");
+    }
+    
+    // Cadena sintética para los procesos sin traza
+    private void assignReferences(PCB process, int requiredPages) {
+        if (process.pageReferences == null && requiredPages > 0) {
+            int length = SYNTHETIC_REFERENCES;
+            if (process.schedulingData != null && process.schedulingData.burstTime != null) {
+                length = Math.max(1, Math.min(length, process.schedulingData.burstTime));
             }
-            processPages.remove(process.pid);
-            Logger.log("Memoria liberada para proceso " + process.pid + ": " + 
-                      pages.size() + " páginas");
+            process.pageReferences = PageReferenceString.synthetic(requiredPages, length, process.pid);
         }
     }
     
-    public int countFreeFrames() {
-        int count = 0;
-        for (Frame frame : frames) {
-            if (frame.isFree()) {
-                count++;
+    /**
+     * Hace la siguiente referencia a memoria del proceso según su cadena de
+     * referencias y la registra en su traza de accesos. Devuelve false si fue
+     * un fallo de página: la página ya quedó cargada (reemplazando otra si
+     * hacía falta) y el proceso debe esperar a que termine de leerse.
+     * 'tlb' es la TLB del núcleo que ejecuta al proceso, o null.
+     */
+    public boolean reference(PCB process, int tick, Tlb tlb) {
+        long index = process.nextReferenceIndex();
+        int pageNumber = process.pageReferences.pageAt(index);
+        boolean write = process.pageReferences.isWriteAt(index);
+        if (pageNumber >= pageTable.getPageCount(process.pid)) {
+            throw new IllegalStateException("El proceso " + process.pid + " referencia la página " + pageNumber +
+                                            " fuera de su memoria");
+        }
+        pageReferences++;
+        boolean translated = tlb != null && tlb.lookup(process.pid, pageNumber);
+        if (tlb != null) {
+            if (translated) {
+                process.tlbHits++;
+            } else {
+                process.tlbMisses++;
+            }
+        }
+        // Con la traducción en la TLB no se recorre la tabla
+        int frame = translated ? pageTable.frameOf(process.pid, pageNumber) : pageTable.walk(process.pid, pageNumber);
+        if (frame < 0 && sharing != null) {
+            // La página de la biblioteca ya está en memoria: basta con mapearla
+            frame = sharing.mapLibraryPage(process.pid, pageNumber);
+        }
+        boolean hit = frame >= 0;
+        Page page;
+        if (hit) {
+            page = frames[frame];
+            if (replacementPolicy != null) {
+                replacementPolicy.pageAccessed(page, process, index);
+            }
+        } else {
+            page = new Page(pageNumber, process.pid, pageTable);
+            loadPage(page, process, index, tick);
+            if (sharing != null) {
+                sharing.pageLoaded(process.pid, pageNumber, page.getFrameNumber());
+            }
+        }
+        if (write && sharing != null) {
+            page = sharing.prepareWrite(page, process, index, tick);
+        }
+        if (workingSets != null) {
+            workingSets.record(process, index, pageNumber, !hit);
+        }
+        if (tlb != null && !translated) {
+            tlb.insert(process.pid, pageNumber);
+        }
+        page.setReferenced(true);
+        if (write) {
+            page.setDirty(true);
+        }
+        process.recordPageAccess(pageNumber, write, tick);
+        return hit;
+    }
+    
+    private void loadPage(Page page, PCB process, long index, int tick) {
+        pageFaults++;
+        process.pageFaults++;
+        int frame = takeFrame(tick);
+        place(page, frame);
+        replacementPolicy.pageLoaded(page, process, index);
+        // Las páginas con copia en el intercambio se leen de ahí, detrás de lo que haya en cola
+        boolean swapped = swapper.holds(process.pid, page.getPageNumber());
+        lastFaultTicks = swapped ? swapper.read(process.pid, page.getPageNumber(), tick) : faultServiceTicks;
+        faultServiceTotal += lastFaultTicks;
+        int loadedFrame = frame;
+        Logger.log(Logger.Level.DEBUG, () -> "Fallo de página: " + page + " se carga en el marco " + loadedFrame +
+                  (swapped ? " desde el intercambio (" + lastFaultTicks + " ticks)" : ""));
+    }
+    
+    // Primer marco libre o, si no hay, el de la víctima que elija la política
+    int takeFrame(long tick) {
+        int frame = freeFrames.nextFree(0);
+        if (frame < 0) {
+            Page victim = replacementPolicy.selectVictim();
+            frame = victim.getFrameNumber();
+            evict(victim, tick);
+        }
+        return frame;
+    }
+    
+    private void evict(Page victim, long tick) {
+        int frame = victim.getFrameNumber();
+        evictions++;
+        // Los demás procesos que compartían el marco también pierden la página
+        List<Integer> sharers = sharing != null ? sharing.removeAll(frame) : List.of();
+        if (victim.isDirty()) {
+            dirtyEvictions++; // se escribe al disco antes de reutilizar el marco
+            swapper.write(victim.getProcessId(), victim.getPageNumber(), tick);
+            for (int pid : sharers) {
+                swapper.write(pid, victim.getPageNumber(), tick);
             }
         }
-        return count;
+        for (int pid : sharers) {
+            pageTable.unmap(pid, victim.getPageNumber());
+            for (Tlb tlb : tlbs) {
+                tlb.shootDown(pid, victim.getPageNumber());
+            }
+        }
+        if (sharing != null) {
+            sharing.frameReleased(victim.getProcessId(), victim.getPageNumber(), frame);
+        }
+        pageTable.unmap(victim.getProcessId(), victim.getPageNumber());
+        frames[frame] = null;
+        freeFrames.release(frame);
+        victim.setFrameNumber(-1);
+        for (Tlb tlb : tlbs) {
+            tlb.shootDown(victim.getProcessId(), victim.getPageNumber());
+        }
+        Logger.log(Logger.Level.DEBUG, () -> "Reemplazo (" + replacementPolicy.getName() + "): sale " + victim +
+                  " del marco " + frame);
+    }
+    
+    void place(Page page, int frame) {
+        frames[frame] = page;
+        freeFrames.allocate(frame);
+        page.setFrameNumber(frame);
+        pageTable.map(page.getProcessId(), page.getPageNumber(), frame);
+    }
+    
+    public void releaseMemory(PCB process) {
+        int pageCount = pageTable.getPageCount(process.pid);
+        if (pageCount >= 0) {
+            pageTable.removeProcess(process.pid, frame -> dropFrame(process.pid, frame));
+            Logger.log(Logger.Level.INFO, () -> "Memoria liberada para proceso " + process.pid + ": " + 
+                      pageCount + " páginas");
+        }
+        if (contiguous != null) {
+            contiguous.release(process.pid);
+        }
+        if (sharing != null) {
+            sharing.detach(process.pid);
+        }
+        if (pageCount >= 0) {
+            swapper.removeProcess(process.pid, pageCount);
+        }
+        if (workingSets != null) {
+            workingSets.removeProcess(process.pid);
+        }
+    }
+    
+    /**
+     * Saca de memoria todas las páginas del proceso suspendido; las
+     * modificadas se escriben al disco (al intercambio, si hay) a partir de
+     * 'tick'. Conserva su tabla vacía y su conjunto de trabajo, que deja de
+     * contar en la demanda.
+     */
+    public void swapOut(PCB process, long tick) {
+        int pageCount = pageTable.getPageCount(process.pid);
+        if (pageCount < 0) {
+            return;
+        }
+        long before = swapper.getSwappedOutPages();
+        pageTable.removeProcess(process.pid, frame -> {
+            swapper.pageSwappedOut(process.pid, frames[frame], tick);
+            dropFrame(process.pid, frame);
+        });
+        pageTable.addProcess(process.pid, pageCount);
+        if (workingSets != null) {
+            workingSets.setActive(process.pid, false);
+        }
+        long pages = swapper.getSwappedOutPages() - before;
+        Logger.log(Logger.Level.INFO, () -> "Proceso " + process.pid + " descargado de memoria: " + pages + " páginas");
+    }
+    
+    // El proceso deja el marco: si otros lo comparten sigue en memoria para ellos; si no, queda libre
+    private void dropFrame(int pid, int frame) {
+        Page page = frames[frame];
+        invalidateTlbs(pid, page.getPageNumber());
+        if (sharing != null && sharing.leaveIfShared(pid, frame)) {
+            return;
+        }
+        if (replacementPolicy != null) {
+            replacementPolicy.pageRemoved(page);
+        }
+        if (sharing != null) {
+            sharing.frameReleased(pid, page.getPageNumber(), frame);
+        }
+        frames[frame] = null;
+        freeFrames.release(frame);
+        page.setFrameNumber(-1);
+    }
+    
+    /**
+     * El proceso vuelve a competir por marcos; sus páginas entran por demanda
+     */
+    public void swapIn(PCB process) {
+        if (workingSets != null) {
+            workingSets.setActive(process.pid, true);
+        }
+    }
+    
+    /**
+     * Crea la memoria del hijo de un fork: una tabla del mismo tamaño que la
+     * del padre con sus páginas residentes en los mismos marcos, de solo
+     * lectura para los dos hasta que alguno escriba. Las páginas que el padre
+     * no tiene en memoria el hijo las carga por su cuenta.
+     */
+    public void fork(PCB parent, PCB child) {
+        int pageCount = pageTable.getPageCount(parent.pid);
+        if (pageCount < 0) {
+            throw new IllegalStateException("El proceso " + parent.pid + " no tiene memoria asignada");
+        }
+        sharing().fork(parent, child, pageCount);
+    }
+    
+    /**
+     * Página que ocupa el marco, o null si está libre
+     */
+    Page frameAt(int frame) {
+        return frames[frame];
+    }
+    
+    // Borra la traducción de la página del proceso en todas las TLBs
+    void invalidateTlbs(int pid, int pageNumber) {
+        for (Tlb tlb : tlbs) {
+            tlb.invalidate(pid, pageNumber);
+        }
+    }
+    
+    public int countFreeFrames() {
+        return contiguous != null ? contiguous.getBuddy().getFreeFrames() : freeFrames.getFreeCount();
+    }
+    
+    /**
+     * Cambia cada vez que puede cambiar el resultado de allocateMemory(): los
+     * marcos libres o, con el asignador buddy, cualquier asignación o liberación
+     */
+    public long getAllocationState() {
+        return contiguous != null ? contiguous.getBuddy().getOperations() : freeFrames.getFreeCount();
+    }
+    
+    /**
+     * Referencias a memoria hechas (una por tick de CPU) con paginación por demanda o TLB
+     */
+    public long getPageReferences() {
+        return pageReferences;
+    }
+    
+    public long getPageFaults() {
+        return pageFaults;
+    }
+    
+    /**
+     * Páginas que salieron de memoria para dejar su marco a otra
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+    
+    /**
+     * Reemplazos de páginas modificadas, que hubo que escribir al disco
+     */
+    public long getDirtyEvictions() {
+        return dirtyEvictions;
+    }
+    
+    /**
+     * Páginas que salieron de memoria al suspender procesos con swapOut()
+     */
+    public long getSwappedOutPages() {
+        return swapper.getSwappedOutPages();
+    }
+    
+    /**
+     * De esas, las modificadas que hubo que escribir al disco
+     */
+    public long getSwapWrites() {
+        return swapper.getSwapWrites();
+    }
+    
+    public int getFrameCount() {
+        return frameCount;
+    }
+    
+    public int getPageSize() {
+        return pageSize;
     }
     
     public List<MemoryAllocation> getMemoryMap() {
         List<MemoryAllocation> allocations = new ArrayList<>();
-        for (Frame frame : frames) {
-            Page page = frame.getPage();
+        for (int frame = 0; frame < frameCount; frame++) {
+            Page page = frames[frame];
             if (page != null) {
                 allocations.add(new MemoryAllocation(
-                    frame.getFrameNumber(),
+                    frame,
                     page.getProcessId(),
                     page.getPageNumber()
                 ));
             } else {
                 allocations.add(new MemoryAllocation(
-                    frame.getFrameNumber(),
+                    frame,
                     -1,  // No hay proceso
                     -1   // No hay página
                 ));
@@ -120,15 +740,118 @@ public class MemoryManager {
     }
     
     public int getTotalMemory() {
-        return FRAME_COUNT * PAGE_SIZE / 1024; // Convertir a MB
+        return (int) ((long) frameCount * pageSize / 1024); // Convertir a MB
     }
     
     public int getUsedMemory() {
-        int usedFrames = FRAME_COUNT - countFreeFrames();
-        return usedFrames * PAGE_SIZE / 1024; // Convertir a MB
+        int usedFrames = frameCount - countFreeFrames();
+        return (int) ((long) usedFrames * pageSize / 1024); // Convertir a MB
     }
     
     public int getFreeMemory() {
-        return countFreeFrames() * PAGE_SIZE / 1024; // Convertir a MB
+        return (int) ((long) countFreeFrames() * pageSize / 1024); // Convertir a MB
+    }
+    
+    @Override
+    public void writeState(CheckpointOutput out) throws IOException {
+        out.writeInt(frameCount);
+        out.writeInt(pageSize);
+        out.writeString(replacementPolicy != null ? replacementPolicy.getName() : null);
+        out.writeInt(faultServiceTicks);
+        out.writeLong(pageReferences);
+        out.writeLong(pageFaults);
+        out.writeLong(evictions);
+        out.writeLong(dirtyEvictions);
+        
+        // Las tablas guardan los bits; los marcos ocupados vuelven a tener su Page
+        out.writeString(pageTable.getSpec());
+        out.writeBoolean(pageTableConfigured);
+        pageTable.writeState(out);
+        out.writeInt(frameCount - freeFrames.getFreeCount());
+        for (int frame = 0; frame < frameCount; frame++) {
+            if (frames[frame] == null) {
+                continue;
+            }
+            out.writeInt(frame);
+            out.writeInt(frames[frame].getProcessId());
+            out.writeInt(frames[frame].getPageNumber());
+        }
+        if (replacementPolicy != null) {
+            replacementPolicy.writeState(out);
+        }
+        
+        out.writeLong(faultServiceTotal);
+        swapper.writeState(out);
+        out.writeBoolean(workingSets != null);
+        if (workingSets != null) {
+            out.writeInt(workingSets.getWindow());
+            out.writeLong(Double.doubleToLongBits(workingSets.getHighFaultRate()));
+            out.writeLong(Double.doubleToLongBits(workingSets.getLowFaultRate()));
+            workingSets.writeState(out);
+        }
+        out.writeBoolean(sharing != null);
+        if (sharing != null) {
+            sharing.writeState(out);
+        }
+        out.writeBoolean(contiguous != null);
+        if (contiguous != null) {
+            contiguous.writeState(out);
+        }
+    }
+    
+    @Override
+    public void readState(CheckpointInput in, IntFunction<PCB> processes) throws IOException {
+        // Se adopta la configuración de la máquina guardada
+        int savedFrames = in.readInt();
+        int savedPageSize = in.readInt();
+        if (savedFrames <= 0 || savedPageSize <= 0) {
+            throw new IOException("Configuración de memoria inválida en el checkpoint: " +
+                                  savedFrames + " marcos de " + savedPageSize + "KB");
+        }
+        String policyName = in.readString();
+        replacementPolicy = policyName != null ? ReplacementPolicyFactory.fromName(policyName) : null;
+        faultServiceTicks = in.readInt();
+        pageReferences = in.readLong();
+        pageFaults = in.readLong();
+        evictions = in.readLong();
+        dirtyEvictions = in.readLong();
+        configure(savedFrames, savedPageSize);
+        pageTable = PageTableFactory.fromSpec(in.readString(), savedFrames);
+        pageTableConfigured = in.readBoolean();
+        pageTable.readState(in);
+        
+        int used = in.readInt();
+        for (int i = 0; i < used; i++) {
+            int frame = in.readInt();
+            int pid = in.readInt();
+            Page page = new Page(in.readInt(), pid, pageTable);
+            frames[frame] = page;
+            freeFrames.allocate(frame);
+            page.setFrameNumber(frame);
+        }
+        if (replacementPolicy != null) {
+            replacementPolicy.readState(in, (pid, pageNumber) -> frames[pageTable.frameOf(pid, pageNumber)], processes);
+        }
+        
+        faultServiceTotal = in.readLong();
+        swapper.readState(in, savedPageSize);
+        workingSets = null;
+        if (in.readBoolean()) {
+            int window = in.readInt();
+            double high = Double.longBitsToDouble(in.readLong());
+            workingSets = new WorkingSetMonitor(window, high, Double.longBitsToDouble(in.readLong()));
+            workingSets.readState(in);
+        }
+        sharing = null;
+        if (in.readBoolean()) {
+            sharing = new PageSharing(this);
+            sharing.readState(in);
+        }
+        contiguous = null;
+        if (in.readBoolean()) {
+            // Las cachés dependen de la tabla de páginas y el tamaño de página ya restaurados
+            contiguous = new ContiguousMemory(savedFrames, savedPageSize, pageTable);
+            contiguous.readState(in);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,116 @@
+package memory;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+import models.PCB;
+import persistence.CheckpointInput;
+import persistence.CheckpointOutput;
+
+/**
+ * OPT (Belady): sale la página que más tardará en volver a usarse. Solo es
+ * posible fuera de línea, porque mira la cadena de referencias completa de
+ * cada proceso; sirve como cota inferior de fallos para comparar las otras
+ * políticas. La espera se mide en referencias que le faltan al dueño de la
+ * página, así que con un solo proceso es el óptimo exacto y con varios una
+ * aproximación (el orden entre procesos depende de la planificación). Un
+ * marco compartido se mide en la cadena del último proceso que lo usó.
+ *
+ * Elegir víctima recorre las páginas residentes: O(marcos) por fallo.
+ */
+public class OptimalReplacement implements ReplacementPolicy {
+    // Páginas residentes en orden de carga
+    private final Map<Page, Use> nextUse = new LinkedHashMap<>();
+
+    private static class Use {
+        PCB owner;
+        long position; // siguiente uso en la cadena del dueño
+
+        Use(PCB owner, long position) {
+            this.owner = owner;
+            this.position = position;
+        }
+    }
+
+    @Override
+    public void reset(int frameCount) {
+        nextUse.clear();
+    }
+
+    @Override
+    public void pageLoaded(Page page, PCB process, long index) {
+        pageAccessed(page, process, index);
+    }
+
+    @Override
+    public void pageAccessed(Page page, PCB process, long index) {
+        long position = process.pageReferences.nextUse(index);
+        Use use = nextUse.get(page);
+        if (use != null) {
+            use.owner = process;
+            use.position = position;
+        } else {
+            nextUse.put(page, new Use(process, position));
+        }
+    }
+
+    @Override
+    public void pageRemoved(Page page) {
+        nextUse.remove(page);
+    }
+
+    @Override
+    public Page selectVictim() {
+        Page victim = null;
+        long farthest = -1;
+        for (Map.Entry<Page, Use> entry : nextUse.entrySet()) {
+            long distance = distance(entry.getValue());
+            if (distance > farthest) {
+                farthest = distance;
+                victim = entry.getKey();
+            }
+            if (distance == Long.MAX_VALUE) {
+                break;
+            }
+        }
+        nextUse.remove(victim);
+        return victim;
+    }
+
+    // Referencias que le faltan al dueño para volver a usar la página (MAX_VALUE si ya no la usará)
+    private static long distance(Use use) {
+        PCB owner = use.owner;
+        long distance = use.position - owner.nextReferenceIndex();
+        Integer remaining = owner.schedulingData != null ? owner.schedulingData.remainingTime : null;
+        return remaining != null && distance >= remaining ? Long.MAX_VALUE : distance;
+    }
+
+    @Override
+    public String getName() {
+        return "OPT";
+    }
+
+    @Override
+    public void writeState(CheckpointOutput out) throws IOException {
+        out.writeInt(nextUse.size());
+        for (Map.Entry<Page, Use> entry : nextUse.entrySet()) {
+            out.writeInt(entry.getKey().getProcessId());
+            out.writeInt(entry.getKey().getPageNumber());
+            out.writeInt(entry.getValue().owner.pid);
+            out.writeLong(entry.getValue().position);
+        }
+    }
+
+    @Override
+    public void readState(CheckpointInput in, PageLookup pages, IntFunction<PCB> processes) throws IOException {
+        reset(0);
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            int pid = in.readInt();
+            Page page = pages.find(pid, in.readInt());
+            PCB owner = processes.apply(in.readInt());
+            nextUse.put(page, new Use(owner, in.readLong()));
+        }
+    }
+}
@@ -1,37 +1,76 @@
 package memory;
 
 /**
- * Representa una página en la memoria virtual de un proceso
+ * Descriptor de una página residente: solo existe mientras la página ocupa
+ * un marco. Los bits de referencia y modificación viven en la entrada de la
+ * tabla de páginas; estos métodos los leen y escriben ahí. Si el marco está
+ * compartido, el Page es de uno de los procesos que lo usan (el dueño) y
+ * los bits son los de su entrada.
  */
 public class Page {
     private final int pageNumber;
-    private final int processId;
-    private boolean isInMemory;
-    
-    public Page(int pageNumber, int processId) {
+    private int processId;
+    private final PageTable table;
+    private int frameNumber = -1; // marco que ocupa (-1 si ya salió de memoria)
+
+    public Page(int pageNumber, int processId, PageTable table) {
         this.pageNumber = pageNumber;
         this.processId = processId;
-        this.isInMemory = true;
+        this.table = table;
     }
-    
+
     public int getPageNumber() {
         return pageNumber;
     }
-    
+
     public int getProcessId() {
         return processId;
     }
-    
+
+    /**
+     * El marco compartido pasa a otro de los procesos que lo usan (el dueño
+     * lo dejó); sus bits se copian a la entrada del nuevo dueño
+     */
+    public void reassign(int processId) {
+        boolean referenced = isReferenced();
+        boolean dirty = isDirty();
+        this.processId = processId;
+        setReferenced(referenced);
+        setDirty(dirty);
+    }
+
     public boolean isInMemory() {
-        return isInMemory;
+        return frameNumber >= 0;
     }
-    
-    public void setInMemory(boolean inMemory) {
-        isInMemory = inMemory;
+
+    public int getFrameNumber() {
+        return frameNumber;
+    }
+
+    public void setFrameNumber(int frameNumber) {
+        this.frameNumber = frameNumber;
     }
-    
+
+    // Bit de referencia (lo limpia el reloj)
+    public boolean isReferenced() {
+        return table.hasFlag(processId, pageNumber, PageTable.REFERENCED);
+    }
+
+    public void setReferenced(boolean referenced) {
+        table.setFlag(processId, pageNumber, PageTable.REFERENCED, referenced);
+    }
+
+    // Modificada desde que se cargó
+    public boolean isDirty() {
+        return table.hasFlag(processId, pageNumber, PageTable.DIRTY);
+    }
+
+    public void setDirty(boolean dirty) {
+        table.setFlag(processId, pageNumber, PageTable.DIRTY, dirty);
+    }
+
     @Override
     public String toString() {
         return "P" + processId + ":Pág" + pageNumber;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,181 @@
+package memory;
+
+import core.Logger;
+import java.io.IOException;
+import java.util.List;
+import models.PCB;
+import persistence.CheckpointInput;
+import persistence.CheckpointOutput;
+
+/**
+ * Marcos compartidos de un MemoryManager: fork(), las bibliotecas
+ * compartidas y la copia en escritura. Lleva los SharedFrames y hace los
+ * cambios en la tabla de páginas y en los marcos que implican. Se crea con
+ * el primer fork o biblioteca; requiere paginación por demanda y una tabla
+ * de páginas que admita marcos compartidos.
+ */
+class PageSharing {
+    private final MemoryManager memory;
+    private final PageTable pageTable;
+    private final SharedFrames frames = new SharedFrames();
+
+    PageSharing(MemoryManager memory) {
+        if (!memory.isDemandPaging()) {
+            throw new IllegalStateException("Compartir marcos requiere paginación por demanda");
+        }
+        PageTable pageTable = memory.getPageTable();
+        if (!pageTable.supportsSharedFrames()) {
+            throw new IllegalStateException("La tabla de páginas (" + pageTable.getDescription() +
+                                            ") no admite marcos compartidos");
+        }
+        this.memory = memory;
+        this.pageTable = pageTable;
+    }
+
+    SharedFrames getFrames() {
+        return frames;
+    }
+
+    void attach(int pid, String library, int pages) {
+        frames.attach(pid, library, pages);
+    }
+
+    void detach(int pid) {
+        frames.detach(pid);
+    }
+
+    /**
+     * Si la página es de una biblioteca que ya está en memoria, la mapea en
+     * su marco y lo devuelve; si no, -1
+     */
+    int mapLibraryPage(int pid, int pageNumber) {
+        int frame = frames.libraryFrame(pid, pageNumber);
+        if (frame >= 0) {
+            frames.addSharer(frame, pid);
+            frames.recordLibraryMapping();
+            pageTable.map(pid, pageNumber, frame);
+        }
+        return frame;
+    }
+
+    void pageLoaded(int pid, int pageNumber, int frame) {
+        frames.pageLoaded(pid, pageNumber, frame);
+    }
+
+    /**
+     * Página en la que escribe el proceso: la misma o, si era de solo
+     * lectura, la que le deja la copia en escritura
+     */
+    Page prepareWrite(Page page, PCB process, long index, int tick) {
+        if (!frames.isReadOnly(process.pid, page.getPageNumber(), page.getFrameNumber())) {
+            return page;
+        }
+        return copyOnWrite(page, process, index, tick);
+    }
+
+    /**
+     * Escritura en un marco de solo lectura: si alguien más lo usa, el
+     * proceso lo deja y se queda con una copia en otro marco; si no, el
+     * marco pasa a ser suyo tal cual
+     */
+    private Page copyOnWrite(Page shared, PCB process, long index, int tick) {
+        int frame = shared.getFrameNumber();
+        int pageNumber = shared.getPageNumber();
+        frames.makePrivate(process.pid, pageNumber, frame);
+        if (!frames.isShared(frame)) {
+            frames.recordReuse();
+            return shared;
+        }
+        leave(process.pid, frame);
+        pageTable.unmap(process.pid, pageNumber);
+        memory.invalidateTlbs(process.pid, pageNumber);
+        Page copy = new Page(pageNumber, process.pid, pageTable);
+        memory.place(copy, memory.takeFrame(tick));
+        memory.getReplacementPolicy().pageLoaded(copy, process, index);
+        frames.recordCopy();
+        Logger.log(Logger.Level.DEBUG, () -> "Copia en escritura: " + copy + " deja el marco " + frame +
+                  " y pasa al " + copy.getFrameNumber());
+        return copy;
+    }
+
+    /**
+     * El proceso deja el marco si otros lo comparten (y si era su dueño, lo
+     * hereda otro); devuelve false si el marco era solo suyo
+     */
+    boolean leaveIfShared(int pid, int frame) {
+        if (!frames.isShared(frame)) {
+            return false;
+        }
+        leave(pid, frame);
+        return true;
+    }
+
+    private void leave(int pid, int frame) {
+        Page page = memory.frameAt(frame);
+        if (page.getProcessId() == pid) {
+            page.reassign(frames.takeOwnership(frame));
+        } else {
+            frames.removeSharer(frame, pid);
+        }
+    }
+
+    /**
+     * Quita a todos los que compartían el marco además del dueño y los devuelve
+     */
+    List<Integer> removeAll(int frame) {
+        return frames.removeAll(frame);
+    }
+
+    void frameReleased(int pid, int pageNumber, int frame) {
+        frames.frameReleased(pid, pageNumber, frame);
+    }
+
+    /**
+     * Ver MemoryManager.fork(); 'pageCount' es el tamaño de la tabla del padre
+     */
+    void fork(PCB parent, PCB child, int pageCount) {
+        pageTable.addProcess(child.pid, pageCount);
+        WorkingSetMonitor workingSets = memory.getWorkingSets();
+        if (workingSets != null) {
+            workingSets.addProcess(child.pid, pageCount);
+        }
+        frames.inherit(parent.pid, child.pid);
+        int frameCount = memory.getFrameCount();
+        int shared = 0;
+        if (pageCount < frameCount) {
+            // Menos páginas que marcos: se pregunta por cada una
+            for (int pageNumber = 0; pageNumber < pageCount; pageNumber++) {
+                int frame = pageTable.frameOf(parent.pid, pageNumber);
+                if (frame >= 0) {
+                    share(frame, child.pid);
+                    shared++;
+                }
+            }
+        } else {
+            for (int frame = 0; frame < frameCount; frame++) {
+                Page page = memory.frameAt(frame);
+                if (page != null && (page.getProcessId() == parent.pid || frames.isSharer(frame, parent.pid))) {
+                    share(frame, child.pid);
+                    shared++;
+                }
+            }
+        }
+        frames.recordFork(shared);
+        int sharedPages = shared;
+        Logger.log(Logger.Level.INFO, () -> "Proceso " + child.pid + " creado con fork del proceso " + parent.pid +
+                  ": comparte " + sharedPages + " marcos");
+    }
+
+    private void share(int frame, int pid) {
+        frames.addSharer(frame, pid);
+        pageTable.map(pid, memory.frameAt(frame).getPageNumber(), frame);
+    }
+
+    void writeState(CheckpointOutput out) throws IOException {
+        frames.writeState(out);
+    }
+
+    void readState(CheckpointInput in) throws IOException {
+        frames.readState(in);
+    }
+}
@@ -0,0 +1,108 @@
+package memory;
+
+import java.io.IOException;
+import java.util.function.IntConsumer;
+import persistence.CheckpointInput;
+import persistence.CheckpointOutput;
+
+/**
+ * Tablas de páginas de todos los procesos. Cada entrada es un entero con el
+ * marco y los bits de presente, referenciada y modificada; solo las páginas
+ * residentes tienen objeto Page (el descriptor de su marco), así que un
+ * proceso con un espacio virtual enorme y poco usado no cuesta más que las
+ * entradas que de verdad toca.
+ *
+ * walk() es el recorrido que hace la MMU en un fallo de TLB y cuenta sus
+ * accesos a memoria; frameOf() y los bits son consultas del sistema
+ * operativo y no cuentan.
+ */
+public interface PageTable {
+    int REFERENCED = 1;
+    int DIRTY = 2;
+
+    // Tamaño simulado de una entrada
+    int ENTRY_BYTES = 4;
+
+    /**
+     * Crea la tabla (vacía) de un proceso con 'pages' páginas virtuales
+     */
+    void addProcess(int pid, int pages);
+
+    /**
+     * Páginas virtuales del proceso, o -1 si no tiene tabla
+     */
+    int getPageCount(int pid);
+
+    int getProcessCount();
+
+    /**
+     * Borra la tabla del proceso; antes entrega a 'residentFrame' cada marco
+     * que ocupaba, con los bits de su página todavía consultables
+     */
+    void removeProcess(int pid, IntConsumer residentFrame);
+
+    /**
+     * Recorrido de la MMU: marco de la página o -1 si no está presente
+     */
+    int walk(int pid, int page);
+
+    /**
+     * Igual que walk() pero sin contar accesos
+     */
+    int frameOf(int pid, int page);
+
+    /**
+     * La página pasa a estar presente en el marco, con los bits apagados
+     */
+    void map(int pid, int page, int frame);
+
+    /**
+     * La página deja de estar presente
+     */
+    void unmap(int pid, int page);
+
+    /**
+     * Si varias entradas (de distintos procesos) pueden apuntar al mismo marco
+     */
+    boolean supportsSharedFrames();
+
+    /**
+     * Nodos que ocupa la tabla de un proceso de 'pages' páginas con todas
+     * mapeadas, y bytes de cada uno (0 si la tabla no tiene nodos por proceso)
+     */
+    int nodesFor(int pages);
+
+    int getNodeBytes();
+
+    boolean hasFlag(int pid, int page, int flag);
+
+    void setFlag(int pid, int page, int flag, boolean value);
+
+    /**
+     * Bytes que ocupan ahora las tablas
+     */
+    long getBytes();
+
+    /**
+     * Mayor valor que tuvo getBytes()
+     */
+    long getPeakBytes();
+
+    long getWalks();
+
+    /**
+     * Accesos a memoria promedio por recorrido (0 si no hubo)
+     */
+    double getAverageWalkAccesses();
+
+    /**
+     * Especificación con la que se vuelve a construir (ver PageTableFactory)
+     */
+    String getSpec();
+
+    String getDescription();
+
+    void writeState(CheckpointOutput out) throws IOException;
+
+    void readState(CheckpointInput in) throws IOException;
+}
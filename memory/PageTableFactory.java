@@ -0,0 +1,30 @@
+package memory;
+
+/**
+ * Construye tablas de páginas por especificación: "radix[:bits por nivel]"
+ * (9 bits por omisión) o "inverted" (o "invertida") para una memoria de
+ * 'frameCount' marcos.
+ */
+public class PageTableFactory {
+
+    public static PageTable fromSpec(String spec, int frameCount) {
+        String[] parts = spec.trim().toLowerCase().split(":", 2);
+        switch (parts[0]) {
+            case "radix":
+                if (parts.length == 1) {
+                    return new RadixPageTable();
+                }
+                try {
+                    return new RadixPageTable(Integer.parseInt(parts[1].trim()));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Bits por nivel inválidos: " + parts[1]);
+                }
+            case "inverted":
+            case "invertida":
+                return new InvertedPageTable(frameCount);
+            default:
+                throw new IllegalArgumentException("Tabla de páginas no válida: " + spec +
+                        " (use radix[:bits] o inverted)");
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package memory;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.function.IntConsumer;
+import persistence.CheckpointInput;
+import persistence.CheckpointOutput;
+
+/**
+ * Tabla de páginas multinivel (árbol radix) por proceso, como la de x86-64:
+ * cada nivel usa 'bitsPerLevel' bits del número de página y un proceso
+ * tiene los niveles que hagan falta para cubrir su espacio virtual. Los
+ * nodos intermedios y las hojas se crean la primera vez que se mapea una
+ * página debajo de ellos, así que un espacio enorme y disperso solo paga
+ * por las zonas que usa. Un recorrido cuesta un acceso por nivel.
+ *
+ * Entrada de hoja: marco << 3 | presente | modificada | referenciada.
+ */
+public class RadixPageTable implements PageTable {
+    public static final int DEFAULT_BITS_PER_LEVEL = 9;
+
+    private static final int PRESENT = 4;
+    private static final int FRAME_SHIFT = 3;
+    private static final int MAX_FRAMES = 1 << (31 - FRAME_SHIFT);
+
+    private final int bitsPerLevel;
+    private final Map<Integer, Tree> trees = new HashMap<>();
+    private long bytes = 0;
+    private long peakBytes = 0;
+    private long walks = 0;
+    private long walkAccesses = 0;
+
+    // Tabla de un proceso: la raíz es Object[] (nodo intermedio) o int[] si hay un solo nivel
+    private static class Tree {
+        final int pages;
+        final int levels;
+        final int topBits;
+        Object root;
+
+        Tree(int pages, int levels, int topBits) {
+            this.pages = pages;
+            this.levels = levels;
+            this.topBits = topBits;
+        }
+    }
+
+    public RadixPageTable() {
+        this(DEFAULT_BITS_PER_LEVEL);
+    }
+
+    public RadixPageTable(int bitsPerLevel) {
+        if (bitsPerLevel < 1 || bitsPerLevel > 16) {
+            throw new IllegalArgumentException("Bits por nivel fuera de rango (1-16): " + bitsPerLevel);
+        }
+        this.bitsPerLevel = bitsPerLevel;
+    }
+
+    @Override
+    public void addProcess(int pid, int pages) {
+        int totalBits = Math.max(1, 32 - Integer.numberOfLeadingZeros(Math.max(0, pages - 1)));
+        int levels = (totalBits + bitsPerLevel - 1) / bitsPerLevel;
+        Tree tree = new Tree(pages, levels, totalBits - (levels - 1) * bitsPerLevel);
+        if (pages > 0) {
+            tree.root = newNode(tree, 0);
+        }
+        trees.put(pid, tree);
+    }
+
+    @Override
+    public int getPageCount(int pid) {
+        Tree tree = trees.get(pid);
+        return tree != null ? tree.pages : -1;
+    }
+
+    @Override
+    public int getProcessCount() {
+        return trees.size();
+    }
+
+    private Object newNode(Tree tree, int depth) {
+        int size = 1 << (depth == 0 ? tree.topBits : bitsPerLevel);
+        bytes += (long) size * ENTRY_BYTES;
+        peakBytes = Math.max(peakBytes, bytes);
+        return depth == tree.levels - 1 ? new int[size] : new Object[size];
+    }
+
+    private int index(Tree tree, int depth, int page) {
+        int bits = depth == 0 ? tree.topBits : bitsPerLevel;
+        return (page >>> ((tree.levels - 1 - depth) * bitsPerLevel)) & ((1 << bits) - 1);
+    }
+
+    // Hoja que cubre la página; con 'create' se crean los nodos que falten
+    private int[] leaf(int pid, int page, boolean create) {
+        Tree tree = trees.get(pid);
+        if (tree == null || tree.root == null) {
+            return null;
+        }
+        Object node = tree.root;
+        for (int depth = 0; depth < tree.levels - 1; depth++) {
+            Object[] inner = (Object[]) node;
+            int index = index(tree, depth, page);
+            if (inner[index] == null) {
+                if (!create) {
+                    return null;
+                }
+                inner[index] = newNode(tree, depth + 1);
+            }
+            node = inner[index];
+        }
+        return (int[]) node;
+    }
+
+    private int leafIndex(int pid, int page) {
+        Tree tree = trees.get(pid);
+        return index(tree, tree.levels - 1, page);
+    }
+
+    @Override
+    public void removeProcess(int pid, IntConsumer residentFrame) {
+        Tree tree = trees.get(pid);
+        if (tree != null && tree.root != null) {
+            release(tree.root, residentFrame);
+        }
+        trees.remove(pid);
+    }
+
+    private void release(Object node, IntConsumer residentFrame) {
+        if (node instanceof int[]) {
+            for (int entry : (int[]) node) {
+                if ((entry & PRESENT) != 0) {
+                    residentFrame.accept(entry >>> FRAME_SHIFT);
+                }
+            }
+            bytes -= (long) ((int[]) node).length * ENTRY_BYTES;
+            return;
+        }
+        for (Object child : (Object[]) node) {
+            if (child != null) {
+                release(child, residentFrame);
+            }
+        }
+        bytes -= (long) ((Object[]) node).length * ENTRY_BYTES;
+    }
+
+    @Override
+    public int walk(int pid, int page) {
+        walks++;
+        Tree tree = trees.get(pid);
+        Object node = tree.root;
+        for (int depth = 0; depth < tree.levels - 1; depth++) {
+            walkAccesses++;
+            node = ((Object[]) node)[index(tree, depth, page)];
+            if (node == null) {
+                return -1;
+            }
+        }
+        walkAccesses++;
+        int entry = ((int[]) node)[index(tree, tree.levels - 1, page)];
+        return (entry & PRESENT) != 0 ? entry >>> FRAME_SHIFT : -1;
+    }
+
+    @Override
+    public int frameOf(int pid, int page) {
+        int[] leaf = leaf(pid, page, false);
+        if (leaf == null) {
+            return -1;
+        }
+        int entry = leaf[leafIndex(pid, page)];
+        return (entry & PRESENT) != 0 ? entry >>> FRAME_SHIFT : -1;
+    }
+
+    @Override
+    public void map(int pid, int page, int frame) {
+        if (frame >= MAX_FRAMES) {
+            throw new IllegalStateException("La tabla radix admite hasta " + MAX_FRAMES + " marcos: " + frame);
+        }
+        leaf(pid, page, true)[leafIndex(pid, page)] = (frame << FRAME_SHIFT) | PRESENT;
+    }
+
+    @Override
+    public void unmap(int pid, int page) {
+        int[] leaf = leaf(pid, page, false);
+        if (leaf != null) {
+            leaf[leafIndex(pid, page)] = 0;
+        }
+    }
+
+    @Override
+    public boolean supportsSharedFrames() {
+        return true;
+    }
+
+    /**
+     * Hojas que cubren las páginas y los nodos intermedios sobre ellas; todos
+     * se cuentan del tamaño de un nodo completo, aunque la raíz pueda ser menor
+     */
+    @Override
+    public int nodesFor(int pages) {
+        int totalBits = Math.max(1, 32 - Integer.numberOfLeadingZeros(Math.max(0, pages - 1)));
+        int levels = (totalBits + bitsPerLevel - 1) / bitsPerLevel;
+        int nodes = 0;
+        long covered = Math.max(1, pages);
+        for (int level = 0; level < levels; level++) {
+            covered = (covered + (1L << bitsPerLevel) - 1) >>> bitsPerLevel;
+            nodes += (int) covered;
+        }
+        return nodes;
+    }
+
+    @Override
+    public int getNodeBytes() {
+        return (1 << bitsPerLevel) * ENTRY_BYTES;
+    }
+
+    @Override
+    public boolean hasFlag(int pid, int page, int flag) {
+        int[] leaf = leaf(pid, page, false);
+        return leaf != null && (leaf[leafIndex(pid, page)] & flag) != 0;
+    }
+
+    @Override
+    public void setFlag(int pid, int page, int flag, boolean value) {
+        int[] leaf = leaf(pid, page, false);
+        if (leaf == null) {
+            return;
+        }
+        int index = leafIndex(pid, page);
+        leaf[index] = value ? leaf[index] | flag : leaf[index] & ~flag;
+    }
+
+    @Override
+    public long getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public long getPeakBytes() {
+        return peakBytes;
+    }
+
+    @Override
+    public long getWalks() {
+        return walks;
+    }
+
+    @Override
+    public double getAverageWalkAccesses() {
+        return walks > 0 ? (double) walkAccesses / walks : 0;
+    }
+
+    @Override
+    public String getSpec() {
+        return "radix:" + bitsPerLevel;
+    }
+
+    @Override
+    public String getDescription() {
+        return "radix, " + bitsPerLevel + " bits por nivel";
+    }
+
+    // Hojas del árbol con la primera página que cubre cada una
+    private void collectLeaves(Tree tree, Object node, int depth, int base, Map<Integer, int[]> leaves) {
+        if (node instanceof int[]) {
+            leaves.put(base, (int[]) node);
+            return;
+        }
+        Object[] inner = (Object[]) node;
+        int shift = (tree.levels - 1 - depth) * bitsPerLevel;
+        for (int i = 0; i < inner.length; i++) {
+            if (inner[i] != null) {
+                collectLeaves(tree, inner[i], depth + 1, base | (i << shift), leaves);
+            }
+        }
+    }
+
+    @Override
+    public void writeState(CheckpointOutput out) throws IOException {
+        out.writeLong(bytes);
+        out.writeLong(peakBytes);
+        out.writeLong(walks);
+        out.writeLong(walkAccesses);
+        out.writeInt(trees.size());
+        for (Map.Entry<Integer, Tree> entry : new TreeMap<>(trees).entrySet()) {
+            Tree tree = entry.getValue();
+            out.writeInt(entry.getKey());
+            out.writeInt(tree.pages);
+            Map<Integer, int[]> leaves = new TreeMap<>();
+            if (tree.root != null) {
+                collectLeaves(tree, tree.root, 0, 0, leaves);
+            }
+            out.writeInt(leaves.size());
+            for (Map.Entry<Integer, int[]> leaf : leaves.entrySet()) {
+                out.writeInt(leaf.getKey());
+                for (int value : leaf.getValue()) {
+                    out.writeInt(value);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void readState(CheckpointInput in) throws IOException {
+        long savedBytes = in.readLong();
+        long savedPeak = in.readLong();
+        walks = in.readLong();
+        walkAccesses = in.readLong();
+        trees.clear();
+        int processes = in.readInt();
+        for (int i = 0; i < processes; i++) {
+            int pid = in.readInt();
+            addProcess(pid, in.readInt());
+            int leaves = in.readInt();
+            for (int j = 0; j < leaves; j++) {
+                int[] leaf = leaf(pid, in.readInt(), true);
+                for (int k = 0; k < leaf.length; k++) {
+                    leaf[k] = in.readInt();
+                }
+            }
+        }
+        bytes = savedBytes;
+        peakBytes = savedPeak;
+    }
+}
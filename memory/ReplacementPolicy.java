@@ -0,0 +1,55 @@
+package memory;
+
+import java.io.IOException;
+import java.util.function.IntFunction;
+import models.PCB;
+import persistence.CheckpointInput;
+import persistence.CheckpointOutput;
+
+/**
+ * Política de reemplazo de páginas para la paginación por demanda. El
+ * MemoryManager le avisa de cada página que entra a un marco, de cada
+ * acierto y de cada página que sale, y le pide una víctima cuando no quedan
+ * marcos libres.
+ */
+public interface ReplacementPolicy {
+
+    /**
+     * Busca una página por proceso y número (al restaurar un checkpoint)
+     */
+    @FunctionalInterface
+    interface PageLookup {
+        Page find(int pid, int pageNumber);
+    }
+
+    /**
+     * Olvida todas las páginas; la memoria tiene 'frameCount' marcos
+     */
+    void reset(int frameCount);
+
+    /**
+     * La página se acaba de cargar en su marco por la referencia número 'index' del proceso
+     */
+    void pageLoaded(Page page, PCB process, long index);
+
+    /**
+     * Acierto: la referencia número 'index' del proceso encontró la página en memoria
+     */
+    void pageAccessed(Page page, PCB process, long index);
+
+    /**
+     * La página deja la memoria sin ser víctima (su proceso terminó)
+     */
+    void pageRemoved(Page page);
+
+    /**
+     * Elige la página que sale y deja de seguirla; solo se llama con todos los marcos ocupados
+     */
+    Page selectVictim();
+
+    String getName();
+
+    void writeState(CheckpointOutput out) throws IOException;
+
+    void readState(CheckpointInput in, PageLookup pages, IntFunction<PCB> processes) throws IOException;
+}
@@ -0,0 +1,26 @@
+package memory;
+
+/**
+ * Construye políticas de reemplazo por nombre: "fifo", "lru", "clock"
+ * (o "reloj") y "opt".
+ */
+public class ReplacementPolicyFactory {
+
+    public static ReplacementPolicy fromName(String name) {
+        switch (name.trim().toLowerCase()) {
+            case "fifo":
+                return new FifoReplacement();
+            case "lru":
+                return new LruReplacement();
+            case "clock":
+            case "reloj":
+                return new ClockReplacement();
+            case "opt":
+            case "optimo":
+                return new OptimalReplacement();
+            default:
+                throw new IllegalArgumentException("Política de reemplazo no válida: " + name +
+                        " (use fifo, lru, clock u opt)");
+        }
+    }
+}
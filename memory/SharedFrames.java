@@ -0,0 +1,356 @@
+package memory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import persistence.CheckpointInput;
+import persistence.CheckpointOutput;
+
+/**
+ * Marcos que usan varios procesos a la vez: los de un proceso y sus hijos
+ * después de un fork y los de las bibliotecas compartidas. Todos los que
+ * comparten un marco lo tienen en el mismo número de página, así que basta
+ * guardar sus PIDs; el Page del marco es de uno de ellos (el dueño) y aquí
+ * están los demás. Los marcos compartidos son de solo lectura: la primera
+ * escritura de un proceso le da una copia privada (copia en escritura), y
+ * si ya nadie más usa el marco se queda con él sin copiarlo.
+ *
+ * Una biblioteca ("nombre", páginas) ocupa las primeras páginas del espacio
+ * virtual de cada proceso que la usa. La primera vez que alguno toca una de
+ * sus páginas se carga del disco; los demás la encuentran ya en su marco y
+ * solo la mapean. Una página de la biblioteca que el proceso modificó es
+ * suya desde entonces y ya no se busca en la biblioteca.
+ */
+public class SharedFrames {
+    // marco -> PIDs que lo tienen mapeado además del dueño de su Page
+    private final Map<Integer, List<Integer>> sharers = new HashMap<>();
+    private final Map<String, Library> libraries = new HashMap<>();
+    private final Map<Integer, Attachment> attachments = new HashMap<>(); // PID -> su biblioteca
+
+    private long sharedMappings = 0; // entradas que apuntan a un marco de otro (suma de los sharers)
+    private long peakSharedMappings = 0;
+    private long forks = 0;
+    private long forkedPages = 0;
+    private long copies = 0;
+    private long reuses = 0;
+    private long libraryMappings = 0;
+
+    private static class Library {
+        final String name;
+        int[] frames; // página -> marco, o -1 si no está en memoria
+        int users = 0;
+
+        Library(String name, int pages) {
+            this.name = name;
+            this.frames = new int[pages];
+            Arrays.fill(frames, -1);
+        }
+    }
+
+    private static class Attachment {
+        final Library library;
+        final int pages;
+        final BitSet privatePages = new BitSet(); // páginas que el proceso ya modificó
+
+        Attachment(Library library, int pages) {
+            this.library = library;
+            this.pages = pages;
+        }
+    }
+
+    /**
+     * Si el marco lo usa más de un proceso
+     */
+    public boolean isShared(int frame) {
+        return sharers.containsKey(frame);
+    }
+
+    /**
+     * Si el proceso tiene el marco mapeado además del dueño
+     */
+    public boolean isSharer(int frame, int pid) {
+        List<Integer> pids = sharers.get(frame);
+        return pids != null && pids.contains(pid);
+    }
+
+    /**
+     * El proceso mapea el marco, que ya tiene dueño
+     */
+    public void addSharer(int frame, int pid) {
+        sharers.computeIfAbsent(frame, f -> new ArrayList<>(2)).add(pid);
+        sharedMappings++;
+        peakSharedMappings = Math.max(peakSharedMappings, sharedMappings);
+    }
+
+    /**
+     * El proceso, que no es el dueño, deja de usar el marco
+     */
+    public void removeSharer(int frame, int pid) {
+        List<Integer> pids = sharers.get(frame);
+        if (pids != null && pids.remove(Integer.valueOf(pid))) {
+            sharedMappings--;
+            if (pids.isEmpty()) {
+                sharers.remove(frame);
+            }
+        }
+    }
+
+    /**
+     * El dueño deja el marco: devuelve el PID que lo hereda (el primero que lo compartió)
+     */
+    public int takeOwnership(int frame) {
+        List<Integer> pids = sharers.get(frame);
+        int heir = pids.remove(0);
+        sharedMappings--;
+        if (pids.isEmpty()) {
+            sharers.remove(frame);
+        }
+        return heir;
+    }
+
+    /**
+     * El marco sale de memoria: devuelve los PIDs que lo compartían con el dueño
+     */
+    public List<Integer> removeAll(int frame) {
+        List<Integer> pids = sharers.remove(frame);
+        if (pids == null) {
+            return List.of();
+        }
+        sharedMappings -= pids.size();
+        return pids;
+    }
+
+    /**
+     * El proceso usa la biblioteca en sus primeras 'pages' páginas
+     */
+    public void attach(int pid, String name, int pages) {
+        Library library = libraries.computeIfAbsent(name, n -> new Library(n, pages));
+        if (library.frames.length < pages) {
+            int previous = library.frames.length;
+            library.frames = Arrays.copyOf(library.frames, pages);
+            Arrays.fill(library.frames, previous, pages, -1);
+        }
+        library.users++;
+        attachments.put(pid, new Attachment(library, pages));
+    }
+
+    /**
+     * El hijo de un fork usa la misma biblioteca que el padre, con las mismas páginas propias
+     */
+    public void inherit(int parentPid, int childPid) {
+        Attachment parent = attachments.get(parentPid);
+        if (parent == null) {
+            return;
+        }
+        Attachment child = new Attachment(parent.library, parent.pages);
+        child.privatePages.or(parent.privatePages);
+        parent.library.users++;
+        attachments.put(childPid, child);
+    }
+
+    /**
+     * El proceso terminó; la biblioteca se olvida cuando ya nadie la usa
+     */
+    public void detach(int pid) {
+        Attachment attachment = attachments.remove(pid);
+        if (attachment != null && --attachment.library.users == 0) {
+            libraries.remove(attachment.library.name);
+        }
+    }
+
+    // Biblioteca que cubre la página del proceso, si no es una página propia
+    private Attachment libraryPage(int pid, int page) {
+        Attachment attachment = attachments.get(pid);
+        if (attachment == null || page >= attachment.pages || attachment.privatePages.get(page)) {
+            return null;
+        }
+        return attachment;
+    }
+
+    /**
+     * Marco en que la biblioteca ya tiene la página del proceso, o -1
+     */
+    public int libraryFrame(int pid, int page) {
+        Attachment attachment = libraryPage(pid, page);
+        return attachment != null ? attachment.library.frames[page] : -1;
+    }
+
+    /**
+     * La página se cargó en el marco; si es de la biblioteca queda a la vista de los demás
+     */
+    public void pageLoaded(int pid, int page, int frame) {
+        Attachment attachment = libraryPage(pid, page);
+        if (attachment != null) {
+            attachment.library.frames[page] = frame;
+        }
+    }
+
+    /**
+     * El marco quedó libre; si tenía una página de la biblioteca, ya no está en memoria
+     */
+    public void frameReleased(int pid, int page, int frame) {
+        Attachment attachment = libraryPage(pid, page);
+        if (attachment != null && attachment.library.frames[page] == frame) {
+            attachment.library.frames[page] = -1;
+        }
+    }
+
+    /**
+     * Si escribir en la página obliga a copiarla: su marco está compartido o
+     * es de la biblioteca
+     */
+    public boolean isReadOnly(int pid, int page, int frame) {
+        return sharers.containsKey(frame) || libraryFrame(pid, page) == frame;
+    }
+
+    /**
+     * La página pasa a ser propia del proceso (la modificó); si el marco era
+     * de la biblioteca y ya nadie más lo usa, sale de ella sin copiarse
+     */
+    public void makePrivate(int pid, int page, int frame) {
+        Attachment attachment = libraryPage(pid, page);
+        if (attachment == null) {
+            return;
+        }
+        if (!sharers.containsKey(frame) && attachment.library.frames[page] == frame) {
+            attachment.library.frames[page] = -1;
+        }
+        attachment.privatePages.set(page);
+    }
+
+    public void recordFork(int pages) {
+        forks++;
+        forkedPages += pages;
+    }
+
+    public void recordCopy() {
+        copies++;
+    }
+
+    public void recordReuse() {
+        reuses++;
+    }
+
+    public void recordLibraryMapping() {
+        libraryMappings++;
+    }
+
+    /**
+     * Entradas de tabla que ahora apuntan al marco de otro proceso: los marcos que se ahorran
+     */
+    public long getSharedMappings() { return sharedMappings; }
+    public long getPeakSharedMappings() { return peakSharedMappings; }
+    public long getForks() { return forks; }
+
+    /**
+     * Páginas residentes que los hijos recibieron compartidas al nacer
+     */
+    public long getForkedPages() { return forkedPages; }
+
+    /**
+     * Escrituras en marcos compartidos que hicieron una copia privada
+     */
+    public long getCopies() { return copies; }
+
+    /**
+     * Escrituras en marcos de solo lectura que ya nadie más usaba (sin copia)
+     */
+    public long getReuses() { return reuses; }
+
+    /**
+     * Fallos resueltos mapeando una página de biblioteca que ya estaba en memoria
+     */
+    public long getLibraryMappings() { return libraryMappings; }
+
+    public int getLibraryCount() { return libraries.size(); }
+
+    public void writeState(CheckpointOutput out) throws IOException {
+        out.writeLong(peakSharedMappings);
+        out.writeLong(forks);
+        out.writeLong(forkedPages);
+        out.writeLong(copies);
+        out.writeLong(reuses);
+        out.writeLong(libraryMappings);
+        out.writeInt(sharers.size());
+        for (Map.Entry<Integer, List<Integer>> entry : new TreeMap<>(sharers).entrySet()) {
+            out.writeInt(entry.getKey());
+            out.writeInt(entry.getValue().size());
+            for (int pid : entry.getValue()) {
+                out.writeInt(pid);
+            }
+        }
+        out.writeInt(libraries.size());
+        for (Library library : new TreeMap<>(libraries).values()) {
+            out.writeString(library.name);
+            out.writeInt(library.frames.length);
+            for (int frame : library.frames) {
+                out.writeInt(frame);
+            }
+        }
+        out.writeInt(attachments.size());
+        for (Map.Entry<Integer, Attachment> entry : new TreeMap<>(attachments).entrySet()) {
+            Attachment attachment = entry.getValue();
+            out.writeInt(entry.getKey());
+            out.writeString(attachment.library.name);
+            out.writeInt(attachment.pages);
+            long[] bits = attachment.privatePages.toLongArray();
+            out.writeInt(bits.length);
+            for (long word : bits) {
+                out.writeLong(word);
+            }
+        }
+    }
+
+    public void readState(CheckpointInput in) throws IOException {
+        peakSharedMappings = in.readLong();
+        forks = in.readLong();
+        forkedPages = in.readLong();
+        copies = in.readLong();
+        reuses = in.readLong();
+        libraryMappings = in.readLong();
+        sharers.clear();
+        sharedMappings = 0;
+        int frames = in.readInt();
+        for (int i = 0; i < frames; i++) {
+            int frame = in.readInt();
+            int count = in.readInt();
+            List<Integer> pids = new ArrayList<>(count);
+            for (int j = 0; j < count; j++) {
+                pids.add(in.readInt());
+            }
+            sharers.put(frame, pids);
+            sharedMappings += count;
+        }
+        libraries.clear();
+        int libraryCount = in.readInt();
+        for (int i = 0; i < libraryCount; i++) {
+            Library library = new Library(in.readString(), in.readInt());
+            for (int page = 0; page < library.frames.length; page++) {
+                library.frames[page] = in.readInt();
+            }
+            libraries.put(library.name, library);
+        }
+        attachments.clear();
+        int attachmentCount = in.readInt();
+        for (int i = 0; i < attachmentCount; i++) {
+            int pid = in.readInt();
+            Library library = libraries.get(in.readString());
+            if (library == null) {
+                throw new IOException("El proceso " + pid + " usa una biblioteca que no está en el checkpoint");
+            }
+            Attachment attachment = new Attachment(library, in.readInt());
+            long[] bits = new long[in.readInt()];
+            for (int j = 0; j < bits.length; j++) {
+                bits[j] = in.readLong();
+            }
+            attachment.privatePages.or(BitSet.valueOf(bits));
+            library.users++;
+            attachments.put(pid, attachment);
+        }
+    }
+}
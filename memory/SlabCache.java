@@ -0,0 +1,234 @@
+package memory;
+
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import persistence.CheckpointInput;
+import persistence.CheckpointOutput;
+
+/**
+ * Caché slab de objetos del núcleo de un mismo tamaño (PCBs, nodos de la
+ * tabla de páginas): pide al BuddyAllocator bloques (slabs) y los reparte en
+ * ranuras de 'objectBytes'. Un objeto se toma del slab con lugar de menor
+ * dirección y solo se pide un slab nuevo si todos están llenos.
+ *
+ * El orden del slab es el menor (hasta MAX_SLAB_ORDER) que desperdicia como
+ * mucho un octavo de su tamaño al final, como elige Linux; si ninguno lo
+ * logra, el que menos desperdicia. Cuando un slab se vacía se devuelve al
+ * buddy, salvo uno que se conserva para no pedirlo de nuevo en seguida.
+ */
+public class SlabCache {
+    public static final int MAX_SLAB_ORDER = 3;
+
+    private final String name;
+    private final int objectBytes;
+    private final int slabOrder;
+    private final int objectsPerSlab;
+    private final long slabBytes;
+    private final BuddyAllocator buddy;
+
+    private final Map<Integer, Slab> slabs = new HashMap<>();            // primer marco -> slab
+    private final TreeMap<Integer, Slab> withRoom = new TreeMap<>();     // slabs con ranuras libres
+    private int emptySlabs = 0;
+
+    private long objects = 0;
+    private long peakObjects = 0;
+    private int peakSlabs = 0;
+    private long allocations = 0;
+    private long grows = 0;
+    private long shrinks = 0;
+    private long allocationSteps = 0;
+    private int maxAllocationSteps = 0;
+
+    private static class Slab {
+        final int start;
+        final BitSet used = new BitSet();
+        int inUse = 0;
+
+        Slab(int start) {
+            this.start = start;
+        }
+    }
+
+    public SlabCache(String name, int objectBytes, int pageSizeKB, BuddyAllocator buddy) {
+        long pageBytes = (long) pageSizeKB * 1024;
+        if (objectBytes <= 0 || objectBytes > pageBytes << MAX_SLAB_ORDER) {
+            throw new IllegalArgumentException("Objetos de " + objectBytes + " bytes no caben en un slab de hasta " +
+                                               (1 << MAX_SLAB_ORDER) + " páginas de " + pageSizeKB + "KB");
+        }
+        this.name = name;
+        this.objectBytes = objectBytes;
+        this.buddy = buddy;
+        int best = -1;
+        long bestWaste = Long.MAX_VALUE;
+        for (int order = 0; order <= MAX_SLAB_ORDER; order++) {
+            long bytes = pageBytes << order;
+            if (bytes < objectBytes) {
+                continue;
+            }
+            long waste = bytes % objectBytes;
+            if (waste * 8 <= bytes) {
+                best = order;
+                break;
+            }
+            if (waste < bestWaste) {
+                best = order;
+                bestWaste = waste;
+            }
+        }
+        this.slabOrder = best;
+        this.slabBytes = pageBytes << best;
+        this.objectsPerSlab = (int) Math.min(Integer.MAX_VALUE, slabBytes / objectBytes);
+    }
+
+    /**
+     * Toma un objeto y devuelve su identificador, o -1 si hacía falta un slab
+     * nuevo y el buddy no tiene un bloque libre del tamaño
+     */
+    public long allocate() {
+        int steps = 1;
+        if (withRoom.isEmpty()) {
+            int start = buddy.allocate(1 << slabOrder);
+            if (start < 0) {
+                return -1;
+            }
+            Slab slab = new Slab(start);
+            slabs.put(start, slab);
+            withRoom.put(start, slab);
+            emptySlabs++;
+            grows++;
+            peakSlabs = Math.max(peakSlabs, slabs.size());
+            steps++;
+        }
+        Slab slab = withRoom.firstEntry().getValue();
+        int index = slab.used.nextClearBit(0);
+        slab.used.set(index);
+        if (slab.inUse++ == 0) {
+            emptySlabs--;
+        }
+        if (slab.inUse == objectsPerSlab) {
+            withRoom.remove(slab.start);
+        }
+        objects++;
+        peakObjects = Math.max(peakObjects, objects);
+        allocations++;
+        allocationSteps += steps;
+        maxAllocationSteps = Math.max(maxAllocationSteps, steps);
+        return (long) slab.start * objectsPerSlab + index;
+    }
+
+    /**
+     * Devuelve el objeto a su slab; un slab vacío vuelve al buddy si ya hay otro vacío
+     */
+    public void release(long object) {
+        Slab slab = slabs.get((int) (object / objectsPerSlab));
+        int index = (int) (object % objectsPerSlab);
+        if (slab == null || !slab.used.get(index)) {
+            throw new IllegalStateException("El objeto " + object + " no está asignado en la caché " + name);
+        }
+        slab.used.clear(index);
+        slab.inUse--;
+        objects--;
+        withRoom.put(slab.start, slab);
+        if (slab.inUse == 0) {
+            if (emptySlabs > 0) {
+                slabs.remove(slab.start);
+                withRoom.remove(slab.start);
+                buddy.release(slab.start);
+                shrinks++;
+            } else {
+                emptySlabs++;
+            }
+        }
+    }
+
+    public String getName() { return name; }
+    public int getObjectBytes() { return objectBytes; }
+    public int getObjectsPerSlab() { return objectsPerSlab; }
+
+    /**
+     * Marcos de cada slab
+     */
+    public int getSlabFrames() { return 1 << slabOrder; }
+    public int getSlabCount() { return slabs.size(); }
+    public int getPeakSlabs() { return peakSlabs; }
+    public long getObjects() { return objects; }
+    public long getPeakObjects() { return peakObjects; }
+    public long getAllocations() { return allocations; }
+
+    /**
+     * Slabs pedidos al buddy y devueltos
+     */
+    public long getGrows() { return grows; }
+    public long getShrinks() { return shrinks; }
+
+    /**
+     * Bytes de los slabs que no ocupa ningún objeto: ranuras libres y el resto al final de cada slab
+     */
+    public long getWastedBytes() {
+        return slabs.size() * slabBytes - objects * objectBytes;
+    }
+
+    public long getSlabBytes() {
+        return slabs.size() * slabBytes;
+    }
+
+    public double getAverageAllocationSteps() {
+        return allocations > 0 ? (double) allocationSteps / allocations : 0;
+    }
+
+    public int getMaxAllocationSteps() { return maxAllocationSteps; }
+
+    public void writeState(CheckpointOutput out) throws IOException {
+        out.writeLong(peakObjects);
+        out.writeInt(peakSlabs);
+        out.writeLong(allocations);
+        out.writeLong(grows);
+        out.writeLong(shrinks);
+        out.writeLong(allocationSteps);
+        out.writeInt(maxAllocationSteps);
+        out.writeInt(slabs.size());
+        for (Slab slab : new TreeMap<>(slabs).values()) {
+            out.writeInt(slab.start);
+            long[] bits = slab.used.toLongArray();
+            out.writeInt(bits.length);
+            for (long word : bits) {
+                out.writeLong(word);
+            }
+        }
+    }
+
+    public void readState(CheckpointInput in) throws IOException {
+        peakObjects = in.readLong();
+        peakSlabs = in.readInt();
+        allocations = in.readLong();
+        grows = in.readLong();
+        shrinks = in.readLong();
+        allocationSteps = in.readLong();
+        maxAllocationSteps = in.readInt();
+        slabs.clear();
+        withRoom.clear();
+        emptySlabs = 0;
+        objects = 0;
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            Slab slab = new Slab(in.readInt());
+            long[] bits = new long[in.readInt()];
+            for (int j = 0; j < bits.length; j++) {
+                bits[j] = in.readLong();
+            }
+            slab.used.or(BitSet.valueOf(bits));
+            slab.inUse = slab.used.cardinality();
+            slabs.put(slab.start, slab);
+            if (slab.inUse < objectsPerSlab) {
+                withRoom.put(slab.start, slab);
+            }
+            if (slab.inUse == 0) {
+                emptySlabs++;
+            }
+            objects += slab.inUse;
+        }
+    }
+}
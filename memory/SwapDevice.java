@@ -0,0 +1,258 @@
+package memory;
+
+import core.Logger;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import persistence.CheckpointInput;
+import persistence.CheckpointOutput;
+
+/**
+ * Área de intercambio: ranuras del tamaño de una página en un archivo
+ * temporal mapeado en memoria, con las libres en un FrameBitmap. Cada ranura
+ * guarda una cabecera con el PID y la página que contiene (el contenido de
+ * las páginas no se simula), que se comprueba al leerla de vuelta.
+ *
+ * El disco de intercambio atiende las lecturas y escrituras de a una y en
+ * orden de llegada, 'ticksPerPage' ticks cada una: una lectura espera a que
+ * terminen las operaciones anteriores, así que los fallos de página sobre
+ * páginas intercambiadas tardan más cuanto más tráfico hay. Las escrituras
+ * no bloquean a nadie, pero ocupan el disco.
+ *
+ * Una página conserva su ranura mientras el proceso exista: si vuelve a
+ * salir sin haberse modificado no hace falta escribirla de nuevo.
+ */
+public class SwapDevice {
+    public static final int DEFAULT_TICKS_PER_PAGE = 8;
+
+    // Cabecera por ranura: PID y página (enteros), en regiones mapeadas al usarlas
+    private static final int HEADER_INTS = 2;
+    private static final int SEGMENT_BITS = 16;
+    private static final int SEGMENT_SLOTS = 1 << SEGMENT_BITS;
+
+    private final int sizeMB;
+    private final int slotCount;
+    private final int ticksPerPage;
+    private final FrameBitmap freeSlots;
+    private final Map<Long, Integer> slots = new HashMap<>(); // (pid, página) -> ranura
+    private FileChannel file;
+    private IntBuffer[] segments;
+
+    private long busyUntil = 0; // tick en que el disco termina lo que tiene en cola
+    private long reads = 0;
+    private long writes = 0;
+    private long rejectedWrites = 0;
+    private long queueTicks = 0; // espera en cola de las lecturas
+    private int peakUsed = 0;
+
+    /**
+     * Área de 'sizeMB' megabytes en ranuras de 'pageSizeKB'
+     */
+    public SwapDevice(int sizeMB, int pageSizeKB, int ticksPerPage) {
+        long slotTotal = (long) sizeMB * 1024 / pageSizeKB;
+        if (sizeMB <= 0 || slotTotal <= 0 || slotTotal > Integer.MAX_VALUE - 64) {
+            throw new IllegalArgumentException("Tamaño de intercambio inválido: " + sizeMB + "MB en páginas de " +
+                                               pageSizeKB + "KB");
+        }
+        if (ticksPerPage <= 0) {
+            throw new IllegalArgumentException("El disco de intercambio debe tardar al menos un tick por página: " +
+                                               ticksPerPage);
+        }
+        this.sizeMB = sizeMB;
+        this.slotCount = (int) slotTotal;
+        this.ticksPerPage = ticksPerPage;
+        this.freeSlots = new FrameBitmap(slotCount);
+        this.segments = new IntBuffer[(int) ((slotTotal + SEGMENT_SLOTS - 1) >>> SEGMENT_BITS)];
+        try {
+            Path path = Files.createTempFile("intercambio-", ".bin");
+            file = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            // Se borra de inmediato: el archivo sigue accesible mientras el canal esté abierto
+            Files.delete(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo crear el archivo de intercambio", e);
+        }
+    }
+
+    /**
+     * Construye el área a partir de "megabytes[/ticks por página]", por ejemplo "64" o "64/20"
+     */
+    public static SwapDevice fromSpec(String spec, int pageSizeKB) {
+        String[] parts = spec.trim().split("/");
+        if (parts.length > 2) {
+            throw new IllegalArgumentException("Intercambio no válido: '" + spec + "' (use megabytes[/ticks])");
+        }
+        try {
+            int ticks = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : DEFAULT_TICKS_PER_PAGE;
+            return new SwapDevice(Integer.parseInt(parts[0].trim()), pageSizeKB, ticks);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Intercambio no válido: '" + spec + "' (use megabytes[/ticks])");
+        }
+    }
+
+    public String getSpec() {
+        return sizeMB + "/" + ticksPerPage;
+    }
+
+    private static long key(int pid, int page) {
+        return ((long) pid << 32) | (page & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Si la página tiene una copia en el área de intercambio
+     */
+    public boolean contains(int pid, int page) {
+        return slots.containsKey(key(pid, page));
+    }
+
+    /**
+     * Escribe la página en su ranura (o en la primera libre) al final de la
+     * cola del disco. Devuelve false si el área está llena.
+     */
+    public boolean write(int pid, int page, long tick) {
+        Integer slot = slots.get(key(pid, page));
+        if (slot == null) {
+            int free = freeSlots.nextFree(0);
+            if (free < 0) {
+                rejectedWrites++;
+                return false;
+            }
+            freeSlots.allocate(free);
+            slot = free;
+            slots.put(key(pid, page), slot);
+            peakUsed = Math.max(peakUsed, getUsedSlots());
+        }
+        writeHeader(slot, pid, page);
+        enqueue(tick);
+        writes++;
+        return true;
+    }
+
+    /**
+     * Lee la página de su ranura; devuelve los ticks hasta que termina,
+     * contando la espera detrás de las operaciones que ya estaban en cola
+     */
+    public int read(int pid, int page, long tick) {
+        Integer slot = slots.get(key(pid, page));
+        if (slot == null) {
+            throw new IllegalStateException("La página " + page + " del proceso " + pid + " no está en el intercambio");
+        }
+        IntBuffer segment = segment(slot);
+        int offset = (slot & (SEGMENT_SLOTS - 1)) * HEADER_INTS;
+        if (segment.get(offset) != pid || segment.get(offset + 1) != page) {
+            throw new IllegalStateException("La ranura " + slot + " del intercambio tiene la página " +
+                                            segment.get(offset + 1) + " del proceso " + segment.get(offset) +
+                                            " en lugar de la " + page + " del proceso " + pid);
+        }
+        queueTicks += Math.max(0, busyUntil - tick);
+        enqueue(tick);
+        reads++;
+        return (int) (busyUntil - tick);
+    }
+
+    // La operación empieza cuando el disco termina las anteriores
+    private void enqueue(long tick) {
+        busyUntil = Math.max(busyUntil, tick) + ticksPerPage;
+    }
+
+    /**
+     * Libera las ranuras de las primeras 'pages' páginas del proceso
+     */
+    public void removeProcess(int pid, int pages) {
+        if (slots.isEmpty()) {
+            return;
+        }
+        for (int page = 0; page < pages; page++) {
+            Integer slot = slots.remove(key(pid, page));
+            if (slot != null) {
+                freeSlots.release(slot);
+            }
+        }
+    }
+
+    private void writeHeader(int slot, int pid, int page) {
+        IntBuffer segment = segment(slot);
+        int offset = (slot & (SEGMENT_SLOTS - 1)) * HEADER_INTS;
+        segment.put(offset, pid);
+        segment.put(offset + 1, page);
+    }
+
+    // Región mapeada que contiene la ranura; se mapea al usarla por primera vez
+    private IntBuffer segment(int slot) {
+        int segment = slot >>> SEGMENT_BITS;
+        if (segments[segment] == null) {
+            try {
+                segments[segment] = file.map(FileChannel.MapMode.READ_WRITE,
+                        (long) segment * SEGMENT_SLOTS * HEADER_INTS * Integer.BYTES,
+                        (long) SEGMENT_SLOTS * HEADER_INTS * Integer.BYTES).asIntBuffer();
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo mapear el archivo de intercambio", e);
+            }
+        }
+        return segments[segment];
+    }
+
+    public int getSlotCount() { return slotCount; }
+    public int getTicksPerPage() { return ticksPerPage; }
+    public int getUsedSlots() { return slotCount - freeSlots.getFreeCount(); }
+    public int getPeakUsedSlots() { return peakUsed; }
+    public long getReads() { return reads; }
+    public long getWrites() { return writes; }
+
+    /**
+     * Páginas modificadas que salieron de memoria sin ranura libre (se pierde su copia)
+     */
+    public long getRejectedWrites() { return rejectedWrites; }
+
+    /**
+     * Ticks que las lecturas esperaron en la cola del disco
+     */
+    public long getQueueTicks() { return queueTicks; }
+
+    public void writeState(CheckpointOutput out) throws IOException {
+        out.writeLong(busyUntil);
+        out.writeLong(reads);
+        out.writeLong(writes);
+        out.writeLong(rejectedWrites);
+        out.writeLong(queueTicks);
+        out.writeInt(peakUsed);
+        // Las ranuras se guardan tal cual para que las páginas no cambien de lugar
+        out.writeInt(slots.size());
+        for (Map.Entry<Long, Integer> entry : new TreeMap<>(slots).entrySet()) {
+            out.writeLong(entry.getKey());
+            out.writeInt(entry.getValue());
+        }
+    }
+
+    public void readState(CheckpointInput in) throws IOException {
+        busyUntil = in.readLong();
+        reads = in.readLong();
+        writes = in.readLong();
+        rejectedWrites = in.readLong();
+        queueTicks = in.readLong();
+        peakUsed = in.readInt();
+        for (Integer slot : slots.values()) {
+            freeSlots.release(slot);
+        }
+        slots.clear();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            long key = in.readLong();
+            int slot = in.readInt();
+            if (slot < 0 || slot >= slotCount) {
+                throw new IOException("Ranura de intercambio fuera del área: " + slot);
+            }
+            slots.put(key, slot);
+            freeSlots.allocate(slot);
+            writeHeader(slot, (int) (key >>> 32), (int) key);
+        }
+        Logger.log(Logger.Level.DEBUG, () -> "Intercambio restaurado: " + slots.size() + " páginas en " +
+                  slotCount + " ranuras");
+    }
+}
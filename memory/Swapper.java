@@ -0,0 +1,96 @@
+package memory;
+
+import core.Logger;
+import java.io.IOException;
+import persistence.CheckpointInput;
+import persistence.CheckpointOutput;
+
+/**
+ * Lo que sale de memoria hacia el disco. Las páginas modificadas que deja el
+ * reemplazo o la suspensión de su proceso se copian al SwapDevice, si hay
+ * (ver MemoryManager.setSwap); sin él solo se cuentan como escritas al disco.
+ * Lleva la cuenta de las páginas descargadas al suspender procesos.
+ */
+class Swapper {
+    private SwapDevice device = null;
+    private long swappedOutPages = 0;
+    private long swapWrites = 0;
+
+    /**
+     * Área de intercambio, o null si no hay
+     */
+    SwapDevice getDevice() {
+        return device;
+    }
+
+    void setDevice(SwapDevice device) {
+        this.device = device;
+    }
+
+    /**
+     * Si la página tiene copia en el área de intercambio, y el fallo la lee de ahí
+     */
+    boolean holds(int pid, int pageNumber) {
+        return device != null && device.contains(pid, pageNumber);
+    }
+
+    /**
+     * Ticks que tarda en leerse del intercambio, detrás de lo que haya en cola
+     */
+    int read(int pid, int pageNumber, long tick) {
+        return device.read(pid, pageNumber, tick);
+    }
+
+    // Copia la página modificada en el área de intercambio, si hay
+    void write(int pid, int pageNumber, long tick) {
+        if (device != null && !device.write(pid, pageNumber, tick)) {
+            Logger.log(Logger.Level.WARN, () -> "Intercambio lleno: se pierde la copia de P" + pid + ":Pág" + pageNumber);
+        }
+    }
+
+    /**
+     * Una página del proceso suspendido deja su marco (que puede ser de otro
+     * si lo comparten); si estaba modificada se escribe
+     */
+    void pageSwappedOut(int pid, Page page, long tick) {
+        if (page.isDirty()) {
+            swapWrites++;
+            write(pid, page.getPageNumber(), tick);
+        }
+        swappedOutPages++;
+    }
+
+    void removeProcess(int pid, int pages) {
+        if (device != null) {
+            device.removeProcess(pid, pages);
+        }
+    }
+
+    long getSwappedOutPages() {
+        return swappedOutPages;
+    }
+
+    long getSwapWrites() {
+        return swapWrites;
+    }
+
+    void writeState(CheckpointOutput out) throws IOException {
+        out.writeLong(swappedOutPages);
+        out.writeLong(swapWrites);
+        out.writeBoolean(device != null);
+        if (device != null) {
+            out.writeString(device.getSpec());
+            device.writeState(out);
+        }
+    }
+
+    void readState(CheckpointInput in, int pageSizeKB) throws IOException {
+        swappedOutPages = in.readLong();
+        swapWrites = in.readLong();
+        device = null;
+        if (in.readBoolean()) {
+            device = SwapDevice.fromSpec(in.readString(), pageSizeKB);
+            device.readState(in);
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package memory;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.function.IntFunction;
+import models.PCB;
+import persistence.CheckpointInput;
+import persistence.CheckpointOutput;
+import persistence.Checkpointable;
+
+/**
+ * TLB de un núcleo: caché asociativa por conjuntos de traducciones
+ * (proceso, página). El conjunto sale de los bits bajos del número de página
+ * y dentro de él se busca en todas las vías, así que una consulta cuesta
+ * O(vías). Sin ASID la TLB se vacía cada vez que el núcleo cambia de
+ * proceso; con ASID cada entrada lleva el PID y sobrevive al cambio.
+ */
+public class Tlb implements Checkpointable {
+    public enum Replacement { LRU, FIFO, RANDOM }
+
+    public static final int DEFAULT_ENTRIES = 64;
+    public static final int DEFAULT_WAYS = 4;
+    // Costos para el tiempo efectivo de acceso
+    public static final double LOOKUP_NS = 1;
+    public static final double MEMORY_ACCESS_NS = 100;
+
+    private static final long EMPTY = -1;
+
+    private final int entries;
+    private final int ways;
+    private final int sets;
+    private final Replacement replacement;
+    private final boolean asidTagged;
+
+    private final long[] tags;   // (pid << 32) | página, o EMPTY
+    private final long[] stamps; // LRU: último uso; FIFO: cuándo entró
+    private long clock = 0;
+    private long random = 0x2545F4914F6CDD1DL;
+    private int currentPid = -1;
+
+    private long hits = 0;
+    private long misses = 0;
+    private long flushes = 0;
+    private long shootdowns = 0;
+
+    public Tlb(int entries, int ways, Replacement replacement, boolean asidTagged) {
+        if (entries <= 0 || ways <= 0 || entries % ways != 0) {
+            throw new IllegalArgumentException("La TLB necesita un número de entradas múltiplo de las vías: " +
+                                               entries + "/" + ways);
+        }
+        this.entries = entries;
+        this.ways = ways;
+        this.sets = entries / ways;
+        this.replacement = replacement;
+        this.asidTagged = asidTagged;
+        this.tags = new long[entries];
+        this.stamps = new long[entries];
+        Arrays.fill(tags, EMPTY);
+    }
+
+    /**
+     * Construye una TLB a partir de "entradas[/vías][/lru|fifo|random][/flush|asid]",
+     * por ejemplo "64", "64/4/lru/asid" o "16/16/fifo/flush" (totalmente asociativa)
+     */
+    public static Tlb fromSpec(String spec) {
+        String[] parts = spec.trim().toLowerCase().split("/");
+        int entries = parsePositive(parts[0], "entradas");
+        int ways = Math.min(DEFAULT_WAYS, entries);
+        Replacement replacement = Replacement.LRU;
+        boolean asid = false;
+        for (int i = 1; i < parts.length; i++) {
+            switch (parts[i]) {
+                case "lru" -> replacement = Replacement.LRU;
+                case "fifo" -> replacement = Replacement.FIFO;
+                case "random" -> replacement = Replacement.RANDOM;
+                case "asid" -> asid = true;
+                case "flush" -> asid = false;
+                default -> {
+                    if (i != 1) {
+                        throw new IllegalArgumentException("Opción de TLB no válida: '" + parts[i] +
+                                "' (use entradas/vías/lru|fifo|random/flush|asid)");
+                    }
+                    ways = parsePositive(parts[i], "vías");
+                }
+            }
+        }
+        return new Tlb(entries, ways, replacement, asid);
+    }
+
+    private static int parsePositive(String token, String field) {
+        try {
+            int value = Integer.parseInt(token.trim());
+            if (value > 0) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // cae al error de abajo
+        }
+        throw new IllegalArgumentException("Valor inválido para " + field + " de la TLB: '" + token + "'");
+    }
+
+    /**
+     * Especificación equivalente (la que acepta fromSpec)
+     */
+    public String getSpec() {
+        return entries + "/" + ways + "/" + replacement.name().toLowerCase() + "/" + (asidTagged ? "asid" : "flush");
+    }
+
+    private static long tag(int pid, int page) {
+        return ((long) pid << 32) | page;
+    }
+
+    private int firstWay(int page) {
+        return (page % sets) * ways;
+    }
+
+    /**
+     * Busca la traducción; true si estaba en la TLB
+     */
+    public boolean lookup(int pid, int page) {
+        long tag = tag(pid, page);
+        int first = firstWay(page);
+        for (int slot = first; slot < first + ways; slot++) {
+            if (tags[slot] == tag) {
+                hits++;
+                if (replacement == Replacement.LRU) {
+                    stamps[slot] = ++clock;
+                }
+                return true;
+            }
+        }
+        misses++;
+        return false;
+    }
+
+    /**
+     * Guarda la traducción después de recorrer la tabla de páginas, en una
+     * vía libre del conjunto o en lugar de la que elija la política
+     */
+    public void insert(int pid, int page) {
+        int first = firstWay(page);
+        int victim = -1;
+        for (int slot = first; slot < first + ways; slot++) {
+            if (tags[slot] == EMPTY) {
+                victim = slot;
+                break;
+            }
+        }
+        if (victim < 0) {
+            if (replacement == Replacement.RANDOM) {
+                random ^= random << 13;
+                random ^= random >>> 7;
+                random ^= random << 17;
+                victim = first + (int) Long.remainderUnsigned(random, ways);
+            } else {
+                victim = first;
+                for (int slot = first + 1; slot < first + ways; slot++) {
+                    if (stamps[slot] < stamps[victim]) {
+                        victim = slot;
+                    }
+                }
+            }
+        }
+        tags[victim] = tag(pid, page);
+        stamps[victim] = ++clock;
+    }
+
+    /**
+     * Borra la traducción si está; true si estaba
+     */
+    public boolean invalidate(int pid, int page) {
+        long tag = tag(pid, page);
+        int first = firstWay(page);
+        for (int slot = first; slot < first + ways; slot++) {
+            if (tags[slot] == tag) {
+                tags[slot] = EMPTY;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * La página fue reemplazada: se borra su traducción y se cuenta (shootdown)
+     */
+    public void shootDown(int pid, int page) {
+        if (invalidate(pid, page)) {
+            shootdowns++;
+        }
+    }
+
+    /**
+     * El núcleo despacha al proceso; sin ASID, cambiar de proceso vacía la TLB
+     */
+    public void switchTo(int pid) {
+        if (!asidTagged && currentPid >= 0 && pid != currentPid) {
+            Arrays.fill(tags, EMPTY);
+            flushes++;
+        }
+        currentPid = pid;
+    }
+
+    public int getEntries() { return entries; }
+    public int getWays() { return ways; }
+    public Replacement getReplacement() { return replacement; }
+    public boolean isAsidTagged() { return asidTagged; }
+    public long getHits() { return hits; }
+    public long getMisses() { return misses; }
+
+    /**
+     * Veces que un cambio de contexto vació la TLB
+     */
+    public long getFlushes() { return flushes; }
+
+    /**
+     * Traducciones borradas porque su página fue reemplazada
+     */
+    public long getShootdowns() { return shootdowns; }
+
+    /**
+     * Tiempo efectivo de acceso a memoria en ns: consultar la TLB más el
+     * acceso al dato, más 'walkAccesses' accesos (promedio) a la tabla de páginas en cada fallo
+     */
+    public static double effectiveAccessTime(long hits, long misses, double walkAccesses) {
+        long lookups = hits + misses;
+        double missRate = lookups > 0 ? (double) misses / lookups : 0;
+        return LOOKUP_NS + MEMORY_ACCESS_NS + missRate * walkAccesses * MEMORY_ACCESS_NS;
+    }
+
+    @Override
+    public void writeState(CheckpointOutput out) throws IOException {
+        out.writeLong(clock);
+        out.writeLong(random);
+        out.writeInt(currentPid);
+        out.writeLong(hits);
+        out.writeLong(misses);
+        out.writeLong(flushes);
+        out.writeLong(shootdowns);
+        for (int slot = 0; slot < entries; slot++) {
+            out.writeLong(tags[slot]);
+            out.writeLong(stamps[slot]);
+        }
+    }
+
+    @Override
+    public void readState(CheckpointInput in, IntFunction<PCB> processes) throws IOException {
+        clock = in.readLong();
+        random = in.readLong();
+        currentPid = in.readInt();
+        hits = in.readLong();
+        misses = in.readLong();
+        flushes = in.readLong();
+        shootdowns = in.readLong();
+        for (int slot = 0; slot < entries; slot++) {
+            tags[slot] = in.readLong();
+            stamps[slot] = in.readLong();
+        }
+    }
+
+    /**
+     * Aciertos de TLB de una ejecución: los de todos los núcleos y, por
+     * proceso terminado, su tasa de aciertos
+     */
+    public static class Statistics {
+        private long hits;
+        private long misses;
+        private long flushes;
+        private long shootdowns;
+        private long processes;
+        private double processHitRateSum;
+        private double worstHitRate = 1;
+        private int worstPid = -1;
+
+        public void addProcess(PCB process) {
+            long lookups = process.tlbHits + process.tlbMisses;
+            if (lookups == 0) {
+                return;
+            }
+            double rate = (double) process.tlbHits / lookups;
+            processes++;
+            processHitRateSum += rate;
+            if (worstPid < 0 || rate < worstHitRate) {
+                worstHitRate = rate;
+                worstPid = process.pid;
+            }
+        }
+
+        public void addCore(Tlb tlb) {
+            hits += tlb.hits;
+            misses += tlb.misses;
+            flushes += tlb.flushes;
+            shootdowns += tlb.shootdowns;
+        }
+
+        /**
+         * Copia sin los contadores de los núcleos (solo lo acumulado por proceso)
+         */
+        public Statistics copyProcesses() {
+            Statistics copy = new Statistics();
+            copy.processes = processes;
+            copy.processHitRateSum = processHitRateSum;
+            copy.worstHitRate = worstHitRate;
+            copy.worstPid = worstPid;
+            return copy;
+        }
+
+        public double getHitRate() {
+            long lookups = hits + misses;
+            return lookups > 0 ? (double) hits / lookups : 0;
+        }
+
+        public double getMeanProcessHitRate() {
+            return processes > 0 ? processHitRateSum / processes : 0;
+        }
+
+        public long getFlushes() {
+            return flushes;
+        }
+
+        public double getEffectiveAccessTime(double walkAccesses) {
+            return effectiveAccessTime(hits, misses, walkAccesses);
+        }
+
+        public void writeState(CheckpointOutput out) throws IOException {
+            out.writeLong(processes);
+            out.writeLong(Double.doubleToLongBits(processHitRateSum));
+            out.writeLong(Double.doubleToLongBits(worstHitRate));
+            out.writeInt(worstPid);
+        }
+
+        public void readState(CheckpointInput in) throws IOException {
+            processes = in.readLong();
+            processHitRateSum = Double.longBitsToDouble(in.readLong());
+            worstHitRate = Double.longBitsToDouble(in.readLong());
+            worstPid = in.readInt();
+        }
+
+        /**
+         * Resumen con el tiempo efectivo de acceso si cada recorrido de la tabla
+         * de páginas cuesta 'walkAccesses' accesos
+         */
+        public String format(double walkAccesses) {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("Aciertos:              %d (%.2f%%)%n", hits, getHitRate() * 100));
+            sb.append("Fallos de TLB:         ").append(misses).append('\n');
+            sb.append("Vaciados por cambio:   ").append(flushes).append('\n');
+            sb.append("Invalidaciones:        ").append(shootdowns).append(" (por reemplazo)\n");
+            sb.append(String.format("Acceso efectivo:       %.2f ns (TLB %.0f ns, memoria %.0f ns, %.2f accesos por recorrido)",
+                    getEffectiveAccessTime(walkAccesses), LOOKUP_NS, MEMORY_ACCESS_NS, walkAccesses));
+            if (processes > 0) {
+                sb.append(String.format("%nPor proceso:           promedio %.2f%%, peor %.2f%% (proceso %d)",
+                        getMeanProcessHitRate() * 100, worstHitRate * 100, worstPid));
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,393 @@
+package memory;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import models.PCB;
+import persistence.CheckpointInput;
+import persistence.CheckpointOutput;
+
+/**
+ * Conjunto de trabajo de cada proceso (Denning): las páginas distintas que
+ * tocó en sus últimas 'window' referencias, junto con cuántas de ellas
+ * fallaron (frecuencia de fallos, PFF). La suma de los conjuntos de los
+ * procesos activos es la demanda de marcos; si pasa de los marcos que hay y
+ * demasiadas de las últimas referencias del sistema fallan en páginas que
+ * estaban en el conjunto de trabajo de su proceso (la política las sacó
+ * aunque se estaban usando), hay hiperpaginación. Los fallos de páginas que
+ * se tocan por primera vez o hace mucho no cuentan: no se evitan
+ * suspendiendo procesos.
+ *
+ * Cada referencia cuesta O(1): por proceso se guarda la última referencia
+ * de cada página que está en la ventana, y la que sale de la ventana se lee
+ * de su cadena de referencias.
+ */
+public class WorkingSetMonitor {
+    public static final int DEFAULT_WINDOW = 200;
+    public static final double DEFAULT_HIGH_FAULT_RATE = 0.10;
+    public static final double DEFAULT_LOW_FAULT_RATE = 0.02;
+
+    private final int window;
+    private final double highFaultRate;
+    private final double lowFaultRate;
+
+    private final Map<Integer, Window> windows = new HashMap<>();
+    private long demand = 0;      // suma de los conjuntos de los procesos activos
+    private int activeCount = 0;
+
+    // Fallos en el conjunto de trabajo de las últimas 'window' referencias del sistema
+    private final long[] systemFaultBits;
+    private long systemReferences = 0;
+    private int systemFaults = 0;
+
+    // Muestras por tick
+    private long peakDemand = 0;
+    private long demandTicks = 0; // suma de la demanda en cada tick
+    private long sampledTicks = 0;
+    private long thrashingTicks = 0;
+
+    // Ventana de un proceso: tabla hash abierta página -> última referencia
+    private static class Window {
+        static final int EMPTY = -1;
+
+        final int[] pages;
+        final long[] lastUse;
+        final long[] faultBits;
+        int size = 0;
+        int faults = 0;
+        long references = 0;
+        boolean active = true;
+
+        Window(int capacity, int window) {
+            pages = new int[capacity];
+            lastUse = new long[capacity];
+            faultBits = new long[(window + 63) >>> 6];
+            Arrays.fill(pages, EMPTY);
+        }
+
+        int home(int page) {
+            int hash = page * 0x9E3779B1;
+            return (hash ^ (hash >>> 16)) & (pages.length - 1);
+        }
+
+        int find(int page) {
+            int mask = pages.length - 1;
+            for (int slot = home(page); pages[slot] != EMPTY; slot = (slot + 1) & mask) {
+                if (pages[slot] == page) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        void put(int page, long use) {
+            int mask = pages.length - 1;
+            int slot = home(page);
+            while (pages[slot] != EMPTY && pages[slot] != page) {
+                slot = (slot + 1) & mask;
+            }
+            pages[slot] = page;
+            lastUse[slot] = use;
+        }
+
+        // Borrado con corrimiento hacia atrás, para no dejar marcas de borrado
+        void remove(int slot) {
+            int mask = pages.length - 1;
+            int hole = slot;
+            for (int next = (hole + 1) & mask; pages[next] != EMPTY; next = (next + 1) & mask) {
+                if (((next - home(pages[next])) & mask) >= ((next - hole) & mask)) {
+                    pages[hole] = pages[next];
+                    lastUse[hole] = lastUse[next];
+                    hole = next;
+                }
+            }
+            pages[hole] = EMPTY;
+        }
+    }
+
+    public WorkingSetMonitor(int window, double highFaultRate, double lowFaultRate) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("La ventana del conjunto de trabajo debe ser mayor que 0: " + window);
+        }
+        if (lowFaultRate < 0 || highFaultRate > 1 || lowFaultRate > highFaultRate) {
+            throw new IllegalArgumentException("Umbrales de fallos inválidos: alto " + highFaultRate +
+                                               ", bajo " + lowFaultRate);
+        }
+        this.window = window;
+        this.highFaultRate = highFaultRate;
+        this.lowFaultRate = lowFaultRate;
+        this.systemFaultBits = new long[(window + 63) >>> 6];
+    }
+
+    /**
+     * Construye el monitor a partir de "ventana[/alto[/bajo]]", con los
+     * umbrales en porcentaje de referencias que fallan; por ejemplo "200/10/2"
+     */
+    public static WorkingSetMonitor fromSpec(String spec) {
+        String[] parts = spec.trim().split("/");
+        try {
+            int window = Integer.parseInt(parts[0].trim());
+            double high = parts.length > 1 ? Double.parseDouble(parts[1].trim()) / 100 : DEFAULT_HIGH_FAULT_RATE;
+            double low = parts.length > 2 ? Double.parseDouble(parts[2].trim()) / 100 : Math.min(high, DEFAULT_LOW_FAULT_RATE);
+            if (parts.length > 3) {
+                throw new IllegalArgumentException("Conjunto de trabajo no válido: '" + spec + "' (use ventana/alto/bajo)");
+            }
+            return new WorkingSetMonitor(window, high, low);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Conjunto de trabajo no válido: '" + spec + "' (use ventana/alto/bajo)");
+        }
+    }
+
+    public void addProcess(int pid, int pages) {
+        int entries = Math.max(1, Math.min(window, pages));
+        windows.put(pid, new Window(Integer.highestOneBit(entries) << 2, window));
+        activeCount++;
+    }
+
+    public void removeProcess(int pid) {
+        Window removed = windows.remove(pid);
+        if (removed != null && removed.active) {
+            demand -= removed.size;
+            activeCount--;
+        }
+    }
+
+    /**
+     * Un proceso suspendido deja de contar en la demanda, pero conserva su
+     * ventana para saber cuántos marcos pedirá al volver
+     */
+    public void setActive(int pid, boolean active) {
+        Window w = windows.get(pid);
+        if (w == null || w.active == active) {
+            return;
+        }
+        w.active = active;
+        demand += active ? w.size : -w.size;
+        activeCount += active ? 1 : -1;
+    }
+
+    /**
+     * Registra la referencia número 'index' del proceso a 'page'
+     */
+    public void record(PCB process, long index, int page, boolean fault) {
+        Window w = windows.get(process.pid);
+        if (w == null) {
+            return;
+        }
+        int slot = w.find(page);
+        boolean workingSetFault = fault && slot >= 0;
+        // Sale de la ventana la referencia index - window (si es de esta página, la nueva la reemplaza)
+        if (index >= window) {
+            long oldest = index - window;
+            int oldestPage = process.pageReferences.pageAt(oldest);
+            int oldestSlot = oldestPage == page ? -1 : w.find(oldestPage);
+            if (oldestSlot >= 0 && w.lastUse[oldestSlot] == oldest) {
+                w.remove(oldestSlot);
+                w.size--;
+                if (w.active) {
+                    demand--;
+                }
+                slot = w.find(page); // el borrado pudo correr su posición
+            }
+        }
+        if (slot >= 0) {
+            w.lastUse[slot] = index;
+        } else {
+            w.put(page, index);
+            w.size++;
+            if (w.active) {
+                demand++;
+            }
+        }
+        w.faults += shiftFault(w.faultBits, index, fault);
+        w.references = index + 1;
+
+        systemFaults += shiftFault(systemFaultBits, systemReferences++, workingSetFault);
+        peakDemand = Math.max(peakDemand, demand);
+    }
+
+    // Guarda el bit de fallo de la posición y devuelve cómo cambia la cuenta de la ventana
+    private int shiftFault(long[] bits, long index, boolean fault) {
+        int position = (int) (index % window);
+        long mask = 1L << position;
+        int change = (bits[position >>> 6] & mask) != 0 ? -1 : 0;
+        if (fault) {
+            bits[position >>> 6] |= mask;
+            change++;
+        } else {
+            bits[position >>> 6] &= ~mask;
+        }
+        return change;
+    }
+
+    /**
+     * Cuenta 'ticks' ticks con el estado actual; devuelve si hay hiperpaginación
+     */
+    public boolean sample(int frameCount, int ticks) {
+        sampledTicks += ticks;
+        demandTicks += demand * ticks;
+        boolean thrashing = isThrashing(frameCount);
+        if (thrashing) {
+            thrashingTicks += ticks;
+        }
+        return thrashing;
+    }
+
+    /**
+     * La demanda no cabe en los marcos y fallan demasiadas referencias a
+     * páginas del conjunto de trabajo
+     */
+    public boolean isThrashing(int frameCount) {
+        return demand > frameCount && getSystemFaultRate() > highFaultRate;
+    }
+
+    /**
+     * Si un proceso con 'workingSet' páginas puede volver sin provocar hiperpaginación
+     */
+    public boolean canAdmit(int frameCount, int workingSet) {
+        return getSystemFaultRate() <= lowFaultRate && demand + workingSet <= frameCount;
+    }
+
+    /**
+     * Proceso activo con el conjunto de trabajo más grande (el más nuevo si
+     * empatan), o -1 si quedaría sin activos
+     */
+    public int selectVictim() {
+        if (activeCount <= 1) {
+            return -1;
+        }
+        int victim = -1;
+        int largest = -1;
+        for (Map.Entry<Integer, Window> entry : windows.entrySet()) {
+            Window w = entry.getValue();
+            int pid = entry.getKey();
+            if (w.active && (w.size > largest || (w.size == largest && pid > victim))) {
+                victim = pid;
+                largest = w.size;
+            }
+        }
+        return victim;
+    }
+
+    public int getWindow() {
+        return window;
+    }
+
+    public double getHighFaultRate() {
+        return highFaultRate;
+    }
+
+    public double getLowFaultRate() {
+        return lowFaultRate;
+    }
+
+    /**
+     * Páginas distintas en la ventana del proceso (0 si no tiene)
+     */
+    public int getWorkingSetSize(int pid) {
+        Window w = windows.get(pid);
+        return w != null ? w.size : 0;
+    }
+
+    /**
+     * Fracción de las referencias de la ventana del proceso que fallaron
+     */
+    public double getFaultRate(int pid) {
+        Window w = windows.get(pid);
+        return w != null && w.references > 0 ? (double) w.faults / Math.min(w.references, window) : 0;
+    }
+
+    /**
+     * Fracción de las últimas referencias del sistema que fallaron en una
+     * página del conjunto de trabajo de su proceso
+     */
+    public double getSystemFaultRate() {
+        return systemReferences > 0 ? (double) systemFaults / Math.min(systemReferences, window) : 0;
+    }
+
+    /**
+     * Marcos que piden los procesos activos (suma de sus conjuntos de trabajo)
+     */
+    public long getDemand() {
+        return demand;
+    }
+
+    public long getPeakDemand() {
+        return peakDemand;
+    }
+
+    public double getAverageDemand() {
+        return sampledTicks > 0 ? (double) demandTicks / sampledTicks : 0;
+    }
+
+    public long getThrashingTicks() {
+        return thrashingTicks;
+    }
+
+    public void writeState(CheckpointOutput out) throws IOException {
+        out.writeLong(systemReferences);
+        for (long bits : systemFaultBits) {
+            out.writeLong(bits);
+        }
+        out.writeLong(peakDemand);
+        out.writeLong(demandTicks);
+        out.writeLong(sampledTicks);
+        out.writeLong(thrashingTicks);
+        out.writeInt(windows.size());
+        for (Map.Entry<Integer, Window> entry : new TreeMap<>(windows).entrySet()) {
+            Window w = entry.getValue();
+            out.writeInt(entry.getKey());
+            out.writeInt(w.pages.length);
+            out.writeBoolean(w.active);
+            out.writeLong(w.references);
+            for (long bits : w.faultBits) {
+                out.writeLong(bits);
+            }
+            out.writeInt(w.size);
+            for (int slot = 0; slot < w.pages.length; slot++) {
+                if (w.pages[slot] != Window.EMPTY) {
+                    out.writeInt(w.pages[slot]);
+                    out.writeLong(w.lastUse[slot]);
+                }
+            }
+        }
+    }
+
+    public void readState(CheckpointInput in) throws IOException {
+        systemReferences = in.readLong();
+        systemFaults = 0;
+        for (int i = 0; i < systemFaultBits.length; i++) {
+            systemFaultBits[i] = in.readLong();
+            systemFaults += Long.bitCount(systemFaultBits[i]);
+        }
+        peakDemand = in.readLong();
+        demandTicks = in.readLong();
+        sampledTicks = in.readLong();
+        thrashingTicks = in.readLong();
+        windows.clear();
+        demand = 0;
+        activeCount = 0;
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            int pid = in.readInt();
+            Window w = new Window(in.readInt(), window);
+            w.active = in.readBoolean();
+            w.references = in.readLong();
+            for (int j = 0; j < w.faultBits.length; j++) {
+                w.faultBits[j] = in.readLong();
+                w.faults += Long.bitCount(w.faultBits[j]);
+            }
+            w.size = in.readInt();
+            for (int j = 0; j < w.size; j++) {
+                w.put(in.readInt(), in.readLong());
+            }
+            windows.put(pid, w);
+            if (w.active) {
+                demand += w.size;
+                activeCount++;
+            }
+        }
+    }
+}
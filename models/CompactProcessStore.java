@@ -0,0 +1,270 @@
+package models;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Almacén compacto de procesos para simulaciones con millones de procesos.
+ * Los campos de planificación viven en arreglos primitivos paralelos (uno
+ * por campo, una fila por proceso) en lugar de un PCB por proceso, así que
+ * los procesos pendientes y terminados no generan objetos para el recolector.
+ *
+ * El PID de la fila i es i + 1. Los PCB se crean con materialize() solo
+ * para los procesos vivos y para las vistas de la interfaz; al terminar, el
+ * proceso se vuelca otra vez a los arreglos con archive().
+ */
+public class CompactProcessStore {
+    private static final byte NO_LEVEL = -1;
+    private static final ProcessState[] STATES = ProcessState.values();
+
+    private int size = 0;
+    private byte[] state = new byte[1024];
+    private int[] priority = new int[1024];
+    private int[] memory = new int[1024];
+    private int[] burst = new int[1024];
+    private int[] remaining = new int[1024];
+    private int[] quantum = new int[1024];
+    private byte[] queueLevel = new byte[1024];
+    private int[] arrival = new int[1024];
+    private int[] finishTick = new int[1024];
+    // Las ráfagas de E/S de la fila i ocupan [ioStart[i], ioStart[i + 1]) del pool
+    private int[] ioStart = new int[1025];
+
+    private int ioSize = 0;
+    private short[] ioDevice = new short[1024];
+    private int[] ioDuration = new int[1024];
+    private final List<String> deviceNames = new ArrayList<>();
+    private final Map<String, Short> deviceIndex = new HashMap<>();
+    // Tareas de tiempo real (pocas): fila -> {periodo o 0, plazo, trabajos}
+    private final Map<Integer, int[]> realTime = new HashMap<>();
+    // Boletos explícitos y semáforos (lock=) de las filas que los tienen
+    private final Map<Integer, Integer> tickets = new HashMap<>();
+    private final Map<Integer, String> locks = new HashMap<>();
+    // Trazas de referencias a páginas (trace=); las filas con la misma traza la comparten
+    private final Map<Integer, PageReferenceString> traces = new HashMap<>();
+
+    /**
+     * Agrega un proceso en NEW y devuelve su PID. 'quantum' y 'queueLevel'
+     * pueden ser null si la política no los usa.
+     */
+    public int add(int arrivalTick, int processPriority, int requiredMemory, int burstTime,
+                   Integer processQuantum, Integer processQueueLevel) {
+        if (processQueueLevel != null && (processQueueLevel < 0 || processQueueLevel > Byte.MAX_VALUE)) {
+            throw new IllegalArgumentException("Nivel de cola fuera de rango: " + processQueueLevel);
+        }
+        ensureCapacity(size + 1);
+        int row = size++;
+        state[row] = (byte) ProcessState.NEW.ordinal();
+        priority[row] = processPriority;
+        memory[row] = requiredMemory;
+        burst[row] = burstTime;
+        remaining[row] = burstTime;
+        quantum[row] = processQuantum != null ? processQuantum : Integer.MIN_VALUE;
+        queueLevel[row] = processQueueLevel != null ? processQueueLevel.byteValue() : NO_LEVEL;
+        arrival[row] = arrivalTick;
+        finishTick[row] = -1;
+        ioStart[row + 1] = ioSize;
+        return row + 1;
+    }
+
+    /**
+     * Agrega una ráfaga de E/S al último proceso agregado
+     */
+    public void addIOBurst(String deviceType, int duration) {
+        if (size == 0) {
+            throw new IllegalStateException("No hay procesos en el almacén");
+        }
+        if (ioSize == ioDevice.length) {
+            ioDevice = Arrays.copyOf(ioDevice, ioSize * 2);
+            ioDuration = Arrays.copyOf(ioDuration, ioSize * 2);
+        }
+        ioDevice[ioSize] = deviceIndexOf(deviceType);
+        ioDuration[ioSize] = duration;
+        ioSize++;
+        ioStart[size] = ioSize;
+    }
+
+    /**
+     * Marca el último proceso agregado como tarea de tiempo real
+     */
+    public void setRealTime(int period, int deadline, int jobs) {
+        if (size == 0) {
+            throw new IllegalStateException("No hay procesos en el almacén");
+        }
+        realTime.put(size - 1, new int[] {period, deadline, jobs});
+    }
+
+    /**
+     * Boletos explícitos del último proceso agregado
+     */
+    public void setTickets(int processTickets) {
+        if (size == 0) {
+            throw new IllegalStateException("No hay procesos en el almacén");
+        }
+        tickets.put(size - 1, processTickets);
+    }
+
+    /**
+     * Semáforo que el último proceso agregado retiene mientras vive
+     */
+    public void setLock(String lock) {
+        if (size == 0) {
+            throw new IllegalStateException("No hay procesos en el almacén");
+        }
+        locks.put(size - 1, lock);
+    }
+
+    /**
+     * Cadena de referencias a páginas del último proceso agregado
+     */
+    public void setTrace(PageReferenceString trace) {
+        if (size == 0) {
+            throw new IllegalStateException("No hay procesos en el almacén");
+        }
+        traces.put(size - 1, trace);
+    }
+
+    /**
+     * Crea un PCB con los datos actuales del proceso. El PCB no queda enlazado
+     * al almacén: los cambios se guardan solo al llamar a archive().
+     */
+    public PCB materialize(int pid) {
+        int row = row(pid);
+        PCB process = new PCB(pid, priority[row], memory[row]);
+        process.state = STATES[state[row]];
+        process.arrivalTick = arrival[row];
+        process.finishTick = finishTick[row];
+        process.schedulingData = new SchedulingData();
+        process.schedulingData.burstTime = burst[row];
+        process.schedulingData.remainingTime = remaining[row];
+        if (quantum[row] != Integer.MIN_VALUE) {
+            process.schedulingData.quantum = quantum[row];
+        }
+        if (queueLevel[row] != NO_LEVEL) {
+            process.schedulingData.queueLevel = (int) queueLevel[row];
+        }
+        int[] task = realTime.get(row);
+        if (task != null) {
+            process.schedulingData.period = task[0] > 0 ? task[0] : null;
+            process.schedulingData.relativeDeadline = task[1];
+            process.schedulingData.jobsLeft = task[2];
+        }
+        process.schedulingData.tickets = tickets.get(row);
+        process.lock = locks.get(row);
+        process.pageReferences = traces.get(row);
+        for (int i = ioStart[row]; i < ioStart[row + 1]; i++) {
+            process.addIOBurst(new PCB.IOBurst(deviceNames.get(ioDevice[i]), ioDuration[i]));
+        }
+        if (process.state == ProcessState.TERMINATED) {
+            process.currentIOIndex = process.ioBursts.size();
+        }
+        return process;
+    }
+
+    /**
+     * Guarda en los arreglos el estado final de un proceso materializado
+     */
+    public void archive(PCB process) {
+        int row = row(process.pid);
+        state[row] = (byte) process.state.ordinal();
+        priority[row] = process.priority;
+        finishTick[row] = process.finishTick;
+        if (process.schedulingData != null && process.schedulingData.remainingTime != null) {
+            remaining[row] = process.schedulingData.remainingTime;
+        }
+    }
+
+    /**
+     * PIDs ordenados por tick de llegada y, en el mismo tick, por PID
+     */
+    public int[] arrivalOrder() {
+        int[] order = new int[size];
+        boolean sorted = true;
+        for (int row = 0; row < size; row++) {
+            order[row] = row + 1;
+            sorted &= row == 0 || arrival[row - 1] <= arrival[row];
+        }
+        if (sorted) {
+            return order; // caso habitual: la carga ya viene en orden de llegada
+        }
+        long[] keys = new long[size];
+        for (int row = 0; row < size; row++) {
+            keys[row] = ((long) arrival[row] << 32) | row;
+        }
+        Arrays.sort(keys);
+        for (int i = 0; i < size; i++) {
+            order[i] = (int) keys[i] + 1;
+        }
+        return order;
+    }
+
+    public int size() { return size; }
+    public boolean contains(int pid) { return pid > 0 && pid <= size; }
+    public ProcessState getState(int pid) { return STATES[state[row(pid)]]; }
+    public int getPriority(int pid) { return priority[row(pid)]; }
+    public int getMemory(int pid) { return memory[row(pid)]; }
+    public int getBurst(int pid) { return burst[row(pid)]; }
+
+    /**
+     * Trabajos que libera el proceso: los de su tarea de tiempo real o 1
+     */
+    public int getJobs(int pid) {
+        int[] task = realTime.get(row(pid));
+        return task != null ? task[2] : 1;
+    }
+    public int getRemaining(int pid) { return remaining[row(pid)]; }
+    public int getArrival(int pid) { return arrival[row(pid)]; }
+    public int getFinishTick(int pid) { return finishTick[row(pid)]; }
+
+    public int getTotalIOTime(int pid) {
+        int row = row(pid);
+        int total = 0;
+        for (int i = ioStart[row]; i < ioStart[row + 1]; i++) {
+            total += ioDuration[i];
+        }
+        return total;
+    }
+
+    private int row(int pid) {
+        if (!contains(pid)) {
+            throw new IllegalArgumentException("PID fuera del almacén: " + pid);
+        }
+        return pid - 1;
+    }
+
+    private short deviceIndexOf(String deviceType) {
+        Short index = deviceIndex.get(deviceType);
+        if (index == null) {
+            if (deviceNames.size() > Short.MAX_VALUE) {
+                throw new IllegalStateException("Demasiados tipos de dispositivo");
+            }
+            index = (short) deviceNames.size();
+            deviceNames.add(deviceType);
+            deviceIndex.put(deviceType, index);
+        }
+        return index;
+    }
+
+    private void ensureCapacity(int rows) {
+        if (rows <= state.length) {
+            return;
+        }
+        int capacity = state.length;
+        while (capacity < rows) {
+            capacity = (int) Math.min(Integer.MAX_VALUE - 8, capacity * 2L);
+        }
+        state = Arrays.copyOf(state, capacity);
+        priority = Arrays.copyOf(priority, capacity);
+        memory = Arrays.copyOf(memory, capacity);
+        burst = Arrays.copyOf(burst, capacity);
+        remaining = Arrays.copyOf(remaining, capacity);
+        quantum = Arrays.copyOf(quantum, capacity);
+        queueLevel = Arrays.copyOf(queueLevel, capacity);
+        arrival = Arrays.copyOf(arrival, capacity);
+        finishTick = Arrays.copyOf(finishTick, capacity);
+        ioStart = Arrays.copyOf(ioStart, capacity + 1);
+    }
+}
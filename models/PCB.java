@@ -4,7 +4,6 @@ import java.time.LocalDateTime;
 import java.util.*;
 
 public class PCB {
-    private static int nextPid = 1;
     public final int pid;
     public ProcessState state;
     public int priority;
@@ -15,10 +14,26 @@ public class PCB {
     public LocalDateTime startTime;
     public List<IOBurst> ioBursts;
     public int currentIOIndex;
-    public List<PageAccess> pageAccesses;
+    public PageAccessTrace pageAccesses;
+    public PageReferenceString pageReferences; // páginas que referencia con paginación por demanda (null = sin traza)
+    public int pageFaults;                     // fallos de página que ha sufrido
+    public long tlbHits;                       // referencias resueltas por la TLB
+    public long tlbMisses;                     // referencias que recorrieron la tabla de páginas
+    public int arrivalTick;       // tick simulado de llegada
+    public int finishTick = -1;   // tick simulado de terminación (-1 si no ha terminado)
+    public int coreId = -1;       // núcleo cuya cola o CPU ocupa el proceso
+    public int lastCore = -1;     // último núcleo en el que se ejecutó
+    public String lock;           // semáforo que retiene mientras vive (null = ninguno)
+    public long referenceBase;    // referencias de su cadena hechas antes de existir (hijos de fork)
+    public int forkCount;         // hijos que crea con fork (0 = ninguno)
+    public int forkAt;            // ticks de CPU que ejecuta antes del fork
+    public PageReferenceString forkReferences; // cadena de los hijos (null = siguen la del padre)
+    public String sharedLibrary;  // biblioteca compartida en sus primeras páginas (null = ninguna)
+    public int sharedPages;       // páginas de la biblioteca
     
-    public PCB(int priority, int requiredMemory) {
-        this.pid = nextPid++;
+    // El PID lo asigna el ProcessManager de cada simulación
+    public PCB(int pid, int priority, int requiredMemory) {
+        this.pid = pid;
         this.priority = priority;
         this.requiredMemory = requiredMemory;
         this.state = ProcessState.NEW; // Inicializado en NEW, no en READY
@@ -26,7 +41,7 @@ public class PCB {
         this.creationTime = LocalDateTime.now();
         this.ioBursts = new ArrayList<>();
         this.currentIOIndex = 0;
-        this.pageAccesses = new ArrayList<>();
+        this.pageAccesses = new PageAccessTrace();
     }
     
     public void addIOBurst(IOBurst ioBurst) {
@@ -48,8 +63,16 @@ public class PCB {
         return currentIOIndex < ioBursts.size();
     }
     
-    public void recordPageAccess(int pageNumber, boolean isWrite) {
-        pageAccesses.add(new PageAccess(pageNumber, isWrite));
+    /**
+     * Posición en su cadena de referencias de la siguiente referencia a memoria
+     */
+    public long nextReferenceIndex() {
+        return referenceBase + pageAccesses.size();
+    }
+    
+    // 'tick' es el tick simulado del acceso
+    public void recordPageAccess(int pageNumber, boolean isWrite, int tick) {
+        pageAccesses.record(pageNumber, isWrite, tick);
     }
 
     @Override
@@ -95,23 +118,15 @@ public class PCB {
             sb.append(" | IO: ").append(currentIOIndex).append("/").append(ioBursts.size());
         }
         
-        return sb.toString();
-    }
-    
-    public static class PageAccess {
-        private final int pageNumber;
-        private final boolean isWrite;
-        private final LocalDateTime timestamp;
+        if (pageFaults > 0) {
+            sb.append(" | Fallos de página: ").append(pageFaults);
+        }
         
-        public PageAccess(int pageNumber, boolean isWrite) {
-            this.pageNumber = pageNumber;
-            this.isWrite = isWrite;
-            this.timestamp = LocalDateTime.now();
+        if (tlbHits + tlbMisses > 0) {
+            sb.append(String.format(" | TLB: %.1f%%", 100.0 * tlbHits / (tlbHits + tlbMisses)));
         }
         
-        public int getPageNumber() { return pageNumber; }
-        public boolean isWrite() { return isWrite; }
-        public LocalDateTime getTimestamp() { return timestamp; }
+        return sb.toString();
     }
     
     public static class IOBurst {
@@ -120,9 +135,14 @@ public class PCB {
         private int remainingTime;
         
         public IOBurst(String deviceType, int duration) {
+            this(deviceType, duration, duration);
+        }
+        
+        // Ráfaga parcialmente atendida (al restaurar un checkpoint)
+        public IOBurst(String deviceType, int duration, int remainingTime) {
             this.deviceType = deviceType;
             this.duration = duration;
-            this.remainingTime = duration;
+            this.remainingTime = remainingTime;
         }
         
         public String getDeviceType() { return deviceType; }
@@ -135,6 +155,11 @@ public class PCB {
             }
         }
         
+        // Descuenta varios ticks de una vez (modo por eventos)
+        public void decrementTime(int ticks) {
+            remainingTime = Math.max(0, remainingTime - ticks);
+        }
+        
         public boolean isComplete() {
             return remainingTime <= 0;
         }
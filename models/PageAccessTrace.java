@@ -0,0 +1,199 @@
+package models;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Traza de accesos a páginas de un proceso. Cada acceso se empaqueta en un
+ * long (tick simulado en los 32 bits altos, número de página en los 31
+ * siguientes y el bit de escritura al final) y se guarda en bloques de
+ * arreglos primitivos. Al pasar el umbral de derrame la traza se mueve a un
+ * archivo temporal mapeado en memoria, así que puede crecer a miles de
+ * millones de accesos sin ocupar el montículo.
+ *
+ * Recorrerla con forEach() o get() no crea objetos.
+ */
+public class PageAccessTrace {
+    private static final int CHUNK_BITS = 12;             // 4096 accesos por bloque
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int SEGMENT_BITS = 22;           // 32MB por región mapeada
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_BITS;
+
+    // Umbral por defecto: 1M accesos (8MB) en memoria antes de derramar
+    private static volatile long defaultSpillThreshold = 1L << 20;
+
+    private final long spillThreshold;
+    private long size = 0;
+    private long[][] chunks = null;          // null hasta el primer acceso
+    private FileChannel spillFile = null;
+    private LongBuffer[] segments = null;    // no null una vez derramada
+
+    /**
+     * Recibe cada acceso de la traza sin crear objetos
+     */
+    @FunctionalInterface
+    public interface AccessConsumer {
+        void accept(int pageNumber, boolean isWrite, int tick);
+    }
+
+    public PageAccessTrace() {
+        this(defaultSpillThreshold);
+    }
+
+    public PageAccessTrace(long spillThreshold) {
+        if (spillThreshold < 0) {
+            throw new IllegalArgumentException("Umbral de derrame inválido: " + spillThreshold);
+        }
+        this.spillThreshold = spillThreshold;
+    }
+
+    /**
+     * Número de accesos que caben en memoria antes de pasar a un archivo,
+     * para las trazas que se creen desde ahora
+     */
+    public static void setDefaultSpillThreshold(long accesses) {
+        if (accesses < 0) {
+            throw new IllegalArgumentException("Umbral de derrame inválido: " + accesses);
+        }
+        defaultSpillThreshold = accesses;
+    }
+
+    public static long pack(int pageNumber, boolean isWrite, int tick) {
+        if (pageNumber < 0) {
+            throw new IllegalArgumentException("Número de página inválido: " + pageNumber);
+        }
+        return ((long) tick << 32) | ((long) pageNumber << 1) | (isWrite ? 1 : 0);
+    }
+
+    public static int pageOf(long access) {
+        return (int) (access >>> 1) & Integer.MAX_VALUE;
+    }
+
+    public static boolean isWrite(long access) {
+        return (access & 1) != 0;
+    }
+
+    public static int tickOf(long access) {
+        return (int) (access >>> 32);
+    }
+
+    public void record(int pageNumber, boolean isWrite, int tick) {
+        append(pack(pageNumber, isWrite, tick));
+    }
+
+    /**
+     * Agrega un acceso ya empaquetado con pack()
+     */
+    public void append(long access) {
+        if (segments == null && size >= spillThreshold) {
+            spill();
+        }
+        if (segments != null) {
+            segment(size).put((int) (size & (SEGMENT_SIZE - 1)), access);
+        } else {
+            int chunk = (int) (size >>> CHUNK_BITS);
+            if (chunks == null) {
+                chunks = new long[4][];
+            } else if (chunk == chunks.length) {
+                chunks = Arrays.copyOf(chunks, chunks.length * 2);
+            }
+            if (chunks[chunk] == null) {
+                chunks[chunk] = new long[CHUNK_SIZE];
+            }
+            chunks[chunk][(int) (size & (CHUNK_SIZE - 1))] = access;
+        }
+        size++;
+    }
+
+    /**
+     * Acceso empaquetado en la posición indicada (ver pageOf, isWrite, tickOf)
+     */
+    public long get(long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Acceso " + index + " fuera de la traza de " + size);
+        }
+        if (segments != null) {
+            return segments[(int) (index >>> SEGMENT_BITS)].get((int) (index & (SEGMENT_SIZE - 1)));
+        }
+        return chunks[(int) (index >>> CHUNK_BITS)][(int) (index & (CHUNK_SIZE - 1))];
+    }
+
+    public void forEach(AccessConsumer action) {
+        for (long i = 0; i < size; i++) {
+            long access = get(i);
+            action.accept(pageOf(access), isWrite(access), tickOf(access));
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean isSpilled() {
+        return segments != null;
+    }
+
+    /**
+     * Vacía la traza y borra su archivo temporal, si lo tenía
+     */
+    public void clear() {
+        size = 0;
+        chunks = null;
+        segments = null;
+        if (spillFile != null) {
+            try {
+                spillFile.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo cerrar la traza derramada", e);
+            } finally {
+                spillFile = null;
+            }
+        }
+    }
+
+    // Copia los bloques en memoria al archivo mapeado y los libera
+    private void spill() {
+        try {
+            Path file = Files.createTempFile("traza-", ".bin");
+            spillFile = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            // Se borra de inmediato: el archivo sigue accesible mientras el canal
+            // esté abierto y no queda basura si la JVM termina de golpe
+            Files.delete(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo crear el archivo de la traza", e);
+        }
+        segments = new LongBuffer[4];
+        for (long i = 0; i < size; i++) {
+            segment(i).put((int) (i & (SEGMENT_SIZE - 1)),
+                    chunks[(int) (i >>> CHUNK_BITS)][(int) (i & (CHUNK_SIZE - 1))]);
+        }
+        chunks = null;
+    }
+
+    // Región mapeada que contiene la posición; se mapea al llegar a ella
+    private LongBuffer segment(long index) {
+        int segment = (int) (index >>> SEGMENT_BITS);
+        if (segment == segments.length) {
+            segments = Arrays.copyOf(segments, segments.length * 2);
+        }
+        if (segments[segment] == null) {
+            try {
+                segments[segment] = spillFile.map(FileChannel.MapMode.READ_WRITE,
+                        (long) segment * SEGMENT_SIZE * Long.BYTES, (long) SEGMENT_SIZE * Long.BYTES).asLongBuffer();
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo mapear la traza", e);
+            }
+        }
+        return segments[segment];
+    }
+}
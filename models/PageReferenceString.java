@@ -0,0 +1,171 @@
+package models;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Cadena de referencias a páginas que un proceso recorre en ciclo, una
+ * referencia por tick de CPU: la posición i es la referencia número i del
+ * proceso (la que se registra en su PageAccessTrace). Cada referencia se
+ * guarda en un int: número de página en los bits altos y el bit de
+ * escritura al final. Es inmutable, así que varios procesos pueden
+ * compartir la misma cadena.
+ */
+public class PageReferenceString {
+    private final int[] references;
+    private final int maxPage;
+    // Distancia a la siguiente referencia a la misma página; se calcula al pedirla (OPT)
+    private volatile int[] gaps = null;
+
+    public PageReferenceString(int[] references) {
+        if (references.length == 0) {
+            throw new IllegalArgumentException("La cadena de referencias está vacía");
+        }
+        this.references = references.clone();
+        int max = 0;
+        for (int reference : references) {
+            max = Math.max(max, reference >>> 1);
+        }
+        this.maxPage = max;
+    }
+
+    /**
+     * Lee una traza de texto: números de página separados por espacios o
+     * comas, con 'w' al final si el acceso es una escritura ("3 7w 3 12").
+     * '#' inicia un comentario.
+     */
+    public static PageReferenceString load(Path path) throws IOException {
+        List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+        int[] references = new int[16];
+        int count = 0;
+        int lineNumber = 0;
+        for (String raw : lines) {
+            lineNumber++;
+            int comment = raw.indexOf('#');
+            String line = (comment >= 0 ? raw.substring(0, comment) : raw).trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            for (String token : line.split("[\\s,]+")) {
+                boolean write = token.endsWith("w") || token.endsWith("W");
+                String number = write ? token.substring(0, token.length() - 1) : token;
+                int page;
+                try {
+                    page = Integer.parseInt(number);
+                } catch (NumberFormatException e) {
+                    throw new IOException(path + ", línea " + lineNumber + ": referencia inválida '" + token + "'");
+                }
+                if (page < 0) {
+                    throw new IOException(path + ", línea " + lineNumber + ": página negativa " + page);
+                }
+                if (count == references.length) {
+                    references = Arrays.copyOf(references, count * 2);
+                }
+                references[count++] = pack(page, write);
+            }
+        }
+        if (count == 0) {
+            throw new IOException(path + " no tiene referencias");
+        }
+        return new PageReferenceString(Arrays.copyOf(references, count));
+    }
+
+    /**
+     * Cadena sintética con localidad para un proceso de 'pages' páginas: 9 de
+     * cada 10 referencias caen en una ventana de un cuarto de sus páginas (a lo
+     * sumo 16) que se desplaza cada 64 referencias, y una de cada 4 es escritura.
+     * Siempre es la misma para la misma semilla.
+     */
+    public static PageReferenceString synthetic(int pages, int length, long seed) {
+        if (pages <= 0 || length <= 0) {
+            throw new IllegalArgumentException("Se requieren páginas y longitud positivas: " + pages + ", " + length);
+        }
+        long random = (seed + 1) * 0x9E3779B97F4A7C15L;
+        if (random == 0) {
+            random = 1;
+        }
+        int window = Math.max(1, Math.min(16, pages / 4));
+        int base = 0;
+        int[] references = new int[length];
+        for (int i = 0; i < length; i++) {
+            random ^= random << 13;
+            random ^= random >>> 7;
+            random ^= random << 17;
+            long bits = random >>> 1;
+            if (i % 64 == 0) {
+                base = (int) (bits % pages);
+            }
+            int page = bits % 10 != 0
+                    ? (base + (int) ((bits >>> 8) % window)) % pages
+                    : (int) ((bits >>> 8) % pages);
+            references[i] = pack(page, (bits >>> 40) % 4 == 0);
+        }
+        return new PageReferenceString(references);
+    }
+
+    private static int pack(int page, boolean write) {
+        return (page << 1) | (write ? 1 : 0);
+    }
+
+    public int length() {
+        return references.length;
+    }
+
+    /**
+     * Mayor número de página que aparece en la cadena
+     */
+    public int getMaxPage() {
+        return maxPage;
+    }
+
+    public int pageAt(long index) {
+        return references[position(index)] >>> 1;
+    }
+
+    public boolean isWriteAt(long index) {
+        return (references[position(index)] & 1) != 0;
+    }
+
+    /**
+     * Posición (sin ciclar) de la siguiente referencia a la página de la posición 'index'
+     */
+    public long nextUse(long index) {
+        int[] distances = gaps;
+        if (distances == null) {
+            distances = computeGaps();
+            gaps = distances;
+        }
+        return index + distances[position(index)];
+    }
+
+    private int position(long index) {
+        return (int) (index % references.length);
+    }
+
+    // Se recorre la cadena dos veces hacia atrás para cubrir el ciclo
+    private int[] computeGaps() {
+        int length = references.length;
+        int[] distances = new int[length];
+        int[] seen = new int[maxPage + 1];
+        Arrays.fill(seen, -1);
+        for (int i = 2 * length - 1; i >= 0; i--) {
+            int page = references[i % length] >>> 1;
+            if (i < length) {
+                distances[i] = seen[page] - i;
+            }
+            seen[page] = i;
+        }
+        return distances;
+    }
+
+    /**
+     * Referencias empaquetadas (para los checkpoints)
+     */
+    public int[] toArray() {
+        return references.clone();
+    }
+}
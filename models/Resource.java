@@ -4,13 +4,13 @@ package models;
  * Clase que representa un recurso del sistema que puede ser asignado a un proceso
  */
 public class Resource {
-    private static int nextId = 1;
     private final int id;
     private final String name;
     private boolean available;
 
-    public Resource(String name) {
-        this.id = nextId++;
+    // El identificador lo asigna el ResourceManager de cada simulación
+    public Resource(int id, String name) {
+        this.id = id;
         this.name = name;
         this.available = true;
     }
@@ -6,6 +6,13 @@ public class SchedulingData {
     public Integer queueLevel;      // Multilevel Queue
     public Long arrivalTime;        // Para FCFS o SJF
     public Integer quantum;         // RR (si se requiere por proceso)
+    public Integer period;          // EDF/RM: cada cuántos ticks se libera un trabajo (null = no periódico)
+    public Integer relativeDeadline;// EDF/RM: plazo de cada trabajo desde su liberación (null = sin plazo)
+    public Long absoluteDeadline;   // EDF/RM: tick límite del trabajo actual
+    public Integer jobsLeft;        // EDF/RM: trabajos por ejecutar, contando el actual
+    public int jobsDone;            // EDF/RM: trabajos terminados
+    public Integer tickets;         // Lotería/stride: boletos propios
+    public int receivedTickets;     // Lotería/stride: boletos prestados por procesos que esperan un semáforo suyo
 
     public SchedulingData() {}
 
@@ -0,0 +1,236 @@
+package persistence;
+
+import core.ProcessManager;
+import core.ResourceManager;
+import core.SimulationEngine;
+import core.scheduling.Scheduler;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import models.*;
+
+/**
+ * Guarda y restaura el estado completo de una simulación en un archivo binario
+ * versionado: procesos, recursos (memoria, semáforos y dispositivos), reloj,
+ * colas del motor y estado interno de los planificadores.
+ *
+ * Formato: MAGIC, VERSION, número de núcleos, procesos, ResourceManager y SimulationEngine.
+ */
+public class Checkpoint {
+    public static final int MAGIC = 0x534F4350; // "SOCP"
+    public static final int VERSION = 17;
+
+    public static void save(SimulationEngine engine, Path path) throws IOException {
+        if (engine.getProcessManager().getStore() != null) {
+            throw new IOException("Los checkpoints no están disponibles en modo compacto");
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        try (CheckpointOutput out = new CheckpointOutput(channel)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(engine.getCoreCount());
+
+            ProcessManager processManager = engine.getProcessManager();
+            ResourceManager resourceManager = engine.getResourceManager();
+            List<PCB> processes = processManager.getAllProcesses();
+            out.writeInt(processManager.getNextPid());
+            out.writeInt(processes.size());
+            for (PCB process : processes) {
+                writeProcess(out, process, resourceManager);
+            }
+
+            resourceManager.writeState(out);
+            engine.writeState(out);
+        }
+    }
+
+    /**
+     * Restaura una simulación. La fábrica crea el planificador de cada núcleo;
+     * si es de la misma clase que el guardado también se restauran sus colas
+     * internas, y si no, los procesos listos se le entregan en el orden guardado.
+     */
+    public static SimulationEngine restore(Path path, Supplier<Scheduler> schedulerFactory) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try (CheckpointInput in = new CheckpointInput(channel)) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("El archivo no es un checkpoint del simulador: " + path);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Versión de checkpoint no soportada: " + version + " (se esperaba " + VERSION + ")");
+            }
+            int coreCount = in.readInt();
+
+            ProcessManager processManager = new ProcessManager();
+            ResourceManager resourceManager = new ResourceManager();
+
+            int nextPid = in.readInt();
+            int count = in.readInt();
+            List<PCB> processes = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                processes.add(readProcess(in, resourceManager));
+            }
+            processManager.restoreProcesses(processes, nextPid);
+
+            // Índice por PID para resolver las referencias sin recorrer la tabla
+            PCB[] byPid = new PCB[nextPid + 1];
+            for (PCB process : processes) {
+                byPid[process.pid] = process;
+            }
+            IntFunction<PCB> lookup = pid -> byPid[pid];
+
+            resourceManager.readState(in, lookup);
+            SimulationEngine engine = new SimulationEngine(schedulerFactory, coreCount, processManager, resourceManager);
+            engine.readState(in, lookup);
+            return engine;
+        }
+    }
+
+    private static void writeProcess(CheckpointOutput out, PCB p, ResourceManager resourceManager) throws IOException {
+        out.writeInt(p.pid);
+        out.writeByte(p.state.ordinal());
+        out.writeInt(p.priority);
+        out.writeInt(p.requiredMemory);
+        out.writeSchedulingData(p.schedulingData);
+        writeDateTime(out, p.creationTime);
+        writeDateTime(out, p.startTime);
+        out.writeInt(p.arrivalTick);
+        out.writeInt(p.finishTick);
+        out.writeInt(p.coreId);
+        out.writeInt(p.lastCore);
+        out.writeString(p.lock);
+
+        out.writeInt(p.ioBursts.size());
+        for (PCB.IOBurst io : p.ioBursts) {
+            out.writeString(io.getDeviceType());
+            out.writeInt(io.getDuration());
+            out.writeInt(io.getRemainingTime());
+        }
+        out.writeInt(p.currentIOIndex);
+
+        // Los accesos se guardan empaquetados tal como están en la traza
+        out.writeLong(p.pageAccesses.size());
+        for (long i = 0; i < p.pageAccesses.size(); i++) {
+            out.writeLong(p.pageAccesses.get(i));
+        }
+        writeReferences(out, p.pageReferences);
+        out.writeLong(p.referenceBase);
+        out.writeInt(p.pageFaults);
+        out.writeLong(p.tlbHits);
+        out.writeLong(p.tlbMisses);
+
+        out.writeInt(p.forkCount);
+        out.writeInt(p.forkAt);
+        writeReferences(out, p.forkReferences);
+        out.writeString(p.sharedLibrary);
+        out.writeInt(p.sharedPages);
+
+        // Los dispositivos se guardan por nombre para enlazar el mismo objeto al restaurar
+        out.writeInt(p.assignedResources.size());
+        for (Resource resource : p.assignedResources) {
+            String deviceKey = resourceManager.getIODeviceKey(resource);
+            out.writeString(deviceKey);
+            if (deviceKey == null) {
+                out.writeInt(resource.getId());
+                out.writeString(resource.getName());
+            }
+        }
+    }
+
+    private static PCB readProcess(CheckpointInput in, ResourceManager resourceManager) throws IOException {
+        PCB p = new PCB(in.readInt(), 0, 0);
+        p.state = ProcessState.values()[in.readByte()];
+        p.priority = in.readInt();
+        p.requiredMemory = in.readInt();
+        p.schedulingData = in.readSchedulingData();
+        p.creationTime = readDateTime(in);
+        p.startTime = readDateTime(in);
+        p.arrivalTick = in.readInt();
+        p.finishTick = in.readInt();
+        p.coreId = in.readInt();
+        p.lastCore = in.readInt();
+        p.lock = in.readString();
+
+        int ioCount = in.readInt();
+        for (int i = 0; i < ioCount; i++) {
+            String device = in.readString();
+            int duration = in.readInt();
+            p.addIOBurst(new PCB.IOBurst(device, duration, in.readInt()));
+        }
+        p.currentIOIndex = in.readInt();
+
+        long accessCount = in.readLong();
+        for (long i = 0; i < accessCount; i++) {
+            p.pageAccesses.append(in.readLong());
+        }
+        p.pageReferences = readReferences(in);
+        p.referenceBase = in.readLong();
+        p.pageFaults = in.readInt();
+        p.tlbHits = in.readLong();
+        p.tlbMisses = in.readLong();
+
+        p.forkCount = in.readInt();
+        p.forkAt = in.readInt();
+        p.forkReferences = readReferences(in);
+        p.sharedLibrary = in.readString();
+        p.sharedPages = in.readInt();
+
+        int resourceCount = in.readInt();
+        for (int i = 0; i < resourceCount; i++) {
+            String deviceKey = in.readString();
+            if (deviceKey != null) {
+                p.assignedResources.add(resourceManager.getIODevice(deviceKey));
+            } else {
+                int id = in.readInt();
+                p.assignedResources.add(new Resource(id, in.readString()));
+            }
+        }
+        return p;
+    }
+
+    private static void writeReferences(CheckpointOutput out, PageReferenceString trace) throws IOException {
+        out.writeBoolean(trace != null);
+        if (trace != null) {
+            int[] references = trace.toArray();
+            out.writeInt(references.length);
+            for (int reference : references) {
+                out.writeInt(reference);
+            }
+        }
+    }
+
+    private static PageReferenceString readReferences(CheckpointInput in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        int[] references = new int[in.readInt()];
+        for (int i = 0; i < references.length; i++) {
+            references[i] = in.readInt();
+        }
+        return new PageReferenceString(references);
+    }
+
+    private static void writeDateTime(CheckpointOutput out, LocalDateTime value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(value.getNano());
+        }
+    }
+
+    private static LocalDateTime readDateTime(CheckpointInput in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        long seconds = in.readLong();
+        return LocalDateTime.ofEpochSecond(seconds, in.readInt(), ZoneOffset.UTC);
+    }
+}
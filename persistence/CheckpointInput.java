@@ -0,0 +1,115 @@
+package persistence;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import models.SchedulingData;
+
+/**
+ * Lectura binaria con búfer sobre un canal NIO, contraparte de CheckpointOutput
+ */
+public class CheckpointInput implements Closeable {
+    private static final int DEFAULT_BUFFER = 1 << 20; // 1MB
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+
+    public CheckpointInput(ReadableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER);
+    }
+
+    public CheckpointInput(ReadableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(Math.max(64, bufferSize));
+        this.buffer.flip(); // vacío hasta la primera lectura
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        buffer.compact();
+        while (buffer.position() < bytes) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Fin inesperado del checkpoint");
+            }
+        }
+        buffer.flip();
+    }
+
+    public int readByte() throws IOException {
+        ensure(1);
+        return buffer.get();
+    }
+
+    public boolean readBoolean() throws IOException {
+        return readByte() != 0;
+    }
+
+    public int readInt() throws IOException {
+        ensure(4);
+        return buffer.getInt();
+    }
+
+    public long readLong() throws IOException {
+        ensure(8);
+        return buffer.getLong();
+    }
+
+    public byte[] readBytes() throws IOException {
+        int length = readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        int offset = 0;
+        while (offset < length) {
+            ensure(1);
+            int chunk = Math.min(buffer.remaining(), length - offset);
+            buffer.get(bytes, offset, chunk);
+            offset += chunk;
+        }
+        return bytes;
+    }
+
+    public String readString() throws IOException {
+        byte[] bytes = readBytes();
+        return bytes != null ? new String(bytes, StandardCharsets.UTF_8) : null;
+    }
+
+    public Integer readNullableInt() throws IOException {
+        return readBoolean() ? readInt() : null;
+    }
+
+    public Long readNullableLong() throws IOException {
+        return readBoolean() ? readLong() : null;
+    }
+
+    public SchedulingData readSchedulingData() throws IOException {
+        if (!readBoolean()) {
+            return null;
+        }
+        SchedulingData data = new SchedulingData();
+        data.burstTime = readNullableInt();
+        data.remainingTime = readNullableInt();
+        data.queueLevel = readNullableInt();
+        data.arrivalTime = readNullableLong();
+        data.quantum = readNullableInt();
+        data.period = readNullableInt();
+        data.relativeDeadline = readNullableInt();
+        data.absoluteDeadline = readNullableLong();
+        data.jobsLeft = readNullableInt();
+        data.jobsDone = readInt();
+        data.tickets = readNullableInt();
+        data.receivedTickets = readInt();
+        return data;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
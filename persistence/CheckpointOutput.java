@@ -0,0 +1,120 @@
+package persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import models.SchedulingData;
+
+/**
+ * Escritura binaria con búfer sobre un canal NIO. Los valores se escriben en
+ * orden big-endian sin etiquetas; el lector debe leerlos en el mismo orden.
+ */
+public class CheckpointOutput implements Closeable {
+    private static final int DEFAULT_BUFFER = 1 << 20; // 1MB
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+
+    public CheckpointOutput(WritableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER);
+    }
+
+    public CheckpointOutput(WritableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(Math.max(64, bufferSize));
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    public void writeByte(int value) throws IOException {
+        ensure(1);
+        buffer.put((byte) value);
+    }
+
+    public void writeBoolean(boolean value) throws IOException {
+        writeByte(value ? 1 : 0);
+    }
+
+    public void writeInt(int value) throws IOException {
+        ensure(4);
+        buffer.putInt(value);
+    }
+
+    public void writeLong(long value) throws IOException {
+        ensure(8);
+        buffer.putLong(value);
+    }
+
+    public void writeBytes(byte[] bytes) throws IOException {
+        writeInt(bytes.length);
+        int offset = 0;
+        while (offset < bytes.length) {
+            ensure(1);
+            int chunk = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, chunk);
+            offset += chunk;
+        }
+    }
+
+    // Cadena UTF-8 con longitud; null se codifica como longitud -1
+    public void writeString(String value) throws IOException {
+        if (value == null) {
+            writeInt(-1);
+            return;
+        }
+        writeBytes(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public void writeNullableInt(Integer value) throws IOException {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeInt(value);
+        }
+    }
+
+    public void writeNullableLong(Long value) throws IOException {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeLong(value);
+        }
+    }
+
+    public void writeSchedulingData(SchedulingData data) throws IOException {
+        writeBoolean(data != null);
+        if (data == null) {
+            return;
+        }
+        writeNullableInt(data.burstTime);
+        writeNullableInt(data.remainingTime);
+        writeNullableInt(data.queueLevel);
+        writeNullableLong(data.arrivalTime);
+        writeNullableInt(data.quantum);
+        writeNullableInt(data.period);
+        writeNullableInt(data.relativeDeadline);
+        writeNullableLong(data.absoluteDeadline);
+        writeNullableInt(data.jobsLeft);
+        writeInt(data.jobsDone);
+        writeNullableInt(data.tickets);
+        writeInt(data.receivedTickets);
+    }
+
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+}
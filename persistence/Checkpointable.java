@@ -0,0 +1,14 @@
+package persistence;
+
+import java.io.IOException;
+import java.util.function.IntFunction;
+import models.PCB;
+
+/**
+ * Componente que sabe guardar y restaurar su estado interno en un checkpoint.
+ * Los procesos se guardan por PID y se resuelven con 'processes' al restaurar.
+ */
+public interface Checkpointable {
+    void writeState(CheckpointOutput out) throws IOException;
+    void readState(CheckpointInput in, IntFunction<PCB> processes) throws IOException;
+}
@@ -0,0 +1,96 @@
+package persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Bitácora binaria de solo anexado con cada transición de estado de la
+ * simulación. Los registros tienen tamaño fijo y se acumulan en un búfer
+ * directo que se vuelca al archivo por bloques, así que se puede dejar
+ * activa en ejecuciones largas y reconstruir el estado con JournalReplayer.
+ *
+ * Formato: MAGIC, VERSION, número de núcleos y luego registros de
+ * RECORD_SIZE bytes (tick, pid, argumento, tipo).
+ */
+public class EventJournal implements Closeable {
+    public static final int MAGIC = 0x534F4A52; // "SOJR"
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 12;
+    public static final int RECORD_SIZE = 16;
+
+    // Tipos de registro; el argumento depende del tipo
+    public static final int ARRIVE = 0;    // llega a NEW
+    public static final int ADMIT = 1;     // NEW -> READY, arg = núcleo
+    public static final int DISPATCH = 2;  // READY -> RUNNING, arg = núcleo
+    public static final int PREEMPT = 3;   // RUNNING -> READY por quantum, arg = núcleo
+    public static final int BLOCK = 4;     // RUNNING -> BLOCKED por E/S, arg = núcleo (-1: NEW -> BLOCKED por un semáforo)
+    public static final int UNBLOCK = 5;   // BLOCKED -> READY, arg = núcleo
+    public static final int SUSPEND = 6;   // -> SUSPENDED
+    public static final int RESUME = 7;    // SUSPENDED -> READY, arg = núcleo
+    public static final int TERMINATE = 8; // -> TERMINATED, arg = 0 completado, 1 terminado externamente
+    public static final int ALLOCATE = 9;  // memoria asignada, arg = MB
+    public static final int RELEASE = 10;  // memoria liberada, arg = MB
+    public static final int MIGRATE = 11;  // READY de otro núcleo -> READY, arg = núcleo destino
+
+    private static final String[] NAMES = {
+        "ARRIVE", "ADMIT", "DISPATCH", "PREEMPT", "BLOCK", "UNBLOCK",
+        "SUSPEND", "RESUME", "TERMINATE", "ALLOCATE", "RELEASE", "MIGRATE"
+    };
+
+    private final CheckpointOutput out;
+    private long records = 0;
+
+    private EventJournal(CheckpointOutput out) {
+        this.out = out;
+    }
+
+    /**
+     * Crea (o reemplaza) el archivo de bitácora para una máquina de 'coreCount' núcleos
+     */
+    public static EventJournal create(Path path, int coreCount) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        CheckpointOutput out = new CheckpointOutput(channel);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(coreCount);
+        return new EventJournal(out);
+    }
+
+    public static String typeName(int type) {
+        return type >= 0 && type < NAMES.length ? NAMES[type] : "TIPO-" + type;
+    }
+
+    /**
+     * Agrega un registro. Se llama desde el ciclo del motor, así que los
+     * errores de E/S se propagan sin excepción verificada.
+     */
+    public void record(int type, int tick, int pid, int arg) {
+        try {
+            out.writeInt(tick);
+            out.writeInt(pid);
+            out.writeInt(arg);
+            out.writeInt(type);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir la bitácora", e);
+        }
+        records++;
+    }
+
+    public long getRecordCount() {
+        return records;
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,199 @@
+package persistence;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reconstruye a partir de una EventJournal el estado del SimulationEngine al
+ * final de un tick: qué procesos hay en NEW, en la cola de listos de cada
+ * núcleo (en el mismo orden), en ejecución, bloqueados, suspendidos y
+ * terminados, y la memoria asignada a cada uno.
+ */
+public class JournalReplayer {
+
+    public static Snapshot replay(Path path, long tick) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        long size = channel.size();
+        try (CheckpointInput in = new CheckpointInput(channel)) {
+            if (size < EventJournal.HEADER_SIZE || in.readInt() != EventJournal.MAGIC) {
+                throw new IOException("El archivo no es una bitácora del simulador: " + path);
+            }
+            int version = in.readInt();
+            if (version != EventJournal.VERSION) {
+                throw new IOException("Versión de bitácora no soportada: " + version);
+            }
+            Snapshot snapshot = new Snapshot(in.readInt());
+
+            // Un registro incompleto al final (corte abrupto) se ignora
+            long count = (size - EventJournal.HEADER_SIZE) / EventJournal.RECORD_SIZE;
+            for (long i = 0; i < count; i++) {
+                int recordTick = in.readInt();
+                if (recordTick > tick) {
+                    break;
+                }
+                int pid = in.readInt();
+                int arg = in.readInt();
+                snapshot.apply(in.readInt(), recordTick, pid, arg);
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Estado reconstruido. Los conjuntos conservan el orden de inserción, que
+     * es el mismo de las listas del motor.
+     */
+    public static class Snapshot {
+        private final LinkedHashSet<Integer> newProcesses = new LinkedHashSet<>();
+        private final List<LinkedHashSet<Integer>> readyProcesses = new ArrayList<>();
+        private final int[] running;
+        private final LinkedHashSet<Integer> blockedProcesses = new LinkedHashSet<>();
+        private final LinkedHashSet<Integer> suspendedProcesses = new LinkedHashSet<>();
+        private final LinkedHashSet<Integer> terminatedProcesses = new LinkedHashSet<>();
+        private final Map<Integer, Integer> allocatedMemory = new HashMap<>();
+        private int lastTick = 0;
+        private long events = 0;
+
+        Snapshot(int coreCount) {
+            running = new int[coreCount];
+            for (int i = 0; i < coreCount; i++) {
+                running[i] = -1;
+                readyProcesses.add(new LinkedHashSet<>());
+            }
+        }
+
+        void apply(int type, int tick, int pid, int arg) throws IOException {
+            lastTick = tick;
+            events++;
+            switch (type) {
+                case EventJournal.ARRIVE -> newProcesses.add(pid);
+                case EventJournal.ADMIT -> {
+                    newProcesses.remove(pid);
+                    readyProcesses.get(arg).add(pid);
+                }
+                case EventJournal.DISPATCH -> {
+                    readyProcesses.get(arg).remove(pid);
+                    running[arg] = pid;
+                }
+                case EventJournal.PREEMPT -> {
+                    clearRunning(pid);
+                    readyProcesses.get(arg).add(pid);
+                }
+                case EventJournal.BLOCK -> {
+                    // También desde NEW o SUSPENDED cuando el proceso espera un semáforo
+                    newProcesses.remove(pid);
+                    suspendedProcesses.remove(pid);
+                    clearRunning(pid);
+                    blockedProcesses.add(pid);
+                }
+                case EventJournal.UNBLOCK -> {
+                    blockedProcesses.remove(pid);
+                    readyProcesses.get(arg).add(pid);
+                }
+                case EventJournal.MIGRATE -> {
+                    removeReady(pid);
+                    readyProcesses.get(arg).add(pid);
+                }
+                case EventJournal.SUSPEND -> {
+                    detach(pid);
+                    suspendedProcesses.add(pid);
+                }
+                case EventJournal.RESUME -> {
+                    suspendedProcesses.remove(pid);
+                    readyProcesses.get(arg).add(pid);
+                }
+                case EventJournal.TERMINATE -> {
+                    detach(pid);
+                    newProcesses.remove(pid);
+                    suspendedProcesses.remove(pid);
+                    terminatedProcesses.add(pid);
+                }
+                case EventJournal.ALLOCATE -> allocatedMemory.put(pid, arg);
+                case EventJournal.RELEASE -> allocatedMemory.remove(pid);
+                default -> throw new IOException("Registro de tipo desconocido " + type + " en el tick " + tick);
+            }
+        }
+
+        private void clearRunning(int pid) {
+            for (int i = 0; i < running.length; i++) {
+                if (running[i] == pid) {
+                    running[i] = -1;
+                }
+            }
+        }
+
+        private void removeReady(int pid) {
+            for (LinkedHashSet<Integer> ready : readyProcesses) {
+                if (ready.remove(pid)) {
+                    return;
+                }
+            }
+        }
+
+        // Quita el proceso de la CPU, de la cola de listos o de bloqueados
+        private void detach(int pid) {
+            clearRunning(pid);
+            removeReady(pid);
+            blockedProcesses.remove(pid);
+        }
+
+        public int getCoreCount() { return running.length; }
+        public int getLastTick() { return lastTick; }
+        public long getEventCount() { return events; }
+        public List<Integer> getNewProcesses() { return new ArrayList<>(newProcesses); }
+        public List<Integer> getReadyProcesses(int core) { return new ArrayList<>(readyProcesses.get(core)); }
+        public int getRunningProcess(int core) { return running[core]; }
+        public List<Integer> getBlockedProcesses() { return new ArrayList<>(blockedProcesses); }
+        public List<Integer> getSuspendedProcesses() { return new ArrayList<>(suspendedProcesses); }
+        public List<Integer> getTerminatedProcesses() { return new ArrayList<>(terminatedProcesses); }
+        public Map<Integer, Integer> getAllocatedMemory() { return new HashMap<>(allocatedMemory); }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("Eventos aplicados: ").append(events).append(" (último en el tick ").append(lastTick).append(")\n");
+            sb.append("NEW:        ").append(newProcesses).append('\n');
+            for (int i = 0; i < running.length; i++) {
+                sb.append("CPU").append(i).append(":       ")
+                  .append(running[i] >= 0 ? "P" + running[i] : "ociosa")
+                  .append(" | listos=").append(readyProcesses.get(i)).append('\n');
+            }
+            sb.append("BLOCKED:    ").append(blockedProcesses).append('\n');
+            sb.append("SUSPENDED:  ").append(suspendedProcesses).append('\n');
+            sb.append("TERMINATED: ").append(terminatedProcesses.size()).append(" procesos\n");
+            int memory = 0;
+            for (int mb : allocatedMemory.values()) {
+                memory += mb;
+            }
+            sb.append("Memoria asignada: ").append(memory).append("MB en ").append(allocatedMemory.size()).append(" procesos");
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Punto de entrada:
+     * <pre>
+     * java Main --replay &lt;bitácora&gt; &lt;tick&gt;
+     * </pre>
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Uso: --replay <bitácora> <tick>");
+            System.exit(2);
+        }
+        try {
+            System.out.println("=== ESTADO AL FINAL DEL TICK " + args[1] + " ===");
+            System.out.println(replay(Path.of(args[0]), Long.parseLong(args[1])));
+        } catch (IOException e) {
+            System.err.println("No se pudo leer la bitácora: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
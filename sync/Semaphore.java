@@ -10,6 +10,8 @@ public class Semaphore {
     private final String name;
     private int value;
     private final List<PCB> waitingProcesses;
+    // Procesos que pasaron wait() y todavía no liberan con release()
+    private final List<PCB> holders = new ArrayList<>();
 
     public Semaphore(String name, int initialValue) {
         this.name = name;
@@ -23,9 +25,34 @@ public class Semaphore {
         if (this.value < 0) {
             // Bloquear proceso
             waitingProcesses.add(process);
-            Logger.log("Proceso " + process.pid + " bloqueado en semáforo '" + name + "'");
+            Logger.log(Logger.Level.INFO, () -> "Proceso " + process.pid + " bloqueado en semáforo '" + name + "'");
             return false;
         }
+        holders.add(process);
+        return true;
+    }
+
+    /**
+     * Como signal(), pero indicando qué proceso libera: el proceso
+     * desbloqueado (si hay) pasa a retener el semáforo
+     */
+    public synchronized PCB release(PCB holder) {
+        holders.remove(holder);
+        PCB released = signal();
+        if (released != null) {
+            holders.add(released);
+        }
+        return released;
+    }
+
+    /**
+     * Saca de la cola a un proceso que ya no va a esperar (por ejemplo, porque lo terminaron)
+     */
+    public synchronized boolean cancelWait(PCB process) {
+        if (!waitingProcesses.remove(process)) {
+            return false;
+        }
+        this.value++;
         return true;
     }
 
@@ -33,12 +60,27 @@ public class Semaphore {
         this.value++;
         if (!waitingProcesses.isEmpty() && this.value <= 0) {
             PCB process = waitingProcesses.remove(0);
-            Logger.log("Proceso " + process.pid + " desbloqueado de semáforo '" + name + "'");
+            Logger.log(Logger.Level.INFO, () -> "Proceso " + process.pid + " desbloqueado de semáforo '" + name + "'");
             return process;
         }
         return null;
     }
 
+    /**
+     * Restaura valor y cola de espera (al cargar un checkpoint)
+     */
+    public synchronized void restoreState(int value, List<PCB> waiting) {
+        restoreState(value, waiting, new ArrayList<>());
+    }
+
+    public synchronized void restoreState(int value, List<PCB> waiting, List<PCB> holding) {
+        this.value = value;
+        this.waitingProcesses.clear();
+        this.waitingProcesses.addAll(waiting);
+        this.holders.clear();
+        this.holders.addAll(holding);
+    }
+
     public String getName() {
         return name;
     }
@@ -50,6 +92,10 @@ public class Semaphore {
     public List<PCB> getWaitingProcesses() {
         return new ArrayList<>(waitingProcesses);
     }
+
+    public List<PCB> getHolders() {
+        return new ArrayList<>(holders);
+    }
     
     @Override
     public String toString() {
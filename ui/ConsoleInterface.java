@@ -21,6 +21,9 @@ public class ConsoleInterface {
 
     public void start() {
         while (true) {
+            // Mostrar los mensajes pendientes de la bitácora antes del menú
+            Logger.flush();
+            
             // Verificar si hay procesos activos
             List<PCB> procesosActivos = pm.getActiveProcesses();
             boolean hayProcesos = !procesosActivos.isEmpty();
@@ -194,14 +197,8 @@ public class ConsoleInterface {
     private void terminarProceso(int pid) {
         PCB process = pm.getProcess(pid);
         if (process != null) {
-            // Primero quitamos del scheduler
-            scheduler.removeProcess(process);
-            
-            // Luego liberamos recursos
-            rm.releaseResources(process);
-            
-            // Finalmente lo marcamos como terminado
-            pm.terminateProcess(pid, "Usuario");
+            // El motor lo quita de su cola o CPU, libera recursos y lo marca como terminado
+            simulationEngine.terminateProcess(process, "Usuario");
             
             System.out.println("Proceso " + pid + " terminado y recursos liberados.");
             System.out.println("Memoria liberada: " + process.requiredMemory + " MB");
@@ -243,8 +240,8 @@ public class ConsoleInterface {
         int burstTime = scanner.nextInt();
         scanner.nextLine(); // Limpiar buffer
         
-        // Solo pedimos prioridad si usamos Cola Multinivel
-        if (scheduler instanceof MultilevelQueueScheduler) {
+        // Solo pedimos prioridad si la política la usa (Cola Multinivel, CFS y reparto por boletos)
+        if (scheduler.usesPriority()) {
             System.out.println("Prioridad: 0=Baja, 1=Media, 2=Alta");
             System.out.print("Ingrese nivel de prioridad (0-2): ");
             pri = scanner.nextInt();
@@ -270,27 +267,8 @@ public class ConsoleInterface {
         p.schedulingData.burstTime = burstTime;
         p.schedulingData.remainingTime = burstTime;
 
-        // Configuración específica para Round Robin
-        if (scheduler instanceof RoundRobinScheduler) {
-            // Obtener el quantum del scheduler
-            RoundRobinScheduler rrScheduler = (RoundRobinScheduler) scheduler;
-            p.schedulingData.quantum = rrScheduler.getQuantum();
-        }
-        
-        // Configuración para Cola Multinivel
-        if (scheduler instanceof MultilevelQueueScheduler) {
-            // Asignar nivel de cola basado en prioridad
-            if (pri >= 7) { // Prioridad alta (9)
-                p.schedulingData.queueLevel = 2; // Alta prioridad
-                p.schedulingData.quantum = 2;    // Alta prioridad tiene quantum pequeño
-            } else if (pri >= 4) { // Prioridad media (5)
-                p.schedulingData.queueLevel = 1; // Media prioridad
-                p.schedulingData.quantum = 4;    // Prioridad media tiene quantum medio
-            } else { // Prioridad baja (1)
-                p.schedulingData.queueLevel = 0; // Baja prioridad
-                p.schedulingData.quantum = 6;    // Baja prioridad tiene quantum grande
-            }
-        }
+        // Datos propios de la política: quantum en RR, nivel y quantum en MLQ/MLFQ
+        scheduler.configure(p.schedulingData, pri);
 
         // Preguntar si quiere añadir ráfagas de E/S
         System.out.print("¿Desea añadir ráfagas de E/S al proceso? (s/n): ");